@@ -4,6 +4,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -118,8 +119,7 @@ public class Helper {
 		try {
 			broker = new DatacenterBroker("Broker");
 		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new IllegalStateException(e);
 		}
 		return broker;
 	}
@@ -175,8 +175,7 @@ public class Helper {
 					new LinkedList<Storage>(),
 					Constants.SCHEDULING_INTERVAL);
 		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new IllegalStateException(e);
 		}
 
 		return datacenter;
@@ -625,8 +624,7 @@ public class Helper {
 		try {
 			file.createNewFile();
 		} catch (IOException e1) {
-			e1.printStackTrace();
-			System.exit(0);
+			throw new UncheckedIOException(e1);
 		}
 		try {
 			BufferedWriter writer = new BufferedWriter(new FileWriter(file));
@@ -635,8 +633,7 @@ public class Helper {
 			}
 			writer.close();
 		} catch (IOException e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new UncheckedIOException(e);
 		}
 	}
 
@@ -651,16 +648,14 @@ public class Helper {
 		try {
 			file.createNewFile();
 		} catch (IOException e1) {
-			e1.printStackTrace();
-			System.exit(0);
+			throw new UncheckedIOException(e1);
 		}
 		try {
 			BufferedWriter writer = new BufferedWriter(new FileWriter(file));
 			writer.write(data);
 			writer.close();
 		} catch (IOException e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new UncheckedIOException(e);
 		}
 	}
 
@@ -686,8 +681,7 @@ public class Helper {
 			try {
 				file.createNewFile();
 			} catch (IOException e1) {
-				e1.printStackTrace();
-				System.exit(0);
+				throw new UncheckedIOException(e1);
 			}
 			try {
 				BufferedWriter writer = new BufferedWriter(new FileWriter(file));
@@ -704,8 +698,7 @@ public class Helper {
 				}
 				writer.close();
 			} catch (IOException e) {
-				e.printStackTrace();
-				System.exit(0);
+				throw new UncheckedIOException(e);
 			}
 		}
 	}
@@ -29,19 +29,19 @@ import org.cloudbus.cloudsim.selectionPolicies.*;
 public abstract class RunnerAbstract {
 
 	/** The enable output. */
-	private static boolean enableOutput;
+	private boolean enableOutput;
 
 	/** The broker. */
-	protected static DatacenterBroker broker;
+	protected DatacenterBroker broker;
 
 	/** The cloudlet list. */
-	protected static List<Cloudlet> cloudletList;
+	protected List<Cloudlet> cloudletList;
 
 	/** The vm list. */
-	protected static List<Vm> vmList;
+	protected List<Vm> vmList;
 
 	/** The host list. */
-	protected static List<PowerHost> hostList;
+	protected List<PowerHost> hostList;
 
 	/**
 	 * Run.
@@ -74,8 +74,7 @@ public abstract class RunnerAbstract {
 					vmSelectionPolicy,
 					parameter);
 		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new IllegalStateException(e);
 		}
 
 		init(inputFolder + "/" + workload);
@@ -172,9 +171,8 @@ public abstract class RunnerAbstract {
 					outputFolder);
 
 		} catch (Exception e) {
-			e.printStackTrace();
 			Log.println("The simulation has been terminated due to an unexpected error");
-			System.exit(0);
+			throw new IllegalStateException("The simulation has been terminated due to an unexpected error", e);
 		}
 
 		Log.println("Finished " + experimentName);
@@ -282,8 +280,7 @@ public abstract class RunnerAbstract {
 				vmAllocationPolicy = new VmAllocationPolicySimpler(hostList);
 				break;
 			default:
-				System.out.println("Unknown VM allocation policy: " + vmAllocationPolicyName);
-				System.exit(0);
+				throw new IllegalArgumentException("Unknown VM allocation policy: " + vmAllocationPolicyName);
 		}
 		return vmAllocationPolicy;
 	}
@@ -311,8 +308,7 @@ public abstract class RunnerAbstract {
 				vmSelectionPolicy = new SelectionPolicyRandomSelection<>();
 				break;
 			default:
-				System.out.println("Unknown VM selection policy: " + vmSelectionPolicyName);
-				System.exit(0);
+				throw new IllegalArgumentException("Unknown VM selection policy: " + vmSelectionPolicyName);
 		}
 		return vmSelectionPolicy;
 	}
@@ -323,7 +319,7 @@ public abstract class RunnerAbstract {
 	 * @param enableOutput the new enable output
 	 */
 	public void setEnableOutput(boolean enableOutput) {
-		RunnerAbstract.enableOutput = enableOutput;
+		this.enableOutput = enableOutput;
 	}
 
 	/**
@@ -59,8 +59,7 @@ public class PlanetLabHelper {
 								files[i].getAbsolutePath(),
 								Constants.SCHEDULING_INTERVAL), utilizationModelNull, utilizationModelNull);
 			} catch (Exception e) {
-				e.printStackTrace();
-				System.exit(0);
+				throw new IllegalStateException(e);
 			}
 			cloudlet.setUserId(brokerId);
 			cloudlet.setGuestId(i);
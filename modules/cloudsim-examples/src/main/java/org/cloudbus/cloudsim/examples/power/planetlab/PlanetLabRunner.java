@@ -72,9 +72,8 @@ public class PlanetLabRunner extends RunnerAbstract {
 			vmList = Helper.createVmList(brokerId, cloudletList.size());
 			hostList = Helper.createHostList(PlanetLabConstants.NUMBER_OF_HOSTS);
 		} catch (Exception e) {
-			e.printStackTrace();
 			Log.println("The simulation has been terminated due to an unexpected error");
-			System.exit(0);
+			throw new IllegalStateException("The simulation has been terminated due to an unexpected error", e);
 		}
 	}
 
@@ -84,9 +84,8 @@ public class NonPowerAware {
 					outputFolder);
 
 		} catch (Exception e) {
-			e.printStackTrace();
 			Log.println("The simulation has been terminated due to an unexpected error");
-			System.exit(0);
+			throw new IllegalStateException("The simulation has been terminated due to an unexpected error", e);
 		}
 
 		Log.println("Finished " + experimentName);
@@ -0,0 +1,80 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.examples.network.datacenter.BagOfTaskAppExample;
+import org.cloudbus.cloudsim.examples.network.datacenter.TandemAppExample1;
+import org.cloudbus.cloudsim.examples.network.datacenter.TandemAppExample3;
+import org.cloudbus.cloudsim.examples.network.datacenter.WorkflowAppExample;
+import org.cloudbus.cloudsim.network.datacenter.NetworkDatacenter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testsuite that runs the network datacenter examples on the flow-level network model,
+ * checking that all the cloudlets complete at about the same times as in the packet-level model.
+ * The examples keep state in static fields, so they cannot run twice in the same JVM: the expected
+ * finish times are the ones of the packet-level model, sorted.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class FlowNetworkExampleTest {
+    private static final String[] empty = new String[0];
+
+    /** The largest relative difference allowed between the finish times of the two models. */
+    private static final double TOLERANCE = 0.01;
+
+    /**
+     * Runs an example on the flow-level network model and reads the finish times of the
+     * successful cloudlets from its output table.
+     */
+    private static List<Double> getFinishTimes(Consumer<String[]> example) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new SimulationContext().call(() -> {
+            SimulationContext.current().setLogOutput(output);
+            NetworkDatacenter.setFlowLevelNetworkByDefault(true);
+            example.accept(empty);
+            return null;
+        });
+
+        return output.toString().lines()
+                .map(line -> line.trim().split("\\s+"))
+                .filter(columns -> columns.length == 7 && columns[1].equals("SUCCESS"))
+                .map(columns -> Double.parseDouble(columns[6]))
+                .sorted()
+                .toList();
+    }
+
+    private static void assertFinishTimes(Consumer<String[]> example, double... packetLevel) throws Exception {
+        List<Double> flowLevel = getFinishTimes(example);
+        assertEquals(packetLevel.length, flowLevel.size());
+        for (int i = 0; i < packetLevel.length; i++) {
+            assertEquals(packetLevel[i], flowLevel.get(i), packetLevel[i] * TOLERANCE);
+        }
+    }
+
+    @Test
+    public void runTandemAppExample1() throws Exception {
+        assertFinishTimes(TandemAppExample1::main, 1000.01, 2008.01);
+    }
+
+    @Test
+    public void runTandemAppExample3() throws Exception {
+        assertFinishTimes(TandemAppExample3::main, 1000.01, 2008.01);
+    }
+
+    @Test
+    public void runWorkflowAppExample() throws Exception {
+        assertFinishTimes(WorkflowAppExample::main, 800.01, 800.01, 1608.01);
+    }
+
+    @Test
+    public void runBagOfTaskAppExample() throws Exception {
+        assertFinishTimes(BagOfTaskAppExample::main, 1.01, 1.01, 1.01, 1.03);
+    }
+}
@@ -0,0 +1,79 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.examples.power.planetlab.Dvfs;
+import org.cloudbus.cloudsim.examples.power.random.ThrMu;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testsuite that runs power examples concurrently, each in its own simulation context,
+ * checking that they produce the same output as when they are run one after the other.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class PowerExamplesConcurrencyTest {
+    private static final String[] empty = new String[0];
+
+    private static String run(Consumer<String[]> example, CyclicBarrier start) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new SimulationContext().call(() -> {
+            SimulationContext.current().setLogOutput(output);
+            if (start != null) {
+                start.await();
+            }
+            example.accept(empty);
+            return null;
+        });
+
+        // the measured execution times differ from run to run
+        return output.toString().lines()
+                .filter(line -> !line.startsWith("Execution time"))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static void runMain(ThrowingMain main, String[] args) {
+        try {
+            main.run(args);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface ThrowingMain {
+        void run(String[] args) throws Exception;
+    }
+
+    @Test
+    public void runPowerExamplesConcurrently() throws Exception {
+        Consumer<String[]> thrMu = args -> runMain(ThrMu::main, args);
+        Consumer<String[]> dvfs = args -> runMain(Dvfs::main, args);
+
+        String expectedThrMu = run(thrMu, null);
+        String expectedDvfs = run(dvfs, null);
+        assertTrue(expectedThrMu.contains("Experiment name: random_thr_mu_0.8"));
+        assertTrue(expectedDvfs.contains("Experiment name: 20110303_dvfs"));
+
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> concurrentThrMu = pool.submit(() -> run(thrMu, start));
+            Future<String> concurrentDvfs = pool.submit(() -> run(dvfs, start));
+
+            assertEquals(expectedThrMu, concurrentThrMu.get());
+            assertEquals(expectedDvfs, concurrentDvfs.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -487,6 +487,19 @@ public class Cloudlet {
         return true;
     }
 
+    /**
+     * Checks whether the cloudlet is blocked, waiting for an event external to its scheduler
+     * (e.g., the receipt of a network packet). The scheduler moves a waiting cloudlet to its blocked
+     * list, where it gets no MIPS and is not updated: the entity that delivers the awaited event
+     * has to wake up the cloudlet and trigger the update of its scheduler.
+     *
+     * @return true if the cloudlet is waiting, false otherwise
+     * @see CloudletScheduler#cloudletWakeUp(int)
+     */
+    public boolean isWaiting() {
+        return false;
+    }
+
     /**
      * Finalizes all relevant information before <tt>exiting</tt> the CloudResource entity. This
      * method sets the final data of:
@@ -9,11 +9,12 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.IndexedCloudletList;
 
 /**
  * CloudletScheduler is an abstract class that represents the policy of scheduling performed by a
@@ -35,7 +36,7 @@ public abstract class CloudletScheduler {
 	/** The list of current mips share available for the VM using the scheduler.
 	 * It is provided by {@link CloudletScheduler#updateCloudletsProcessing(double, List)} method.
 	 * at every simulation step. */
-	private List<Double> currentMipsShare;
+	private MipsShare currentMipsShare;
 
 
 	private double currentCapacity;
@@ -49,6 +50,14 @@ public abstract class CloudletScheduler {
 	/** The list of paused cloudlets. */
 	protected List<? extends Cloudlet> cloudletPausedList;
 
+	/** The list of cloudlets blocked, waiting for an event external to the scheduler.
+	 * @see Cloudlet#isWaiting()
+	 */
+	protected List<? extends Cloudlet> cloudletBlockedList;
+
+	/** Buffer list of the blocked cloudlets woken up since the last update. */
+	protected List<Cloudlet> cloudletWokenList;
+
 	/** The list of finished cloudlets. */
 	protected List<? extends Cloudlet> cloudletFinishedList;
 
@@ -68,11 +77,13 @@ public abstract class CloudletScheduler {
 	public CloudletScheduler() {
 		setPreviousTime(0.0);
 
-		cloudletWaitingList = new LinkedList<>();
-		cloudletExecList = new LinkedList<>();
-		cloudletPausedList = new LinkedList<>();
-		cloudletFinishedList = new LinkedList<>();
-		cloudletFailedList = new LinkedList<>();
+		cloudletWaitingList = new IndexedCloudletList<>();
+		cloudletExecList = new IndexedCloudletList<>();
+		cloudletPausedList = new IndexedCloudletList<>();
+		cloudletBlockedList = new IndexedCloudletList<>();
+		cloudletWokenList = new ArrayList<>();
+		cloudletFinishedList = new IndexedCloudletList<>();
+		cloudletFailedList = new IndexedCloudletList<>();
 		cloudletJustFinishedList = new ArrayList<>();
 	}
 
@@ -93,10 +104,13 @@ public abstract class CloudletScheduler {
 
 		// Update cloudlets in exec list
 		for (Cloudlet cl : getCloudletExecList()) {
-			cl.updateCloudletFinishedSoFar((long) (timeSpan *
-					getTotalCurrentAllocatedMipsForCloudlet(cl, currentTime) * Consts.MILLION));
+			if (!cl.isWaiting()) { // a cloudlet submitted while waiting is blocked below, without MIPS
+				cl.updateCloudletFinishedSoFar((long) (timeSpan *
+						getTotalCurrentAllocatedMipsForCloudlet(cl, currentTime) * Consts.MILLION));
+			}
 			cl.updateCloudlet(null);
 		}
+		resumeWokenCloudlets();
 
 		// Remove finished cloudlets
 		for (Cloudlet cl : getCloudletExecList()) {
@@ -106,6 +120,7 @@ public abstract class CloudletScheduler {
 			}
 		}
 		getCloudletExecList().removeAll(cloudletJustFinishedList);
+		blockWaitingCloudlets();
 
 
 		if (getCloudletExecList().isEmpty() && getCloudletWaitingList().isEmpty()) {
@@ -134,6 +149,61 @@ public abstract class CloudletScheduler {
 		return nextEvent;
 	}
 
+	/**
+	 * Moves the cloudlets waiting for an external event from the exec list to the blocked list,
+	 * so that the updates neither credit them any MIPS nor iterate over them until they are woken up.
+	 * The capacity of the other cloudlets is updated accordingly.
+	 *
+	 * @see #cloudletWakeUp(int)
+	 */
+	protected void blockWaitingCloudlets() {
+		boolean blocked = false;
+		for (Iterator<? extends Cloudlet> it = getCloudletExecList().iterator(); it.hasNext();) {
+			Cloudlet cl = it.next();
+			if (cl.isWaiting()) {
+				it.remove();
+				getCloudletBlockedList().add(cl);
+				blocked = true;
+			}
+		}
+		if (blocked) {
+			updateCurrentCapacity();
+		}
+	}
+
+	/**
+	 * Moves the cloudlets woken up since the last update back to the exec list. It is called once
+	 * the other cloudlets have been credited the MIPS since the last update, so that the woken up
+	 * cloudlets execute from the current time only.
+	 */
+	protected void resumeWokenCloudlets() {
+		if (cloudletWokenList.isEmpty()) {
+			return;
+		}
+		for (Cloudlet cl : cloudletWokenList) {
+			cl.updateCloudlet(null);
+			getCloudletExecList().add(cl);
+		}
+		cloudletWokenList.clear();
+		updateCurrentCapacity();
+	}
+
+	/**
+	 * Wakes up a blocked cloudlet, after the external event it was waiting for.
+	 * The cloudlet resumes its execution at the next update of the scheduler.
+	 *
+	 * @param cloudletId ID of the cloudlet being woken up
+	 * @return $true if the cloudlet was blocked, $false otherwise
+	 */
+	public boolean cloudletWakeUp(int cloudletId) {
+		Cloudlet cl = CloudletList.removeById(getCloudletBlockedList(), cloudletId);
+		if (cl == null) {
+			return false;
+		}
+		cloudletWokenList.add(cl);
+		return true;
+	}
+
 	@Deprecated
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
 		return updateCloudletsProcessing(currentTime, mipsShare);
@@ -179,15 +249,14 @@ public abstract class CloudletScheduler {
 	 */
 	public Cloudlet cloudletCancel(final int cloudletId) {
 		// First, looks in the finished queue
-		int position = CloudletList.getPositionById(getCloudletFinishedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletFinishedList().remove(position);
+		Cloudlet cl = CloudletList.removeById(getCloudletFinishedList(), cloudletId);
+		if (cl != null) {
+			return cl;
 		}
 
 		// Then searches in the exec list
-		position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			Cloudlet cl = getCloudletExecList().remove(position);
+		cl = CloudletList.removeById(getCloudletExecList(), cloudletId);
+		if (cl != null) {
 			if (cl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(cl);
 			} else {
@@ -197,17 +266,23 @@ public abstract class CloudletScheduler {
 		}
 
 		// Now, looks in the paused queue
-		position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletPausedList().remove(position);
+		cl = CloudletList.removeById(getCloudletPausedList(), cloudletId);
+		if (cl != null) {
+			return cl;
 		}
 
-		// Finally, looks in the waiting list
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletWaitingList().remove(position);
+		// Then looks for a blocked cloudlet
+		cl = CloudletList.removeById(getCloudletBlockedList(), cloudletId);
+		if (cl == null) {
+			cl = CloudletList.removeById(cloudletWokenList, cloudletId);
 		}
-		return null;
+		if (cl != null) {
+			cl.updateStatus(Cloudlet.CloudletStatus.CANCELED);
+			return cl;
+		}
+
+		// Finally, looks in the waiting list
+		return CloudletList.removeById(getCloudletWaitingList(), cloudletId);
 	}
 
 	/**
@@ -220,33 +295,23 @@ public abstract class CloudletScheduler {
 	 */
 	public boolean cloudletPause(int cloudletId) {
 		// first, looks for the cloudlet in the exec list
-		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			// moves to the paused list
-			Cloudlet cl = getCloudletExecList().remove(position);
-			if (cl.getRemainingCloudletLength() == 0) {
-				cloudletFinish(cl);
-			} else {
-				cl.updateStatus(Cloudlet.CloudletStatus.PAUSED);
-				getCloudletPausedList().add(cl);
-			}
-			return true;
+		Cloudlet cl = CloudletList.removeById(getCloudletExecList(), cloudletId);
+		if (cl == null) {
+			// now, look for the cloudlet in the waiting list
+			cl = CloudletList.removeById(getCloudletWaitingList(), cloudletId);
+		}
+		if (cl == null) {
+			return false;
 		}
 
-		// now, look for the cloudlet in the waiting list
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
-			// moves to the paused list
-			Cloudlet cl = getCloudletWaitingList().remove(position);
-			if (cl.getRemainingCloudletLength() == 0) {
-				cloudletFinish(cl);
-			} else {
-				cl.updateStatus(Cloudlet.CloudletStatus.PAUSED);
-				getCloudletPausedList().add(cl);
-			}
-			return true;
+		// moves to the paused list
+		if (cl.getRemainingCloudletLength() == 0) {
+			cloudletFinish(cl);
+		} else {
+			cl.updateStatus(Cloudlet.CloudletStatus.PAUSED);
+			getCloudletPausedList().add(cl);
 		}
-		return false;
+		return true;
 	}
 
 	/**
@@ -282,19 +347,21 @@ public abstract class CloudletScheduler {
 	 *
 	 */
 	public Cloudlet.CloudletStatus getCloudletStatus(final int cloudletId) {
-		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletExecList().get(position).getStatus();
+		Cloudlet cl = CloudletList.getById(getCloudletExecList(), cloudletId);
+		if (cl == null) {
+			cl = CloudletList.getById(getCloudletPausedList(), cloudletId);
 		}
-
-		position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletPausedList().get(position).getStatus();
+		if (cl == null) {
+			cl = CloudletList.getById(getCloudletWaitingList(), cloudletId);
 		}
-
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletWaitingList().get(position).getStatus();
+		if (cl == null) {
+			cl = CloudletList.getById(getCloudletBlockedList(), cloudletId);
+		}
+		if (cl == null) {
+			cl = CloudletList.getById(cloudletWokenList, cloudletId);
+		}
+		if (cl != null) {
+			return cl.getStatus();
 		}
 
 		throw new RuntimeException("cloudlet doesn't not exist");
@@ -378,16 +445,13 @@ public abstract class CloudletScheduler {
 	}
 
 	/**
-	 * Gets the current requested mips.
+	 * Gets the current requested mips. The list is the mips share of the scheduler itself, not a copy:
+	 * callers that need to modify it have to copy it first.
 	 * 
-	 * @return the current mips
+	 * @return the current mips, as an unmodifiable list
 	 */
 	public List<Double> getCurrentRequestedMips() {
-		List<Double> mipsShare = new ArrayList<>();
-		if (getCurrentMipsShare() != null) {
-			mipsShare.addAll(getCurrentMipsShare());
-		}
-		return mipsShare;
+		return currentMipsShare == null ? MipsShare.EMPTY : currentMipsShare;
 	}
 
 	/**
@@ -396,11 +460,7 @@ public abstract class CloudletScheduler {
 	 * @return the current mips
 	 */
 	public double getCurrentRequestedTotalMips() {
-		double mips = 0.0;
-		if (currentMipsShare != null)
-			for (double v : currentMipsShare)
-				mips += v;
-		return mips;
+		return currentMipsShare == null ? 0.0 : currentMipsShare.getTotal();
 	}
 
 	/**
@@ -487,8 +547,8 @@ public abstract class CloudletScheduler {
 	 * @param currentMipsShare the new current mips share
 	 */
 	protected void setCurrentMipsShare(List<Double> currentMipsShare) {
-        currentMipsShare.removeIf(mips -> mips <= 0);
-		this.currentMipsShare = currentMipsShare;
+		// the PEs without MIPS are ignored
+		this.currentMipsShare = MipsShare.of(currentMipsShare).positive();
 
 		updateCurrentCapacity();
 	}
@@ -513,27 +573,30 @@ public abstract class CloudletScheduler {
 	 * @return capacity
 	 */
 	public double updateCurrentCapacity() {
-		currentMipsShare.removeIf(mips -> mips <= 0);
+		double capacity = currentMipsShare.getTotal();
 
-		double capacity = 0;
-		for (Double mips : currentMipsShare) {
-			capacity += mips;
-		}
+		int cpus = currentMipsShare.size();
+		capacity /= Math.max(getPesInUse(), cpus);
 
+
+		currentCapacity = capacity;
+
+		return capacity;
+	}
+
+	/**
+	 * Gets the number of PEs requested by the cloudlets in execution that are not finished yet.
+	 *
+	 * @return the number of PEs in use
+	 */
+	protected int getPesInUse() {
 		int pesInUse = 0;
 		for (Cloudlet cl : getCloudletExecList()) {
 			if (cl.getRemainingCloudletLength() > 0) {
 				pesInUse += cl.getNumberOfPes();
 			}
 		}
-
-		int cpus = currentMipsShare.size();
-		capacity /= Math.max(pesInUse, cpus);
-
-
-		currentCapacity = capacity;
-
-		return capacity;
+		return pesInUse;
 	}
 
 	@Deprecated
@@ -604,6 +667,27 @@ public abstract class CloudletScheduler {
 		this.cloudletPausedList = cloudletPausedList;
 	}
 
+	/**
+	 * Gets the list of cloudlets blocked, waiting for an event external to the scheduler.
+	 * 
+	 * @param <T> the generic type
+	 * @return the cloudlet blocked list
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Cloudlet> List<T> getCloudletBlockedList() {
+		return (List<T>) cloudletBlockedList;
+	}
+
+	/**
+	 * Sets the cloudlet blocked list.
+	 * 
+	 * @param <T> the generic type
+	 * @param cloudletBlockedList the new cloudlet blocked list
+	 */
+	protected <T extends Cloudlet> void setCloudletBlockedList(List<T> cloudletBlockedList) {
+		this.cloudletBlockedList = cloudletBlockedList;
+	}
+
 	/**
 	 * Gets the cloudlet finished list.
 	 * 
@@ -48,13 +48,17 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	/** The under allocated MIPS. */
 	private Map<String, Double> underAllocatedMips;
 
-	/** The cache of the previous time when the {@link #getCurrentRequestedMips()} was called. */
-	private double cachePreviousTime;
+	/** The cache of the last current requested MIPS, with the previous time when
+	 * the {@link #getCurrentRequestedMips()} was called. Both are replaced at once, since the hosts
+	 * may be scored in parallel while the VM allocation is optimized.
+	 */
+	private volatile RequestedMipsCache requestedMipsCache = new RequestedMipsCache(-1, null);
 
-	/** The cache of the last current requested MIPS. 
-         * @see  #getCurrentRequestedMips() 
-         */
-	private List<Double> cacheCurrentRequestedMips;
+	/**
+	 * The current requested MIPS computed at a previous time.
+	 */
+	private record RequestedMipsCache(double previousTime, List<Double> mips) {
+	}
 
 	/**
 	 * Instantiates a new VM scheduler
@@ -74,7 +78,6 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
                 and it have to compute there the total, instead of storing into an attribute.*/
 		setTotalMips(getNumberOfPes() * getMips());
 		setUnderAllocatedMips(new HashMap<>());
-		setCachePreviousTime(-1);
 	}
 
 	@Override
@@ -86,10 +89,16 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 		List<Cloudlet> cloudletsToFinish = new ArrayList<>();
 
 		for (Cloudlet cl : getCloudletExecList()) {
-			cl.updateCloudletFinishedSoFar((long) (timeSpan *
-					getTotalCurrentAllocatedMipsForCloudlet(cl, getPreviousTime()) * Consts.MILLION));
+			if (!cl.isWaiting()) { // a cloudlet submitted while waiting is blocked below, without MIPS
+				cl.updateCloudletFinishedSoFar((long) (timeSpan *
+						getTotalCurrentAllocatedMipsForCloudlet(cl, getPreviousTime()) * Consts.MILLION));
+			}
 			cl.updateCloudlet(null);
+		}
+		resumeWokenCloudlets();
+		blockWaitingCloudlets();
 
+		for (Cloudlet cl : getCloudletExecList()) {
 			if (cl.getRemainingCloudletLength() == 0) { // finished: remove from the list
 				cloudletsToFinish.add(cl);
 			} else { // not finish: estimate the finish time
@@ -129,30 +138,22 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 
 	@Override
 	public List<Double> getCurrentRequestedMips() {
-		if (getCachePreviousTime() == getPreviousTime()) {
-			return getCacheCurrentRequestedMips();
+		RequestedMipsCache cache = requestedMipsCache;
+		if (cache.previousTime() == getPreviousTime()) {
+			return cache.mips();
 		}
-		List<Double> currentMips = new ArrayList<>();
 		double totalMips = getTotalUtilizationOfCpu(getPreviousTime()) * getTotalMips();
 		double mipsForPe = totalMips / getNumberOfPes();
+		List<Double> currentMips = MipsShare.uniform(mipsForPe, getNumberOfPes());
 
-		for (int i = 0; i < getNumberOfPes(); i++) {
-			currentMips.add(mipsForPe);
-		}
-
-		setCachePreviousTime(getPreviousTime());
-		setCacheCurrentRequestedMips(currentMips);
+		requestedMipsCache = new RequestedMipsCache(getPreviousTime(), currentMips);
 
 		return currentMips;
 	}
 
 	@Override
 	public double getCurrentRequestedTotalMips() {
-		List<Double> currentMips = getCurrentRequestedMips();
-		double mips = 0.0;
-		for (double v : currentMips)
-			mips += v;
-		return mips;
+		return MipsShare.of(getCurrentRequestedMips()).getTotal();
 	}
 
 	@Override
@@ -164,9 +165,10 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	public double getTotalCurrentAvailableMipsForCloudlet(Cloudlet cl, List<Double> mipsShare) {
 		double totalCurrentMips = 0.0;
 		if (mipsShare != null) {
+			MipsShare share = MipsShare.of(mipsShare);
 			int neededPEs = cl.getNumberOfPes();
-			for (double mips : mipsShare) {
-				totalCurrentMips += mips;
+			for (int i = 0; i < share.size(); i++) {
+				totalCurrentMips += share.getMips(i);
 				neededPEs--;
 				if (neededPEs <= 0) {
 					break;
@@ -218,11 +220,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * @return the total current mips
 	 */
 	public double getTotalCurrentMips() {
-		double totalCurrentMips = 0;
-		for (double mips : getCurrentMipsShare()) {
-			totalCurrentMips += mips;
-		}
-		return totalCurrentMips;
+		return MipsShare.of(getCurrentMipsShare()).getTotal();
 	}
 
 	/**
@@ -303,7 +301,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * @return the cache previous time
 	 */
 	protected double getCachePreviousTime() {
-		return cachePreviousTime;
+		return requestedMipsCache.previousTime();
 	}
 
 	/**
@@ -312,7 +310,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * @param cachePreviousTime the new cache previous time
 	 */
 	protected void setCachePreviousTime(double cachePreviousTime) {
-		this.cachePreviousTime = cachePreviousTime;
+		requestedMipsCache = new RequestedMipsCache(cachePreviousTime, requestedMipsCache.mips());
 	}
 
 	/**
@@ -321,7 +319,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * @return the cache current requested mips
 	 */
 	protected List<Double> getCacheCurrentRequestedMips() {
-		return cacheCurrentRequestedMips;
+		return requestedMipsCache.mips();
 	}
 
 	/**
@@ -330,7 +328,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * @param cacheCurrentRequestedMips the new cache current requested mips
 	 */
 	protected void setCacheCurrentRequestedMips(List<Double> cacheCurrentRequestedMips) {
-		this.cacheCurrentRequestedMips = cacheCurrentRequestedMips;
+		requestedMipsCache = new RequestedMipsCache(requestedMipsCache.previousTime(), cacheCurrentRequestedMips);
 	}
 
 }
@@ -0,0 +1,243 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.lists.CloudletList;
+
+/**
+ * CloudletSchedulerVirtualTimeShared is a {@link CloudletSchedulerTimeShared} whose updates don't
+ * depend on the number of running cloudlets.
+ * <p>
+ * In time-shared scheduling every PE of every running cloudlet gets the same
+ * {@link #getCurrentCapacity() capacity}, so the progress of all the cloudlets can be tracked by a
+ * single virtual clock, that counts the MI executed so far by each PE. When a cloudlet starts
+ * running, the virtual time at which it will finish is computed once and the cloudlet is put in a
+ * min-heap ordered by that time. An update then only advances the virtual clock, removes the
+ * finished cloudlets from the top of the heap, and gets the next completion time from the new top:
+ * it takes O(k log n) time, where k is the number of cloudlets that finished, instead of the
+ * O(n) time of {@link CloudletScheduler#updateCloudletsProcessing(double, List)}.
+ * <p>
+ * As a consequence, the executed length of a running cloudlet
+ * ({@link Cloudlet#getCloudletFinishedSoFar()}) is brought up to date only when the cloudlet
+ * leaves the exec list, i.e. when it finishes, or it is paused, canceled or migrated, and
+ * {@link Cloudlet#updateCloudlet(Object)} is not called. Thus, this scheduler is meant for
+ * cloudlets whose length doesn't change while they run. The finished cloudlets are returned
+ * in order of completion.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class CloudletSchedulerVirtualTimeShared extends CloudletSchedulerTimeShared {
+
+	/**
+	 * The tolerance (in MI per PE) used to decide if a cloudlet is finished, so that the
+	 * rounding errors of the virtual clock don't delay its completion.
+	 */
+	private static final double FINISH_TOLERANCE = 1e-6;
+
+	/** A running cloudlet and the virtual time at which it finishes. */
+	private static final class Job {
+		final Cloudlet cloudlet;
+
+		final int pes;
+
+		/** The virtual time at which less than 1 MI of the cloudlet is left to execute. */
+		final double finishVirtualTime;
+
+		/** The order in which the cloudlets started running, used to break ties. */
+		final long serial;
+
+		/** Whether the cloudlet left the exec list before finishing. */
+		boolean removed;
+
+		Job(Cloudlet cloudlet, double finishVirtualTime, long serial) {
+			this.cloudlet = cloudlet;
+			this.pes = cloudlet.getNumberOfPes();
+			this.finishVirtualTime = finishVirtualTime;
+			this.serial = serial;
+		}
+	}
+
+	/** The MI executed so far by each PE of a running cloudlet. */
+	private double virtualTime;
+
+	/** The running cloudlets, ordered by finish virtual time. */
+	private final PriorityQueue<Job> jobQueue = new PriorityQueue<>((a, b) -> {
+		int cmp = Double.compare(a.finishVirtualTime, b.finishVirtualTime);
+		return cmp != 0 ? cmp : Long.compare(a.serial, b.serial);
+	});
+
+	/** The jobs of the running cloudlets. */
+	private final Map<Cloudlet, Job> jobs = new IdentityHashMap<>();
+
+	/** The number of PEs requested by the running cloudlets. */
+	private int pesInUse;
+
+	private long serial;
+
+	/**
+	 * Creates a new CloudletSchedulerVirtualTimeShared object. This method must be invoked before
+	 * starting the actual simulation.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerVirtualTimeShared() {
+		super();
+	}
+
+	@Override
+	public double updateCloudletsProcessing(double currentTime, List<Double> mipsShare) {
+		setCurrentMipsShare(mipsShare);
+
+		double timeSpan = currentTime - getPreviousTime(); // time since last update
+		virtualTime += timeSpan * getCurrentCapacity();
+
+		// Remove finished cloudlets
+		for (Job job = peekJob(); job != null && job.finishVirtualTime - virtualTime <= FINISH_TOLERANCE; job = peekJob()) {
+			jobQueue.poll();
+			untrack(job);
+			getCloudletExecList().remove(job.cloudlet);
+			cloudletJustFinishedList.add(job.cloudlet);
+			cloudletFinish(job.cloudlet);
+		}
+
+		if (getCloudletExecList().isEmpty() && getCloudletWaitingList().isEmpty()) {
+			setPreviousTime(currentTime);
+			return 0.0;
+		}
+
+		// Update cloudlets in waiting list, if any
+		updateWaitingCloudlets(currentTime, null);
+		cloudletJustFinishedList.clear();
+
+		// the first cloudlet in the heap is the next one to finish
+		double nextEvent = Double.MAX_VALUE;
+		Job job = peekJob();
+		if (job != null && getCurrentCapacity() > 0) {
+			nextEvent = currentTime + Math.max(job.finishVirtualTime - virtualTime, 0) / getCurrentCapacity();
+			if (nextEvent - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+				nextEvent = currentTime + CloudSim.getMinTimeBetweenEvents();
+			}
+		}
+
+		setPreviousTime(currentTime);
+		return nextEvent;
+	}
+
+	@Override
+	public double cloudletSubmit(Cloudlet cl, double fileTransferTime) {
+		double estimatedFinishTime = super.cloudletSubmit(cl, fileTransferTime);
+		track(cl);
+		return estimatedFinishTime;
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		// look for the cloudlet in the paused list
+		Cloudlet cl = CloudletList.removeById(getCloudletPausedList(), cloudletId);
+		if (cl != null) {
+			cl.updateStatus(Cloudlet.CloudletStatus.INEXEC);
+			getCloudletExecList().add(cl);
+			track(cl);
+			return getEstimatedFinishTime(cl, CloudSim.clock());
+		}
+		return 0.0;
+	}
+
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		// the finished queue is searched first
+		if (CloudletList.getById(getCloudletFinishedList(), cloudletId) == null) {
+			untrack(CloudletList.getById(getCloudletExecList(), cloudletId));
+		}
+		return super.cloudletCancel(cloudletId);
+	}
+
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		untrack(CloudletList.getById(getCloudletExecList(), cloudletId));
+		return super.cloudletPause(cloudletId);
+	}
+
+	@Override
+	public Cloudlet migrateCloudlet() {
+		untrack(getCloudletExecList().getFirst());
+		return super.migrateCloudlet();
+	}
+
+	@Override
+	public double getEstimatedFinishTime(Cloudlet cl, double time) {
+		Job job = jobs.get(cl);
+		if (job == null) {
+			return super.getEstimatedFinishTime(cl, time);
+		}
+		return time + Math.max(job.finishVirtualTime - virtualTime, 0) / getCurrentCapacity();
+	}
+
+	@Override
+	protected int getPesInUse() {
+		return pesInUse;
+	}
+
+	/**
+	 * Starts tracking the progress of a cloudlet that entered the exec list.
+	 */
+	private void track(Cloudlet cl) {
+		if (jobs.isEmpty()) {
+			// nothing depends on the current virtual time: restart it, to keep its precision
+			virtualTime = 0;
+		}
+		double remainingLength = (cl.getCloudletTotalLength() * (double) Consts.MILLION
+				- cl.getCloudletFinishedSoFar()) / Consts.MILLION;
+		Job job = new Job(cl, virtualTime + (remainingLength - 1) / cl.getNumberOfPes(), serial++);
+		jobs.put(cl, job);
+		jobQueue.add(job);
+		pesInUse += job.pes;
+	}
+
+	/**
+	 * Stops tracking the progress of a cloudlet that leaves the exec list, updating its executed length.
+	 * The job is removed from the heap lazily, once it reaches the top.
+	 */
+	private void untrack(Cloudlet cl) {
+		Job job = cl == null ? null : jobs.get(cl);
+		if (job != null) {
+			untrack(job);
+			job.removed = true;
+		}
+	}
+
+	private void untrack(Job job) {
+		jobs.remove(job.cloudlet);
+		pesInUse -= job.pes;
+
+		double remainingLength = Math.max((job.finishVirtualTime - virtualTime) * job.pes + 1, 0);
+		long finishedSoFar = job.cloudlet.getCloudletTotalLength() * Consts.MILLION
+				- (long) (remainingLength * Consts.MILLION);
+		job.cloudlet.setCloudletFinishedSoFar(Math.max(finishedSoFar, job.cloudlet.getCloudletFinishedSoFar()));
+	}
+
+	/**
+	 * Gets the job of the next cloudlet to finish, discarding the ones that left the exec list.
+	 */
+	private Job peekJob() {
+		Job job = jobQueue.peek();
+		while (job != null && job.removed) {
+			jobQueue.poll();
+			job = jobQueue.peek();
+		}
+		return job;
+	}
+}
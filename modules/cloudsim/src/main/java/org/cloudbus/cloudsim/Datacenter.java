@@ -8,8 +8,13 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.*;
@@ -53,6 +58,39 @@ public class Datacenter extends SimEntity {
 	/** The scheduling delay to process each datacenter received event. */
 	private double schedulingInterval;
 
+	/** Whether only the hosts that are due or dirty are updated, see {@link #setHostTracking(boolean)}. */
+	private boolean hostTracking;
+
+	/** The position of each host in the host list, when tracking the hosts. */
+	private Map<HostEntity, Integer> hostIndex;
+
+	/** The host list indexed by {@link #hostIndex}. */
+	private List<? extends HostEntity> indexedHostList;
+
+	/** The host at each position of the host list when it was indexed. */
+	private HostEntity[] indexedHosts;
+
+	/** The expected completion time of the next cloudlet in each host, by position. */
+	private double[] hostNextTime;
+
+	/** The expected completion times of the hosts; an entry is stale if it differs from {@link #hostNextTime}. */
+	private final PriorityQueue<HostEvent> hostEvents = new PriorityQueue<>();
+
+	/** The hosts whose state changed since they were last updated. */
+	private final BitSet dirtyHosts = new BitSet();
+
+	/** The hosts updated since the finished cloudlets were last checked. */
+	private final BitSet updatedHosts = new BitSet();
+
+	/** The expected completion time of the next cloudlet in a host. */
+	private record HostEvent(double time, int host) implements Comparable<HostEvent> {
+		@Override
+		public int compareTo(HostEvent o) {
+			int cmp = Double.compare(time, o.time);
+			return cmp != 0 ? cmp : Integer.compare(host, o.host);
+		}
+	}
+
 	/**
 	 * Allocates a new Datacenter object.
 	 * 
@@ -192,6 +230,8 @@ public class Datacenter extends SimEntity {
             processVmCreate(ev, false);
         } else if (tag == CloudActionTags.VM_CREATE_ACK) {
             processVmCreate(ev, true);
+        } else if (tag == CloudActionTags.VM_CREATE_BATCH) {
+            processVmCreateBatch(ev);
         } else if (tag == CloudActionTags.VM_DESTROY) {
             processVmDestroy(ev, false);
         } else if (tag == CloudActionTags.VM_DESTROY_ACK) {
@@ -358,12 +398,7 @@ public class Datacenter extends SimEntity {
 			return;
 		}
 
-		int[] array = new int[3];
-		array[0] = getId();
-		array[1] = cloudletId;
-		array[2] = status.ordinal();
-
-		sendNow(userId, CloudActionTags.CLOUDLET_STATUS, array);
+		sendNow(userId, CloudActionTags.CLOUDLET_STATUS, getId(), cloudletId, status.ordinal());
 	}
 
 	/**
@@ -406,13 +441,96 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (ack) {
-			int[] data = new int[3];
+			double delay = CloudSim.getMinTimeBetweenEvents() + (result ? getGuestStartDelay(guest) : 0);
+			send(guest.getUserId(), delay, CloudActionTags.VM_CREATE_ACK, getId(), guest.getId(), result ? CloudSimTags.TRUE : CloudSimTags.FALSE);
+		}
+
+		processVmCreateResult(guest, result);
+	}
+
+	/**
+	 * Process the event for an User/Broker who wants to create a batch of VMs in this Datacenter.
+	 * The VMs without a preferred host are placed together by
+	 * {@link VmAllocationPolicy#allocateHostsForGuests(List)}, then a single
+	 * {@link CloudActionTags#VM_CREATE_BATCH} event is sent back to each user of the batch,
+	 * with the status of every VM of this user.
+	 *
+	 * @param ev information about the event just happened, carrying the list of VMs
+	 * @pre ev != null
+	 * @post $none
+	 */
+	@SuppressWarnings("unchecked")
+	protected void processVmCreateBatch(SimEvent ev) {
+		List<GuestEntity> guests = (List<GuestEntity>) ev.getData();
+		if (guests.isEmpty()) {
+			return;
+		}
+
+		boolean[] result = new boolean[guests.size()];
+		List<GuestEntity> batch = new ArrayList<>();
+		List<Integer> batchPositions = new ArrayList<>();
+		for (int i = 0; i < guests.size(); i++) {
+			GuestEntity guest = guests.get(i);
+			HostEntity userPreferredHost = guest.getHost();
+			if (userPreferredHost != null && getVmAllocationPolicy().getHostList().contains(userPreferredHost)) {
+				result[i] = getVmAllocationPolicy().allocateHostForGuest(guest, userPreferredHost);
+			} else {
+				batch.add(guest);
+				batchPositions.add(i);
+			}
+		}
+		boolean[] batchResult = getVmAllocationPolicy().allocateHostsForGuests(batch);
+		for (int i = 0; i < batchResult.length; i++) {
+			result[batchPositions.get(i)] = batchResult[i];
+		}
+
+		// one acknowledgement per user, in the order of the guests of the batch
+		Map<Integer, List<Integer>> positionsByUser = new LinkedHashMap<>();
+		for (int i = 0; i < guests.size(); i++) {
+			positionsByUser.computeIfAbsent(guests.get(i).getUserId(), k -> new ArrayList<>()).add(i);
+		}
+		for (Map.Entry<Integer, List<Integer>> entry : positionsByUser.entrySet()) {
+			List<Integer> positions = entry.getValue();
+			int[] data = new int[1 + 2 * positions.size()];
 			data[0] = getId();
-			data[1] = guest.getId();
-			data[2] = result ? CloudSimTags.TRUE : CloudSimTags.FALSE;
-			send(guest.getUserId(), CloudSim.getMinTimeBetweenEvents(), CloudActionTags.VM_CREATE_ACK, data);
+			double startDelay = 0;
+			for (int j = 0; j < positions.size(); j++) {
+				int i = positions.get(j);
+				data[1 + 2 * j] = guests.get(i).getId();
+				data[2 + 2 * j] = result[i] ? CloudSimTags.TRUE : CloudSimTags.FALSE;
+				if (result[i]) {
+					startDelay = Math.max(startDelay, getGuestStartDelay(guests.get(i)));
+				}
+			}
+			send(entry.getKey(), CloudSim.getMinTimeBetweenEvents() + startDelay, CloudActionTags.VM_CREATE_BATCH, data);
+		}
+
+		for (int i = 0; i < guests.size(); i++) {
+			processVmCreateResult(guests.get(i), result[i]);
 		}
+	}
 
+	/**
+	 * Gets the time that the host of a guest just created needs before running the guest, e.g. to be
+	 * woken up. The creation of the guest is acknowledged to its user after this delay, so that the
+	 * user submits its cloudlets when the guest can run them.
+	 *
+	 * @param guest the guest, already allocated to a host
+	 * @return the start delay of the guest
+	 */
+	protected double getGuestStartDelay(GuestEntity guest) {
+		return 0;
+	}
+
+	/**
+	 * Completes the creation of a VM in this Datacenter, after its host has been allocated (or not).
+	 *
+	 * @param guest the VM
+	 * @param result whether a host could be allocated to the VM
+	 * @pre guest != null
+	 * @post $none
+	 */
+	protected void processVmCreateResult(GuestEntity guest, boolean result) {
 		if (result) {
 			getVmList().add(guest);
 
@@ -422,6 +540,7 @@ public class Datacenter extends SimEntity {
 
 			guest.updateCloudletsProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(guest).getGuestScheduler()
 					.getAllocatedMipsForGuest(guest));
+			markHostDirty(getVmAllocationPolicy().getHost(guest));
 		} else {
 			Log.printlnConcat(CloudSim.clock(), ": Datacenter.guestAllocator: Couldn't find a host for ", guest.getClassName(), " #", guest.getId());
 		}
@@ -441,15 +560,11 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmDestroy(SimEvent ev, boolean ack) {
 		GuestEntity vm = (GuestEntity) ev.getData();
+		markHostDirty(getVmAllocationPolicy().getHost(vm));
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = vm.getId();
-			data[2] = CloudSimTags.TRUE;
-
-			sendNow(vm.getUserId(), CloudActionTags.VM_DESTROY_ACK, data);
+			sendNow(vm.getUserId(), CloudActionTags.VM_DESTROY_ACK, getId(), vm.getId(), CloudSimTags.TRUE);
 		}
 
 		getVmList().remove(vm);
@@ -476,6 +591,7 @@ public class Datacenter extends SimEntity {
 		HostEntity host = migrate.host();
 		
 		//destroy VM in src host
+		markHostDirty(getVmAllocationPolicy().getHost(vm));
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 		host.removeMigratingInGuest(vm);
 
@@ -486,13 +602,10 @@ public class Datacenter extends SimEntity {
 			Log.println("[Datacenter.processVmMigrate] VM allocation to the destination host failed");
 			System.exit(0);
 		}
+		markHostDirty(host);
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = vm.getId();
-			data[2] = CloudSimTags.TRUE;
-			sendNow(ev.getSourceId(), CloudActionTags.VM_CREATE_ACK, data);
+			sendNow(ev.getSourceId(), CloudActionTags.VM_CREATE_ACK, getId(), vm.getId(), CloudSimTags.TRUE);
 		}
 
 		Log.formatLine(
@@ -574,8 +687,9 @@ public class Datacenter extends SimEntity {
 		int destId = receivedData[4];
 
 		// get the cloudlet
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		Cloudlet cl = host.getGuest(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
+		markHostDirty(host);
 
 		boolean failed = false;
 		if (cl == null) {// cloudlet doesn't exist
@@ -583,11 +697,7 @@ public class Datacenter extends SimEntity {
 		} else {
 			// has the cloudlet already finished?
 			if (cl.getStatus() == Cloudlet.CloudletStatus.SUCCESS) {// if yes, send it back to user
-				int[] data = new int[3];
-				data[0] = getId();
-				data[1] = cloudletId;
-				data[2] = 0;
-				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cloudletId, 0);
 				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
 			}
 
@@ -596,13 +706,15 @@ public class Datacenter extends SimEntity {
 
 			// the cloudlet will migrate from one vm to another does the destination VM exist?
 			if (destId == getId()) {
-				GuestEntity vm = getVmAllocationPolicy().getHost(vmDestId, userId).getGuest(vmDestId,userId);
+				HostEntity destHost = getVmAllocationPolicy().getHost(vmDestId, userId);
+				GuestEntity vm = destHost.getGuest(vmDestId,userId);
 				if (vm == null) {
 					failed = true;
 				} else {
 					// time to transfer the files
 					double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 					vm.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
+					markHostDirty(destHost);
 				}
 			} else {// the cloudlet will migrate from one resource to another
 				CloudActionTags newTag = ((tag == CloudActionTags.CLOUDLET_MOVE_ACK) ? CloudActionTags.CLOUDLET_SUBMIT_ACK
@@ -612,15 +724,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (tag == CloudActionTags.CLOUDLET_MOVE_ACK) {// send ACK if requested
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = cloudletId;
-			if (failed) {
-				data[2] = 0;
-			} else {
-				data[2] = 1;
-			}
-			sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+			sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cloudletId, failed ? 0 : 1);
 		}
 	}
 
@@ -655,12 +759,7 @@ public class Datacenter extends SimEntity {
 				// Hence, this might cause CloudSim to be hanged since waiting
 				// for this Cloudlet back.
 				if (ack) {
-					int[] data = new int[3];
-					data[0] = getId();
-					data[1] = cl.getCloudletId();
-					data[2] = CloudSimTags.FALSE;
-
-					sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+					sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cl.getCloudletId(), CloudSimTags.FALSE);
 				}
 
 				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
@@ -682,6 +781,7 @@ public class Datacenter extends SimEntity {
 			GuestEntity vm = host.getGuest(vmId, userId);
 			CloudletScheduler scheduler = vm.getCloudletScheduler();
 			double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
+			markHostDirty(host);
 
 			// if this cloudlet is in the exec queue
 			if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
@@ -694,12 +794,7 @@ public class Datacenter extends SimEntity {
 			}*/
 
 			if (ack) {
-				int[] data = new int[3];
-				data[0] = getId();
-				data[1] = cl.getCloudletId();
-				data[2] = CloudSimTags.TRUE;
-
-				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cl.getCloudletId(), CloudSimTags.TRUE);
 			}
 		} catch (ClassCastException c) {
 			Log.printlnConcat(getName(), ".processCloudletSubmit(): ", "ClassCastException error.");
@@ -747,8 +842,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
-		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletResume(cloudletId);
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		double eventTime = host.getGuest(vmId,userId).getCloudletScheduler().cloudletResume(cloudletId);
+		markHostDirty(host);
 
 		boolean status = false;
 		if (eventTime > 0.0) { // if this cloudlet is in the exec queue
@@ -759,11 +855,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = cloudletId;
-			data[2] = status ? CloudSimTags.TRUE : CloudSimTags.FALSE;
-			sendNow(userId, CloudActionTags.CLOUDLET_RESUME_ACK, data);
+			sendNow(userId, CloudActionTags.CLOUDLET_RESUME_ACK, getId(), cloudletId, status ? CloudSimTags.TRUE : CloudSimTags.FALSE);
 		}
 	}
 
@@ -780,15 +872,12 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
-		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletPause(cloudletId);
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		boolean status = host.getGuest(vmId,userId).getCloudletScheduler().cloudletPause(cloudletId);
+		markHostDirty(host);
 
 		if (ack) {
-			int[] data = new int[3];
-			data[0] = getId();
-			data[1] = cloudletId;
-			data[2] = status ? CloudSimTags.TRUE : CloudSimTags.FALSE;
-			sendNow(userId, CloudActionTags.CLOUDLET_PAUSE_ACK, data);
+			sendNow(userId, CloudActionTags.CLOUDLET_PAUSE_ACK, getId(), cloudletId, status ? CloudSimTags.TRUE : CloudSimTags.FALSE);
 		}
 	}
 
@@ -803,8 +892,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		Cloudlet cl = host.getGuest(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
+		markHostDirty(host);
 		sendNow(userId, CloudActionTags.CLOUDLET_CANCEL, cl);
 	}
 
@@ -822,12 +912,16 @@ public class Datacenter extends SimEntity {
 		// simulation step is skipped and schedulers are not properly initialized
 		if (CloudSim.clock() < 0.111 || CloudSim.clock() >= getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
 			double smallerTime = Double.MAX_VALUE;
-			for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-				// inform VMs to update processing
-				double time = host.updateCloudletsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
+			if (isHostTracking()) {
+				smallerTime = updateDueAndDirtyHosts();
+			} else {
+				for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+					// inform VMs to update processing
+					double time = host.updateCloudletsProcessing(CloudSim.clock());
+					// what time do we expect that the next cloudlet will finish?
+					if (time < smallerTime) {
+						smallerTime = time;
+					}
 				}
 			}
 			// gurantees a minimal interval before scheduling the event
@@ -849,18 +943,181 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void checkCloudletCompletion() {
+		if (isHostTracking()) {
+			// cloudlets finish only when their host is updated
+			List<? extends HostEntity> hostList = getVmAllocationPolicy().getHostList();
+			for (int i = updatedHosts.nextSetBit(0); i >= 0 && i < hostList.size(); i = updatedHosts.nextSetBit(i + 1)) {
+				returnFinishedCloudlets(hostList.get(i));
+			}
+			updatedHosts.clear();
+			return;
+		}
+
 		for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-			for (GuestEntity vm : host.getGuestList()) {
-				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
-					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
-					if (cl != null) {
-						sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
-					}
+			returnFinishedCloudlets(host);
+		}
+	}
+
+	/**
+	 * Sends the cloudlets that finished in the VMs of a host back to their User/Broker.
+	 *
+	 * @param host the host
+	 */
+	private void returnFinishedCloudlets(HostEntity host) {
+		for (GuestEntity vm : host.getGuestList()) {
+			while (vm.getCloudletScheduler().isFinishedCloudlets()) {
+				Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
+				if (cl != null) {
+					sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Updates the hosts whose next cloudlet is expected to finish by now, and the ones whose
+	 * state changed since they were last updated, in the order of the host list.
+	 *
+	 * @return the expected completion time of the next cloudlet in the datacenter, or
+	 *         {@link Double#MAX_VALUE} if there are no future events expected
+	 */
+	private double updateDueAndDirtyHosts() {
+		List<? extends HostEntity> hostList = getVmAllocationPolicy().getHostList();
+		indexHosts(hostList);
+
+		double dueTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents();
+		while (!hostEvents.isEmpty() && hostEvents.peek().time() <= dueTime) {
+			HostEvent event = hostEvents.poll();
+			if (hostNextTime[event.host()] == event.time()) {
+				dirtyHosts.set(event.host());
+			}
+		}
+
+		// the list may have been reordered, or a host replaced, without changing its size
+		for (int i = dirtyHosts.nextSetBit(0); i >= 0; i = dirtyHosts.nextSetBit(i + 1)) {
+			if (hostList.get(i) != indexedHosts[i]) {
+				hostIndex = null;
+				indexHosts(hostList);
+				break;
+			}
+		}
+
+		for (int i = dirtyHosts.nextSetBit(0); i >= 0; i = dirtyHosts.nextSetBit(i + 1)) {
+			HostEntity host = hostList.get(i);
+			double time = host.updateCloudletsProcessing(CloudSim.clock());
+			if (hasFinishedCloudlets(host)) {
+				// the next completion was estimated with the capacity shared with the finished
+				// cloudlets: without tracking, the updates due to other hosts would correct it
+				time = host.updateCloudletsProcessing(CloudSim.clock());
+			}
+			hostNextTime[i] = time;
+			if (time != Double.MAX_VALUE) {
+				hostEvents.add(new HostEvent(time, i));
+			}
+		}
+		updatedHosts.or(dirtyHosts);
+		dirtyHosts.clear();
+
+		while (!hostEvents.isEmpty() && hostNextTime[hostEvents.peek().host()] != hostEvents.peek().time()) {
+			hostEvents.poll();
+		}
+		return hostEvents.isEmpty() ? Double.MAX_VALUE : hostEvents.peek().time();
+	}
+
+	private static boolean hasFinishedCloudlets(HostEntity host) {
+		for (GuestEntity vm : host.getGuestList()) {
+			if (vm.getCloudletScheduler().isFinishedCloudlets()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Indexes the hosts by their position in the host list, if the list was replaced or resized.
+	 * All the hosts are considered dirty after a change.
+	 * <p>
+	 * A list reordered, or with a host replaced, in place is detected when a position is used:
+	 * the host found there is checked against the indexed one before the host is updated or
+	 * marked dirty, and the hosts are indexed again if they differ.
+	 */
+	private void indexHosts(List<? extends HostEntity> hostList) {
+		if (hostIndex != null && hostList == indexedHostList && hostList.size() == indexedHosts.length) {
+			return;
+		}
+		hostIndex = new IdentityHashMap<>();
+		indexedHostList = hostList;
+		indexedHosts = hostList.toArray(new HostEntity[0]);
+		for (int i = 0; i < indexedHosts.length; i++) {
+			hostIndex.put(indexedHosts[i], i);
+		}
+		hostNextTime = new double[hostList.size()];
+		hostEvents.clear();
+		dirtyHosts.set(0, hostList.size());
+	}
+
+	/**
+	 * Marks a host as dirty, i.e. its state changed (e.g. a cloudlet was submitted to one of its
+	 * guests, or a guest was created, destroyed or migrated) and it has to be updated by
+	 * the next call to {@link #updateCloudletProcessing()}. It has no effect if the hosts
+	 * are not tracked.
+	 *
+	 * @param host the host
+	 * @see #setHostTracking(boolean)
+	 */
+	public void markHostDirty(HostEntity host) {
+		if (!isHostTracking() || host == null) {
+			return;
+		}
+		// the guests of a nested host are updated by its physical host
+		while (host instanceof GuestEntity guest && guest.getHost() != null) {
+			host = guest.getHost();
+		}
+
+		List<? extends HostEntity> hostList = getVmAllocationPolicy().getHostList();
+		indexHosts(hostList);
+		Integer i = hostIndex.get(host);
+		if (i == null || hostList.get(i) != host) {
+			hostIndex = null;
+			indexHosts(hostList);
+			i = hostIndex.get(host);
+		}
+		if (i != null) {
+			dirtyHosts.set(i);
+		}
+	}
+
+	/**
+	 * Checks if only the hosts that are due or dirty are updated.
+	 *
+	 * @return true if the hosts are tracked
+	 * @see #setHostTracking(boolean)
+	 */
+	public boolean isHostTracking() {
+		return hostTracking;
+	}
+
+	/**
+	 * Sets whether the datacenter tracks the state of its hosts. By default, every host is updated
+	 * on every call to {@link #updateCloudletProcessing()}, and every guest is checked for finished
+	 * cloudlets. When the hosts are tracked, the datacenter keeps the expected completion time of
+	 * the next cloudlet in each host in a priority queue, together with a set of dirty hosts
+	 * (see {@link #markHostDirty(HostEntity)}): only the hosts that are due or dirty are updated
+	 * and checked, so an update costs O(changed hosts) instead of O(hosts).
+	 * <p>
+	 * A host that is neither due nor dirty makes up for the skipped updates at its next one. Hence,
+	 * the hosts must not depend on being updated on every event, as the hosts that record their
+	 * utilization history or send network packets when updated do.
+	 *
+	 * @param hostTracking true to track the hosts
+	 */
+	public void setHostTracking(boolean hostTracking) {
+		this.hostTracking = hostTracking;
+		hostIndex = null;
+		indexedHostList = null;
+		updatedHosts.clear();
+	}
+
 	/**
 	 * Adds a file into the resource's storage before the experiment starts.
 	 * If the file is a master file, then it will be registered to the RC
@@ -76,6 +76,9 @@ public class DatacenterBroker extends SimEntity {
 	/** Next guest to which send the cloudlet */
 	private int guestIndex = 0;
 
+	/** Whether the VMs are created in batches, see {@link #setVmCreationBatching(boolean)}. */
+	private boolean vmCreationBatching;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -161,6 +164,10 @@ public class DatacenterBroker extends SimEntity {
         } else if (tag == CloudActionTags.VM_CREATE_ACK) {
             processVmCreateAck(ev);
 
+            // VM batch creation answer
+        } else if (tag == CloudActionTags.VM_CREATE_BATCH) {
+            processVmCreateBatchAck(ev);
+
             // A finished cloudlet returned
         } else if (tag == CloudActionTags.CLOUDLET_RETURN) {
             processCloudletReturn(ev);
@@ -221,11 +228,35 @@ public class DatacenterBroker extends SimEntity {
 	 * @post $none
 	 */
 	protected void processVmCreateAck(SimEvent ev) {
+		processVmCreateResult(ev.getIntData(0), ev.getIntData(1), ev.getIntData(2));
+		processVmCreateCompletion();
+	}
+
+	/**
+	 * Process the single ack received due to a request for the creation of a batch of VMs.
+	 *
+	 * @param ev a SimEvent object, carrying the datacenter id followed by the id of each VM
+	 *           and the result of its creation
+	 * @pre ev != null
+	 * @post $none
+	 * @see #setVmCreationBatching(boolean)
+	 */
+	protected void processVmCreateBatchAck(SimEvent ev) {
 		int[] data = (int[]) ev.getData();
-		int datacenterId = data[0];
-		int vmId = data[1];
-		int result = data[2];
+		for (int i = 1; i + 1 < data.length; i += 2) {
+			processVmCreateResult(data[0], data[i], data[i + 1]);
+		}
+		processVmCreateCompletion();
+	}
 
+	/**
+	 * Records the result of the creation of a VM in a datacenter.
+	 *
+	 * @param datacenterId the datacenter id
+	 * @param vmId the VM id
+	 * @param result {@link CloudSimTags#TRUE} if the VM has been created
+	 */
+	protected void processVmCreateResult(int datacenterId, int vmId, int result) {
 		GuestEntity guest = VmList.getById(getGuestList(), vmId);
 
 		if (result == CloudSimTags.TRUE) {
@@ -240,7 +271,13 @@ public class DatacenterBroker extends SimEntity {
 		}
 
 		incrementVmsAcks();
+	}
 
+	/**
+	 * Submits the cloudlets once all the requested VMs have been created, or tries the next
+	 * datacenter once all the acks have been received but some VMs were not created.
+	 */
+	protected void processVmCreateCompletion() {
 		// all the requested VMs have been created
 		if (getGuestsCreatedList().size() == getGuestList().size() - getVmsDestroyed()) {
 			submitCloudlets();
@@ -329,14 +366,22 @@ public class DatacenterBroker extends SimEntity {
 		// send as much vms as possible for this datacenter before trying the next one
 		int requestedVms = 0;
 		String datacenterName = CloudSim.getEntityName(datacenterId);
+		List<GuestEntity> batch = new ArrayList<>();
 		for (GuestEntity vm : getGuestList()) {
 			if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
 				Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Trying to Create ", vm.getClassName(),
 						" #", vm.getId(), " in ", datacenterName);
-				sendNow(datacenterId, CloudActionTags.VM_CREATE_ACK, vm);
+				if (isVmCreationBatching()) {
+					batch.add(vm);
+				} else {
+					sendNow(datacenterId, CloudActionTags.VM_CREATE_ACK, vm);
+				}
 				requestedVms++;
 			}
 		}
+		if (!batch.isEmpty()) {
+			sendNow(datacenterId, CloudActionTags.VM_CREATE_BATCH, batch);
+		}
 
 		getDatacenterRequestedIdsList().add(datacenterId);
 
@@ -573,6 +618,30 @@ public class DatacenterBroker extends SimEntity {
 		vmsAcks++;
 	}
 
+	/**
+	 * Checks if the VMs are created in batches.
+	 *
+	 * @return true if the VMs are created in batches
+	 * @see #setVmCreationBatching(boolean)
+	 */
+	public boolean isVmCreationBatching() {
+		return vmCreationBatching;
+	}
+
+	/**
+	 * Sets whether the VMs are created in batches. By default, the broker sends a
+	 * {@link CloudActionTags#VM_CREATE_ACK} event for each VM, and the datacenter places
+	 * and acknowledges one VM at a time. When batching, the broker sends all the VMs to a
+	 * datacenter in a single {@link CloudActionTags#VM_CREATE_BATCH} event: the datacenter places
+	 * them together through {@link VmAllocationPolicy#allocateHostsForGuests(List)}, and
+	 * acknowledges them with a single event.
+	 *
+	 * @param vmCreationBatching true to create the VMs in batches
+	 */
+	public void setVmCreationBatching(boolean vmCreationBatching) {
+		this.vmCreationBatching = vmCreationBatching;
+	}
+
 	/**
 	 * Gets the vms destroyed.
 	 * 
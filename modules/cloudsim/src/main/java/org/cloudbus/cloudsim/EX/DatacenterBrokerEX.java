@@ -164,8 +164,7 @@ public class DatacenterBrokerEX extends DatacenterBroker {
 
         CloudSimTags tag = ev.getTag();
         if (tag == CloudActionTags.VM_CREATE_ACK) {
-            int[] data = (int[]) ev.getData();
-            int vmId = data[1];
+            int vmId = ev.getIntData(1);
 
             GuestEntity vm = VmList.getById(getGuestList(), vmId);
             if (vm.isBeingInstantiated()) {
@@ -305,10 +304,9 @@ public class DatacenterBrokerEX extends DatacenterBroker {
     }
 
     private void processVMDestroy(SimEvent ev) {
-        int[] data = (int[]) ev.getData();
-        int datacenterId = data[0];
-        int vmId = data[1];
-        int result = data[2];
+        int datacenterId = ev.getIntData(0);
+        int vmId = ev.getIntData(1);
+        int result = ev.getIntData(2);
 
         if (result == CloudSimTags.TRUE) {
             GuestEntity vm = VmList.getById(getGuestsCreatedList(), vmId);
@@ -56,11 +56,7 @@ public class DatacenterEX extends Datacenter {
         boolean result = getVmAllocationPolicy().allocateHostForGuest(vm);
         double delay = delayDistribution.getDelay(vm);
         if (ack) {
-            int[] data = new int[3];
-            data[0] = getId();
-            data[1] = vm.getId();
-            data[2] = result ? CloudSimTags.TRUE : CloudSimTags.FALSE;
-            send(vm.getUserId(), delay, CloudActionTags.VM_CREATE_ACK, data);
+            send(vm.getUserId(), delay, CloudActionTags.VM_CREATE_ACK, getId(), vm.getId(), result ? CloudSimTags.TRUE : CloudSimTags.FALSE);
         }
 
         if (result) {
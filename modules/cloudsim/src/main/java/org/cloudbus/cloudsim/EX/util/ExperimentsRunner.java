@@ -1,11 +1,14 @@
 package org.cloudbus.cloudsim.EX.util;
 
 import org.apache.commons.lang3.SystemUtils;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -13,11 +16,16 @@ import java.util.concurrent.Future;
 
 /**
  * 
- * A utility that runs a set of experiments in different JVM processes. Since
- * CloudSim makes heavy use of static data, experiments can not be run in
- * multiple threads within the same JVM. With this utility class one can spawn
- * multiple independent JVM process, redirect their standard outputs to a single
- * place and synchronize with their ends.
+ * A utility that runs a set of experiments in different JVM processes. With
+ * this utility class one can spawn multiple independent JVM process, redirect
+ * their standard outputs to a single place and synchronize with their ends.
+ * 
+ * <br>
+ * <br>
+ * Alternatively, experiments can be run in a thread pool within the current
+ * JVM with {@link #runExperimentsInThreads(List, int)}. Each experiment is then
+ * executed in its own {@link SimulationContext}, which avoids paying the JVM
+ * startup and JIT warm-up once per experiment.
  * 
  * <br>
  * <br>
@@ -99,6 +107,80 @@ public class ExperimentsRunner {
         System.err.println("All experiments are finished");
     }
 
+    /**
+     * Runs a set of experiments in a thread pool of the current process. Each
+     * experiment's main method is invoked with its program arguments (JVM
+     * arguments are ignored) in a dedicated {@link SimulationContext}, so that
+     * the experiments do not share any simulation state.
+     * 
+     * <br>
+     * <br>
+     * Only the state of the simulation is scoped to the context. Thus, the
+     * main methods must keep their own state (brokers, lists of guests, hosts
+     * and cloudlets, etc.) in local variables or instance fields rather than in
+     * static fields, and must report errors by throwing exceptions rather than
+     * by calling {@link System#exit(int)}. A failed experiment is reported and
+     * does not affect the others.
+     * 
+     * @param experimentsDefs
+     *            - the experiments' definitions.
+     * @param numFreeCPUs
+     *            - number of processors to leave unused. Must be non-negative.
+     * 
+     * @throws Exception
+     *             - if something goes wrong.
+     */
+    public static synchronized void runExperimentsInThreads(final List<ExperimentDefinition> experimentsDefs,
+            final int numFreeCPUs) throws Exception {
+
+        if (!experimentsDefs.isEmpty()) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            int coresToUse = cores <= numFreeCPUs ? 1 : cores - numFreeCPUs;
+
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(coresToUse, experimentsDefs.size()));
+            Collection<Future<?>> futures = new ArrayList<>();
+
+            for (final ExperimentDefinition def : experimentsDefs) {
+                Runnable runnable = () -> {
+                    try {
+                        new SimulationContext().call(() -> invokeMain(def));
+                    } catch (InvocationTargetException e) {
+                        e.getCause().printStackTrace();
+                        System.err.println("!!! Experiment " + def.getMainClass().getCanonicalName()
+                                + " has failed!!!");
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        System.err.println("!!! Experiment " + def.getMainClass().getCanonicalName()
+                                + " has failed!!!");
+                    }
+                };
+                futures.add(pool.submit(runnable));
+            }
+
+            // Wait until all are finished
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            pool.shutdown();
+        }
+        System.err.println();
+        System.err.println("All experiments are finished");
+    }
+
+    private static Void invokeMain(final ExperimentDefinition def) throws Exception {
+        List<String> appParams = new ArrayList<>();
+        for (String param : def.getArguements()) {
+            if (!param.startsWith("-X") && !param.startsWith("-D")) {
+                appParams.add(param);
+            }
+        }
+
+        Method main = def.getMainClass().getMethod("main", String[].class);
+        main.invoke(null, (Object) appParams.toArray(new String[0]));
+        return null;
+    }
+
     private static int[] getHeapArgs() {
         RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
         List<String> arguments = runtimeMxBean.getInputArguments();
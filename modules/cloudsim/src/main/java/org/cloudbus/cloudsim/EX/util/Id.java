@@ -1,6 +1,7 @@
 package org.cloudbus.cloudsim.EX.util;
 
 import org.cloudbus.cloudsim.*;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -17,16 +18,21 @@ import java.util.Set;
  */
 public final class Id {
 
-    private static final Map<Class<?>, Integer> COUNTERS = new LinkedHashMap<>();
-    private static final Set<Class<?>> NO_COUNTERS = new HashSet<>();
-    private static int globalCounter = 1;
+    /**
+     * The id counters of a simulation context.
+     */
+    private static final class Counters {
+        private final Map<Class<?>, Integer> counters = new LinkedHashMap<>();
+        private final Set<Class<?>> noCounters = new HashSet<>();
+        private int globalCounter = 1;
 
-    static {
-        COUNTERS.put(Cloudlet.class, 1);
-        COUNTERS.put(Vm.class, 1);
-        COUNTERS.put(Host.class, 1);
-        COUNTERS.put(DatacenterBroker.class, 1);
-        COUNTERS.put(Pe.class, 1);
+        private Counters() {
+            counters.put(Cloudlet.class, 1);
+            counters.put(Vm.class, 1);
+            counters.put(Host.class, 1);
+            counters.put(DatacenterBroker.class, 1);
+            counters.put(Pe.class, 1);
+        }
     }
 
     private Id() {
@@ -40,11 +46,12 @@ public final class Id {
      * @return a valid id for the specified class.
      */
     public static synchronized int pollId(final Class<?> clazz) {
+        Counters c = getCounters();
         Class<?> matchClass = null;
-        if (COUNTERS.containsKey(clazz)) {
+        if (c.counters.containsKey(clazz)) {
             matchClass = clazz;
-        } else if (!NO_COUNTERS.contains(clazz)) {
-            for (Class<?> key : COUNTERS.keySet()) {
+        } else if (!c.noCounters.contains(clazz)) {
+            for (Class<?> key : c.counters.keySet()) {
                 if (key.isAssignableFrom(clazz)) {
                     matchClass = key;
                     break;
@@ -54,11 +61,11 @@ public final class Id {
 
         int result = -1;
         if (matchClass == null) {
-            NO_COUNTERS.add(clazz);
-            result = pollGlobalId();
+            c.noCounters.add(clazz);
+            result = c.globalCounter++;
         } else {
-            result = COUNTERS.get(matchClass);
-            COUNTERS.put(matchClass, result + 1);
+            result = c.counters.get(matchClass);
+            c.counters.put(matchClass, result + 1);
         }
 
         if (result < 0) {
@@ -69,8 +76,14 @@ public final class Id {
         return result;
     }
 
-    private static synchronized int pollGlobalId() {
-        return globalCounter++;
+    /**
+     * Returns the counters of the current simulation context, so that simulations
+     * running in parallel generate their ids independently.
+     *
+     * @return the counters of the current simulation context.
+     */
+    private static Counters getCounters() {
+        return SimulationContext.current().getAttribute(Id.class, Counters::new);
     }
 
 }
@@ -9,8 +9,10 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
@@ -37,6 +39,9 @@ public class HostDynamicWorkload extends Host {
 	/** The host utilization state history. */
 	private final List<HostStateHistoryEntry> stateHistory = new LinkedList<>();
 
+	/** The MIPS requested by each VM, reused at each update of the allocation of the PEs. */
+	private final Map<GuestEntity, List<Double>> requestedMips = new LinkedHashMap<>();
+
 	/**
 	 * Instantiates a new host.
 	 * 
@@ -67,12 +72,10 @@ public class HostDynamicWorkload extends Host {
 		double hostTotalRequestedMips = 0;
 
 		for (GuestEntity vm : getGuestList()) {
-			getGuestScheduler().deallocatePesForGuest(vm);
-		}
-
-		for (GuestEntity vm : getGuestList()) {
-			getGuestScheduler().allocatePesForGuest(vm, vm.getCurrentRequestedMips());
+			requestedMips.put(vm, vm.getCurrentRequestedMips());
 		}
+		getGuestScheduler().reallocateAll(requestedMips);
+		requestedMips.clear();
 
 		for (GuestEntity vm : getGuestList()) {
 			double totalRequestedMips = vm.getCurrentRequestedTotalMips();
@@ -0,0 +1,315 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.ScoredSelectionPolicy;
+
+/**
+ * An index of a host list, that finds the host with the highest score among the ones suitable for a guest,
+ * as a {@link ScoredSelectionPolicy} would select it by scanning the whole list.
+ * <p>
+ * The index is a segment tree over the positions of the hosts: each node keeps the highest score,
+ * PE capacity, available MIPS, RAM and BW of the hosts below it. A search skips the nodes where no host
+ * can fit the guest, or beat the best host found so far, and checks the remaining hosts with
+ * {@link HostEntity#isSuitableForGuest(GuestEntity)}. Therefore, a search costs O(log H) when the
+ * per-node maxima are enough to tell the hosts that fit the guest, and O(H) in the worst case.
+ * <p>
+ * The state of a host is read again on {@link #update(HostEntity)}, that the allocation policy calls
+ * whenever it allocates or deallocates a guest, and the state of all the hosts whenever the simulation
+ * clock advances, since the score of a host may depend on its current utilization.
+ * A host changed by other means at the same simulation time must be updated explicitly.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ * @see VmAllocationWithSelectionPolicy#setHostIndexing(boolean)
+ */
+public class HostIndex {
+
+	/** The number of hosts below which a subtree is read by a single fork/join task. */
+	private static final int PARALLEL_GRAIN = 256;
+
+	/** The indexed hosts. */
+	private final List<? extends HostEntity> hostList;
+
+	/** The policy giving the score of each host. */
+	private final ScoredSelectionPolicy<HostEntity> selectionPolicy;
+
+	/** The position of each host in the host list. */
+	private final Map<HostEntity, Integer> positions = new HashMap<>();
+
+	/** The number of leaves of the tree, i.e. the number of hosts rounded up to a power of 2. */
+	private int leaves;
+
+	/** The highest score of the hosts below each node; the root is node 1 and the leaves follow the inner nodes. */
+	private double[] score;
+
+	/** The highest PE capacity of the hosts below each node. */
+	private double[] peCapacity;
+
+	/** The highest available MIPS of the hosts below each node. */
+	private double[] availableMips;
+
+	/** The highest available RAM of the hosts below each node. */
+	private long[] availableRam;
+
+	/** The highest available BW of the hosts below each node. */
+	private long[] availableBw;
+
+	/** The simulation time when the hosts were last read. */
+	private double lastRefreshTime = Double.NaN;
+
+	/** The guest demand and the best host found by the current search. */
+	private GuestEntity guest;
+	private double requestedMaxMips;
+	private double requestedTotalMips;
+	private long requestedRam;
+	private long requestedBw;
+	private int bestPosition;
+	private double bestScore;
+
+	/**
+	 * Creates an index of a host list.
+	 *
+	 * @param hostList the host list, whose order is the order of the selection
+	 * @param selectionPolicy the policy giving the score of each host
+	 */
+	@SuppressWarnings("unchecked")
+	public HostIndex(List<? extends HostEntity> hostList, ScoredSelectionPolicy<? extends HostEntity> selectionPolicy) {
+		this.hostList = hostList;
+		this.selectionPolicy = (ScoredSelectionPolicy<HostEntity>) selectionPolicy;
+	}
+
+	/**
+	 * Finds the host with the highest score among the ones suitable for a guest;
+	 * the first one in the host list, among the ones with the same score.
+	 *
+	 * @param guest the guest
+	 * @return the host, or null if no host is suitable for the guest
+	 */
+	public HostEntity findHostForGuest(GuestEntity guest) {
+		refresh();
+		this.guest = guest;
+		requestedMaxMips = guest.getCurrentRequestedMaxMips();
+		// some hosts check the total MIPS of the guest instead of the requested ones
+		requestedTotalMips = Math.min(guest.getCurrentRequestedTotalMips(), guest.getTotalMips());
+		requestedRam = guest.getCurrentRequestedRam();
+		requestedBw = guest.getCurrentRequestedBw();
+		bestPosition = -1;
+		bestScore = Double.NEGATIVE_INFINITY;
+
+		search(1, 0);
+
+		this.guest = null;
+		return bestPosition == -1 ? null : hostList.get(bestPosition);
+	}
+
+	/**
+	 * Reads again the state of a host, after it has changed.
+	 *
+	 * @param host the host
+	 */
+	public void update(HostEntity host) {
+		if (leaves == 0) {
+			return;
+		}
+		Integer position = positions.get(host);
+		if (position != null) {
+			int node = leaves + position;
+			read(node, host);
+			for (node >>= 1; node >= 1; node >>= 1) {
+				merge(node);
+			}
+		}
+	}
+
+	/**
+	 * Reads again the state of all the hosts.
+	 */
+	public void updateAll() {
+		updateAll(false);
+	}
+
+	/**
+	 * Reads again the state of all the hosts, possibly scoring them in parallel with fork/join,
+	 * in the {@link SimulationContext#getForkJoinPool() pool} of the current simulation.
+	 * The selection policy must then be able to score different hosts concurrently,
+	 * as the built-in ones do.
+	 *
+	 * @param parallel true to read the hosts in parallel
+	 */
+	public void updateAll(boolean parallel) {
+		int n = hostList.size();
+		if (leaves < n || positions.size() != n) {
+			build();
+		}
+		if (parallel && n > PARALLEL_GRAIN) {
+			SimulationContext.current().getForkJoinPool().invoke(new UpdateTask(1, 0, leaves));
+		} else {
+			updateSubtree(1, 0, leaves);
+		}
+		lastRefreshTime = CloudSim.clock();
+	}
+
+	/**
+	 * Reads again the hosts below a node.
+	 *
+	 * @param node the node
+	 * @param first the position of the first host below the node
+	 * @param size the number of leaves below the node
+	 */
+	private void updateSubtree(int node, int first, int size) {
+		if (first >= hostList.size()) {
+			// only empty leaves below
+			return;
+		}
+		if (size == 1) {
+			read(node, hostList.get(first));
+			return;
+		}
+		updateSubtree(2 * node, first, size / 2);
+		updateSubtree(2 * node + 1, first + size / 2, size / 2);
+		merge(node);
+	}
+
+	/**
+	 * Reads again the hosts below a node, forking a task for each half of the subtree
+	 * until the subtree is small enough.
+	 */
+	private class UpdateTask extends RecursiveAction {
+		private final int node;
+		private final int first;
+		private final int size;
+
+		UpdateTask(int node, int first, int size) {
+			this.node = node;
+			this.first = first;
+			this.size = size;
+		}
+
+		@Override
+		protected void compute() {
+			if (size <= PARALLEL_GRAIN) {
+				updateSubtree(node, first, size);
+				return;
+			}
+			if (first + size / 2 >= hostList.size()) {
+				// only empty leaves on the right
+				new UpdateTask(2 * node, first, size / 2).compute();
+			} else {
+				invokeAll(new UpdateTask(2 * node, first, size / 2),
+						new UpdateTask(2 * node + 1, first + size / 2, size / 2));
+			}
+			merge(node);
+		}
+	}
+
+	/**
+	 * Reads again all the hosts if the host list changed, or the simulation clock advanced.
+	 */
+	private void refresh() {
+		if (leaves < hostList.size() || positions.size() != hostList.size() || CloudSim.clock() != lastRefreshTime) {
+			updateAll();
+		}
+	}
+
+	/**
+	 * Allocates the tree for the current host list.
+	 */
+	private void build() {
+		positions.clear();
+		for (int i = 0; i < hostList.size(); i++) {
+			positions.put(hostList.get(i), i);
+		}
+		leaves = Math.max(1, Integer.highestOneBit(Math.max(1, hostList.size() - 1)) << 1);
+		score = new double[2 * leaves];
+		peCapacity = new double[2 * leaves];
+		availableMips = new double[2 * leaves];
+		availableRam = new long[2 * leaves];
+		availableBw = new long[2 * leaves];
+		// the empty leaves never fit
+		Arrays.fill(score, Double.NEGATIVE_INFINITY);
+		Arrays.fill(peCapacity, -1);
+		Arrays.fill(availableMips, -1);
+		Arrays.fill(availableRam, -1);
+		Arrays.fill(availableBw, -1);
+	}
+
+	private void read(int node, HostEntity host) {
+		score[node] = selectionPolicy.getScore(host);
+		peCapacity[node] = host.getGuestScheduler().getPeCapacity();
+		availableMips[node] = host.getGuestScheduler().getAvailableMips();
+		// other provisioners may allow more than the available resources
+		availableRam[node] = host.getGuestRamProvisioner() instanceof RamProvisionerSimple
+				? host.getGuestRamProvisioner().getAvailableRam() : Long.MAX_VALUE;
+		availableBw[node] = host.getGuestBwProvisioner() instanceof BwProvisionerSimple
+				? host.getGuestBwProvisioner().getAvailableBw() : Long.MAX_VALUE;
+	}
+
+	private void merge(int node) {
+		int left = 2 * node;
+		int right = left + 1;
+		score[node] = Math.max(score[left], score[right]);
+		peCapacity[node] = Math.max(peCapacity[left], peCapacity[right]);
+		availableMips[node] = Math.max(availableMips[left], availableMips[right]);
+		availableRam[node] = Math.max(availableRam[left], availableRam[right]);
+		availableBw[node] = Math.max(availableBw[left], availableBw[right]);
+	}
+
+	/**
+	 * Searches the best host below a node.
+	 *
+	 * @param node the node
+	 * @param first the position of the first host below the node
+	 */
+	private void search(int node, int first) {
+		if (score[node] == Double.NEGATIVE_INFINITY
+				|| peCapacity[node] < requestedMaxMips
+				|| availableMips[node] < requestedTotalMips
+				|| availableRam[node] < requestedRam
+				|| availableBw[node] < requestedBw) {
+			return;
+		}
+		// no host below can beat the best one: on equal scores, the first host wins
+		if (bestPosition != -1
+				&& (score[node] < bestScore || (score[node] == bestScore && first > bestPosition))) {
+			return;
+		}
+
+		if (node >= leaves) {
+			if (hostList.get(first).isSuitableForGuest(guest)) {
+				bestPosition = first;
+				bestScore = score[node];
+			}
+			return;
+		}
+
+		int left = 2 * node;
+		int right = left + 1;
+		int size = leaves / Integer.highestOneBit(node) / 2;
+		if (score[right] > score[left]) {
+			search(right, first + size);
+			search(left, first);
+		} else {
+			search(left, first);
+			search(right, first + size);
+		}
+	}
+}
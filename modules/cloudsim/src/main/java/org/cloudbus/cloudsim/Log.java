@@ -11,9 +11,14 @@ package org.cloudbus.cloudsim;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
+
 /**
  * Logger used for performing logging of the simulation process. It provides the ability to
  * substitute the output stream by any OutputStream subclass.
+ * <p>
+ * The output stream and the disabled flag are scoped to the current {@link SimulationContext},
+ * so that simulations running in parallel can be logged independently.
  * 
  * @author Anton Beloglazov
  * @author Remo Andreoli
@@ -24,16 +29,6 @@ public class Log {
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
-	/** The stream where the log will the outputted. */
-	private static OutputStream output;
-
-	/** Indicates if the logger is disabled or not. If set to true,
-         the call for any print method has no effect. */
-	private static boolean disabled;
-	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static final StringBuilder buffer = new StringBuilder();
-
 	/**
 	 * Prints a message.
 	 * 
@@ -94,7 +89,8 @@ public class Log {
 	 */
 	public static void printConcat(Object... messages) {
 		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer		    
+			StringBuilder buffer = SimulationContext.current().getLogBuffer();
+			buffer.setLength(0); // Clear the buffer
             for (Object message : messages) {
                 buffer.append(message);
             }
@@ -109,7 +105,8 @@ public class Log {
 	 */
 	public static void printlnConcat(Object... messages) {
 		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer		    
+			StringBuilder buffer = SimulationContext.current().getLogBuffer();
+			buffer.setLength(0); // Clear the buffer
             for (Object message : messages) {
                 buffer.append(message);
             }
@@ -166,7 +163,7 @@ public class Log {
 	 * @param _output the new output
 	 */
 	public static void setOutput(OutputStream _output) {
-		output = _output;
+		SimulationContext.current().setLogOutput(_output);
 	}
 
 	/**
@@ -175,10 +172,11 @@ public class Log {
 	 * @return the output
 	 */
 	public static OutputStream getOutput() {
-		if (output == null) {
-			setOutput(System.out);
+		SimulationContext context = SimulationContext.current();
+		if (context.getLogOutput() == null) {
+			context.setLogOutput(System.out);
 		}
-		return output;
+		return context.getLogOutput();
 	}
 
 	/**
@@ -187,7 +185,7 @@ public class Log {
 	 * @param _disabled the new disabled
 	 */
 	public static void setDisabled(boolean _disabled) {
-		disabled = _disabled;
+		SimulationContext.current().setLogDisabled(_disabled);
 	}
 
 	/**
@@ -196,7 +194,7 @@ public class Log {
 	 * @return true, if is disable
 	 */
 	public static boolean isDisabled() {
-		return disabled;
+		return SimulationContext.current().isLogDisabled();
 	}
 
 	/**
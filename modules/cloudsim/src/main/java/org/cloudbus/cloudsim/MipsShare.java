@@ -0,0 +1,195 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable MIPS share, i.e. the MIPS of each PE requested by or allocated to a guest, backed by
+ * a <tt>double[]</tt> and with a cached total.
+ * <p>
+ * The MIPS shares are exchanged as <tt>List&lt;Double&gt;</tt> among the {@link VmScheduler VmSchedulers},
+ * the guests and the {@link CloudletScheduler CloudletSchedulers}. A MipsShare is such a list, so it can
+ * be passed to (or returned from) the existing methods, but the schedulers in the hot paths read it
+ * through {@link #getMips(int)} and {@link #getTotal()}, without boxing the values.
+ * Use {@link #of(List)} to read any list as a MipsShare: it doesn't copy the MipsShare instances.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public final class MipsShare extends AbstractList<Double> implements RandomAccess {
+
+	/** The empty MIPS share. */
+	public static final MipsShare EMPTY = new MipsShare(new double[0]);
+
+	/** The MIPS of each PE. */
+	private final double[] mips;
+
+	/** The total MIPS. */
+	private final double total;
+
+	private MipsShare(double[] mips) {
+		this.mips = mips;
+		double sum = 0;
+		for (double m : mips) {
+			sum += m;
+		}
+		this.total = sum;
+	}
+
+	/**
+	 * Creates a MIPS share.
+	 *
+	 * @param mips the MIPS of each PE
+	 * @return the MIPS share
+	 */
+	public static MipsShare of(double... mips) {
+		return mips.length == 0 ? EMPTY : new MipsShare(mips.clone());
+	}
+
+	/**
+	 * Reads a list of MIPS as a MIPS share.
+	 *
+	 * @param mips the MIPS of each PE
+	 * @return the list itself if it is a MipsShare, a copy of it otherwise
+	 */
+	public static MipsShare of(List<Double> mips) {
+		if (mips instanceof MipsShare share) {
+			return share;
+		}
+		double[] values = new double[mips.size()];
+		int i = 0;
+		for (Double m : mips) {
+			values[i++] = m;
+		}
+		return i == 0 ? EMPTY : new MipsShare(values);
+	}
+
+	/**
+	 * Wraps an array of MIPS, that must not be modified afterwards.
+	 */
+	static MipsShare wrap(double[] mips) {
+		return mips.length == 0 ? EMPTY : new MipsShare(mips);
+	}
+
+	/**
+	 * Creates a MIPS share where all the PEs have the same MIPS.
+	 *
+	 * @param mips the MIPS of each PE
+	 * @param numberOfPes the number of PEs
+	 * @return the MIPS share
+	 */
+	public static MipsShare uniform(double mips, int numberOfPes) {
+		if (numberOfPes == 0) {
+			return EMPTY;
+		}
+		double[] values = new double[numberOfPes];
+		Arrays.fill(values, mips);
+		return new MipsShare(values);
+	}
+
+	/**
+	 * Concatenates two MIPS shares.
+	 *
+	 * @param other the MIPS share to append
+	 * @return the concatenated MIPS share
+	 */
+	public MipsShare concat(MipsShare other) {
+		if (other.isEmpty()) {
+			return this;
+		}
+		if (isEmpty()) {
+			return other;
+		}
+		double[] values = Arrays.copyOf(mips, mips.length + other.mips.length);
+		System.arraycopy(other.mips, 0, values, mips.length, other.mips.length);
+		return new MipsShare(values);
+	}
+
+	/**
+	 * Gets the MIPS share without the PEs that have no MIPS.
+	 *
+	 * @return this MIPS share, if all the PEs have some MIPS, a copy without the PEs
+	 * 		   with zero (or negative) MIPS otherwise
+	 */
+	public MipsShare positive() {
+		int n = 0;
+		for (double m : mips) {
+			if (m > 0) {
+				n++;
+			}
+		}
+		if (n == mips.length) {
+			return this;
+		}
+		double[] values = new double[n];
+		n = 0;
+		for (double m : mips) {
+			if (m > 0) {
+				values[n++] = m;
+			}
+		}
+		return n == 0 ? EMPTY : new MipsShare(values);
+	}
+
+	/**
+	 * Gets the MIPS of a PE.
+	 *
+	 * @param pe the index of the PE
+	 * @return the MIPS of the PE
+	 */
+	public double getMips(int pe) {
+		return mips[pe];
+	}
+
+	/**
+	 * Gets the total MIPS, i.e. the sum of the MIPS of all the PEs.
+	 *
+	 * @return the total MIPS
+	 */
+	public double getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the maximum MIPS among all the PEs.
+	 *
+	 * @return the maximum MIPS, or 0 if there are no PEs
+	 */
+	public double getMax() {
+		double max = 0;
+		for (double m : mips) {
+			if (m > max) {
+				max = m;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Gets a copy of the MIPS of each PE.
+	 *
+	 * @return the MIPS of each PE
+	 */
+	public double[] toDoubleArray() {
+		return mips.clone();
+	}
+
+	@Override
+	public Double get(int index) {
+		return mips[index];
+	}
+
+	@Override
+	public int size() {
+		return mips.length;
+	}
+}
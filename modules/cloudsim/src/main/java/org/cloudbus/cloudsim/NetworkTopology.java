@@ -10,14 +10,16 @@ package org.cloudbus.cloudsim;
 
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.network.CompactTopologicalGraph;
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
 import org.cloudbus.cloudsim.network.TopologicalGraph;
 import org.cloudbus.cloudsim.network.TopologicalLink;
 import org.cloudbus.cloudsim.network.TopologicalNode;
+import org.cloudbus.cloudsim.network.TopologyCache;
 
 /**
  * Implements the network layer in CloudSim. It reads a file in the <a href="http://www.cs.bu.edu/brite/user_manual/node29.html">BRITE format</a>,
@@ -31,43 +33,68 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * proper work of the network simulation. Each BRITE node can be mapped to only one entity at a
  * time.
  * 
+ * <p/>
+ * The topology state is owned by the {@link SimulationContext} of the simulation; the static
+ * methods of this class operate on the topology of the current context.
+ * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
- * 
- * //@TODO The class only have static methods, that indicates it doesn't have to be instantiated.
- * In fact, it doesn't appear it is being instantiated anywhere.
- * A private default constructor would be created to avoid instantiation.
  */
 public class NetworkTopology {
         /**
          * The BRITE id to use for the next node to be created in the network.
          */
-	protected static int nextIdx = 0;
+	protected int nextIdx = 0;
 
-	private static boolean networkEnabled = false;
+	private boolean networkEnabled = false;
+
+        /**
+         * Indicates if the delays from a node are computed only when first requested.
+         */
+	private boolean delaysOnDemand = false;
 
         /**
          * A matrix containing the delay between every pair of nodes in the network.
          */
-	protected static DelayMatrix_Float delayMatrix = null;
+	protected DelayMatrix_Float delayMatrix = null;
 
         /**
          * A matrix containing the bandwidth between every pair of nodes in the network.
+         * It grows by doubling as links are added, so it may be larger than the number of nodes.
          */
-	protected static double[][] bwMatrix = null;
+	protected double[][] bwMatrix = null;
 
         /**
          * The Topological Graph of the network.
          */
-	protected static TopologicalGraph graph = null;
+	protected TopologicalGraph graph = null;
+
+        /**
+         * The nodes and links of the network in flat arrays, from which the matrices are computed.
+         */
+	private CompactTopologicalGraph compactGraph = null;
+
+        /**
+         * The cache of the topologies read from BRITE files, or null if they are not cached.
+         */
+	private TopologyCache topologyCache = null;
 
 	/**
          * The map between CloudSim entities and BRITE entities.
          * Each key is a CloudSim entity ID and each value the corresponding
          * BRITE entity ID.
          */
-        protected static Map<Integer, Integer> map = null;
+        protected Map<Integer, Integer> map = null;
+
+	/**
+	 * Gets the network topology of the current simulation context.
+	 *
+	 * @return the network topology
+	 */
+	public static NetworkTopology getInstance() {
+		return SimulationContext.current().getNetworkTopology();
+	}
 
 	/**
 	 * Creates the network topology if the file exists and can be successfully parsed. File is
@@ -78,15 +105,67 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void buildNetworkTopology(String fileName) {
-		Log.printlnConcat("Topology file: ", fileName);
+		getInstance().build(fileName);
+	}
 
-		// try to find the file
-		GraphReaderBrite reader = new GraphReaderBrite();
+	/**
+	 * Creates the network topology from a BRITE file, reusing the graph and the delays
+	 * stored in a cache directory by a previous simulation that read the same file.
+	 * 
+	 * @param fileName name of the BRITE file
+	 * @param cacheDirectory the directory of the cache files
+	 * @see TopologyCache
+	 */
+	public static void buildNetworkTopology(String fileName, String cacheDirectory) {
+		NetworkTopology topology = getInstance();
+		topology.setTopologyCache(new TopologyCache(cacheDirectory));
+		topology.build(fileName);
+	}
+
+	/**
+	 * Creates this network topology from a BRITE file. If a {@link #setTopologyCache(TopologyCache) cache}
+	 * is set, the topology is read from the cache when the file was already processed,
+	 * and stored in the cache otherwise.
+	 *
+	 * @param fileName name of the BRITE file
+	 * @see #buildNetworkTopology(String)
+	 */
+	public void build(String fileName) {
+		Log.printlnConcat("Topology file: ", fileName);
 
 		try {
-			graph = reader.readGraphFile(fileName);
+			byte[] hash = null;
+			TopologyCache.Entry entry = null;
+			if (topologyCache != null) {
+				hash = TopologyCache.hash(fileName);
+				try {
+					entry = topologyCache.read(hash);
+				} catch (IOException e) {
+					Log.printlnConcat("Problem in reading the topology cache. The BRITE file is parsed. Error: ",
+							e.getMessage());
+				}
+			}
+
+			float[] delays = null;
+			if (entry != null) {
+				compactGraph = entry.getGraph();
+				delays = delaysOnDemand ? null : entry.getDelays();
+			} else {
+				// try to find the file
+				compactGraph = new GraphReaderBrite().readCompactGraph(fileName);
+			}
+			graph = compactGraph.toTopologicalGraph();
+
 			map = new HashMap<>();
-			generateMatrices();
+			generateMatrices(delays);
+
+			if (topologyCache != null && (entry == null || entry.getDelays() == null && !delaysOnDemand)) {
+				try {
+					topologyCache.write(hash, compactGraph, delayMatrix.getDelayMatrix());
+				} catch (IOException e) {
+					Log.printlnConcat("Problem in writing the topology cache. Error: ", e.getMessage());
+				}
+			}
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
 			Log.printlnConcat("Problem in processing BRITE file. Network simulation is disabled. Error: ",
@@ -98,12 +177,25 @@ public class NetworkTopology {
 	/**
 	 * Generates the matrices used internally to set latency and bandwidth between elements.
 	 */
-	private static void generateMatrices() {
+	private void generateMatrices() {
+		generateMatrices(null);
+	}
+
+	/**
+	 * Generates the matrices used internally to set latency and bandwidth between elements.
+	 *
+	 * @param delays the delays between all the pairs of nodes if already computed, null otherwise
+	 */
+	private void generateMatrices(float[] delays) {
 		// creates the delay matrix
-		delayMatrix = new DelayMatrix_Float(graph, false);
+		if (delays != null) {
+			delayMatrix = new DelayMatrix_Float(compactGraph, false, delays);
+		} else {
+			delayMatrix = new DelayMatrix_Float(compactGraph, false, delaysOnDemand);
+		}
 
 		// creates the bw matrix
-		bwMatrix = createBwMatrix(graph, false);
+		bwMatrix = createBwMatrix(compactGraph, false);
 
 		networkEnabled = true;
 	}
@@ -122,9 +214,23 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void addLink(int srcId, int destId, double bw, double lat) {
+		getInstance().link(srcId, destId, bw, lat);
+	}
 
-		if (graph == null) {
+	/**
+	 * Adds a new link in this network topology. The delays between the nodes are updated
+	 * incrementally, only the paths through the new link being computed again.
+	 *
+	 * @param srcId ID of the CloudSim entity that represents the link's source node
+	 * @param destId ID of the CloudSim entity that represents the link's destination node
+	 * @param bw Link's bandwidth
+	 * @param lat link's latency
+	 * @see #addLink(int, int, double, double)
+	 */
+	public void link(int srcId, int destId, double bw, double lat) {
+		if (compactGraph == null) {
 			graph = new TopologicalGraph();
+			compactGraph = new CompactTopologicalGraph();
 		}
 
 		if (map == null) {
@@ -134,23 +240,97 @@ public class NetworkTopology {
 		// maybe add the nodes
 		if (!map.containsKey(srcId)) {
 			graph.addNode(new TopologicalNode(nextIdx));
+			compactGraph.addNode(nextIdx, 0, 0);
 			map.put(srcId, nextIdx);
 			nextIdx++;
 		}
 
 		if (!map.containsKey(destId)) {
 			graph.addNode(new TopologicalNode(nextIdx));
+			compactGraph.addNode(nextIdx, 0, 0);
 			map.put(destId, nextIdx);
 			nextIdx++;
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		int src = map.get(srcId);
+		int dest = map.get(destId);
+		graph.addLink(new TopologicalLink(src, dest, (float) lat, (float) bw));
+		compactGraph.addLink(src, dest, (float) lat, (float) bw);
 
-		generateMatrices();
+		if (delayMatrix == null) {
+			generateMatrices();
+		} else {
+			delayMatrix.addLink(src, dest, (float) lat);
+			addBw(src, dest, (float) bw);
+		}
 
 	}
 
+	/**
+	 * Sets the bandwidth of a new link in the bandwidth matrix, growing it if needed.
+	 *
+	 * @param src the BRITE id of the link's source node
+	 * @param dest the BRITE id of the link's destination node
+	 * @param bw the link's bandwidth
+	 */
+	private void addBw(int src, int dest, float bw) {
+		int nodes = Math.max(src, dest) + 1;
+		if (nodes > bwMatrix.length) {
+			int capacity = Math.max(nodes, 2 * bwMatrix.length);
+			double[][] mtx = new double[capacity][capacity];
+			for (int i = 0; i < bwMatrix.length; i++) {
+				System.arraycopy(bwMatrix[i], 0, mtx[i], 0, bwMatrix[i].length);
+			}
+			bwMatrix = mtx;
+		}
+
+		bwMatrix[src][dest] = bw;
+		bwMatrix[dest][src] = bw;
+	}
+
+	/**
+	 * Sets if the delays from a node are computed only when first requested, by Dijkstra's algorithm,
+	 * instead of computing the delays between all the pairs of nodes. This saves time and memory
+	 * on large sparse topologies where only a few nodes are mapped to CloudSim entities.
+	 * If the topology was already built, its delays are computed again.
+	 *
+	 * @param delaysOnDemand true to compute the delays on demand, false otherwise
+	 */
+	public void setDelaysOnDemand(boolean delaysOnDemand) {
+		this.delaysOnDemand = delaysOnDemand;
+		if (delayMatrix != null && delayMatrix.isOnDemand() != delaysOnDemand) {
+			delayMatrix = new DelayMatrix_Float(compactGraph, false, delaysOnDemand);
+		}
+	}
+
+	/**
+	 * Sets the cache of the topologies read from BRITE files by {@link #build(String)}.
+	 *
+	 * @param topologyCache the topology cache, or null to always parse the files
+	 */
+	public void setTopologyCache(TopologyCache topologyCache) {
+		this.topologyCache = topologyCache;
+	}
+
+	/**
+	 * Gets the cache of the topologies read from BRITE files.
+	 *
+	 * @return the topology cache, or null if the topologies are not cached
+	 */
+	public TopologyCache getTopologyCache() {
+		return topologyCache;
+	}
+
+	/**
+	 * Checks if the delays from a node are computed only when first requested.
+	 *
+	 * @return true if the delays are computed on demand, false otherwise
+	 */
+	public boolean isDelaysOnDemand() {
+		return delaysOnDemand;
+	}
+
 	/**
 	 * Creates the matrix containing the available bandwidth between every pair of nodes.
 	 * 
@@ -158,26 +338,16 @@ public class NetworkTopology {
 	 * @param directed true if the graph is directed; false otherwise
 	 * @return the bandwidth graph
 	 */
-	private static double[][] createBwMatrix(TopologicalGraph graph, boolean directed) {
-		int nodes = graph.getNumberOfNodes();
+	private static double[][] createBwMatrix(CompactTopologicalGraph graph, boolean directed) {
+		int nodes = graph.getMatrixSize();
 
 		double[][] mtx = new double[nodes][nodes];
 
-		// cleanup matrix
-		for (int i = 0; i < nodes; i++) {
-			for (int j = 0; j < nodes; j++) {
-				mtx[i][j] = 0.0;
-			}
-		}
-
-		Iterator<TopologicalLink> iter = graph.getLinkIterator();
-		while (iter.hasNext()) {
-			TopologicalLink edge = iter.next();
-
-			mtx[edge.getSrcNodeID()][edge.getDestNodeID()] = edge.getLinkBw();
+		for (int i = 0; i < graph.getNumberOfLinks(); i++) {
+			mtx[graph.getSrcNodeID(i)][graph.getDestNodeID(i)] = graph.getLinkBw(i);
 
 			if (!directed) {
-				mtx[edge.getDestNodeID()][edge.getSrcNodeID()] = edge.getLinkBw();
+				mtx[graph.getDestNodeID(i)][graph.getSrcNodeID(i)] = graph.getLinkBw(i);
 			}
 		}
 
@@ -194,6 +364,17 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void mapNode(int cloudSimEntityID, int briteID) {
+		getInstance().map(cloudSimEntityID, briteID);
+	}
+
+	/**
+	 * Maps a CloudSim entity to a BRITE node in this network topology.
+	 *
+	 * @param cloudSimEntityID ID of the entity being mapped
+	 * @param briteID ID of the BRITE node that corresponds to the CloudSim entity
+	 * @see #mapNode(int, int)
+	 */
+	public void map(int cloudSimEntityID, int briteID) {
 		if (networkEnabled) {
 			try {
 				// this CloudSim entity was already mapped?
@@ -222,6 +403,16 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void unmapNode(int cloudSimEntityID) {
+		getInstance().unmap(cloudSimEntityID);
+	}
+
+	/**
+	 * Unmaps a previously mapped CloudSim entity from this network topology.
+	 *
+	 * @param cloudSimEntityID ID of the entity being unmapped
+	 * @see #unmapNode(int)
+	 */
+	public void unmap(int cloudSimEntityID) {
 		if (networkEnabled) {
 			try {
 				map.remove(cloudSimEntityID);
@@ -242,6 +433,18 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
+		return getInstance().getDelayBetween(srcID, destID);
+	}
+
+	/**
+	 * Calculates the delay between two nodes of this network topology.
+	 *
+	 * @param srcID ID of the CloudSim entity that represents the link's source node
+	 * @param destID ID of the CloudSim entity that represents the link's destination node
+	 * @return communication delay between the two nodes
+	 * @see #getDelay(int, int)
+	 */
+	public double getDelayBetween(int srcID, int destID) {
 		if (networkEnabled) {
 			try {
 				// add the network latency
@@ -265,6 +468,16 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static boolean isNetworkEnabled() {
+		return getInstance().isEnabled();
+	}
+
+	/**
+	 * Checks if the network simulation is working for this network topology.
+	 *
+	 * @return $true if network simulation is working, $false otherwise
+	 * @see #isNetworkEnabled()
+	 */
+	public boolean isEnabled() {
 		return networkEnabled;
 	}
 
@@ -298,20 +298,17 @@ public class Vm implements VirtualEntity {
 	/**
 	 * Gets the current requested mips .
 	 *
-	 * @return the current requested mips
+	 * @return the current requested mips, as an unmodifiable list
 	 */
 	public List<Double> getCurrentRequestedMips() {
 		List<Double> currentRequestedMips;
 
 		if (isBeingInstantiated()) {
-			currentRequestedMips = new ArrayList<>(getNumberOfPes());
-			for (int i = 0; i < getNumberOfPes(); i++) {
-				currentRequestedMips.add(getMips());
-			}
+			currentRequestedMips = MipsShare.uniform(getMips(), getNumberOfPes());
 		} else {
 			currentRequestedMips = getCloudletScheduler().getCurrentRequestedMips();
 			for (GuestEntity guest : getGuestList()) {
-				currentRequestedMips.addAll(guest.getCurrentRequestedMips());
+				currentRequestedMips = MipsShare.of(currentRequestedMips).concat(MipsShare.of(guest.getCurrentRequestedMips()));
 			}
 		}
 
@@ -123,6 +123,22 @@ public abstract class VmAllocationPolicy {
 	@Deprecated
 	public boolean allocateHostForVm(Vm vm, Host host) { return allocateHostForGuest(vm, host); }
 
+	/**
+	 * Allocates a host for each VM of a batch. By default, the VMs are allocated one at a time,
+	 * in the order of the list; subclasses may place the whole batch at once (see {@link VmAllocationPolicyBinPacking}).
+	 *
+	 * @param guests the VMs to allocate a host to
+	 * @return whether the host of each VM, in the order of the list, could be allocated
+	 * @see org.cloudbus.cloudsim.core.CloudActionTags#VM_CREATE_BATCH
+	 */
+	public boolean[] allocateHostsForGuests(List<? extends GuestEntity> guests) {
+		boolean[] result = new boolean[guests.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = allocateHostForGuest(guests.get(i));
+		}
+		return result;
+	}
+
 	/**
 	 * Optimize allocation of the VMs according to current utilization.
 	 * 
@@ -0,0 +1,83 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.selectionPolicies.ScoredSelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+
+/**
+ * A VmAllocationPolicy that places batches of VMs as a bin-packing problem: the VMs of a batch
+ * are sorted by decreasing requested MIPS (and RAM), and each of them is placed on the host
+ * chosen by the selection policy through a {@link HostIndex}. Therefore, it is a First-Fit-Decreasing
+ * policy with {@link SelectionPolicyFirstFit} and a Best-Fit-Decreasing policy with
+ * {@link SelectionPolicyMostFull}.
+ * <p>
+ * Before placing a batch, the hosts are scored in parallel with fork/join; then, each VM is placed in
+ * O(log H), in the common case. A single VM is placed as by {@link VmAllocationWithSelectionPolicy}.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ * @see DatacenterBroker#setVmCreationBatching(boolean)
+ */
+public class VmAllocationPolicyBinPacking extends VmAllocationWithSelectionPolicy {
+
+	/** The order in which the VMs of a batch are placed: the largest first. */
+	private static final Comparator<GuestEntity> DECREASING_SIZE = Comparator
+			.comparingDouble(GuestEntity::getCurrentRequestedTotalMips)
+			.thenComparingInt(GuestEntity::getCurrentRequestedRam)
+			.reversed();
+
+	/**
+	 * Creates a new VmAllocationPolicyBinPacking object.
+	 *
+	 * @param list the list of hosts
+	 * @param selectionPolicy the policy selecting the host of each VM
+	 */
+	public VmAllocationPolicyBinPacking(List<? extends HostEntity> list, ScoredSelectionPolicy<HostEntity> selectionPolicy) {
+		super(list, selectionPolicy);
+		setHostIndexing(true);
+	}
+
+	/**
+	 * Creates a First-Fit-Decreasing or a Best-Fit-Decreasing policy.
+	 *
+	 * @param list the list of hosts
+	 * @param bestFit true for Best-Fit-Decreasing, false for First-Fit-Decreasing
+	 */
+	public VmAllocationPolicyBinPacking(List<? extends HostEntity> list, boolean bestFit) {
+		this(list, bestFit ? new SelectionPolicyMostFull<>() : new SelectionPolicyFirstFit<>());
+	}
+
+	@Override
+	public boolean[] allocateHostsForGuests(List<? extends GuestEntity> guests) {
+		List<Integer> order = new ArrayList<>(guests.size());
+		for (int i = 0; i < guests.size(); i++) {
+			order.add(i);
+		}
+		// the sort is stable: equal VMs are placed in the order of the list
+		order.sort((i, j) -> DECREASING_SIZE.compare(guests.get(i), guests.get(j)));
+
+		HostIndex hostIndex = getHostIndex();
+		if (hostIndex != null) {
+			hostIndex.updateAll(true);
+		}
+		boolean[] result = new boolean[guests.size()];
+		for (int i : order) {
+			result[i] = allocateHostForGuest(guests.get(i));
+		}
+		return result;
+	}
+}
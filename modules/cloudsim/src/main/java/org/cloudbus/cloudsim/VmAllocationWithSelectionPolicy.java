@@ -1,5 +1,6 @@
 package org.cloudbus.cloudsim;
 
+import org.cloudbus.cloudsim.selectionPolicies.ScoredSelectionPolicy;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
@@ -15,6 +16,12 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
 
     private Set<HostEntity> excludedHostCandidates;
 
+    /** The index of the hosts, if the selection policy is scored and the hosts are indexed. */
+    private HostIndex hostIndex;
+
+    /** Whether the hosts are indexed, see {@link #setHostIndexing(boolean)}. */
+    private boolean hostIndexing;
+
     public VmAllocationWithSelectionPolicy(List<? extends HostEntity> list, SelectionPolicy<HostEntity> selectionPolicy) {
         super(list);
         setExcludedHostCandidates(new HashSet<>());
@@ -22,13 +29,75 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
     }
 
     public SelectionPolicy<HostEntity> getSelectionPolicy() { return selectionPolicy; }
-    public void setSelectionPolicy(SelectionPolicy<HostEntity> selectionPolicy) { this.selectionPolicy = selectionPolicy; }
+    public void setSelectionPolicy(SelectionPolicy<HostEntity> selectionPolicy) {
+        this.selectionPolicy = selectionPolicy;
+        hostIndex = null;
+    }
 
     public Set<HostEntity> getExcludedHostCandidates() { return excludedHostCandidates; }
     public void setExcludedHostCandidates(Set<HostEntity> excludedHostCandidates) { this.excludedHostCandidates = excludedHostCandidates; }
 
+    /**
+     * Checks if the hosts are indexed.
+     *
+     * @return true if the hosts are indexed
+     * @see #setHostIndexing(boolean)
+     */
+    public boolean isHostIndexing() { return hostIndexing; }
+
+    /**
+     * Sets whether the hosts are indexed. By default, the selection policy scans the whole host list
+     * and every host that isn't suitable for the guest is excluded before selecting again, so that finding
+     * a host costs O(H^2) in the worst case. When the hosts are indexed and the selection policy is a
+     * {@link ScoredSelectionPolicy} (as the built-in first-fit, least-full, most-full and worst-fit ones),
+     * the same host is found by a {@link HostIndex} in O(log H), in the common case.
+     * The index is updated whenever a guest is allocated or deallocated.
+     *
+     * @param hostIndexing true to index the hosts
+     */
+    public void setHostIndexing(boolean hostIndexing) {
+        this.hostIndexing = hostIndexing;
+        hostIndex = null;
+    }
+
+    /**
+     * Gets the index of the hosts.
+     *
+     * @return the host index, or null if the hosts are not indexed
+     * @see #setHostIndexing(boolean)
+     */
+    protected HostIndex getHostIndex() {
+        if (hostIndex == null && isHostIndexing() && getSelectionPolicy() instanceof ScoredSelectionPolicy<HostEntity> policy) {
+            hostIndex = new HostIndex(getHostList(), policy);
+        }
+        return hostIndex;
+    }
+
+    @Override
+    public boolean allocateHostForGuest(GuestEntity guest, HostEntity host) {
+        boolean result = super.allocateHostForGuest(guest, host);
+        if (result && hostIndex != null) {
+            hostIndex.update(host);
+        }
+        return result;
+    }
+
+    @Override
+    public void deallocateHostForGuest(GuestEntity guest) {
+        HostEntity host = getHost(guest);
+        super.deallocateHostForGuest(guest);
+        if (host != null && hostIndex != null) {
+            hostIndex.update(host);
+        }
+    }
+
     @Override
     public HostEntity findHostForGuest(GuestEntity guest) {
+        // the RAM and BW already allocated to a guest are available to it again
+        if (guest.getHost() == null && getHostIndex() != null) {
+            return getHostIndex().findHostForGuest(guest);
+        }
+
         clearExcludedHostCandidates();
         int tries = 0;
 
@@ -99,6 +99,24 @@ public abstract class VmScheduler {
 		deallocatePesForGuest(vm);
 	}
 
+	/**
+	 * Reallocates the PEs of some VMs, e.g. when the MIPS they request change at each scheduling
+	 * interval. All the given VMs are released first, and then they are allocated again in
+	 * iteration order.
+	 *
+	 * @param requestedMipsByGuest the list of MIPS share requested by each VM
+	 * @pre $none
+	 * @post $none
+	 */
+	public void reallocateAll(Map<? extends GuestEntity, List<Double>> requestedMipsByGuest) {
+		for (GuestEntity guest : requestedMipsByGuest.keySet()) {
+			deallocatePesForGuest(guest);
+		}
+		for (Map.Entry<? extends GuestEntity, List<Double>> entry : requestedMipsByGuest.entrySet()) {
+			allocatePesForGuest(entry.getKey(), entry.getValue());
+		}
+	}
+
 	/**
 	 * Releases PEs allocated to all the VMs of the host the VmScheduler is associated to.
          * After that, all PEs will be available to be used on demand for requesting VMs.
@@ -160,6 +178,9 @@ public abstract class VmScheduler {
 	public double getTotalAllocatedMipsForGuest(GuestEntity guest) {
 		double allocated = 0;
 		List<Double> mipsMap = getAllocatedMipsForGuest(guest);
+		if (mipsMap instanceof MipsShare mipsShare) {
+			return mipsShare.getTotal();
+		}
 		if (mipsMap != null) {
 			for (double mips : mipsMap) {
 				allocated += mips;
@@ -59,8 +59,10 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 		List<Pe> selectedPes = new ArrayList<>();
 		Iterator<Pe> peIterator = getFreePes().iterator();
 		Pe pe = peIterator.next();
+		MipsShare share = MipsShare.of(mipsShare);
 		double totalMips = 0;
-		for (Double mips : mipsShare) {
+		for (int i = 0; i < share.size(); i++) {
+			double mips = share.getMips(i);
 			if (mips <= pe.getMips()) {
 				selectedPes.add(pe);
 				totalMips += mips;
@@ -78,9 +80,9 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 		getFreePes().removeAll(selectedPes);
 
 		getPeAllocationMap().put(guest.getUid(), selectedPes);
-		getMipsMapAllocated().put(guest.getUid(), mipsShare);
+		getMipsMapAllocated().put(guest.getUid(), share);
 		setAvailableMips(getAvailableMips() - totalMips);
-		guest.setCurrentAllocatedMips(mipsShare);
+		guest.setCurrentAllocatedMips(share);
 
 		return true;
 	}
@@ -90,10 +92,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 		getFreePes().addAll(getPeAllocationMap().get(guest.getUid()));
 		getPeAllocationMap().remove(guest.getUid());
 
-		double totalMips = 0;
-		for (double mips : getMipsMapAllocated().get(guest.getUid())) {
-			totalMips += mips;
-		}
+		double totalMips = MipsShare.of(getMipsMapAllocated().get(guest.getUid())).getTotal();
 		setAvailableMips(getAvailableMips() + totalMips);
 
 		getMipsMapAllocated().remove(guest.getUid());
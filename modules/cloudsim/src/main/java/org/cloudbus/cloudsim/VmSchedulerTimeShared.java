@@ -7,7 +7,6 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -38,6 +37,12 @@ public class VmSchedulerTimeShared extends VmScheduler {
          */
 	private Map<String, List<Double>> mipsMapRequested;
 
+	/** The MIPS taken from the {@link #getAvailableMips() available MIPS} by each VM,
+	 * which are given back when the VM is deallocated. A VM whose allocation depends on the
+	 * other VMs' is not in the map.
+	 */
+	private Map<String, Double> mipsMapAccounted;
+
 	/** The number of host's PEs in use. */
 	private int pesInUse;
 
@@ -49,10 +54,66 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
 		setMipsMapRequested(new HashMap<>());
+		setMipsMapAccounted(new HashMap<>());
 	}
 
+	/**
+	 * Allocates PEs for a VM. Only the allocation of the given VM is spread among the PEs,
+	 * unless the allocations of the other VMs changed as well.
+	 */
 	@Override
 	public boolean allocatePesForGuest(GuestEntity guest, List<Double> mipsShareRequested) {
+		String vmUid = guest.getUid();
+		if (getMipsMapRequested().containsKey(vmUid)) {
+			// the VM is already allocated: its allocation is replaced
+			deallocatePesForGuest(guest);
+		}
+		updateMigrationStatus(guest);
+		boolean result = allocatePesForGuest(vmUid, mipsShareRequested);
+		boolean spread = getMipsMapAccounted().containsKey(vmUid) && updatePeProvisioning(vmUid);
+		if (result && !spread) {
+			updatePeProvisioning();
+		}
+		return result;
+	}
+
+	/**
+	 * Reallocates the PEs of the given VMs in a single pass: all the allocations are released at
+	 * once, the VMs are allocated again in iteration order, and then they are spread among the PEs.
+	 * It falls back to {@link VmScheduler#reallocateAll(Map)} if there are other VMs allocated.
+	 */
+	@Override
+	public void reallocateAll(Map<? extends GuestEntity, List<Double>> requestedMipsByGuest) {
+		int allocated = 0;
+		for (GuestEntity guest : requestedMipsByGuest.keySet()) {
+			if (getMipsMapRequested().containsKey(guest.getUid())) {
+				allocated++;
+			}
+		}
+		if (allocated != getMipsMapRequested().size()) {
+			super.reallocateAll(requestedMipsByGuest);
+			return;
+		}
+
+		getMipsMapRequested().clear();
+		getMipsMapAccounted().clear();
+		getMipsMapAllocated().clear();
+		setPesInUse(0);
+		setAvailableMips(PeList.getTotalMips(getPeList()));
+
+		for (Map.Entry<? extends GuestEntity, List<Double>> entry : requestedMipsByGuest.entrySet()) {
+			updateMigrationStatus(entry.getKey());
+			allocatePesForGuest(entry.getKey().getUid(), entry.getValue());
+		}
+		updatePeProvisioning();
+	}
+
+	/**
+	 * Updates the list of VMs migrating out with the migration status of a VM being allocated.
+	 *
+	 * @param guest the vm
+	 */
+	private void updateMigrationStatus(GuestEntity guest) {
 		/*
 		 * //@TODO add the same to RAM and BW provisioners
 		 */
@@ -63,9 +124,6 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		} else {
 			getGuestsMigratingOut().remove(guest.getUid());
 		}
-		boolean result = allocatePesForGuest(guest.getUid(), mipsShareRequested);
-		updatePeProvisioning();
-		return result;
 	}
 
 	/**
@@ -76,9 +134,11 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * @return true, if successful
 	 */
 	protected boolean allocatePesForGuest(String vmUid, List<Double> mipsShareRequested) {
+		MipsShare requested = MipsShare.of(mipsShareRequested);
 		double totalRequestedMips = 0;
 		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
+		for (int i = 0; i < requested.size(); i++) {
+			double mips = requested.getMips(i);
 			// each virtual PE of a VM must require not more than the capacity of a physical PE
 			if (mips > peMips) {
 				return false;
@@ -91,32 +151,71 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			return false;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
-		setPesInUse(getPesInUse() + mipsShareRequested.size());
+		getMipsMapRequested().put(vmUid, requested);
+		setPesInUse(getPesInUse() + requested.size());
 
-		if (getGuestsMigratingIn().contains(vmUid)) {
+		boolean migratingIn = getGuestsMigratingIn().contains(vmUid);
+		if (migratingIn) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
-		List<Double> mipsShareAllocated = new ArrayList<>();
-		for (Double mipsRequested : mipsShareRequested) {
-			if (getGuestsMigratingOut().contains(vmUid)) {
+		boolean migratingOut = getGuestsMigratingOut().contains(vmUid);
+		double[] mipsShareAllocated = new double[requested.size()];
+		for (int i = 0; i < mipsShareAllocated.length; i++) {
+			double mipsRequested = requested.getMips(i);
+			if (migratingOut) {
 				// performance degradation due to migration = 10% MIPS
 				mipsRequested *= 0.9;
-			} else if (getGuestsMigratingIn().contains(vmUid)) {
+			} else if (migratingIn) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				mipsRequested *= 0.1;
 			}
-			mipsShareAllocated.add(mipsRequested);
+			mipsShareAllocated[i] = mipsRequested;
 		}
 
-		getMipsMapAllocated().put(vmUid, mipsShareAllocated);
+		getMipsMapAllocated().put(vmUid, MipsShare.wrap(mipsShareAllocated));
+		getMipsMapAccounted().put(vmUid, totalRequestedMips);
 		setAvailableMips(getAvailableMips() - totalRequestedMips);
 
 		return true;
 	}
 
+	/**
+	 * Spreads the MIPS allocated to a VM among the PEs, in the MIPS left free by the other VMs.
+	 *
+	 * @param vmUid the vm uid
+	 * @return true if the PEs have enough free MIPS, false if the whole allocation of
+	 * 		   VMs on PEs has to be updated
+	 */
+	protected boolean updatePeProvisioning(String vmUid) {
+		List<Pe> pes = new LinkedList<>();
+		getPeMap().put(vmUid, pes);
+
+		Iterator<? extends Pe> peIterator = getPeList().iterator();
+		Pe pe = null;
+		double availableMips = 0;
+		MipsShare share = MipsShare.of(getMipsMapAllocated().get(vmUid));
+		for (int i = 0; i < share.size(); i++) {
+			double mips = share.getMips(i);
+			while (mips >= 0.1) { // rounding error
+				while (availableMips < 0.1 && peIterator.hasNext()) {
+					pe = peIterator.next();
+					availableMips = pe.getPeProvisioner().getAvailableMips();
+				}
+				if (availableMips < 0.1) {
+					return false;
+				}
+				double peMips = Math.min(mips, availableMips);
+				pe.getPeProvisioner().allocateMipsForGuest(vmUid, peMips);
+				pes.add(pe);
+				availableMips -= peMips;
+				mips -= peMips;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Update allocation of VMs on PEs.
          * @todo The method is too long and may be refactored to make clearer its
@@ -138,7 +237,9 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			getPeMap().put(vmUid, new LinkedList<>());
 
 			// Spread mips share among the Pes
-			for (double mips : entry.getValue()) {
+			MipsShare share = MipsShare.of(entry.getValue());
+			for (int i = 0; i < share.size(); i++) {
+				double mips = share.getMips(i);
 				while (mips >= 0.1) { // rounding error
 					if (availableMips >= mips) {
 						peProvisioner.allocateMipsForGuest(vmUid, mips);
@@ -165,11 +266,46 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		}
 	}
 
+	/**
+	 * Releases PEs allocated to a VM. The MIPS taken by the VM are given back and only its PEs are
+	 * released, unless the allocations of the other VMs depend on it: then they are all re-allocated.
+	 */
 	@Override
 	public void deallocatePesForGuest(GuestEntity guest) {
-		getMipsMapRequested().remove(guest.getUid());
+		String vmUid = guest.getUid();
+		List<Double> mipsShareRequested = getMipsMapRequested().remove(vmUid);
+		Double accountedMips = getMipsMapAccounted().remove(vmUid);
+		if (mipsShareRequested != null && accountedMips == null) {
+			reallocateRemainingGuests(guest);
+			return;
+		}
+
+		if (mipsShareRequested != null) {
+			setPesInUse(getPesInUse() - mipsShareRequested.size());
+			getMipsMapAllocated().remove(vmUid);
+			if (getMipsMapRequested().isEmpty()) {
+				// no rounding errors left behind
+				setAvailableMips(PeList.getTotalMips(getPeList()));
+			} else {
+				setAvailableMips(getAvailableMips() + accountedMips);
+			}
+		}
+
+		List<Pe> pes = getPeMap().remove(vmUid);
+		for (Pe pe : pes != null ? pes : getPeList()) {
+			pe.getPeProvisioner().deallocateMipsForGuest(guest);
+		}
+	}
+
+	/**
+	 * Releases PEs allocated to a VM and re-allocates the remaining VMs.
+	 *
+	 * @param guest the vm
+	 */
+	protected void reallocateRemainingGuests(GuestEntity guest) {
 		setPesInUse(0);
 		getMipsMapAllocated().clear();
+		getMipsMapAccounted().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 
 		for (Pe pe : getPeList()) {
@@ -193,6 +329,8 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	public void deallocatePesForAllGuests() {
 		super.deallocatePesForAllGuests();
 		getMipsMapRequested().clear();
+		getMipsMapAccounted().clear();
+		getPeMap().clear();
 		setPesInUse(0);
 	}
 
@@ -242,4 +380,22 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
 		this.mipsMapRequested = mipsMapRequested;
 	}
+
+	/**
+	 * Gets the mips map accounted.
+	 * 
+	 * @return the mips map accounted
+	 */
+	protected Map<String, Double> getMipsMapAccounted() {
+		return mipsMapAccounted;
+	}
+
+	/**
+	 * Sets the mips map accounted.
+	 * 
+	 * @param mipsMapAccounted the mips map accounted
+	 */
+	protected void setMipsMapAccounted(Map<String, Double> mipsMapAccounted) {
+		this.mipsMapAccounted = mipsMapAccounted;
+	}
 }
@@ -7,7 +7,6 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,20 +52,17 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 
 		// if the requested mips is bigger than the capacity of a single PE, we cap
 		// the request to the PE's capacity
-		List<Double> mipsShareRequestedCapped = new ArrayList<>();
+		MipsShare requested = MipsShare.of(mipsShareRequested);
+		double[] mipsShareRequestedCapped = new double[requested.size()];
 		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
-			if (mips > peMips) {
-				mipsShareRequestedCapped.add(peMips);
-				totalRequestedMips += peMips;
-			} else {
-				mipsShareRequestedCapped.add(mips);
-				totalRequestedMips += mips;
-			}
+		for (int i = 0; i < mipsShareRequestedCapped.length; i++) {
+			double mips = Math.min(requested.getMips(i), peMips);
+			mipsShareRequestedCapped[i] = mips;
+			totalRequestedMips += mips;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
-		setPesInUse(getPesInUse() + mipsShareRequested.size());
+		getMipsMapRequested().put(vmUid, requested);
+		setPesInUse(getPesInUse() + requested.size());
 
 		if (getGuestsMigratingIn().contains(vmUid)) {
 			// the destination host only experience 10% of the migrating VM's MIPS
@@ -74,25 +70,25 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		}
 
 		if (getAvailableMips() >= totalRequestedMips) {
-			List<Double> mipsShareAllocated = new ArrayList<>();
-			for (Double mipsRequested : mipsShareRequestedCapped) {
-				if (getGuestsMigratingOut().contains(vmUid)) {
+			boolean migratingOut = getGuestsMigratingOut().contains(vmUid);
+			boolean migratingIn = getGuestsMigratingIn().contains(vmUid);
+			for (int i = 0; i < mipsShareRequestedCapped.length; i++) {
+				if (migratingOut) {
 					// performance degradation due to migration = 10% MIPS
-					mipsRequested *= 0.9;
-				} else if (getGuestsMigratingIn().contains(vmUid)) {
+					mipsShareRequestedCapped[i] *= 0.9;
+				} else if (migratingIn) {
 					// the destination host only experience 10% of the migrating VM's MIPS
-					mipsRequested *= 0.1;
+					mipsShareRequestedCapped[i] *= 0.1;
 				}
-				mipsShareAllocated.add(mipsRequested);
 			}
 
-			getMipsMapAllocated().put(vmUid, mipsShareAllocated);
+			getMipsMapAllocated().put(vmUid, MipsShare.wrap(mipsShareRequestedCapped));
+			getMipsMapAccounted().put(vmUid, totalRequestedMips);
 			setAvailableMips(getAvailableMips() - totalRequestedMips);
 		} else {
 			redistributeMipsDueToOverSubscription();
 		}
 
-        mipsShareRequestedCapped.clear();
         return true;
     }
 
@@ -105,22 +101,18 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		// proportionally
 		double totalRequiredMipsByAllVms = 0;
 
-		Map<String, List<Double>> mipsMapCapped = new HashMap<>();
+		Map<String, double[]> mipsMapCapped = new HashMap<>();
 		for (Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
 
 			double requiredMipsByThisVm = 0.0;
 			String vmId = entry.getKey();
-			List<Double> mipsShareRequested = entry.getValue();
-			List<Double> mipsShareRequestedCapped = new ArrayList<>();
+			MipsShare mipsShareRequested = MipsShare.of(entry.getValue());
+			double[] mipsShareRequestedCapped = new double[mipsShareRequested.size()];
 			double peMips = getPeCapacity();
-			for (Double mips : mipsShareRequested) {
-				if (mips > peMips) {
-					mipsShareRequestedCapped.add(peMips);
-					requiredMipsByThisVm += peMips;
-				} else {
-					mipsShareRequestedCapped.add(mips);
-					requiredMipsByThisVm += mips;
-				}
+			for (int i = 0; i < mipsShareRequestedCapped.length; i++) {
+				double mips = Math.min(mipsShareRequested.getMips(i), peMips);
+				mipsShareRequestedCapped[i] = mips;
+				requiredMipsByThisVm += mips;
 			}
 
 			mipsMapCapped.put(vmId, mipsShareRequestedCapped);
@@ -135,16 +127,18 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		double totalAvailableMips = PeList.getTotalMips(getPeList());
 		double scalingFactor = totalAvailableMips / totalRequiredMipsByAllVms;
 
-		// Clear the old MIPS allocation
+		// Clear the old MIPS allocation: from now on the allocations depend on each other
 		getMipsMapAllocated().clear();
+		getMipsMapAccounted().clear();
 
 		// Update the actual MIPS allocated to the VMs
-		for (Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
+		for (Entry<String, double[]> entry : mipsMapCapped.entrySet()) {
 			String vmUid = entry.getKey();
-			List<Double> requestedMips = entry.getValue();
+			double[] requestedMips = entry.getValue();
 
-			List<Double> updatedMipsAllocation = new ArrayList<>();
-			for (Double mips : requestedMips) {
+			double[] updatedMipsAllocation = new double[requestedMips.length];
+			for (int i = 0; i < requestedMips.length; i++) {
+				double mips = requestedMips[i];
 				if (getGuestsMigratingOut().contains(vmUid)) {
 					// the original amount is scaled
 					mips *= scalingFactor;
@@ -159,11 +153,11 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 					mips *= scalingFactor;
 				}
 
-				updatedMipsAllocation.add(Math.floor(mips));
+				updatedMipsAllocation[i] = Math.floor(mips);
 			}
 
 			// add in the new map
-			getMipsMapAllocated().put(vmUid, updatedMipsAllocation);
+			getMipsMapAllocated().put(vmUid, MipsShare.wrap(updatedMipsAllocation));
 
 		}
 
@@ -103,16 +103,7 @@ public class ContainerDatacenter extends Datacenter {
         for (Container container : containerList) {
             boolean result = getContainerAllocationPolicy().allocateHostForGuest(container);
             if (ack) {
-                int[] data = new int[3];
-                data[0] = getId();
-                data[1] = container.getId();
-                if (result) {
-                    data[2] = CloudSimTags.TRUE;
-                } else {
-                    data[2] = CloudSimTags.FALSE;
-                }
-
-                send(ev.getSourceId(), CloudSim.getMinTimeBetweenEvents(), ContainerCloudSimTags.CONTAINER_CREATE_ACK, data);
+                send(ev.getSourceId(), CloudSim.getMinTimeBetweenEvents(), ContainerCloudSimTags.CONTAINER_CREATE_ACK, getId(), container.getId(), result ? CloudSimTags.TRUE : CloudSimTags.FALSE);
             }
             if (result) {
                 getContainerList().add(container);
@@ -178,12 +169,7 @@ public class ContainerDatacenter extends Datacenter {
             return;
         }
 
-        int[] array = new int[3];
-        array[0] = getId();
-        array[1] = cloudletId;
-        array[2] = status.ordinal();
-
-        sendNow(userId, CloudActionTags.CLOUDLET_STATUS, array);
+        sendNow(userId, CloudActionTags.CLOUDLET_STATUS, getId(), cloudletId, status.ordinal());
     }
 
     /**
@@ -217,16 +203,7 @@ public class ContainerDatacenter extends Datacenter {
         }
 
         if (ack) {
-            int[] data = new int[3];
-            data[0] = getId();
-            data[1] = container.getId();
-
-            if (result) {
-                data[2] = CloudSimTags.TRUE;
-            } else {
-                data[2] = CloudSimTags.FALSE;
-            }
-            sendNow(ev.getSourceId(), ContainerCloudSimTags.CONTAINER_CREATE_ACK, data);
+            sendNow(ev.getSourceId(), ContainerCloudSimTags.CONTAINER_CREATE_ACK, getId(), container.getId(), result ? CloudSimTags.TRUE : CloudSimTags.FALSE);
         }
 
         Log.formatLine(
@@ -325,11 +302,7 @@ public class ContainerDatacenter extends Datacenter {
         } else {
             // has the cloudlet already finished?
             if (cl.getStatus() == Cloudlet.CloudletStatus.SUCCESS) {// if yes, send it back to user
-                int[] data = new int[3];
-                data[0] = getId();
-                data[1] = cloudletId;
-                data[2] = 0;
-                sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+                sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cloudletId, 0);
                 sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
             }
 
@@ -354,15 +327,7 @@ public class ContainerDatacenter extends Datacenter {
         }
 
         if (tag == CloudActionTags.CLOUDLET_MOVE_ACK) {// send ACK if requested
-            int[] data = new int[3];
-            data[0] = getId();
-            data[1] = cloudletId;
-            if (failed) {
-                data[2] = 0;
-            } else {
-                data[2] = 1;
-            }
-            sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+            sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cloudletId, failed ? 0 : 1);
         }
     }
 
@@ -394,12 +359,7 @@ public class ContainerDatacenter extends Datacenter {
                 // Hence, this might cause CloudSim to be hanged since waiting
                 // for this Cloudlet back.
                 if (ack) {
-                    int[] data = new int[3];
-                    data[0] = getId();
-                    data[1] = cl.getCloudletId();
-                    data[2] = CloudSimTags.FALSE;
-
-                    sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+                    sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cl.getCloudletId(), CloudSimTags.FALSE);
                 }
 
                 sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
@@ -430,12 +390,7 @@ public class ContainerDatacenter extends Datacenter {
             }
 
             if (ack) {
-                int[] data = new int[3];
-                data[0] = getId();
-                data[1] = cl.getCloudletId();
-                data[2] = CloudSimTags.TRUE;
-
-                sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
+                sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, getId(), cl.getCloudletId(), CloudSimTags.TRUE);
             }
         } catch (ClassCastException c) {
             Log.println(String.format("%s.processCloudletSubmit(): ClassCastException error.", getName()));
@@ -473,15 +428,7 @@ public class ContainerDatacenter extends Datacenter {
         }
 
         if (ack) {
-            int[] data = new int[3];
-            data[0] = getId();
-            data[1] = cloudletId;
-            if (status) {
-                data[2] = CloudSimTags.TRUE;
-            } else {
-                data[2] = CloudSimTags.FALSE;
-            }
-            sendNow(userId, CloudActionTags.CLOUDLET_RESUME_ACK, data);
+            sendNow(userId, CloudActionTags.CLOUDLET_RESUME_ACK, getId(), cloudletId, status ? CloudSimTags.TRUE : CloudSimTags.FALSE);
         }
     }
 
@@ -501,15 +448,7 @@ public class ContainerDatacenter extends Datacenter {
                 .getCloudletScheduler().cloudletPause(cloudletId);
 
         if (ack) {
-            int[] data = new int[3];
-            data[0] = getId();
-            data[1] = cloudletId;
-            if (status) {
-                data[2] = CloudSimTags.TRUE;
-            } else {
-                data[2] = CloudSimTags.FALSE;
-            }
-            sendNow(userId, CloudActionTags.CLOUDLET_PAUSE_ACK, data);
+            sendNow(userId, CloudActionTags.CLOUDLET_PAUSE_ACK, getId(), cloudletId, status ? CloudSimTags.TRUE : CloudSimTags.FALSE);
         }
     }
 
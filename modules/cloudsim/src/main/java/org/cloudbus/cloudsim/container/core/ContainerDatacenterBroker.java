@@ -131,10 +131,9 @@ public class ContainerDatacenterBroker extends DatacenterBroker {
     }
 
     public void processContainerCreate(SimEvent ev) {
-        int[] data = (int[]) ev.getData();
-        int datacenterId = data[0];
-        int containerId = data[1];
-        int result = data[2];
+        int datacenterId = ev.getIntData(0);
+        int containerId = ev.getIntData(1);
+        int result = ev.getIntData(2);
 
         if (result == CloudSimTags.TRUE) {
             GuestEntity guest = VmList.getById(getContainerList(), containerId);
@@ -184,10 +183,9 @@ public class ContainerDatacenterBroker extends DatacenterBroker {
      * @post $none
      */
     protected void processVmCreateAck(SimEvent ev) {
-        int[] data = (int[]) ev.getData();
-        int datacenterId = data[0];
-        int vmId = data[1];
-        int result = data[2];
+        int datacenterId = ev.getIntData(0);
+        int vmId = ev.getIntData(1);
+        int result = ev.getIntData(2);
 
         if (result == CloudSimTags.TRUE) {
             GuestEntity guest = VmList.getById(getGuestList(), vmId);
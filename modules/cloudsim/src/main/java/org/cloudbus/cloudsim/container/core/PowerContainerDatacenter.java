@@ -12,6 +12,7 @@ import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.container.utils.CustomCSVWriter;
 import org.cloudbus.cloudsim.core.*;
 import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
 import org.cloudbus.cloudsim.power.PowerHost;
 
 import java.io.IOException;
@@ -232,28 +233,43 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
                     getLastProcessTime(),
                     currentTime);
 
-            for (PowerHost host : this.<PowerHost>getHostList()) {
-                double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
-                double utilizationOfCpu = host.getUtilizationOfCpu();
-                double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
-                        previousUtilizationOfCpu,
-                        utilizationOfCpu,
-                        timeDiff);
-                timeFrameDatacenterEnergy += timeFrameHostEnergy;
+            List<PowerHost> hostList = getHostList();
+            int n = hostList.size();
+            double[] previousUtilizationOfCpu = new double[n];
+            double[] utilizationOfCpu = new double[n];
+            for (int i = 0; i < n; i++) {
+                PowerHost host = hostList.get(i);
+                previousUtilizationOfCpu[i] = host.getPreviousUtilizationOfCpu();
+                utilizationOfCpu[i] = host.getUtilizationOfCpu();
+            }
+            double[] timeFrameHostEnergy = PowerDatacenter.getEnergyLinearInterpolation(
+                    hostList,
+                    previousUtilizationOfCpu,
+                    utilizationOfCpu,
+                    timeDiff);
+
+            for (int i = 0; i < n; i++) {
+                if (hostList.get(i).getPowerStateModel() != null) {
+                    timeFrameHostEnergy[i] += hostList.get(i).takeTransitionEnergy();
+                }
+                timeFrameDatacenterEnergy += timeFrameHostEnergy[i];
+                if (Log.isDisabled()) {
+                    continue;
+                }
 
                 Log.println();
                 Log.formatLine(
                         "%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
                         currentTime,
-                        host.getId(),
+                        hostList.get(i).getId(),
                         getLastProcessTime(),
-                        previousUtilizationOfCpu * 100,
-                        utilizationOfCpu * 100);
+                        previousUtilizationOfCpu[i] * 100,
+                        utilizationOfCpu[i] * 100);
                 Log.formatLine(
                         "%.2f: [Host #%d] energy is %.2f W*sec",
                         currentTime,
-                        host.getId(),
-                        timeFrameHostEnergy);
+                        hostList.get(i).getId(),
+                        timeFrameHostEnergy[i]);
             }
 
             Log.formatLine(
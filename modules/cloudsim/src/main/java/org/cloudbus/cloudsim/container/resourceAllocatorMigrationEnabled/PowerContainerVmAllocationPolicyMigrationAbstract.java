@@ -13,6 +13,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.power.PlacementModel;
 import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
@@ -35,6 +36,12 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
      */
     private final List<GuestMapping> savedAllocation = new ArrayList<>();
 
+    /**
+     * The model of the hosts where the new VM placement is planned,
+     * while the VM allocation is optimized.
+     */
+    private PlacementModel placementModel;
+
     /**
      * The utilization history.
      */
@@ -85,6 +92,8 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
 
     /**
      * Optimize allocation of the VMs according to current utilization.
+     * The new VM placement is planned on a {@link PlacementModel} of the hosts,
+     * so that the hosts don't change until the VMs are actually migrated.
      *
      * @param vmList the vm list
      * @return the array list< hash map< string, object>>
@@ -100,7 +109,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
 
         printOverUtilizedHosts(overUtilizedHosts);
 
-        saveAllocation();
+        setPlacementModel(new PlacementModel(getHostList()));
 
         ExecutionTimeMeasurer.start("optimizeAllocationVmSelection");
         List<? extends GuestEntity> vmsToMigrate = getVmsToMigrateFromHosts(overUtilizedHosts);
@@ -116,7 +125,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
 
         migrationMap.addAll(getMigrationMapFromUnderUtilizedHosts(overUtilizedHosts, migrationMap));
 
-        restoreAllocation();
+        setPlacementModel(null);
 
         getExecutionTimeHistoryTotal().add(ExecutionTimeMeasurer.end("optimizeAllocationTotal"));
 
@@ -220,7 +229,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
             if (excludedHosts.contains(host)) {
                 continue;
             }
-            if (host.isSuitableForGuest(vm)) {
+            if (isSuitableForGuest(host, vm)) {
                 if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
                     continue;
                 }
@@ -250,7 +259,12 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
      */
     protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, GuestEntity vm) {
         boolean isHostOverUtilizedAfterAllocation = true;
-        if (host.guestCreate(vm)) {
+        if (getPlacementModel() != null) {
+            if (getPlacementModel().guestCreate(host, vm)) {
+                isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
+                getPlacementModel().undo();
+            }
+        } else if (host.guestCreate(vm)) {
             isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
             host.guestDestroy(vm);
         }
@@ -258,6 +272,82 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
         return isHostOverUtilizedAfterAllocation;
     }
 
+    /**
+     * Checks if a host is suitable for a VM, considering the new VM placement
+     * while the VM allocation is optimized.
+     *
+     * @param host the host
+     * @param vm   the vm
+     * @return true, if the VM fits the host
+     */
+    protected boolean isSuitableForGuest(HostEntity host, GuestEntity vm) {
+        if (getPlacementModel() != null) {
+            return getPlacementModel().isSuitableForGuest(host, vm);
+        }
+        return host.isSuitableForGuest(vm);
+    }
+
+    /**
+     * Places a VM on a host: in the placement model while the VM allocation is
+     * optimized, in the host itself otherwise.
+     *
+     * @param host the host
+     * @param vm   the vm
+     * @return true, if the VM is placed
+     */
+    protected boolean guestCreate(HostEntity host, GuestEntity vm) {
+        if (getPlacementModel() != null) {
+            return getPlacementModel().guestCreate(host, vm);
+        }
+        return host.guestCreate(vm);
+    }
+
+    /**
+     * Removes a VM from a host: from the placement model while the VM allocation is
+     * optimized, from the host itself otherwise.
+     *
+     * @param host the host
+     * @param vm   the vm
+     */
+    protected void guestDestroy(HostEntity host, GuestEntity vm) {
+        if (getPlacementModel() != null) {
+            getPlacementModel().guestDestroy(host, vm);
+        } else {
+            host.guestDestroy(vm);
+        }
+    }
+
+    /**
+     * Gets the VMs placed on a host: the ones of the placement model while the VM
+     * allocation is optimized, the ones running on the host otherwise.
+     *
+     * @param host the host
+     * @return the VMs placed on the host
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends GuestEntity> List<T> getGuestList(HostEntity host) {
+        if (getPlacementModel() != null) {
+            return (List<T>) getPlacementModel().getGuestList(host);
+        }
+        return host.getGuestList();
+    }
+
+    /**
+     * Gets the VMs placed on a host that are not in migration.
+     *
+     * @param host the host
+     * @return the migrable VMs
+     */
+    protected List<GuestEntity> getMigrableVms(HostEntity host) {
+        List<GuestEntity> migrableVms = new ArrayList<>();
+        for (GuestEntity vm : this.<GuestEntity>getGuestList(host)) {
+            if (!vm.isInMigration()) {
+                migrableVms.add(vm);
+            }
+        }
+        return migrableVms;
+    }
+
     /**
      * Find host for vm.
      * @TODO: this is supposed to be an Override from PowerVmAllocationPolicyAbstract, fix
@@ -305,7 +395,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
         for (GuestEntity vm : vmsToMigrate) {
             PowerHost allocatedHost = findHostForGuest(vm, excludedHosts);
             if (allocatedHost != null) {
-                allocatedHost.guestCreate(vm);
+                guestCreate(allocatedHost, vm);
                 Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
 
                 GuestMapping migrate = new GuestMapping(vm, allocatedHost);
@@ -330,7 +420,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
         for (ContainerVm vm : vmsToMigrate) {
             PowerHost allocatedHost = findHostForGuest(vm, excludedHosts);
             if (allocatedHost != null) {
-                allocatedHost.guestCreate(vm);
+                guestCreate(allocatedHost, vm);
                 Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
 
                 GuestMapping migrate = new GuestMapping(vm, allocatedHost);
@@ -338,7 +428,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
             } else {
                 Log.println("Not all VMs can be reallocated from the host, reallocation cancelled");
                 for (GuestMapping map : migrationMap) {
-                    (map.host()).guestDestroy(map.vm());
+                    guestDestroy(map.host(), map.vm());
                 }
                 migrationMap.clear();
                 break;
@@ -357,12 +447,12 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
         List<GuestEntity> vmsToMigrate = new LinkedList<>();
         for (PowerHost host : overUtilizedHosts) {
             while (true) {
-                GuestEntity vm = getVmSelectionPolicy().select(host.getMigrableVms(), host, Set.of());
+                GuestEntity vm = getVmSelectionPolicy().select(getMigrableVms(host), host, Set.of());
                 if (vm == null) {
                     break;
                 }
                 vmsToMigrate.add(vm);
-                host.guestDestroy(vm);
+                guestDestroy(host, vm);
                 if (!isHostOverUtilized(host)) {
                     break;
                 }
@@ -380,7 +470,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
      */
     protected List<? extends ContainerVm> getVmsToMigrateFromUnderUtilizedHost(PowerHost host) {
         List<ContainerVm> vmsToMigrate = new LinkedList<>();
-        for (ContainerVm vm : host.<ContainerVm>getGuestList()) {
+        for (ContainerVm vm : this.<ContainerVm>getGuestList(host)) {
             if (!vm.isInMigration()) {
                 vmsToMigrate.add(vm);
             }
@@ -454,7 +544,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
      * @return true, if successful
      */
     protected boolean areAllVmsMigratingOutOrAnyVmMigratingIn(PowerHost host) {
-        for (PowerContainerVm vm : host.<PowerContainerVm>getGuestList()) {
+        for (PowerContainerVm vm : this.<PowerContainerVm>getGuestList(host)) {
             if (!vm.isInMigration()) {
                 return false;
             }
@@ -472,7 +562,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
      * @return true, if successful
      */
     protected boolean areAllContainersMigratingOutOrAnyContainersMigratingIn(PowerHost host) {
-        for (PowerContainerVm vm : host.<PowerContainerVm>getGuestList()) {
+        for (PowerContainerVm vm : this.<PowerContainerVm>getGuestList(host)) {
            if(!vm.getGuestsMigratingIn().isEmpty()){
                return true;
            }
@@ -604,12 +694,17 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
      */
     protected double getUtilizationOfCpuMips(PowerHost host) {
         double hostUtilizationMips = 0;
-        for (ContainerVm vm2 : host.<ContainerVm>getGuestList()) {
+        List<GuestEntity> vms = getGuestList(host);
+        for (int i = 0; i < vms.size(); i++) {
+            GuestEntity vm2 = vms.get(i);
+            double allocatedMips = getPlacementModel() != null
+                    ? getPlacementModel().getTotalAllocatedMipsForGuest(host, i)
+                    : host.getTotalAllocatedMipsForGuest(vm2);
             if (host.getGuestsMigratingIn().contains(vm2)) {
                 // calculate additional potential CPU usage of a migrating in VM
-                hostUtilizationMips += host.getTotalAllocatedMipsForGuest(vm2) * 0.9 / 0.1;
+                hostUtilizationMips += allocatedMips * 0.9 / 0.1;
             }
-            hostUtilizationMips += host.getTotalAllocatedMipsForGuest(vm2);
+            hostUtilizationMips += allocatedMips;
         }
         return hostUtilizationMips;
     }
@@ -623,6 +718,24 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
         return savedAllocation;
     }
 
+    /**
+     * Sets the placement model where the new VM placement is planned.
+     *
+     * @param placementModel the placement model, or null if the VM allocation is not being optimized
+     */
+    protected void setPlacementModel(PlacementModel placementModel) {
+        this.placementModel = placementModel;
+    }
+
+    /**
+     * Gets the placement model where the new VM placement is planned.
+     *
+     * @return the placement model, or null if the VM allocation is not being optimized
+     */
+    protected PlacementModel getPlacementModel() {
+        return placementModel;
+    }
+
     /**
      * Sets the vm selection policy.
      *
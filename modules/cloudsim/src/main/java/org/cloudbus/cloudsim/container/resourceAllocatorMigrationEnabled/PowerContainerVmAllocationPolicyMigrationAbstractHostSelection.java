@@ -58,7 +58,7 @@ public class PowerContainerVmAllocationPolicyMigrationAbstractHostSelection exte
             if (host == null) {
                 return allocatedHost;
             }
-            if (host.isSuitableForGuest(vm)) {
+            if (isSuitableForGuest(host, vm)) {
                 find = true;
                 allocatedHost = (PowerHost) host;
             } else {
@@ -94,7 +94,7 @@ public class PowerContainerVmAllocationPolicyMigrationAbstractHostSelection exte
     protected boolean isHostOverUtilized(PowerHost host) {
         addHistoryEntry(host, getUtilizationThreshold());
         double totalRequestedMips = 0;
-        for (ContainerVm vm : host.<ContainerVm>getGuestList()) {
+        for (ContainerVm vm : this.<ContainerVm>getGuestList(host)) {
             totalRequestedMips += vm.getCurrentRequestedTotalMips();
         }
         double utilization = totalRequestedMips / host.getTotalMips();
@@ -48,7 +48,7 @@ public class PowerContainerVmAllocationPolicyMigrationStaticThreshold extends Po
     protected boolean isHostOverUtilized(PowerHost host) {
         addHistoryEntry(host, getUtilizationThreshold());
         double totalRequestedMips = 0;
-        for (VirtualEntity vm : host.<VirtualEntity>getGuestList()) {
+        for (VirtualEntity vm : this.<VirtualEntity>getGuestList(host)) {
             totalRequestedMips += vm.getCurrentRequestedTotalMips();
         }
         double utilization = totalRequestedMips / host.getTotalMips();
@@ -57,7 +57,7 @@ public class PowerContainerVmAllocationPolicyMigrationStaticThresholdMCUnderUtil
     protected boolean isHostOverUtilized(PowerHost host) {
         addHistoryEntry(host, getUtilizationThreshold());
         double totalRequestedMips = 0;
-        for (VirtualEntity vm : host.<VirtualEntity>getGuestList()) {
+        for (VirtualEntity vm : this.<VirtualEntity>getGuestList(host)) {
             totalRequestedMips += vm.getCurrentRequestedTotalMips();
         }
         double utilization = totalRequestedMips / host.getTotalMips();
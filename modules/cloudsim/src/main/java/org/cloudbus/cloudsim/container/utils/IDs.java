@@ -9,6 +9,7 @@ import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.container.core.*;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 import java.util.LinkedHashMap;
 import java.util.HashSet;
@@ -28,17 +29,22 @@ import java.util.Map;
 public final class IDs {
 
 
-    private static final Map<Class<?>, Integer> COUNTERS = new LinkedHashMap<>();
-    private static final Set<Class<?>> NO_COUNTERS = new HashSet<>();
-    private static int globalCounter = 1;
-
-    static {
-        COUNTERS.put(Cloudlet.class, 1);
-        COUNTERS.put(ContainerVm.class, 1);
-        COUNTERS.put(Container.class, 1);
-        COUNTERS.put(Host.class, 1);
-        COUNTERS.put(ContainerDatacenterBroker.class, 1);
-        COUNTERS.put(Pe.class, 1);
+    /**
+     * The id counters of a simulation context.
+     */
+    private static final class Counters {
+        private final Map<Class<?>, Integer> counters = new LinkedHashMap<>();
+        private final Set<Class<?>> noCounters = new HashSet<>();
+        private int globalCounter = 1;
+
+        private Counters() {
+            counters.put(Cloudlet.class, 1);
+            counters.put(ContainerVm.class, 1);
+            counters.put(Container.class, 1);
+            counters.put(Host.class, 1);
+            counters.put(ContainerDatacenterBroker.class, 1);
+            counters.put(Pe.class, 1);
+        }
     }
 
     private IDs() {
@@ -51,11 +57,12 @@ public final class IDs {
      * @return a valid id for the specified class.
      */
     public static synchronized int pollId(final Class<?> clazz) {
+        Counters c = getCounters();
         Class<?> matchClass = null;
-        if (COUNTERS.containsKey(clazz)) {
+        if (c.counters.containsKey(clazz)) {
             matchClass = clazz;
-        } else if (!NO_COUNTERS.contains(clazz)) {
-            for (Class<?> key : COUNTERS.keySet()) {
+        } else if (!c.noCounters.contains(clazz)) {
+            for (Class<?> key : c.counters.keySet()) {
                 if (key.isAssignableFrom(clazz)) {
                     matchClass = key;
                     break;
@@ -65,11 +72,11 @@ public final class IDs {
 
         int result = -1;
         if (matchClass == null) {
-            NO_COUNTERS.add(clazz);
-            result = pollGlobalId();
+            c.noCounters.add(clazz);
+            result = c.globalCounter++;
         } else {
-            result = COUNTERS.get(matchClass);
-            COUNTERS.put(matchClass, result + 1);
+            result = c.counters.get(matchClass);
+            c.counters.put(matchClass, result + 1);
         }
 
         if (result < 0) {
@@ -80,8 +87,14 @@ public final class IDs {
         return result;
     }
 
-    private static synchronized int pollGlobalId() {
-        return globalCounter++;
+    /**
+     * Returns the counters of the current simulation context, so that simulations
+     * running in parallel generate their ids independently.
+     *
+     * @return the counters of the current simulation context.
+     */
+    private static Counters getCounters() {
+        return SimulationContext.current().getAttribute(IDs.class, Counters::new);
     }
 
 }
@@ -0,0 +1,452 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A calendar queue (R. Brown, 1988) of future events. The time axis is split in "days" of
+ * fixed width, which are mapped round-robin to a number of buckets: an event is stored
+ * in the bucket of its day, and events are dequeued by visiting the buckets in day order.
+ * The number of buckets and the width of a day are adapted as the queue grows and shrinks,
+ * so that each bucket holds only a few events and enqueue/dequeue take O(1) amortized time.
+ * <p>
+ * Each bucket keeps its events sorted by (time, order key) in parallel primitive arrays,
+ * so that the ordering never dereferences a {@link SimEvent}. The order key is the serial
+ * of the event, or a negative number for events added with {@link #addEventFirst(SimEvent)},
+ * which therefore precede all the events with the same time in insertion order.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class CalendarEventQueue implements FutureEventQueue {
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The initial capacity of a bucket. */
+	private static final int BUCKET_CAPACITY = 4;
+
+	/** The number of events sampled to estimate the width of a day. */
+	private static final int WIDTH_SAMPLE = 25;
+
+	/** The times of the events of each bucket, sorted in [head, tail). */
+	private double[][] times;
+
+	/** The order keys of the events of each bucket. */
+	private long[][] keys;
+
+	/** The events of each bucket. */
+	private SimEvent[][] events;
+
+	/** The index of the first event of each bucket. */
+	private int[] heads;
+
+	/** The index after the last event of each bucket. */
+	private int[] tails;
+
+	/** The number of buckets minus one (the number of buckets is a power of two). */
+	private int mask;
+
+	/** The width of a day. */
+	private double width = 1.0;
+
+	/** The day of the last event that has been dequeued (or peeked). No event belongs to a previous day. */
+	private long currentDay;
+
+	/** The bucket holding the first event, or -1 if unknown. */
+	private int firstBucket = -1;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** A incremental number used for event attribute */
+	private long serial = 0;
+
+	/** The order key given to the next event added with {@link #addEventFirst(SimEvent)}. */
+	private long firstKey = Long.MIN_VALUE;
+
+	public CalendarEventQueue() {
+		allocate(MIN_BUCKETS);
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial);
+		insert(newEvent.eventTime(), serial++, newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		insert(newEvent.eventTime(), firstKey++, newEvent);
+	}
+
+	@Override
+	public SimEvent poll() {
+		int b = findFirstBucket();
+		if (b < 0) {
+			return null;
+		}
+
+		int h = heads[b];
+		SimEvent ev = events[b][h];
+		events[b][h] = null;
+		heads[b] = h + 1;
+		if (heads[b] == tails[b]) {
+			heads[b] = tails[b] = 0;
+		}
+		firstBucket = -1;
+		size--;
+
+		if (size < (mask + 1) / 2 && mask + 1 > MIN_BUCKETS) {
+			resize((mask + 1) / 2);
+		}
+		return ev;
+	}
+
+	@Override
+	public SimEvent peek() {
+		int b = findFirstBucket();
+		return b < 0 ? null : events[b][heads[b]];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		allocate(MIN_BUCKETS);
+		size = 0;
+		currentDay = 0;
+		firstBucket = -1;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<>() {
+			/** The bucket and position of the next event. */
+			private int bucket = 0;
+			private int pos = heads[0];
+
+			/** The bucket and position of the last returned event. */
+			private int lastBucket = -1;
+			private int lastPos = -1;
+
+			@Override
+			public boolean hasNext() {
+				while (bucket <= mask && pos >= tails[bucket]) {
+					bucket++;
+					if (bucket <= mask) {
+						pos = heads[bucket];
+					}
+				}
+				return bucket <= mask;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				lastBucket = bucket;
+				lastPos = pos;
+				return events[bucket][pos++];
+			}
+
+			@Override
+			public void remove() {
+				if (lastBucket < 0) {
+					throw new IllegalStateException();
+				}
+				removeAt(lastBucket, lastPos);
+				if (lastBucket == bucket) {
+					// the following events of the bucket have been shifted back by one position
+					pos = lastPos;
+					if (heads[bucket] > pos) {
+						pos = heads[bucket];
+					}
+				}
+				lastBucket = -1;
+			}
+		};
+	}
+
+	/**
+	 * Gets the day of a given time.
+	 *
+	 * @param time the time
+	 * @return the day
+	 */
+	private long dayOf(double time) {
+		return (long) (time / width);
+	}
+
+	/**
+	 * Inserts an event keeping the bucket sorted by (time, key).
+	 */
+	private void insert(double time, long key, SimEvent ev) {
+		if (size + 1 > 2 * (mask + 1)) {
+			resize(2 * (mask + 1));
+		}
+
+		long day = dayOf(time);
+		if (day < currentDay) {
+			currentDay = day;
+		}
+		put((int) (day & mask), time, key, ev);
+		size++;
+		firstBucket = -1;
+	}
+
+	/**
+	 * Puts an event in a bucket, keeping it sorted by (time, key).
+	 */
+	private void put(int b, double time, long key, SimEvent ev) {
+		double[] t = times[b];
+		long[] k = keys[b];
+		int head = heads[b];
+		int tail = tails[b];
+
+		// find the insertion point: after all the events that are not greater than the new one
+		int lo = head, hi = tail;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (t[mid] < time || (t[mid] == time && k[mid] < key)) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+
+		if (lo == head && head > 0) {
+			// prepend
+			head--;
+			t[head] = time;
+			k[head] = key;
+			events[b][head] = ev;
+			heads[b] = head;
+			return;
+		}
+
+		if (tail == t.length) {
+			ensureRoom(b);
+			lo += heads[b] - head;
+			head = heads[b];
+			tail = tails[b];
+			t = times[b];
+			k = keys[b];
+		}
+
+		SimEvent[] e = events[b];
+		if (lo < tail) {
+			System.arraycopy(t, lo, t, lo + 1, tail - lo);
+			System.arraycopy(k, lo, k, lo + 1, tail - lo);
+			System.arraycopy(e, lo, e, lo + 1, tail - lo);
+		}
+		t[lo] = time;
+		k[lo] = key;
+		e[lo] = ev;
+		tails[b] = tail + 1;
+	}
+
+	/**
+	 * Makes room for one more event at the tail of a bucket, by compacting or growing its arrays.
+	 */
+	private void ensureRoom(int b) {
+		int head = heads[b];
+		int n = tails[b] - head;
+		int capacity = times[b].length;
+		if (head > 0 && n < capacity * 3 / 4) {
+			System.arraycopy(times[b], head, times[b], 0, n);
+			System.arraycopy(keys[b], head, keys[b], 0, n);
+			System.arraycopy(events[b], head, events[b], 0, n);
+			Arrays.fill(events[b], n, tails[b], null);
+		} else {
+			int newCapacity = Math.max(BUCKET_CAPACITY, 2 * capacity);
+			double[] t = new double[newCapacity];
+			long[] k = new long[newCapacity];
+			SimEvent[] e = new SimEvent[newCapacity];
+			System.arraycopy(times[b], head, t, 0, n);
+			System.arraycopy(keys[b], head, k, 0, n);
+			System.arraycopy(events[b], head, e, 0, n);
+			times[b] = t;
+			keys[b] = k;
+			events[b] = e;
+		}
+		heads[b] = 0;
+		tails[b] = n;
+	}
+
+	/**
+	 * Removes the event at a given position of a bucket.
+	 */
+	private void removeAt(int b, int pos) {
+		int head = heads[b];
+		int tail = tails[b];
+		if (pos == head) {
+			events[b][head] = null;
+			heads[b] = head + 1;
+		} else {
+			int n = tail - pos - 1;
+			System.arraycopy(times[b], pos + 1, times[b], pos, n);
+			System.arraycopy(keys[b], pos + 1, keys[b], pos, n);
+			System.arraycopy(events[b], pos + 1, events[b], pos, n);
+			events[b][tail - 1] = null;
+			tails[b] = tail - 1;
+		}
+		if (heads[b] == tails[b]) {
+			heads[b] = tails[b] = 0;
+		}
+		size--;
+		firstBucket = -1;
+	}
+
+	/**
+	 * Finds the bucket holding the first event, visiting the buckets in day order
+	 * starting from the current day.
+	 *
+	 * @return the bucket index, or -1 if the queue is empty
+	 */
+	private int findFirstBucket() {
+		if (firstBucket >= 0) {
+			return firstBucket;
+		}
+		if (size == 0) {
+			return -1;
+		}
+
+		long day = currentDay;
+		for (int i = 0; i <= mask; i++, day++) {
+			int b = (int) (day & mask);
+			if (heads[b] < tails[b] && dayOf(times[b][heads[b]]) == day) {
+				currentDay = day;
+				firstBucket = b;
+				return b;
+			}
+		}
+
+		// no event in the next year: direct search of the minimum
+		int best = -1;
+		for (int b = 0; b <= mask; b++) {
+			if (heads[b] < tails[b]) {
+				if (best < 0 || less(b, best)) {
+					best = b;
+				}
+			}
+		}
+		currentDay = dayOf(times[best][heads[best]]);
+		firstBucket = best;
+		return best;
+	}
+
+	/**
+	 * Checks if the first event of bucket a precedes the first event of bucket b.
+	 */
+	private boolean less(int a, int b) {
+		double ta = times[a][heads[a]];
+		double tb = times[b][heads[b]];
+		return ta < tb || (ta == tb && keys[a][heads[a]] < keys[b][heads[b]]);
+	}
+
+	/**
+	 * Allocates empty buckets.
+	 */
+	private void allocate(int numBuckets) {
+		times = new double[numBuckets][];
+		keys = new long[numBuckets][];
+		events = new SimEvent[numBuckets][];
+		for (int b = 0; b < numBuckets; b++) {
+			times[b] = new double[BUCKET_CAPACITY];
+			keys[b] = new long[BUCKET_CAPACITY];
+			events[b] = new SimEvent[BUCKET_CAPACITY];
+		}
+		heads = new int[numBuckets];
+		tails = new int[numBuckets];
+		mask = numBuckets - 1;
+	}
+
+	/**
+	 * Changes the number of buckets, re-estimating the width of a day.
+	 */
+	private void resize(int numBuckets) {
+		double newWidth = estimateWidth();
+
+		double[][] oldTimes = times;
+		long[][] oldKeys = keys;
+		SimEvent[][] oldEvents = events;
+		int[] oldHeads = heads;
+		int[] oldTails = tails;
+
+		allocate(numBuckets);
+		width = newWidth;
+		currentDay = Long.MAX_VALUE;
+		for (int b = 0; b < oldTimes.length; b++) {
+			for (int i = oldHeads[b]; i < oldTails[b]; i++) {
+				long day = dayOf(oldTimes[b][i]);
+				if (day < currentDay) {
+					currentDay = day;
+				}
+				put((int) (day & mask), oldTimes[b][i], oldKeys[b][i], oldEvents[b][i]);
+			}
+		}
+		if (currentDay == Long.MAX_VALUE) {
+			currentDay = 0;
+		}
+		firstBucket = -1;
+	}
+
+	/**
+	 * Estimates the width of a day as three times the average separation between the first
+	 * events of the queue, ignoring separations much larger than the average.
+	 *
+	 * @return the new width
+	 */
+	private double estimateWidth() {
+		int n = Math.min(size, WIDTH_SAMPLE);
+		if (n < 2) {
+			return width;
+		}
+
+		// sample the first events, visiting the days in order
+		double[] sample = new double[n];
+		int count = 0;
+		long day = currentDay;
+		for (int i = 0; i <= mask && count < n; i++, day++) {
+			int b = (int) (day & mask);
+			for (int j = heads[b]; j < tails[b] && count < n && dayOf(times[b][j]) == day; j++) {
+				sample[count++] = times[b][j];
+			}
+		}
+		if (count < 2) {
+			return width;
+		}
+
+		double avg = (sample[count - 1] - sample[0]) / (count - 1);
+		double sum = 0;
+		int seps = 0;
+		for (int i = 1; i < count; i++) {
+			double sep = sample[i] - sample[i - 1];
+			if (sep <= 2 * avg) {
+				sum += sep;
+				seps++;
+			}
+		}
+		double newWidth = seps > 0 ? 3 * sum / seps : 0;
+		return newWidth > 0 ? newWidth : width;
+	}
+}
@@ -190,6 +190,13 @@ public enum CloudActionTags implements CloudSimTags {
 	 */
 	VM_CREATE_ACK,
 
+	/**
+	 * Denotes a request to create a batch of new VMs in a {@link Datacenter}, carrying the list of VMs;
+	 * the Datacenter replies with a single event with the same tag, carrying the Datacenter id followed
+	 * by the id of each VM and the result of its creation.
+	 */
+	VM_CREATE_BATCH,
+
 	/**
 	 * Denotes a request to destroy a new VM in a {@link Datacenter}.
 	 * without acknowledgement information sent by the Datacener.
@@ -253,5 +260,22 @@ public enum CloudActionTags implements CloudSimTags {
 
 	NETWORK_PKT_DOWN,
 
-    NETWORK_PKT_REACHED_HOST
+    NETWORK_PKT_REACHED_HOST,
+
+	/**
+	 * Denotes the end of the transmission of the next flow of the flow-level network
+	 * of a {@link org.cloudbus.cloudsim.network.datacenter.NetworkDatacenter}.
+	 */
+	NETWORK_FLOW_UPDATE,
+
+	/**
+	 * Denotes the arrival of a flow at its receiver host, once transmitted and after
+	 * the switching delays and the virtualization overheads along its path.
+	 */
+	NETWORK_FLOW_REACHED_HOST,
+
+	/**
+	 * Denotes the receipt of the packet awaited by a network cloudlet, which wakes the cloudlet up.
+	 */
+	NETWORK_PKT_RECEIVED
 }
@@ -0,0 +1,83 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Iterator;
+
+/**
+ * The queue of future events of a {@link SimulationContext}. Events are ordered by
+ * (time, serial): events with the same time are dequeued in the order they were added,
+ * except for the ones added with {@link #addEventFirst(SimEvent)}, which precede them.
+ * <p>
+ * The implementation used by a simulation is chosen when it is initialised, see
+ * {@link CloudSim#setFutureEventQueueFactory(java.util.function.Supplier)}.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ * @see EventQueue
+ * @see CalendarEventQueue
+ */
+public interface FutureEventQueue extends Iterable<SimEvent> {
+
+	/**
+	 * Adds a new event to the queue, after all the events with the same time.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	void addEvent(SimEvent newEvent);
+
+	/**
+	 * Adds a new event to the queue, before all the events with the same time.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	void addEventFirst(SimEvent newEvent);
+
+	/**
+	 * Retrieves and removes the first event of the queue.
+	 *
+	 * @return the first event, or null if the queue is empty
+	 */
+	SimEvent poll();
+
+	/**
+	 * Retrieves, but does not remove, the first event of the queue.
+	 *
+	 * @return the first event, or null if the queue is empty
+	 */
+	SimEvent peek();
+
+	/**
+	 * Gets the number of events in the queue.
+	 *
+	 * @return the number of events
+	 */
+	int size();
+
+	/**
+	 * Checks if the queue is empty.
+	 *
+	 * @return true, if there are no events in the queue
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Removes all the events from the queue.
+	 */
+	void clear();
+
+	/**
+	 * Gets an iterator over the events of the queue, in no particular order.
+	 * The iterator supports {@link Iterator#remove()}.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	Iterator<SimEvent> iterator();
+}
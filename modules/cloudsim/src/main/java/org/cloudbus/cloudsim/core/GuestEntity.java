@@ -1,6 +1,7 @@
 package org.cloudbus.cloudsim.core;
 
 import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.MipsShare;
 import org.cloudbus.cloudsim.VmStateHistoryEntry;
 
 import java.util.List;
@@ -40,8 +41,12 @@ public interface GuestEntity extends CoreAttributes {
      * @return the current requested total mips
      */
     default double getCurrentRequestedTotalMips() {
+        List<Double> currentRequestedMips = getCurrentRequestedMips();
+        if (currentRequestedMips instanceof MipsShare mipsShare) {
+            return mipsShare.getTotal();
+        }
         double totalMips = 0.0;
-        for (Double mips : getCurrentRequestedMips()) {
+        for (Double mips : currentRequestedMips) {
             totalMips += mips;
         }
         return totalMips;
@@ -53,8 +58,12 @@ public interface GuestEntity extends CoreAttributes {
      * @return the current requested max mips
      */
     default double getCurrentRequestedMaxMips() {
+        List<Double> currentRequestedMips = getCurrentRequestedMips();
+        if (currentRequestedMips instanceof MipsShare mipsShare) {
+            return mipsShare.getMax();
+        }
         double maxMips = 0.0;
-        for (Double mips : getCurrentRequestedMips()) {
+        for (Double mips : currentRequestedMips) {
             if (mips > maxMips) {
                 maxMips = mips;
             }
@@ -45,6 +45,12 @@ public abstract class SimEntity implements Cloneable {
 	private EntityStatus state;
 	protected EventQueue incomingEvents;
 
+	/** Indicates if the entity is in the set of entities to be run in the next tick. */
+	private boolean ready;
+
+	/** The simulation context this entity belongs to. */
+	private final SimulationContext simulation;
+
 	/**
 	 * Creates a new entity.
 	 * 
@@ -59,7 +65,8 @@ public abstract class SimEntity implements Cloneable {
 		state = EntityStatus.RUNNABLE;
 		incomingEvents = new EventQueue();
 
-		CloudSim.addEntity(this);
+		simulation = SimulationContext.current();
+		simulation.addEntity(this);
 	}
 
 	/**
@@ -84,6 +91,16 @@ public abstract class SimEntity implements Cloneable {
 		return incomingEvents;
 	}
 
+	/**
+	 * Gets the simulation context this entity is bound to, i.e., the one that was current
+	 * when the entity was created.
+	 *
+	 * @return the simulation context
+	 */
+	public SimulationContext getSimulation() {
+		return simulation;
+	}
+
 	/** Handle incoming event functions */
 	/**
 	 * Checks if events for a specific entity are present in the deferred event queue.
@@ -108,7 +125,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the sim event
 	 */
 	public SimEvent selectEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return null;
 		}
 
@@ -149,12 +166,13 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void schedule(int dstId, double delay, CloudSimTags tag, Object data) {
-		if (!CloudSim.running()) {
-			return;
+	public SimEvent schedule(int dstId, double delay, CloudSimTags tag, Object data) {
+		if (!simulation.running()) {
+			return null;
 		}
-		CloudSim.send(id, dstId, delay, tag, data);
+		return simulation.send(id, dstId, delay, tag, data);
 	}
 
 	/**
@@ -163,9 +181,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void schedule(int dstId, double delay, CloudSimTags tag) {
-		schedule(dstId, delay, tag, null);
+	public SimEvent schedule(int dstId, double delay, CloudSimTags tag) {
+		return schedule(dstId, delay, tag, null);
 	}
 
 	/**
@@ -175,9 +194,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void schedule(String dstName, double delay, CloudSimTags tag, Object data) {
-		schedule(CloudSim.getEntityId(dstName), delay, tag, data);
+	public SimEvent schedule(String dstName, double delay, CloudSimTags tag, Object data) {
+		return schedule(simulation.getEntityId(dstName), delay, tag, data);
 	}
 
 	/**
@@ -186,9 +206,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstName The name of the port to send the event through
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void schedule(String dstName, double delay, CloudSimTags tag) {
-		schedule(dstName, delay, tag, null);
+	public SimEvent schedule(String dstName, double delay, CloudSimTags tag) {
+		return schedule(dstName, delay, tag, null);
 	}
 
 	/**
@@ -197,9 +218,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleNow(int dstId, CloudSimTags tag, Object data) {
-		schedule(dstId, 0, tag, data);
+	public SimEvent scheduleNow(int dstId, CloudSimTags tag, Object data) {
+		return schedule(dstId, 0, tag, data);
 	}
 
 	/**
@@ -208,9 +230,10 @@ public abstract class SimEntity implements Cloneable {
 	 * 
 	 * @param dstId The unique id number of the destination entity
 	 * @param tag event type.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleNow(int dstId, CloudSimTags tag) {
-		schedule(dstId, 0, tag, null);
+	public SimEvent scheduleNow(int dstId, CloudSimTags tag) {
+		return schedule(dstId, 0, tag, null);
 	}
 
 	/**
@@ -220,9 +243,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstName The name of the port to send the event through
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleNow(String dstName, CloudSimTags tag, Object data) {
-		schedule(CloudSim.getEntityId(dstName), 0, tag, data);
+	public SimEvent scheduleNow(String dstName, CloudSimTags tag, Object data) {
+		return schedule(simulation.getEntityId(dstName), 0, tag, data);
 	}
 
 	/**
@@ -231,9 +255,10 @@ public abstract class SimEntity implements Cloneable {
 	 * 
 	 * @param dstName The name of the port to send the event through
 	 * @param tag event type.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleNow(String dstName, CloudSimTags tag) {
-		schedule(dstName, 0, tag, null);
+	public SimEvent scheduleNow(String dstName, CloudSimTags tag) {
+		return schedule(dstName, 0, tag, null);
 	}
 
 	/**
@@ -243,12 +268,13 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleFirst(int dstId, double delay, CloudSimTags tag, Object data) {
-		if (!CloudSim.running()) {
-			return;
+	public SimEvent scheduleFirst(int dstId, double delay, CloudSimTags tag, Object data) {
+		if (!simulation.running()) {
+			return null;
 		}
-		CloudSim.sendFirst(id, dstId, delay, tag, data);
+		return simulation.sendFirst(id, dstId, delay, tag, data);
 	}
 
 	/**
@@ -257,9 +283,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleFirst(int dstId, double delay, CloudSimTags tag) {
-		scheduleFirst(dstId, delay, tag, null);
+	public SimEvent scheduleFirst(int dstId, double delay, CloudSimTags tag) {
+		return scheduleFirst(dstId, delay, tag, null);
 	}
 
 	/**
@@ -269,9 +296,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleFirst(String dstName, double delay, CloudSimTags tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dstName), delay, tag, data);
+	public SimEvent scheduleFirst(String dstName, double delay, CloudSimTags tag, Object data) {
+		return scheduleFirst(simulation.getEntityId(dstName), delay, tag, data);
 	}
 
 	/**
@@ -281,9 +309,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstName The name of the port to send the event through
 	 * @param delay How long from the current simulation time the event should be sent
 	 * @param tag event type.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleFirst(String dstName, double delay, CloudSimTags tag) {
-		scheduleFirst(dstName, delay, tag, null);
+	public SimEvent scheduleFirst(String dstName, double delay, CloudSimTags tag) {
+		return scheduleFirst(dstName, delay, tag, null);
 	}
 
 	/**
@@ -293,9 +322,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstId The unique id number of the destination entity
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleFirstNow(int dstId, CloudSimTags tag, Object data) {
-		scheduleFirst(dstId, 0, tag, data);
+	public SimEvent scheduleFirstNow(int dstId, CloudSimTags tag, Object data) {
+		return scheduleFirst(dstId, 0, tag, data);
 	}
 
 	/**
@@ -304,9 +334,10 @@ public abstract class SimEntity implements Cloneable {
 	 * 
 	 * @param dstId The unique id number of the destination entity
 	 * @param tag event type.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleFirstNow(int dstId, CloudSimTags tag) {
-		scheduleFirst(dstId, 0, tag, null);
+	public SimEvent scheduleFirstNow(int dstId, CloudSimTags tag) {
+		return scheduleFirst(dstId, 0, tag, null);
 	}
 
 	/**
@@ -316,9 +347,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param dstName The name of the port to send the event through
 	 * @param tag event type.
 	 * @param data The data to be sent with the event.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleFirstNow(String dstName, CloudSimTags tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dstName), 0, tag, data);
+	public SimEvent scheduleFirstNow(String dstName, CloudSimTags tag, Object data) {
+		return scheduleFirst(simulation.getEntityId(dstName), 0, tag, data);
 	}
 
 	/**
@@ -327,9 +359,10 @@ public abstract class SimEntity implements Cloneable {
 	 * 
 	 * @param dstName The name of the port to send the event through
 	 * @param tag event type.
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	public void scheduleFirstNow(String dstName, CloudSimTags tag) {
-		scheduleFirst(dstName, 0, tag, null);
+	public SimEvent scheduleFirstNow(String dstName, CloudSimTags tag) {
+		return scheduleFirst(dstName, 0, tag, null);
 	}
 
 	/**
@@ -341,10 +374,10 @@ public abstract class SimEntity implements Cloneable {
 		if (delay < 0) {
 			throw new IllegalArgumentException("Negative delay supplied.");
 		}
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return;
 		}
-		CloudSim.pause(id, delay);
+		simulation.pause(id, delay);
 	}
 
 	/**
@@ -375,11 +408,24 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The number of events cancelled (0 or 1)
 	 */
 	public SimEvent cancelEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return null;
 		}
 
-		return CloudSim.cancel(id, p);
+		return simulation.cancel(id, p);
+	}
+
+	/**
+	 * Cancels an event previously sent by this entity, if it is still in the future queue.
+	 *
+	 * @param ev the event returned by one of the <tt>schedule</tt> or <tt>send</tt> methods
+	 * @return true if the event has been cancelled, false if it had already been processed or cancelled
+	 */
+	public boolean cancelEvent(SimEvent ev) {
+		if (ev == null || ev.getSourceId() != id) {
+			return false;
+		}
+		return simulation.cancel(ev);
 	}
 
 	/**
@@ -390,7 +436,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent getNextEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return null;
 		}
 		return selectEvent(p);
@@ -403,11 +449,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @param p The predicate to match
 	 */
 	public void waitForEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return;
 		}
 
-		CloudSim.wait(id, p);
+		simulation.wait(id, p);
 		state = EntityStatus.WAITING;
 	}
 
@@ -416,7 +462,7 @@ public abstract class SimEntity implements Cloneable {
 	 * It should be responsible for starting the entity up.
 	 */
 	public void startEntity() {
-		Log.printlnConcat(CloudSim.clock(), ": ", getName(), " is starting...");
+		Log.printlnConcat(simulation.clock(), ": ", getName(), " is starting...");
 	}
 
 	/**
@@ -434,7 +480,7 @@ public abstract class SimEntity implements Cloneable {
 	 * to save data in log files this is the method in which the corresponding code would be placed.
 	 */
 	public void shutdownEntity() {
-		Log.printlnConcat(CloudSim.clock(), ": ", getName(), " is shutting down...");
+		Log.printlnConcat(simulation.clock(), ": ", getName(), " is shutting down...");
 		incomingEvents = null;
 		state = EntityStatus.FINISHED;
 	}
@@ -443,6 +489,8 @@ public abstract class SimEntity implements Cloneable {
 	 * The run loop to process events fired during the simulation.
 	 * The events that will be processed are defined
 	 * in the {@link #processEvent(org.cloudbus.cloudsim.core.SimEvent)} method.
+	 * It is invoked only in the ticks in which the entity received events
+	 * or became runnable again.
 	 *
 	 * @see #processEvent(org.cloudbus.cloudsim.core.SimEvent)
 	 */
@@ -451,6 +499,7 @@ public abstract class SimEntity implements Cloneable {
 
 		while (ev != null) {
 			processEvent(ev);
+			simulation.recycle(ev);
 			if (state != EntityStatus.RUNNABLE) {
 				break;
 			}
@@ -502,6 +551,17 @@ public abstract class SimEntity implements Cloneable {
 	 */
 	protected void setState(EntityStatus state) {
 		this.state = state;
+		if (state == EntityStatus.RUNNABLE && incomingEvents != null && !incomingEvents.isEmpty()) {
+			simulation.markReady(this);
+		}
+	}
+
+	boolean isReady() {
+		return ready;
+	}
+
+	void setReady(boolean ready) {
+		this.ready = ready;
 	}
 
 	/**
@@ -528,10 +588,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre delay >= 0.0
 	 * @pre data != null
 	 * @post $none
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	protected void send(int dstId, double delay, CloudSimTags cloudSimTag, Object data) {
+	protected SimEvent send(int dstId, double delay, CloudSimTags cloudSimTag, Object data) {
 		if (dstId < 0) {
-			return;
+			return null;
 		}
 
 		// if delay is -ve, then it doesn't make sense. So resets to 0.0
@@ -545,7 +606,7 @@ public abstract class SimEntity implements Cloneable {
 
 		if (dstId < 0) {
 			Log.printlnConcat(getName(), ".send(): Error - invalid entity id ", dstId);
-			return;
+			return null;
 		}
 
 		int srcId = getId();
@@ -553,7 +614,7 @@ public abstract class SimEntity implements Cloneable {
 			delay += getNetworkDelay(srcId, dstId);
 		}
 
-		schedule(dstId, delay, cloudSimTag, data);
+		return schedule(dstId, delay, cloudSimTag, data);
 	}
 
 	/**
@@ -567,9 +628,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre dstId > 0
 	 * @pre delay >= 0.0
 	 * @post $none
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	protected void send(int dstId, double delay, CloudSimTags tag) {
-		send(dstId, delay, tag, null);
+	protected SimEvent send(int dstId, double delay, CloudSimTags tag) {
+		return send(dstId, delay, tag, null);
 	}
 
 	/**
@@ -585,9 +647,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre delay >= 0.0
 	 * @pre data != null
 	 * @post $none
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	protected void send(String dstName, double delay, CloudSimTags tag, Object data) {
-		send(CloudSim.getEntityId(dstName), delay, tag, data);
+	protected SimEvent send(String dstName, double delay, CloudSimTags tag, Object data) {
+		return send(simulation.getEntityId(dstName), delay, tag, data);
 	}
 
 	/**
@@ -601,9 +664,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre entityName != null
 	 * @pre delay >= 0.0
 	 * @post $none
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	protected void send(String dstName, double delay, CloudSimTags tag) {
-		send(dstName, delay, tag, null);
+	protected SimEvent send(String dstName, double delay, CloudSimTags tag) {
+		return send(dstName, delay, tag, null);
 	}
 
 	/**
@@ -616,9 +680,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre delay >= 0.0
 	 * @pre data != null
 	 * @post $none
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	protected void sendNow(int dstId, CloudSimTags tag, Object data) {
-		send(dstId, 0, tag, data);
+	protected SimEvent sendNow(int dstId, CloudSimTags tag, Object data) {
+		return send(dstId, 0, tag, data);
 	}
 
 	/**
@@ -629,9 +694,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre dstId > 0
 	 * @pre delay >= 0.0
 	 * @post $none
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	protected void sendNow(int dstId, CloudSimTags tag) {
-		send(dstId, 0, tag, null);
+	protected SimEvent sendNow(int dstId, CloudSimTags tag) {
+		return send(dstId, 0, tag, null);
 	}
 
 	/**
@@ -644,9 +710,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre delay >= 0.0
 	 * @pre data != null
 	 * @post $none
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
 	 */
-	protected void sendNow(String dstId, CloudSimTags tag, Object data) {
-		send(CloudSim.getEntityId(dstId), 0, tag, data);
+	protected SimEvent sendNow(String dstId, CloudSimTags tag, Object data) {
+		return send(simulation.getEntityId(dstId), 0, tag, data);
 	}
 
 	/**
@@ -657,9 +724,49 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre entityName != null
 	 * @pre delay >= 0.0
 	 * @post $none
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
+	 */
+	protected SimEvent sendNow(String dstName, CloudSimTags tag) {
+		return send(dstName, 0, tag, null);
+	}
+
+	/**
+	 * Sends an event/message to another entity by <tt>delaying</tt> the simulation time from the
+	 * current time, with a primitive payload made of three integers, such as the
+	 * <tt>{datacenterId, id, result}</tt> acknowledgements. The receiver reads it with
+	 * {@link SimEvent#getIntData(int)} (or as an <tt>int[3]</tt> through {@link SimEvent#getData()}).
+	 *
+	 * @param dstId the id number of the destination entity
+	 * @param delay how long from the current simulation time the event should be sent. If delay is
+	 *            a negative number, then it will be changed to 0
+	 * @param tag an user-defined number representing the type of an event/message
+	 * @param i0 the first integer slot
+	 * @param i1 the second integer slot
+	 * @param i2 the third integer slot
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
+	 */
+	protected SimEvent send(int dstId, double delay, CloudSimTags tag, int i0, int i1, int i2) {
+		SimEvent ev = send(dstId, delay, tag, null);
+		if (ev != null) {
+			ev.setPrimitiveData(i0, i1, i2, 0);
+		}
+		return ev;
+	}
+
+	/**
+	 * Sends an event/message to another entity with no delay, with a primitive payload made of
+	 * three integers.
+	 *
+	 * @param dstId the id number of the destination entity
+	 * @param tag an user-defined number representing the type of an event/message
+	 * @param i0 the first integer slot
+	 * @param i1 the second integer slot
+	 * @param i2 the third integer slot
+	 * @return the event, which can be cancelled with {@link #cancelEvent(SimEvent)}; null if it was not sent
+	 * @see #send(int, double, CloudSimTags, int, int, int)
 	 */
-	protected void sendNow(String dstName, CloudSimTags tag) {
-		send(dstName, 0, tag, null);
+	protected SimEvent sendNow(int dstId, CloudSimTags tag, int i0, int i1, int i2) {
+		return send(dstId, 0, tag, i0, i1, i2);
 	}
 
 	/**
@@ -673,8 +780,9 @@ public abstract class SimEntity implements Cloneable {
 	 * @pre dst >= 0
 	 */
 	private double getNetworkDelay(int src, int dst) {
-		if (NetworkTopology.isNetworkEnabled()) {
-			return NetworkTopology.getDelay(src, dst);
+		NetworkTopology topology = simulation.getNetworkTopology();
+		if (topology.isEnabled()) {
+			return topology.getDelayBetween(src, dst);
 		}
 		return 0.0;
 	}
@@ -17,10 +17,10 @@ package org.cloudbus.cloudsim.core;
 public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	/** Internal event type. **/
-	private final int etype;
+	private int etype;
 
 	/** The time that this event was scheduled, at which it should occur. **/
-	private final double time;
+	private double time;
 
 	/** Time that the event was removed from the queue to start service. **/
 	private double endWaitingTime;
@@ -32,7 +32,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	private int entDst;
 
 	/** The user defined type of the event. **/
-	private final CloudSimTags tag;
+	private CloudSimTags tag;
 
 	/** 
          * Any data the event is carrying. 
@@ -40,7 +40,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          * But this modification would incur several changes in the simulator core
          * that has to be assessed first.
          **/
-	private final Object data;
+	private Object data;
 
         /**
          * An attribute to help CloudSim to identify the order of received events
@@ -52,6 +52,24 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          */
 	private long serial = -1;
 
+	/** Indicates if the event is in the future queue, waiting to be dispatched. **/
+	private boolean pending;
+
+	/** Indicates if the event has been cancelled before being dispatched. **/
+	private boolean cancelled;
+
+	/** Indicates if the event carries its payload in the primitive slots instead of {@link #data}. **/
+	private boolean primitiveData;
+
+	/** The integer payload slots. **/
+	private int intData0, intData1, intData2;
+
+	/** The floating point payload slot. **/
+	private double doubleData;
+
+	/** Indicates if the event must not be recycled once processed, see {@link #retain()}. **/
+	private boolean retained;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -64,6 +82,13 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	// ------------------- PACKAGE LEVEL METHODS --------------------------
 	SimEvent(int type, double time, int src, int dest, CloudSimTags tag, Object edata) {
+		init(type, time, src, dest, tag, edata);
+	}
+
+	/**
+	 * (Re)initialises the event, so that it can be reused once it has been processed.
+	 */
+	void init(int type, double time, int src, int dest, CloudSimTags tag, Object edata) {
 		etype = type;
 		this.time = time;
 		entSrc = src;
@@ -71,6 +96,26 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.tag = tag;
 		data = edata;
 		endWaitingTime = -1.0;
+		serial = -1;
+		pending = false;
+		cancelled = false;
+		primitiveData = false;
+		retained = false;
+	}
+
+	/**
+	 * Sets the primitive payload of the event, which replaces {@link #data}.
+	 */
+	void setPrimitiveData(int i0, int i1, int i2, double d) {
+		primitiveData = true;
+		intData0 = i0;
+		intData1 = i1;
+		intData2 = i2;
+		doubleData = d;
+	}
+
+	boolean isRetained() {
+		return retained;
 	}
 
 	SimEvent(int type, double time, int src) {
@@ -81,6 +126,23 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.serial = serial;
 	}
 
+	void setPending(boolean pending) {
+		this.pending = pending;
+	}
+
+	boolean isPending() {
+		return pending;
+	}
+
+	/**
+	 * Marks the event as cancelled. The event is discarded when it reaches the head of the future
+	 * queue, instead of being removed from the middle of it.
+	 */
+	void cancel() {
+		pending = false;
+		cancelled = true;
+	}
+
 	/**
 	 * Sets the time that the event was removed from the queue to start service. 
 	 * 
@@ -192,16 +254,83 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	}
 
 	/**
-	 * Get the data passed in this event.
+	 * Checks if the event has been cancelled before being dispatched.
+	 *
+	 * @return true if the event has been cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Get the data passed in this event. If the event carries a primitive payload,
+	 * its integer slots are returned as an <tt>int[3]</tt> array.
 	 * 
 	 * @return A reference to the data
 	 */
 	public Object getData() {
+		if (primitiveData && data == null) {
+			data = new int[] { intData0, intData1, intData2 };
+		}
 		return data;
 	}
 
+	/**
+	 * Checks if the event carries a primitive payload, readable without allocations through
+	 * {@link #getIntData(int)} and {@link #getDoubleData()}.
+	 *
+	 * @return true if the event has a primitive payload
+	 */
+	public boolean hasPrimitiveData() {
+		return primitiveData;
+	}
+
+	/**
+	 * Gets an integer slot of the payload. It also works for events whose data is an <tt>int[]</tt>,
+	 * so that receivers don't depend on how the sender built the event.
+	 *
+	 * @param slot the slot index, from 0 to 2
+	 * @return the value of the slot
+	 */
+	public int getIntData(int slot) {
+		if (!primitiveData) {
+			return ((int[]) data)[slot];
+		}
+		return switch (slot) {
+			case 0 -> intData0;
+			case 1 -> intData1;
+			case 2 -> intData2;
+			default -> throw new IndexOutOfBoundsException("Invalid payload slot: " + slot);
+		};
+	}
+
+	/**
+	 * Gets the floating point slot of the payload.
+	 *
+	 * @return the value of the slot
+	 */
+	public double getDoubleData() {
+		return doubleData;
+	}
+
+	/**
+	 * Prevents the event from being recycled once it has been processed, when event pooling is
+	 * enabled (see {@link CloudSim#setEventPooling(boolean)}). Entities that keep a reference to
+	 * an event after {@link SimEntity#processEvent(SimEvent)} returns must call it.
+	 *
+	 * @return this event
+	 */
+	public SimEvent retain() {
+		retained = true;
+		return this;
+	}
+
 	@Override
 	public Object clone() {
-		return new SimEvent(etype, time, entSrc, entDst, tag, data);
+		SimEvent copy = new SimEvent(etype, time, entSrc, entDst, tag, data);
+		if (primitiveData) {
+			copy.setPrimitiveData(intData0, intData1, intData2, doubleData);
+		}
+		return copy;
 	}
 }
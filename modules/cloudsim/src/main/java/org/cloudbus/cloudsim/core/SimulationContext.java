@@ -0,0 +1,1264 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * Holds the whole state of one simulation: the clock, the future event queue, the entity registry,
+ * the network topology and the logging settings. Every {@link SimEntity} is bound to the context
+ * that was current when it was created, and the static {@link CloudSim} API is a facade over the
+ * context bound to the calling thread (or the default one, if none has been bound).
+ * <p>
+ * Independent simulations can be executed in parallel within the same JVM by running each of them
+ * in its own context, for instance:
+ * <pre>
+ * executor.submit(() -&gt; new SimulationContext().call(() -&gt; {
+ *     CloudSim.init(1, null, false);
+ *     // create datacenters, brokers, ...
+ *     return CloudSim.startSimulation();
+ * }));
+ * </pre>
+ * A context is not thread-safe: a simulation must be set up and executed by a single thread
+ * (or by threads spawned from it, which inherit the binding).
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class SimulationContext {
+
+	/** The context used by threads that have not been bound to any other context. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context bound to each thread. Threads spawned by a bound thread inherit its context. */
+	private static final InheritableThreadLocal<SimulationContext> CURRENT = new InheritableThreadLocal<>();
+
+	/** The Constant NOT_FOUND. */
+	private static final int NOT_FOUND = -1;
+
+	/** The id of CIS entity. */
+	private int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	private int shutdownId = -1;
+
+	/** The CIS object. */
+	private CloudInformationService cis = null;
+
+	/** The trace flag. */
+	private boolean traceFlag = false;
+
+	/** The calendar. */
+	private Calendar calendar = null;
+
+	/** The termination time. */
+	private double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	private double minTimeBetweenEvents = 0.01;
+
+	/** The entities. */
+	private List<SimEntity> entities;
+
+	/** The future event queue. */
+	private FutureEventQueue future;
+
+	/**
+	 * The pending events of the future queue indexed by source entity id and tag, in the order they
+	 * were sent. Events are removed from the index as soon as they are dispatched or cancelled.
+	 */
+	private List<Map<CloudSimTags, LinkedHashSet<SimEvent>>> eventsBySource;
+
+	/**
+	 * The ids of the entities that received events or became runnable since the last tick, i.e.,
+	 * the only ones that may have work to do in the next tick.
+	 */
+	private int[] readyIds = new int[16];
+
+	/** The number of valid entries of {@link #readyIds}. */
+	private int numReady;
+
+	/** The ids of the entities being run in the current tick. */
+	private int[] runningIds = new int[16];
+
+	/** Indicates if the dispatched events are recycled once processed. */
+	private boolean eventPooling = false;
+
+	/** The events that can be reused by {@link #send(int, int, double, CloudSimTags, Object)}. */
+	private final ArrayDeque<SimEvent> eventPool = new ArrayDeque<>();
+
+	/** The maximum number of events kept in {@link #eventPool}. */
+	private static final int MAX_POOLED_EVENTS = 1 << 16;
+
+	/** Creates the future event queue when the simulation is initialised. */
+	private Supplier<? extends FutureEventQueue> futureEventQueueFactory = EventQueue::new;
+
+	/** The current simulation clock. */
+	private double clock;
+
+	/** Flag for checking if the simulation is running. */
+	private boolean running;
+
+	/** The entities by name. */
+	private Map<String, SimEntity> entitiesByName;
+
+	/** The predicates used in entity wait methods. */
+	private Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	private boolean paused = false;
+
+	/** The pause at. */
+	private long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	private boolean abruptTerminate = false;
+
+	/** The network topology used to compute the delays between the entities of this context. */
+	private NetworkTopology networkTopology;
+
+	/** The stream where the {@link Log} of this context is written; if null, System.out is used. */
+	private OutputStream logOutput;
+
+	/** Indicates if the {@link Log} of this context is disabled. */
+	private boolean logDisabled;
+
+	/** Buffer used by the {@link Log} of this context to avoid creating new string builders. */
+	private final StringBuilder logBuffer = new StringBuilder();
+
+	/**
+	 * Per-context objects of utility classes that would otherwise be static
+	 * (such as id generators), keyed by the owner class.
+	 */
+	private final Map<Object, Object> attributes = new HashMap<>();
+
+	/** The fork/join pool running the parallel sections of this simulation, created when first needed. */
+	private ForkJoinPool forkJoinPool;
+
+	/**
+	 * Creates a new simulation context. The logging settings are inherited from the default context.
+	 */
+	public SimulationContext() {
+		if (DEFAULT != null) {
+			logOutput = DEFAULT.logOutput;
+			logDisabled = DEFAULT.logDisabled;
+		}
+	}
+
+	// ======== CONTEXT BINDING ===============//
+
+	/**
+	 * Gets the context bound to the calling thread, or the default context if none has been bound.
+	 *
+	 * @return the current simulation context
+	 */
+	public static SimulationContext current() {
+		SimulationContext context = CURRENT.get();
+		return context == null ? DEFAULT : context;
+	}
+
+	/**
+	 * Gets the default context, used by all the threads that have not been bound to a context.
+	 *
+	 * @return the default simulation context
+	 */
+	public static SimulationContext getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Binds a context to the calling thread. Passing <tt>null</tt> restores the default context.
+	 *
+	 * @param context the context to bind
+	 */
+	public static void bind(SimulationContext context) {
+		if (context == null || context == DEFAULT) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(context);
+		}
+	}
+
+	/**
+	 * Executes a task with this context bound to the calling thread. The previous binding is
+	 * restored afterwards.
+	 *
+	 * @param task the task to execute
+	 * @param <T> the type of the task result
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = CURRENT.get();
+		bind(this);
+		try {
+			return task.call();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Executes a task with this context bound to the calling thread. The previous binding is
+	 * restored afterwards.
+	 *
+	 * @param task the task to execute
+	 */
+	public void run(Runnable task) {
+		SimulationContext previous = CURRENT.get();
+		bind(this);
+		try {
+			task.run();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Gets a per-context object associated to a key, creating it if it does not exist yet.
+	 * This is used by utility classes that need state scoped to a simulation.
+	 *
+	 * @param key the key, usually the owner class
+	 * @param factory the factory used to create the object the first time
+	 * @param <T> the type of the object
+	 * @return the object associated to the key
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getAttribute(Object key, Supplier<T> factory) {
+		return (T) attributes.computeIfAbsent(key, k -> factory.get());
+	}
+
+	/**
+	 * Gets the fork/join pool where the parallel sections of this simulation are executed, such as
+	 * the parallel scoring of the hosts. Unlike the common pool, the worker threads of this pool are
+	 * bound to this context, so the tasks read the clock and the per-context state of this simulation.
+	 * The workers are daemon threads, which terminate when left idle.
+	 *
+	 * @return the fork/join pool of this context
+	 */
+	public synchronized ForkJoinPool getForkJoinPool() {
+		if (forkJoinPool == null) {
+			forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+					pool -> new BoundWorkerThread(pool, this), null, false);
+		}
+		return forkJoinPool;
+	}
+
+	/**
+	 * A fork/join worker thread bound to a simulation context.
+	 */
+	private static class BoundWorkerThread extends ForkJoinWorkerThread {
+		private final SimulationContext context;
+
+		BoundWorkerThread(ForkJoinPool pool, SimulationContext context) {
+			super(pool);
+			this.context = context;
+			setDaemon(true);
+		}
+
+		@Override
+		protected void onStart() {
+			super.onStart();
+			bind(context);
+		}
+	}
+
+	/**
+	 * Gets the network topology of this context, creating an empty one if needed.
+	 *
+	 * @return the network topology
+	 */
+	public NetworkTopology getNetworkTopology() {
+		if (networkTopology == null) {
+			networkTopology = new NetworkTopology();
+		}
+		return networkTopology;
+	}
+
+	/**
+	 * Gets the stream where the log of this context is written.
+	 *
+	 * @return the output stream, or null if none has been set
+	 */
+	public OutputStream getLogOutput() {
+		return logOutput;
+	}
+
+	/**
+	 * Sets the stream where the log of this context is written.
+	 *
+	 * @param logOutput the new output stream
+	 */
+	public void setLogOutput(OutputStream logOutput) {
+		this.logOutput = logOutput;
+	}
+
+	/**
+	 * Checks if the log of this context is disabled.
+	 *
+	 * @return true, if disabled
+	 */
+	public boolean isLogDisabled() {
+		return logDisabled;
+	}
+
+	/**
+	 * Sets the disable flag of the log of this context.
+	 *
+	 * @param logDisabled the new flag
+	 */
+	public void setLogDisabled(boolean logDisabled) {
+		this.logDisabled = logDisabled;
+	}
+
+	/**
+	 * Gets the buffer used by the log of this context.
+	 *
+	 * @return the log buffer
+	 */
+	public StringBuilder getLogBuffer() {
+		return logBuffer;
+	}
+
+	// ======== INITIALISATION ===============//
+
+	/**
+	 * Initialises the simulation parameters of this context.
+	 *
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation; if null, <tt>Calendar.getInstance()</tt> is used
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @see CloudSim#init(int, Calendar, boolean)
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag) {
+		SimulationContext previous = CURRENT.get();
+		bind(this);
+		try {
+			initCommonVariable(cal, traceFlag, numUser);
+
+			// create a GIS object
+			cis = new CloudInformationService("CloudInformationService");
+
+			// set all the above entity IDs
+			cisId = cis.getId();
+		} catch (Exception s) {
+			Log.println("CloudSim.init(): The simulation has been terminated due to an unexpected error");
+			Log.println(s.getMessage());
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Initialises the simulation parameters of this context.
+	 *
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation; if null, <tt>Calendar.getInstance()</tt> is used
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param minTimeBetweenEvents the minimal period between events
+	 * @see CloudSim#init(int, Calendar, boolean, double)
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag, double minTimeBetweenEvents) {
+		if (minTimeBetweenEvents <= 0) {
+			throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + minTimeBetweenEvents);
+		}
+
+		init(numUser, cal, traceFlag);
+		this.minTimeBetweenEvents = minTimeBetweenEvents;
+	}
+
+	/**
+	 * Initialises all the common attributes.
+	 *
+	 * @param _calendar the _calendar
+	 * @param _traceFlag the _trace flag
+	 * @param numUser number of users
+	 * @throws Exception This happens when creating this entity before initialising CloudSim package
+	 *             or this entity name is <tt>null</tt> or empty
+	 */
+	private void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser) throws Exception {
+		initialize();
+		// NOTE: the order for the below 3 lines are important
+		traceFlag = _traceFlag;
+
+		// Set the current Wall clock time as the starting time of simulation
+		if (_calendar == null) {
+			calendar = Calendar.getInstance();
+		} else {
+			calendar = _calendar;
+		}
+
+		// creates a CloudSimShutdown object
+		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
+		shutdownId = shutdown.getId();
+	}
+
+	/**
+	 * Initialise the simulation for stand alone simulations. This function should be called at the
+	 * start of the simulation.
+	 */
+	protected void initialize() {
+		Log.println("Initialising...");
+		entities = new ArrayList<>();
+		entitiesByName = new LinkedHashMap<>();
+		future = futureEventQueueFactory.get();
+		eventsBySource = new ArrayList<>();
+		numReady = 0;
+		waitPredicates = new HashMap<>();
+		clock = 0;
+		running = false;
+	}
+
+	/**
+	 * Sets the factory of the future event queue. It takes effect the next time the simulation
+	 * is initialised; by default, the binary heap {@link EventQueue} is used. A
+	 * {@link CalendarEventQueue} can be used instead with <tt>CalendarEventQueue::new</tt>.
+	 *
+	 * @param factory the factory of the future event queue
+	 */
+	public void setFutureEventQueueFactory(Supplier<? extends FutureEventQueue> factory) {
+		futureEventQueueFactory = factory;
+	}
+
+	/**
+	 * Gets the factory of the future event queue.
+	 *
+	 * @return the factory of the future event queue
+	 */
+	public Supplier<? extends FutureEventQueue> getFutureEventQueueFactory() {
+		return futureEventQueueFactory;
+	}
+
+	// ======== SIMULATION CONTROL ===============//
+
+	/**
+	 * Starts the execution of the simulation of this context.
+	 *
+	 * @return the last clock time
+	 * @see CloudSim#startSimulation()
+	 */
+	public double startSimulation() throws NullPointerException {
+		Log.printlnConcat("Starting CloudSim version ", CloudSim.CLOUDSIM_VERSION_STRING);
+		try {
+			double clock = run();
+
+			// reset the simulation parameters
+			cisId = -1;
+			shutdownId = -1;
+			cis = null;
+			calendar = null;
+			traceFlag = false;
+
+			return clock;
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+			throw new NullPointerException("CloudSim.startCloudSimulation() :"
+					+ " Error - you haven't initialized CloudSim.");
+		}
+	}
+
+	/**
+	 * Terminates the simulation of this context.
+	 */
+	public void terminateSimulation() {
+		running = false;
+		printMessage("Simulation: Reached termination time.");
+	}
+
+	/**
+	 * Terminates the simulation of this context at a given time.
+	 *
+	 * @param time the time at which the simulation has to be terminated
+	 * @return true, if successful otherwise.
+	 */
+	public boolean terminateSimulation(double time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			terminateAt = time;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the minimum time between events. Events within shorter periods after the last event are discarded.
+	 *
+	 * @return the minimum time between events.
+	 */
+	public double getMinTimeBetweenEvents() {
+		return minTimeBetweenEvents;
+	}
+
+	/**
+	 * Gets a new copy of initial simulation Calendar.
+	 *
+	 * @return a new copy of Calendar object or null if the context hasn't been initialized
+	 */
+	public Calendar getSimulationCalendar() {
+		// make a new copy
+		Calendar clone = calendar;
+		if (calendar != null) {
+			clone = (Calendar) calendar.clone();
+		}
+
+		return clone;
+	}
+
+	/**
+	 * Gets the entity ID of <tt>CloudInformationService</tt>.
+	 *
+	 * @return the Entity ID or -1 if it is not found
+	 */
+	public int getCloudInfoServiceEntityId() {
+		return cisId;
+	}
+
+	/**
+	 * Gets the list of all Cloud resources registered to the CIS entity.
+	 *
+	 * @return A List containing CloudResource ID or null if a CIS entity hasn't been created before
+	 */
+	public List<Integer> getCloudResourceList() {
+		if (cis == null) {
+			return null;
+		}
+
+		return cis.getList();
+	}
+
+	/**
+	 * Get the current simulation time.
+	 *
+	 * @return the simulation time
+	 */
+	public double clock() {
+		return clock;
+	}
+
+	/**
+	 * Get the current number of entities in the simulation.
+	 *
+	 * @return The number of entities
+	 */
+	public int getNumEntities() {
+		return entities.size();
+	}
+
+	/**
+	 * Get the entity with a given id.
+	 *
+	 * @param id the entity's unique id number
+	 * @return The entity
+	 */
+	public SimEntity getEntity(int id) {
+		return entities.get(id);
+	}
+
+	/**
+	 * Get the entity with a given name.
+	 *
+	 * @param name The entity's name
+	 * @return The entity
+	 */
+	public SimEntity getEntity(String name) {
+		return entitiesByName.get(name);
+	}
+
+	/**
+	 * Get the id of an entity with a given name.
+	 *
+	 * @param name The entity's name
+	 * @return The entity's unique id number
+	 */
+	public int getEntityId(String name) {
+		SimEntity obj = entitiesByName.get(name);
+		if (obj == null) {
+			return NOT_FOUND;
+		} else {
+			return obj.getId();
+		}
+	}
+
+	/**
+	 * Returns a copy of the list of entities created for the simulation.
+	 *
+	 * @return the entity list
+	 */
+	public List<SimEntity> getEntityList() {
+		// create a new list to prevent the user from changing
+		// the list of entities used by Simulation
+		return new LinkedList<>(entities);
+	}
+
+	/**
+	 * Add a new entity to the simulation.
+	 *
+	 * @param e The new entity
+	 */
+	public void addEntity(SimEntity e) {
+		SimEvent evt;
+		if (running) {
+			// Post an event to make this entity
+			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
+			enqueue(evt, false);
+		}
+		if (e.getId() == -1) { // Only add once!
+			int id = entities.size();
+			e.setId(id);
+			entities.add(e);
+			entitiesByName.put(e.getName(), e);
+		}
+	}
+
+	/**
+	 * Internal method used to add a new entity to the simulation when the simulation is running.
+	 *
+	 * @param e The new entity
+	 */
+	protected void addEntityDynamically(SimEntity e) {
+		if (e == null) {
+			throw new IllegalArgumentException("Adding null entity.");
+		} else {
+			printMessage("Adding: " + e.getName());
+		}
+		e.startEntity();
+	}
+
+	/**
+	 * Internal method used to run one tick of the simulation.
+	 *
+	 * @return true if there are events to be processed, false if event queue is empty
+	 */
+	private boolean runClockTick() {
+		// run the entities that received events, in id order as if all of them were visited
+		int n = numReady;
+		if (n > 0) {
+			int[] ids = readyIds;
+			readyIds = runningIds;
+			runningIds = ids;
+			numReady = 0;
+			if (n > 1) {
+				Arrays.sort(ids, 0, n);
+			}
+			for (int i = 0; i < n; i++) {
+				SimEntity ent = entities.get(ids[i]);
+				ent.setReady(false);
+				if (ent.getState() == SimEntity.EntityStatus.RUNNABLE) {
+					ent.run();
+				}
+			}
+		}
+
+		SimEvent first = peekFuture();
+		if (first == null) {
+			running = false;
+			printMessage(clock + ": Simulation: No more future events");
+			return false;
+		}
+
+		double clk = first.eventTime();
+		while ((first = peekFuture()) != null && first.eventTime() == clk) {
+			future.poll();
+			first.setPending(false);
+			unindex(first);
+			dispatchEvent(first);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds an entity to the set of entities to be run in the next tick. It is called when the
+	 * entity receives an event and when it becomes runnable again.
+	 *
+	 * @param ent the entity
+	 */
+	void markReady(SimEntity ent) {
+		if (ent.isReady() || ent.getId() < 0) {
+			return;
+		}
+		ent.setReady(true);
+		if (numReady == readyIds.length) {
+			readyIds = Arrays.copyOf(readyIds, 2 * numReady);
+			runningIds = new int[readyIds.length];
+		}
+		readyIds[numReady++] = ent.getId();
+	}
+
+	/**
+	 * Internal method used to stop the simulation.
+	 */
+	public void runStop() {
+		printMessage("Simulation completed.");
+	}
+
+	/**
+	 * Used to pause an entity for some time.
+	 *
+	 * @param srcId the entity source id
+	 * @param delay the delay
+	 */
+	public void pause(int srcId, double delay) {
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, srcId);
+		enqueue(e, false);
+		entities.get(srcId).setState(SimEntity.EntityStatus.HOLDING);
+	}
+
+	/**
+	 * Used to send an event from one entity to another.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the event, which can be cancelled with {@link #cancel(SimEvent)}
+	 */
+	public SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+		if (delay >= Double.MAX_VALUE) {
+			throw new RuntimeException("Send delay can't be infinite.");
+		}
+
+		SimEvent e = newEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
+		enqueue(e, false);
+		return e;
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with a primitive payload. The receiver reads
+	 * it with {@link SimEvent#getIntData(int)} and {@link SimEvent#getDoubleData()}; no object is
+	 * allocated when event pooling is enabled.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param i0 the first integer slot
+	 * @param i1 the second integer slot
+	 * @param i2 the third integer slot
+	 * @param d the floating point slot
+	 * @return the event, which can be cancelled with {@link #cancel(SimEvent)}
+	 */
+	public SimEvent send(int srcId, int dstId, double delay, CloudSimTags tag, int i0, int i1, int i2, double d) {
+		SimEvent e = send(srcId, dstId, delay, tag, null);
+		e.setPrimitiveData(i0, i1, i2, d);
+		return e;
+	}
+
+	/**
+	 * Gets a new event, reusing a recycled one if event pooling is enabled.
+	 */
+	private SimEvent newEvent(int type, double time, int src, int dest, CloudSimTags tag, Object data) {
+		SimEvent e = eventPool.pollLast();
+		if (e == null) {
+			return new SimEvent(type, time, src, dest, tag, data);
+		}
+		e.init(type, time, src, dest, tag, data);
+		return e;
+	}
+
+	/**
+	 * Returns an event that has been processed to the pool, if event pooling is enabled and the
+	 * event has not been retained. It is called by {@link SimEntity#run()} after
+	 * {@link SimEntity#processEvent(SimEvent)}: events still in the deferred queue are never recycled.
+	 *
+	 * @param e the processed event
+	 */
+	void recycle(SimEvent e) {
+		if (eventPooling && !e.isRetained() && e.getType() == SimEvent.SEND && eventPool.size() < MAX_POOLED_EVENTS) {
+			e.init(SimEvent.ENULL, -1, -1, -1, null, null);
+			eventPool.addLast(e);
+		}
+	}
+
+	/**
+	 * Enables or disables the recycling of the events once they have been processed.
+	 * When it is enabled, an entity must call {@link SimEvent#retain()} on any event it keeps after
+	 * processing it, and the handles returned by <tt>send</tt> are only valid until the event is
+	 * dispatched.
+	 *
+	 * @param pooling true to recycle the events
+	 */
+	public void setEventPooling(boolean pooling) {
+		eventPooling = pooling;
+		if (!pooling) {
+			eventPool.clear();
+		}
+	}
+
+	/**
+	 * Checks if the events are recycled once they have been processed.
+	 *
+	 * @return true if event pooling is enabled
+	 */
+	public boolean isEventPooling() {
+		return eventPooling;
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with priority in the queue.
+	 *
+	 * @param srcId the src
+	 * @param dstId the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the event, which can be cancelled with {@link #cancel(SimEvent)}
+	 */
+	public SimEvent sendFirst(int srcId, int dstId, double delay, CloudSimTags tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+
+		SimEvent e = newEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
+		enqueue(e, true);
+		return e;
+	}
+
+	/**
+	 * Adds an event to the future queue and to the index by source and tag.
+	 *
+	 * @param e the event
+	 * @param first true if the event must precede the events with the same time
+	 */
+	private void enqueue(SimEvent e, boolean first) {
+		if (first) {
+			future.addEventFirst(e);
+		} else {
+			future.addEvent(e);
+		}
+		e.setPending(true);
+
+		int srcId = e.getSourceId();
+		while (eventsBySource.size() <= srcId) {
+			eventsBySource.add(null);
+		}
+		Map<CloudSimTags, LinkedHashSet<SimEvent>> byTag = eventsBySource.get(srcId);
+		if (byTag == null) {
+			byTag = new HashMap<>();
+			eventsBySource.set(srcId, byTag);
+		}
+		byTag.computeIfAbsent(e.getTag(), k -> new LinkedHashSet<>()).add(e);
+	}
+
+	/**
+	 * Gets the pending events sent by an entity with a given tag.
+	 *
+	 * @param srcId the entity source id
+	 * @param tag the tag
+	 * @return the events, or null if there are none
+	 */
+	private LinkedHashSet<SimEvent> getIndexedEvents(int srcId, CloudSimTags tag) {
+		if (srcId < 0 || srcId >= eventsBySource.size() || eventsBySource.get(srcId) == null) {
+			return null;
+		}
+		return eventsBySource.get(srcId).get(tag);
+	}
+
+	/**
+	 * Removes an event from the index by source and tag, when it is dispatched or cancelled.
+	 *
+	 * @param e the event that is no longer pending
+	 */
+	private void unindex(SimEvent e) {
+		LinkedHashSet<SimEvent> events = getIndexedEvents(e.getSourceId(), e.getTag());
+		if (events != null) {
+			events.remove(e);
+		}
+	}
+
+	/**
+	 * Gets the number of events in the index by source and tag, which is the number of pending events.
+	 *
+	 * @return the number of indexed events
+	 */
+	int getIndexedEventCount() {
+		int count = 0;
+		for (Map<CloudSimTags, LinkedHashSet<SimEvent>> byTag : eventsBySource) {
+			if (byTag != null) {
+				for (LinkedHashSet<SimEvent> events : byTag.values()) {
+					count += events.size();
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the first pending event of the future queue, discarding the cancelled events that precede it.
+	 *
+	 * @return the first pending event, or null if there are none
+	 */
+	private SimEvent peekFuture() {
+		SimEvent e;
+		while ((e = future.peek()) != null && !e.isPending()) {
+			future.poll();
+		}
+		return e;
+	}
+
+	/**
+	 * Sets an entity's state to be waiting for events matching a predicate.
+	 *
+	 * @param srcId the src
+	 * @param p the p
+	 */
+	public void wait(int srcId, Predicate p) {
+		entities.get(srcId).setState(SimEntity.EntityStatus.WAITING);
+		if (p != CloudSim.SIM_ANY) {
+			// If a predicate has been used store it in order to check it
+			waitPredicates.put(srcId, p);
+		}
+	}
+
+	/**
+	 * Removes an event from the event queue. When the predicate is a {@link PredicateType}, the
+	 * events are looked up by source and tag instead of scanning the whole queue.
+	 *
+	 * @param srcId the entity source id
+	 * @param p the p
+	 * @return the sim event
+	 */
+	public SimEvent cancel(int srcId, Predicate p) {
+		if (isIndexed(p)) {
+			for (CloudSimTags tag : ((PredicateType) p).getTags()) {
+				LinkedHashSet<SimEvent> events = getIndexedEvents(srcId, tag);
+				if (events != null && !events.isEmpty()) {
+					Iterator<SimEvent> it = events.iterator();
+					SimEvent ev = it.next();
+					it.remove();
+					ev.cancel();
+					return ev;
+				}
+			}
+			return null;
+		}
+
+		for (SimEvent ev : future) {
+			if (ev.isPending() && ev.getSourceId() == srcId && p.match(ev)) {
+				ev.cancel();
+				unindex(ev);
+				return ev;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the events matching a predicate can be looked up by source and tag, i.e. the
+	 * predicate is a {@link PredicateType} whose {@link Predicate#match(SimEvent)} is not overridden.
+	 *
+	 * @param p the predicate
+	 * @return true if the index by source and tag can be used
+	 */
+	private static boolean isIndexed(Predicate p) {
+		return p.getClass() == PredicateType.class;
+	}
+
+	/**
+	 * Removes an event returned by {@link #send(int, int, double, CloudSimTags, Object)} or
+	 * {@link #sendFirst(int, int, double, CloudSimTags, Object)} from the future event queue.
+	 *
+	 * @param ev the event
+	 * @return true if the event has been cancelled, false if it had already been dispatched or cancelled
+	 */
+	public boolean cancel(SimEvent ev) {
+		if (!ev.isPending()) {
+			return false;
+		}
+		ev.cancel();
+		unindex(ev);
+		return true;
+	}
+
+	/**
+	 * Removes all events that match a given predicate from the future event queue. When the
+	 * predicate is a {@link PredicateType}, the events are looked up by source and tag, so the
+	 * cost is proportional to the number of matching events rather than to the size of the queue.
+	 * The cancelled events are discarded when they reach the head of the queue.
+	 *
+	 * @param srcId the entity source id
+	 * @param p the p
+	 * @return true, if at least one event has been cancelled
+	 */
+	public boolean cancelAll(int srcId, Predicate p) {
+		boolean cancelled = false;
+		if (isIndexed(p)) {
+			for (CloudSimTags tag : ((PredicateType) p).getTags()) {
+				LinkedHashSet<SimEvent> events = getIndexedEvents(srcId, tag);
+				if (events != null && !events.isEmpty()) {
+					for (SimEvent ev : events) {
+						ev.cancel();
+					}
+					events.clear();
+					cancelled = true;
+				}
+			}
+			return cancelled;
+		}
+
+		for (SimEvent ev : future) {
+			if (ev.isPending() && ev.getSourceId() == srcId && p.match(ev)) {
+				ev.cancel();
+				unindex(ev);
+				cancelled = true;
+			}
+		}
+		return cancelled;
+	}
+
+	/**
+	 * Dispatch event to destination entity
+	 *
+	 * @param e the e
+	 */
+	private void dispatchEvent(SimEvent e) {
+		int dstId = e.getDestinationId();
+		int srcId = e.getSourceId();
+		SimEntity destEnt = entities.get(dstId);
+
+		// Update the system's clock
+		if (e.eventTime() < clock) {
+			throw new IllegalArgumentException("Past event detected.");
+		}
+		clock = e.eventTime();
+
+		// Ok now process it
+		switch (e.getType()) {
+			case SimEvent.ENULL -> throw new IllegalArgumentException("Event has a null type.");
+			case SimEvent.CREATE -> addEntityDynamically((SimEntity) e.getData());
+			case SimEvent.SEND -> {
+				if (destEnt.getState() == SimEntity.EntityStatus.WAITING) { // NOTE: this branch is never used
+					Predicate p = waitPredicates.get(dstId);
+
+					if ((p == null) || (p.match(e))) {
+						destEnt.setState(SimEntity.EntityStatus.RUNNABLE);
+						waitPredicates.remove(dstId);
+					}
+				}
+				destEnt.getIncomingEvents().add(e);
+				markReady(destEnt);
+			}
+			case SimEvent.HOLD_DONE -> entities.get(srcId).setState(SimEntity.EntityStatus.RUNNABLE);
+			default -> {
+			}
+		}
+	}
+
+	/**
+	 * Internal method used to start the simulation.
+	 */
+	public void runStart() {
+		running = true;
+		// Start all the entities
+		for (SimEntity ent : entities) {
+			ent.startEntity();
+		}
+
+		printMessage("Entities started.");
+	}
+
+	/**
+	 * Check if the simulation is still running.
+	 *
+	 * @return if the simulation is still running, otherwise
+	 */
+	public boolean running() {
+		return running;
+	}
+
+	/**
+	 * Pauses the simulation.
+	 *
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation() {
+		paused = true;
+		return paused;
+	}
+
+	/**
+	 * Pauses the simulation at a given time.
+	 *
+	 * @param time the time at which the simulation has to be paused
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation(long time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			pauseAt = time;
+		}
+		return true;
+	}
+
+	/**
+	 * Resumes a previously paused simulation.
+	 *
+	 * @return if the simulation has been restarted or or otherwise.
+	 */
+	public boolean resumeSimulation() {
+		paused = false;
+
+		if (pauseAt <= clock) {
+			pauseAt = -1;
+		}
+
+		return !paused;
+	}
+
+	/**
+	 * Start the simulation running. This should be called after all the entities have been setup
+	 * and added, and their ports linked.
+	 *
+	 * @return the last clock value
+	 */
+	public double run() {
+		SimulationContext previous = CURRENT.get();
+		bind(this);
+		try {
+			if (!running) {
+				runStart();
+			}
+			while (true) {
+				if (!runClockTick() || abruptTerminate) {
+					break;
+				}
+
+				// this block allows termination of simulation at a specific time
+				if (terminateAt > 0.0 && clock >= terminateAt) {
+					terminateSimulation();
+					clock = terminateAt;
+					break;
+				}
+
+				if (pauseAt != -1
+						&& ((peekFuture() != null && clock <= pauseAt && pauseAt <= peekFuture()
+								.eventTime()) || peekFuture() == null && pauseAt <= clock)) {
+					pauseSimulation();
+					clock = pauseAt;
+				}
+
+				while (paused) {
+					try {
+						Thread.sleep(100);
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+				}
+			}
+
+			double clock = clock();
+
+			finishSimulation();
+			runStop();
+
+			return clock;
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Internal method that allows the entities to terminate.
+	 */
+	private void finishSimulation() {
+		// Allow all entities to exit their body method
+		if (!abruptTerminate) {
+			for (SimEntity ent : entities) {
+				if (ent.getState() != SimEntity.EntityStatus.FINISHED) {
+					ent.run();
+				}
+			}
+		}
+
+		for (SimEntity ent : entities) {
+			ent.shutdownEntity();
+		}
+
+		// reset the simulation state
+		entities = null;
+		entitiesByName = null;
+		future = null;
+		eventsBySource = null;
+		clock = 0L;
+		running = false;
+
+		waitPredicates = null;
+		paused = false;
+		pauseAt = -1;
+		abruptTerminate = false;
+	}
+
+	/**
+	 * Abruptly terminates the simulation.
+	 */
+	public void abruptallyTerminate() {
+		abruptTerminate = true;
+	}
+
+	/**
+	 * Checks if is paused.
+	 *
+	 * @return true, if is paused
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
+
+	/**
+	 * Checks if the trace flag has been set for this simulation.
+	 *
+	 * @return the trace flag
+	 */
+	public boolean isTraceEnabled() {
+		return traceFlag;
+	}
+
+	/**
+	 * Gets the id of the CloudSimShutdown entity.
+	 *
+	 * @return the entity id, or -1 if the context hasn't been initialized
+	 */
+	public int getShutdownEntityId() {
+		return shutdownId;
+	}
+
+	/**
+	 * Prints a message about the progress of the simulation.
+	 *
+	 * @param message the message
+	 */
+	private void printMessage(String message) {
+		Log.println(message);
+	}
+}
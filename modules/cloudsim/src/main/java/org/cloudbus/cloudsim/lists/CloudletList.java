@@ -30,6 +30,9 @@ public class CloudletList {
 	 * @return a Cloudlet with the given ID or $null if not found
 	 */
 	public static <T extends Cloudlet> T getById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof IndexedCloudletList<T> indexed) {
+			return indexed.getById(id);
+		}
 		for (T cl : cloudletList) {
 			if (cl.getCloudletId() == id) {
 				return cl;
@@ -73,6 +76,9 @@ public class CloudletList {
 	 * @return the position of the cloudlet with the given id or -1 if not found
 	 */
 	public static <T extends Cloudlet> int getPositionById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof IndexedCloudletList<T> indexed && !indexed.containsId(id)) {
+			return -1;
+		}
 		int i = 0 ;
 	        for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
@@ -83,6 +89,22 @@ public class CloudletList {
 		return -1;
 	}
 	
+	/**
+	 * Removes the first cloudlet with a given id from a list. It takes O(1) time if the list is an
+	 * {@link IndexedCloudletList}.
+	 *
+	 * @param cloudletList the list of existing cloudlets
+	 * @param id the cloudlet id
+	 * @return the removed cloudlet, or null if not found
+	 */
+	public static <T extends Cloudlet> T removeById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof IndexedCloudletList<T> indexed) {
+			return indexed.removeById(id);
+		}
+		int position = getPositionById(cloudletList, id);
+		return position >= 0 ? cloudletList.remove(position) : null;
+	}
+
 	/**
 	 * Sorts the Cloudlets in a list based on their lengths.
 	 * 
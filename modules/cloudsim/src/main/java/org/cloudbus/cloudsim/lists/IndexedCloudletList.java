@@ -0,0 +1,374 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractSequentialList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * A doubly linked list of cloudlets with an index from cloudlet id to list node, used by the
+ * {@link org.cloudbus.cloudsim.CloudletScheduler} queues. Besides the usual {@link java.util.List}
+ * operations (with the same costs as a {@link java.util.LinkedList}), it finds, checks and removes
+ * cloudlets by id or by reference in O(1) time, so that moving a cloudlet between queues doesn't
+ * require scanning them.
+ * <p>
+ * The nodes belong to the list rather than to the cloudlets, since a cloudlet may briefly be in two
+ * queues of a scheduler (e.g. while it is being finished). If several cloudlets in the list have the
+ * same id, the lookups by id return the first one, as {@link CloudletList#getById(java.util.List, int)}
+ * does. The id of a cloudlet must not change while it is in the list.
+ *
+ * @param <T> the type of the cloudlets
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class IndexedCloudletList<T extends Cloudlet> extends AbstractSequentialList<T> {
+
+	private static final class Node<T> {
+		T item;
+		Node<T> prev;
+		Node<T> next;
+
+		Node(T item) {
+			this.item = item;
+		}
+	}
+
+	private Node<T> first;
+
+	private Node<T> last;
+
+	private int size;
+
+	/** The first node of each cloudlet id in the list. */
+	private final Map<Integer, Node<T>> index = new HashMap<>();
+
+	/** The number of nodes whose cloudlet id is also held by a previous node. */
+	private int duplicates;
+
+	public IndexedCloudletList() {
+	}
+
+	public IndexedCloudletList(Collection<? extends T> c) {
+		addAll(c);
+	}
+
+	/**
+	 * Gets the first cloudlet with a given id.
+	 *
+	 * @param id the cloudlet id
+	 * @return the cloudlet, or null if it is not in the list
+	 */
+	public T getById(int id) {
+		Node<T> node = index.get(id);
+		return node == null ? null : node.item;
+	}
+
+	/**
+	 * Checks if there is a cloudlet with a given id in the list.
+	 *
+	 * @param id the cloudlet id
+	 * @return true if the list contains a cloudlet with the given id
+	 */
+	public boolean containsId(int id) {
+		return index.containsKey(id);
+	}
+
+	/**
+	 * Removes the first cloudlet with a given id.
+	 *
+	 * @param id the cloudlet id
+	 * @return the removed cloudlet, or null if it is not in the list
+	 */
+	public T removeById(int id) {
+		Node<T> node = index.get(id);
+		if (node == null) {
+			return null;
+		}
+		unlink(node);
+		return node.item;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean add(T cl) {
+		linkBefore(cl, null);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return findNode(o) != null;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Node<T> node = findNode(o);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		boolean modified = false;
+		for (Object o : c) {
+			while (remove(o)) {
+				modified = true;
+			}
+		}
+		return modified;
+	}
+
+	@Override
+	public void clear() {
+		first = last = null;
+		size = 0;
+		index.clear();
+		duplicates = 0;
+		modCount++;
+	}
+
+	@Override
+	public ListIterator<T> listIterator(int position) {
+		if (position < 0 || position > size) {
+			throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+		}
+		return new Itr(position);
+	}
+
+	/**
+	 * Finds the node holding a given cloudlet.
+	 */
+	private Node<T> findNode(Object o) {
+		if (!(o instanceof Cloudlet cl)) {
+			return null;
+		}
+		Node<T> node = index.get(cl.getCloudletId());
+		if (node == null || node.item == o) {
+			return node;
+		}
+		// another cloudlet with the same id comes first
+		for (node = node.next; node != null; node = node.next) {
+			if (node.item == o) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Inserts a cloudlet before a node, or at the end of the list if the node is null.
+	 */
+	private void linkBefore(T cl, Node<T> succ) {
+		Node<T> node = new Node<>(cl);
+		if (succ == null) {
+			node.prev = last;
+			if (last == null) {
+				first = node;
+			} else {
+				last.next = node;
+			}
+			last = node;
+		} else {
+			node.next = succ;
+			node.prev = succ.prev;
+			if (succ.prev == null) {
+				first = node;
+			} else {
+				succ.prev.next = node;
+			}
+			succ.prev = node;
+		}
+		size++;
+		modCount++;
+		addToIndex(node);
+	}
+
+	private void unlink(Node<T> node) {
+		removeFromIndex(node);
+		if (node.prev == null) {
+			first = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+		if (node.next == null) {
+			last = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+		node.prev = node.next = null;
+		size--;
+		modCount++;
+	}
+
+	private void addToIndex(Node<T> node) {
+		int id = node.item.getCloudletId();
+		Node<T> indexed = index.putIfAbsent(id, node);
+		if (indexed == null) {
+			return;
+		}
+		duplicates++;
+		if (node.next == null) {
+			return;
+		}
+		// inserted in the middle: it becomes the indexed node if it precedes the current one
+		for (Node<T> n = node.next; n != null; n = n.next) {
+			if (n == indexed) {
+				index.put(id, node);
+				return;
+			}
+		}
+	}
+
+	private void removeFromIndex(Node<T> node) {
+		int id = node.item.getCloudletId();
+		if (index.get(id) != node) {
+			duplicates--;
+			return;
+		}
+		if (duplicates > 0) {
+			for (Node<T> n = node.next; n != null; n = n.next) {
+				if (n.item.getCloudletId() == id) {
+					index.put(id, n);
+					duplicates--;
+					return;
+				}
+			}
+		}
+		index.remove(id);
+	}
+
+	private Node<T> node(int position) {
+		Node<T> node;
+		if (position < (size >> 1)) {
+			node = first;
+			for (int i = 0; i < position; i++) {
+				node = node.next;
+			}
+		} else {
+			node = last;
+			for (int i = size - 1; i > position; i--) {
+				node = node.prev;
+			}
+		}
+		return node;
+	}
+
+	private class Itr implements ListIterator<T> {
+		private Node<T> lastReturned;
+		private Node<T> next;
+		private int nextIndex;
+		private int expectedModCount = modCount;
+
+		Itr(int position) {
+			next = position == size ? null : node(position);
+			nextIndex = position;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		public T next() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next;
+			next = next.next;
+			nextIndex++;
+			return lastReturned.item;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		@Override
+		public T previous() {
+			checkForComodification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			next = next == null ? last : next.prev;
+			lastReturned = next;
+			nextIndex--;
+			return lastReturned.item;
+		}
+
+		@Override
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		@Override
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		@Override
+		public void remove() {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			Node<T> lastNext = lastReturned.next;
+			unlink(lastReturned);
+			if (next == lastReturned) {
+				next = lastNext;
+			} else {
+				nextIndex--;
+			}
+			lastReturned = null;
+			expectedModCount = modCount;
+		}
+
+		@Override
+		public void set(T cl) {
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			removeFromIndex(lastReturned);
+			lastReturned.item = cl;
+			addToIndex(lastReturned);
+		}
+
+		@Override
+		public void add(T cl) {
+			checkForComodification();
+			lastReturned = null;
+			linkBefore(cl, next);
+			nextIndex++;
+			expectedModCount = modCount;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+}
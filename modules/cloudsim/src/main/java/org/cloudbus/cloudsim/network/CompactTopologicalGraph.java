@@ -0,0 +1,235 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.Arrays;
+
+/**
+ * A network graph stored in primitive arrays, one entry per node and per link, instead of
+ * {@link TopologicalNode} and {@link TopologicalLink} objects. It is filled by
+ * {@link GraphReaderBrite#readCompactGraph(String)} and stored by {@link TopologyCache}, so that
+ * large topologies can be loaded without creating an object per node or link.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ * @see TopologicalGraph
+ */
+public class CompactTopologicalGraph {
+
+	/** The number of nodes. */
+	private int numberOfNodes;
+
+	/** The BRITE ids of the nodes. */
+	private int[] nodeID;
+
+	/** The x coordinates of the nodes. */
+	private int[] nodeX;
+
+	/** The y coordinates of the nodes. */
+	private int[] nodeY;
+
+	/** The number of links. */
+	private int numberOfLinks;
+
+	/** The BRITE ids of the source nodes of the links. */
+	private int[] linkSrc;
+
+	/** The BRITE ids of the destination nodes of the links. */
+	private int[] linkDest;
+
+	/** The delays of the links. */
+	private float[] linkDelay;
+
+	/** The bandwidths of the links. */
+	private float[] linkBw;
+
+	/**
+	 * Creates an empty graph.
+	 */
+	public CompactTopologicalGraph() {
+		this(16, 16);
+	}
+
+	/**
+	 * Creates an empty graph with room for a number of nodes and links.
+	 *
+	 * @param nodes the expected number of nodes
+	 * @param links the expected number of links
+	 */
+	public CompactTopologicalGraph(int nodes, int links) {
+		nodeID = new int[Math.max(nodes, 1)];
+		nodeX = new int[nodeID.length];
+		nodeY = new int[nodeID.length];
+		linkSrc = new int[Math.max(links, 1)];
+		linkDest = new int[linkSrc.length];
+		linkDelay = new float[linkSrc.length];
+		linkBw = new float[linkSrc.length];
+	}
+
+	/**
+	 * Adds a node to this graph.
+	 *
+	 * @param id the BRITE id of the node
+	 * @param x the x coordinate of the node
+	 * @param y the y coordinate of the node
+	 */
+	public void addNode(int id, int x, int y) {
+		if (numberOfNodes == nodeID.length) {
+			int capacity = 2 * numberOfNodes;
+			nodeID = Arrays.copyOf(nodeID, capacity);
+			nodeX = Arrays.copyOf(nodeX, capacity);
+			nodeY = Arrays.copyOf(nodeY, capacity);
+		}
+		nodeID[numberOfNodes] = id;
+		nodeX[numberOfNodes] = x;
+		nodeY[numberOfNodes] = y;
+		numberOfNodes++;
+	}
+
+	/**
+	 * Adds a link between two nodes to this graph.
+	 *
+	 * @param src the BRITE id of the source node
+	 * @param dest the BRITE id of the destination node
+	 * @param delay the delay of the link
+	 * @param bw the bandwidth of the link
+	 */
+	public void addLink(int src, int dest, float delay, float bw) {
+		if (numberOfLinks == linkSrc.length) {
+			int capacity = 2 * numberOfLinks;
+			linkSrc = Arrays.copyOf(linkSrc, capacity);
+			linkDest = Arrays.copyOf(linkDest, capacity);
+			linkDelay = Arrays.copyOf(linkDelay, capacity);
+			linkBw = Arrays.copyOf(linkBw, capacity);
+		}
+		linkSrc[numberOfLinks] = src;
+		linkDest[numberOfLinks] = dest;
+		linkDelay[numberOfLinks] = delay;
+		linkBw[numberOfLinks] = bw;
+		numberOfLinks++;
+	}
+
+	/**
+	 * Gets the number of nodes of this graph.
+	 *
+	 * @return the number of nodes
+	 */
+	public int getNumberOfNodes() {
+		return numberOfNodes;
+	}
+
+	/**
+	 * Gets the number of links of this graph.
+	 *
+	 * @return the number of links
+	 */
+	public int getNumberOfLinks() {
+		return numberOfLinks;
+	}
+
+	/**
+	 * Gets the BRITE id of a node.
+	 *
+	 * @param node the index of the node
+	 * @return the BRITE id
+	 */
+	public int getNodeID(int node) {
+		return nodeID[node];
+	}
+
+	/**
+	 * Gets the x coordinate of a node.
+	 *
+	 * @param node the index of the node
+	 * @return the x coordinate
+	 */
+	public int getCoordinateX(int node) {
+		return nodeX[node];
+	}
+
+	/**
+	 * Gets the y coordinate of a node.
+	 *
+	 * @param node the index of the node
+	 * @return the y coordinate
+	 */
+	public int getCoordinateY(int node) {
+		return nodeY[node];
+	}
+
+	/**
+	 * Gets the BRITE id of the source node of a link.
+	 *
+	 * @param link the index of the link
+	 * @return the BRITE id of the source node
+	 */
+	public int getSrcNodeID(int link) {
+		return linkSrc[link];
+	}
+
+	/**
+	 * Gets the BRITE id of the destination node of a link.
+	 *
+	 * @param link the index of the link
+	 * @return the BRITE id of the destination node
+	 */
+	public int getDestNodeID(int link) {
+		return linkDest[link];
+	}
+
+	/**
+	 * Gets the delay of a link.
+	 *
+	 * @param link the index of the link
+	 * @return the delay
+	 */
+	public float getLinkDelay(int link) {
+		return linkDelay[link];
+	}
+
+	/**
+	 * Gets the bandwidth of a link.
+	 *
+	 * @param link the index of the link
+	 * @return the bandwidth
+	 */
+	public float getLinkBw(int link) {
+		return linkBw[link];
+	}
+
+	/**
+	 * Gets the number of nodes needed to hold the BRITE ids of this graph,
+	 * i.e. the highest BRITE id plus one, or the number of nodes if larger.
+	 *
+	 * @return the size of a matrix indexed by the BRITE ids
+	 */
+	public int getMatrixSize() {
+		int size = numberOfNodes;
+		for (int i = 0; i < numberOfLinks; i++) {
+			size = Math.max(size, Math.max(linkSrc[i], linkDest[i]) + 1);
+		}
+		return size;
+	}
+
+	/**
+	 * Creates a {@link TopologicalGraph} with the nodes and links of this graph.
+	 *
+	 * @return the topological graph
+	 */
+	public TopologicalGraph toTopologicalGraph() {
+		TopologicalGraph graph = new TopologicalGraph();
+		for (int i = 0; i < numberOfNodes; i++) {
+			graph.addNode(new TopologicalNode(nodeID[i], Integer.toString(nodeID[i]), nodeX[i], nodeY[i]));
+		}
+		for (int i = 0; i < numberOfLinks; i++) {
+			graph.addLink(new TopologicalLink(linkSrc[i], linkDest[i], linkDelay[i], linkBw[i]));
+		}
+		return graph;
+	}
+}
@@ -8,11 +8,19 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 /**
  * This class represents a delay matrix between every pair or nodes
  * inside a network topology, storing every distance between connected nodes.
+ * <p>
+ * The delays are kept in a flat row-major array and updated incrementally when a link is added
+ * or its delay is reduced, in O(n&sup2;) instead of the O(n&sup3;) of a new Floyd-Warshall run.
+ * For large sparse topologies, where only a few nodes send messages, the matrix may instead be
+ * computed on demand: the delays from a node are computed by Dijkstra's algorithm the first time they
+ * are requested and cached until the topology changes. The delays of the links are assumed
+ * to be non-negative; a link with a delay of 0 is ignored.
  * 
  * @author Thomas Hohnstein
  * @since CloudSim Toolkit 1.0
@@ -20,15 +28,51 @@ import java.util.Iterator;
 public class DelayMatrix_Float {
 
 	/**
-	 * Matrix holding delay information between any two nodes.
+	 * Matrix holding delay information between any two nodes, stored row by row.
+	 * The delay from node i to node j is at index {@code i * mStride + j}.
 	 */
-	protected float[][] mDelayMatrix = null;
+	protected float[] mDelayMatrix = null;
+
+	/**
+	 * The length of a row of the delay matrix, which grows by doubling as nodes are added.
+	 */
+	protected int mStride = 0;
 
 	/**
 	 * Number of nodes in the distance-aware-topology.
 	 */
 	protected int mTotalNodeNum = 0;
 
+	/**
+	 * Indicates if the links are directed.
+	 */
+	private boolean directed;
+
+	/**
+	 * Indicates if the delays are computed on demand, one row at a time.
+	 */
+	private boolean onDemand;
+
+	/**
+	 * The rows of delays computed on demand, indexed by the source node; null if not computed yet.
+	 */
+	private float[][] rowCache;
+
+	/**
+	 * The destination nodes of the links leaving each node.
+	 */
+	private int[][] linkDest;
+
+	/**
+	 * The delays of the links leaving each node.
+	 */
+	private float[][] linkDelay;
+
+	/**
+	 * The number of links leaving each node.
+	 */
+	private int[] linkNum;
+
 	/**
 	 * Private constructor to ensure that only an correct initialized delay-matrix could be created.
 	 */
@@ -42,14 +86,68 @@ public class DelayMatrix_Float {
 	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
 	 */
 	public DelayMatrix_Float(TopologicalGraph graph, boolean directed) {
+		this(graph, directed, false);
+	}
+
+	/**
+	 * Creates an correctly initialized Float-Delay-Matrix.
+	 * 
+	 * @param graph the network topological graph
+	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
+	 * @param onDemand indicates if the delays from a node should be computed only when requested (true)
+	 *                 or if all the delays should be computed at once (false)
+	 */
+	public DelayMatrix_Float(TopologicalGraph graph, boolean directed, boolean onDemand) {
+		this.directed = directed;
+		this.onDemand = onDemand;
 
 		// lets preinitialize the Delay-Matrix
-		createDelayMatrix(graph, directed);
+		createDelayMatrix(graph);
 
 		// now its time to calculate all possible connection-delays
 		calculateShortestPath();
 	}
 
+	/**
+	 * Creates an correctly initialized Float-Delay-Matrix.
+	 * 
+	 * @param graph the network graph
+	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
+	 * @param onDemand indicates if the delays from a node should be computed only when requested (true)
+	 *                 or if all the delays should be computed at once (false)
+	 */
+	public DelayMatrix_Float(CompactTopologicalGraph graph, boolean directed, boolean onDemand) {
+		this.directed = directed;
+		this.onDemand = onDemand;
+
+		createDelayMatrix(graph);
+
+		calculateShortestPath();
+	}
+
+	/**
+	 * Creates a Float-Delay-Matrix whose delays were already computed, e.g. read from a {@link TopologyCache}.
+	 * 
+	 * @param graph the network graph
+	 * @param directed indicates if the delays were computed for a directed graph (true) or not (false)
+	 * @param delays the delays between all the pairs of nodes, row by row, used as is
+	 * @see #getDelayMatrix()
+	 */
+	public DelayMatrix_Float(CompactTopologicalGraph graph, boolean directed, float[] delays) {
+		this.directed = directed;
+
+		// the links are stored as in the on-demand mode, without allocating a matrix that would be replaced
+		onDemand = true;
+		createDelayMatrix(graph);
+		onDemand = false;
+
+		if (delays.length != mTotalNodeNum * mTotalNodeNum) {
+			throw new IllegalArgumentException("The delays do not match the size of the graph");
+		}
+		mDelayMatrix = delays;
+		mStride = mTotalNodeNum;
+	}
+
 	/**
          * Gets the delay between two nodes.
          * 
@@ -59,34 +157,100 @@ public class DelayMatrix_Float {
 	 */
 	public float getDelay(int srcID, int destID) {
 		// check the nodeIDs against internal array-boundarys
-		if (srcID > mTotalNodeNum || destID > mTotalNodeNum) {
+		if (srcID < 0 || destID < 0 || srcID >= mTotalNodeNum || destID >= mTotalNodeNum) {
 			throw new ArrayIndexOutOfBoundsException("srcID or destID is higher than highest stored node-ID!");
 		}
 
-		return mDelayMatrix[srcID][destID];
+		if (onDemand) {
+			float[] row = rowCache[srcID];
+			if (row == null) {
+				row = calculateShortestPath(srcID);
+				rowCache[srcID] = row;
+			}
+			return row[destID];
+		}
+
+		return mDelayMatrix[srcID * mStride + destID];
 	}
 
 	/**
-	 * Creates all internal necessary network-distance structures from the given graph. 
-         * For similarity, we assume all communication-distances are symmetrical, 
-         * thus leading to an undirected network.
+	 * Gets the number of nodes of the matrix.
 	 * 
-	 * @param graph the network topological graph
-	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
+	 * @return the number of nodes
 	 */
-	private void createDelayMatrix(TopologicalGraph graph, boolean directed) {
-
-		// number of nodes inside the network
-		mTotalNodeNum = graph.getNumberOfNodes();
+	public int getNumberOfNodes() {
+		return mTotalNodeNum;
+	}
 
-		mDelayMatrix = new float[mTotalNodeNum][mTotalNodeNum];
+	/**
+	 * Gets the delays between all the pairs of nodes, e.g. to store them in a {@link TopologyCache}.
+	 * 
+	 * @return a copy of the delays row by row, or null if the delays are computed on demand
+	 */
+	public float[] getDelayMatrix() {
+		if (onDemand) {
+			return null;
+		}
 
-		// cleanup the complete distance-matrix with "0"s
+		float[] delays = new float[mTotalNodeNum * mTotalNodeNum];
 		for (int row = 0; row < mTotalNodeNum; ++row) {
-			for (int col = 0; col < mTotalNodeNum; ++col) {
-				mDelayMatrix[row][col] = Float.MAX_VALUE;
+			System.arraycopy(mDelayMatrix, row * mStride, delays, row * mTotalNodeNum, mTotalNodeNum);
+		}
+		return delays;
+	}
+
+	/**
+	 * Checks if the delays are computed on demand.
+	 * 
+	 * @return true if the delays from a node are computed when first requested, false otherwise
+	 */
+	public boolean isOnDemand() {
+		return onDemand;
+	}
+
+	/**
+	 * Adds a link, or replaces the delay of an existing link, and updates the delays between
+	 * all the nodes. The nodes of the link are added to the matrix if needed.
+	 * If the link is new or faster, only the paths through it are updated;
+	 * if it is slower than before, all the delays are computed again.
+	 * 
+	 * @param srcID the id of the source node
+	 * @param destID the id of the destination node
+	 * @param delay the delay of the link
+	 */
+	public void addLink(int srcID, int destID, float delay) {
+		ensureNodes(Math.max(srcID, destID) + 1);
+
+		float newDelay = delay != 0 ? delay : Float.MAX_VALUE;
+		float oldDelay = setLink(srcID, destID, delay);
+		float oldReverseDelay = directed ? newDelay : setLink(destID, srcID, delay);
+
+		if (onDemand) {
+			if (oldDelay != newDelay || oldReverseDelay != newDelay) {
+				Arrays.fill(rowCache, null);
+			}
+		} else if (oldDelay < newDelay || oldReverseDelay < newDelay) {
+			// a path may now be slower
+			calculateShortestPath();
+		} else {
+			if (newDelay < oldDelay) {
+				addShortcut(srcID, destID, delay);
+			}
+			if (!directed && newDelay < oldReverseDelay) {
+				addShortcut(destID, srcID, delay);
 			}
 		}
+	}
+
+	/**
+	 * Creates all internal necessary network-distance structures from the given graph. 
+         * For similarity, we assume all communication-distances are symmetrical, 
+         * thus leading to an undirected network.
+	 * 
+	 * @param graph the network topological graph
+	 */
+	private void createDelayMatrix(TopologicalGraph graph) {
+		initialize(graph.getNumberOfNodes());
 
 		Iterator<TopologicalLink> itr = graph.getLinkIterator();
 
@@ -94,24 +258,255 @@ public class DelayMatrix_Float {
 		while (itr.hasNext()) {
 			edge = itr.next();
 
-			mDelayMatrix[edge.getSrcNodeID()][edge.getDestNodeID()] = edge.getLinkDelay();
+			ensureNodes(Math.max(edge.getSrcNodeID(), edge.getDestNodeID()) + 1);
+			setLink(edge.getSrcNodeID(), edge.getDestNodeID(), edge.getLinkDelay());
 
 			if (!directed) {
 				// according to aproximity of symmetry to all communication-paths
-				mDelayMatrix[edge.getDestNodeID()][edge.getSrcNodeID()] = edge.getLinkDelay();
+				setLink(edge.getDestNodeID(), edge.getSrcNodeID(), edge.getLinkDelay());
 			}
 
 		}
 	}
 
+	/**
+	 * Creates all internal necessary network-distance structures from the given graph.
+	 * 
+	 * @param graph the network graph
+	 */
+	private void createDelayMatrix(CompactTopologicalGraph graph) {
+		initialize(graph.getMatrixSize());
+
+		for (int i = 0; i < graph.getNumberOfLinks(); i++) {
+			setLink(graph.getSrcNodeID(i), graph.getDestNodeID(i), graph.getLinkDelay(i));
+
+			if (!directed) {
+				setLink(graph.getDestNodeID(i), graph.getSrcNodeID(i), graph.getLinkDelay(i));
+			}
+		}
+	}
+
+	/**
+	 * Creates the empty internal structures.
+	 * 
+	 * @param nodes the number of nodes inside the network
+	 */
+	private void initialize(int nodes) {
+		linkDest = new int[0][];
+		linkDelay = new float[0][];
+		linkNum = new int[0];
+		rowCache = new float[0][];
+		mDelayMatrix = new float[0];
+
+		ensureNodes(nodes);
+	}
+
+	/**
+	 * Grows the internal structures to hold a number of nodes.
+	 * 
+	 * @param nodes the number of nodes
+	 */
+	private void ensureNodes(int nodes) {
+		if (nodes <= mTotalNodeNum) {
+			return;
+		}
+
+		if (nodes > linkNum.length) {
+			int capacity = Math.max(nodes, 2 * linkNum.length);
+			linkDest = Arrays.copyOf(linkDest, capacity);
+			linkDelay = Arrays.copyOf(linkDelay, capacity);
+			linkNum = Arrays.copyOf(linkNum, capacity);
+			rowCache = new float[capacity][];
+		} else {
+			Arrays.fill(rowCache, null);
+		}
+
+		if (!onDemand && nodes > mStride) {
+			int stride = Math.max(nodes, 2 * mStride);
+			float[] matrix = new float[stride * stride];
+			Arrays.fill(matrix, Float.MAX_VALUE);
+			for (int row = 0; row < stride; ++row) {
+				if (row < mTotalNodeNum) {
+					System.arraycopy(mDelayMatrix, row * mStride, matrix, row * stride, mTotalNodeNum);
+				} else {
+					matrix[row * stride + row] = 0;
+				}
+			}
+			mDelayMatrix = matrix;
+			mStride = stride;
+		}
+
+		mTotalNodeNum = nodes;
+	}
+
+	/**
+	 * Sets the delay of the link between two nodes.
+	 * 
+	 * @param srcID the id of the source node
+	 * @param destID the id of the destination node
+	 * @param delay the delay of the link
+	 * @return the previous delay of the link, {@link Float#MAX_VALUE} if there was no link
+	 */
+	private float setLink(int srcID, int destID, float delay) {
+		int[] dest = linkDest[srcID];
+		float[] delays = linkDelay[srcID];
+		for (int i = 0; i < linkNum[srcID]; i++) {
+			if (dest[i] == destID) {
+				float oldDelay = delays[i];
+				delays[i] = delay;
+				return oldDelay != 0 ? oldDelay : Float.MAX_VALUE;
+			}
+		}
+
+		if (dest == null) {
+			dest = new int[4];
+			delays = new float[4];
+		} else if (linkNum[srcID] == dest.length) {
+			dest = Arrays.copyOf(dest, 2 * dest.length);
+			delays = Arrays.copyOf(delays, 2 * delays.length);
+		}
+		dest[linkNum[srcID]] = destID;
+		delays[linkNum[srcID]] = delay;
+		linkNum[srcID]++;
+		linkDest[srcID] = dest;
+		linkDelay[srcID] = delays;
+		return Float.MAX_VALUE;
+	}
+
 	/**
 	 * Calculates the shortest path between all pairs of nodes.
 	 */
 	private void calculateShortestPath() {
+		if (onDemand) {
+			Arrays.fill(rowCache, null);
+			return;
+		}
+
+		for (int row = 0; row < mTotalNodeNum; ++row) {
+			Arrays.fill(mDelayMatrix, row * mStride, row * mStride + mTotalNodeNum, 0);
+			for (int i = 0; i < linkNum[row]; i++) {
+				mDelayMatrix[row * mStride + linkDest[row][i]] = linkDelay[row][i];
+			}
+		}
+
 		FloydWarshall_Float floyd = new FloydWarshall_Float();
 
 		floyd.initialize(mTotalNodeNum);
-		mDelayMatrix = floyd.allPairsShortestPaths(mDelayMatrix);
+		floyd.allPairsShortestPaths(mDelayMatrix, mStride);
+	}
+
+	/**
+	 * Updates the delays after a directed link got faster. A shortest path uses the link at most once,
+	 * so the delay from node i to node j becomes the minimum between the previous one and
+	 * the delay from i to the source of the link, plus the link, plus the delay from the destination
+	 * of the link to j. Only the nodes that now reach the destination of the link faster are affected.
+	 * 
+	 * @param srcID the id of the source node of the link
+	 * @param destID the id of the destination node of the link
+	 * @param delay the delay of the link
+	 */
+	private void addShortcut(int srcID, int destID, float delay) {
+		int rowDest = destID * mStride;
+		float[] fromDest = Arrays.copyOfRange(mDelayMatrix, rowDest, rowDest + mTotalNodeNum);
+
+		for (int i = 0; i < mTotalNodeNum; ++i) {
+			int row = i * mStride;
+			float throughLink = mDelayMatrix[row + srcID] + delay;
+			if (!(throughLink < mDelayMatrix[row + destID])) {
+				continue;
+			}
+
+			for (int j = 0; j < mTotalNodeNum; ++j) {
+				float delayThroughLink = throughLink + fromDest[j];
+				if (delayThroughLink < mDelayMatrix[row + j] && i != j) {
+					mDelayMatrix[row + j] = delayThroughLink;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Calculates the shortest paths from a node to all the other nodes by Dijkstra's algorithm.
+	 * 
+	 * @param srcID the id of the source node
+	 * @return the delays from the node, {@link Float#MAX_VALUE} for the unreachable nodes
+	 */
+	private float[] calculateShortestPath(int srcID) {
+		float[] delays = new float[mTotalNodeNum];
+		Arrays.fill(delays, Float.MAX_VALUE);
+		delays[srcID] = 0;
+
+		// a binary heap of the reached nodes; as the delays are non-negative,
+		// the order of their bits is the order of their values
+		long[] heap = new long[16];
+		int size = 0;
+		heap[size++] = srcID;
+
+		while (size > 0) {
+			long top = heap[0];
+			heap[0] = heap[--size];
+			siftDown(heap, size);
+
+			int node = (int) top;
+			float delay = Float.intBitsToFloat((int) (top >>> 32));
+			if (delay > delays[node]) {
+				// an outdated entry
+				continue;
+			}
+
+			for (int i = 0; i < linkNum[node]; i++) {
+				float linkDelay = this.linkDelay[node][i];
+				int dest = linkDest[node][i];
+				if (linkDelay == 0 || dest == node) {
+					continue;
+				}
+
+				float newDelay = delay + linkDelay;
+				if (newDelay < delays[dest]) {
+					delays[dest] = newDelay;
+					if (size == heap.length) {
+						heap = Arrays.copyOf(heap, 2 * size);
+					}
+					heap[size] = ((long) Float.floatToIntBits(newDelay) << 32) | dest;
+					siftUp(heap, size++);
+				}
+			}
+		}
+
+		return delays;
+	}
+
+	private static void siftUp(long[] heap, int i) {
+		long entry = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (heap[parent] <= entry) {
+				break;
+			}
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = entry;
+	}
+
+	private static void siftDown(long[] heap, int size) {
+		if (size == 0) {
+			return;
+		}
+		long entry = heap[0];
+		int i = 0;
+		int child;
+		while ((child = 2 * i + 1) < size) {
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (entry <= heap[child]) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = entry;
 	}
 
 	@Override
@@ -129,10 +524,11 @@ public class DelayMatrix_Float {
 			buffer.append("\n").append(row);
 
 			for (int col = 0; col < mTotalNodeNum; ++col) {
-				if (mDelayMatrix[row][col] == Float.MAX_VALUE) {
+				float delay = getDelay(row, col);
+				if (delay == Float.MAX_VALUE) {
 					buffer.append("\t" + "-");
 				} else {
-					buffer.append("\t").append(mDelayMatrix[row][col]);
+					buffer.append("\t").append(delay);
 				}
 			}
 		}
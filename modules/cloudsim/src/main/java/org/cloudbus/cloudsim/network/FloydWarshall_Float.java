@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.util.Arrays;
+
 /**
  * FloydWarshall algorithm to calculate the predecessor matrix 
  * and the delay between all pairs of nodes.
@@ -25,19 +27,9 @@ public class FloydWarshall_Float {
 	private int numVertices;
 
 	/**
-	 * Matrices used in dynamic programming.
+	 * The predecessor matrix, stored row by row.
 	 */
-	private float[][] Dk, Dk_minus_one;
-
-	/**
-	 * The predecessor matrix. Matrix used by dynamic programming.
-	 */
-	private int[][] Pk;
-        
-        /**
-         * Matrix used by dynamic programming.
-         */
-        private int[][] Pk_minus_one;
+	private int[] Pk;
 
 	/**
 	 * Initialization the matrix.
@@ -47,83 +39,79 @@ public class FloydWarshall_Float {
 	 */
 	public void initialize(int numVertices) {
 		this.numVertices = numVertices;
+		Pk = new int[numVertices * numVertices];
+	}
 
-		// Initialize Dk matrices.
-		Dk = new float[numVertices][];
-		Dk_minus_one = new float[numVertices][];
+	/**
+	 * Calculates the delay between all pairs of nodes.
+	 * 
+	 * @param adjMatrix original delay matrix
+	 * @return the delay matrix
+	 */
+	public float[][] allPairsShortestPaths(float[][] adjMatrix) {
+		float[] delays = new float[numVertices * numVertices];
 		for (int i = 0; i < numVertices; i++) {
-			Dk[i] = new float[numVertices];
-			Dk_minus_one[i] = new float[numVertices];
+			System.arraycopy(adjMatrix[i], 0, delays, i * numVertices, numVertices);
 		}
 
-		// Initialize Pk matrices.
-		Pk = new int[numVertices][];
-		Pk_minus_one = new int[numVertices][];
+		allPairsShortestPaths(delays, numVertices);
+
+		float[][] Dk = new float[numVertices][];
 		for (int i = 0; i < numVertices; i++) {
-			Pk[i] = new int[numVertices];
-			Pk_minus_one[i] = new int[numVertices];
+			Dk[i] = Arrays.copyOfRange(delays, i * numVertices, (i + 1) * numVertices);
 		}
-
+		return Dk;
 	}
 
 	/**
-	 * Calculates the delay between all pairs of nodes.
+	 * Calculates the delay between all pairs of nodes in place. The delays are stored row by row,
+	 * the delay from node i to node j being at index {@code i * stride + j}; a delay of 0 between
+	 * two different nodes means that they are not linked. Unreachable nodes get a delay of
+	 * {@link Float#MAX_VALUE}.
+	 * <p>
+	 * As the k-th row and column do not change while the paths through node k are considered,
+	 * no copy of the matrix is needed between iterations.
 	 * 
-	 * @param adjMatrix original delay matrix
-	 * @return the delay matrix
+	 * @param delays the link delays, replaced by the delays of the shortest paths
+	 * @param stride the length of a row, at least the number of nodes
 	 */
-	public float[][] allPairsShortestPaths(float[][] adjMatrix) {
-		// Dk_minus_one = weights when k = -1
+	public void allPairsShortestPaths(float[] delays, int stride) {
+		// D_-1 = weights
 		for (int i = 0; i < numVertices; i++) {
+			int row = i * stride;
 			for (int j = 0; j < numVertices; j++) {
-				if (adjMatrix[i][j] != 0) {
-					Dk_minus_one[i][j] = adjMatrix[i][j];
-					Pk_minus_one[i][j] = i;
+				if (i == j) {
+					delays[row + j] = 0;
+					Pk[i * numVertices + j] = -1;
+				} else if (delays[row + j] != 0) {
+					Pk[i * numVertices + j] = i;
 				} else {
-					Dk_minus_one[i][j] = Float.MAX_VALUE;
-					Pk_minus_one[i][j] = -1;
+					delays[row + j] = Float.MAX_VALUE;
+					Pk[i * numVertices + j] = -1;
 				}
-				// NOTE: we have set the value to infinity and will exploit
-				// this to avoid a comparison.
 			}
 		}
 
-		// Now iterate over k.
-
 		for (int k = 0; k < numVertices; k++) {
-
-			// Compute Dk[i][j], for each i,j
-
+			int rowK = k * stride;
 			for (int i = 0; i < numVertices; i++) {
-				for (int j = 0; j < numVertices; j++) {
-					if (i != j) {
-
-						// D_k[i][j] = min ( D_k-1[i][j], D_k-1[i][k] + D_k-1[k][j].
-						if (Dk_minus_one[i][j] <= Dk_minus_one[i][k] + Dk_minus_one[k][j]) {
-							Dk[i][j] = Dk_minus_one[i][j];
-							Pk[i][j] = Pk_minus_one[i][j];
-						} else {
-							Dk[i][j] = Dk_minus_one[i][k] + Dk_minus_one[k][j];
-							Pk[i][j] = Pk_minus_one[k][j];
-						}
-					} else {
-						Pk[i][j] = -1;
-					}
+				int row = i * stride;
+				float delayToK = delays[row + k];
+				if (i == k || delayToK == Float.MAX_VALUE) {
+					// no path through k can be shorter
+					continue;
 				}
-			}
 
-			// Now store current Dk into D_k-1
-			for (int i = 0; i < numVertices; i++) {
+				// D_k[i][j] = min ( D_k-1[i][j], D_k-1[i][k] + D_k-1[k][j] )
 				for (int j = 0; j < numVertices; j++) {
-					Dk_minus_one[i][j] = Dk[i][j];
-					Pk_minus_one[i][j] = Pk[i][j];
+					float throughK = delayToK + delays[rowK + j];
+					if (throughK < delays[row + j] && i != j) {
+						delays[row + j] = throughK;
+						Pk[i * numVertices + j] = Pk[k * numVertices + j];
+					}
 				}
 			}
-
-		} // end-outermost-for
-
-		return Dk;
-
+		}
 	}
 
 	/**
@@ -132,6 +120,10 @@ public class FloydWarshall_Float {
 	 * @return predecessor matrix
 	 */
 	public int[][] getPK() {
-		return Pk;
+		int[][] predecessors = new int[numVertices][];
+		for (int i = 0; i < numVertices; i++) {
+			predecessors[i] = Arrays.copyOfRange(Pk, i * numVertices, (i + 1) * numVertices);
+		}
+		return predecessors;
 	}
 }
@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.network;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.StringTokenizer;
 
 /**
  * A file reader for the special BRITE-format. A BRITE file is structured as
@@ -21,6 +20,8 @@ import java.util.StringTokenizer;
  * <li>Edge-section: EdgeID, fromNode, toNode, euclideanLength, linkDelay, linkBandwith, AS_from, AS_to,
  * type
  * </ul>
+ * The file is parsed line by line straight into a {@link CompactTopologicalGraph}, without
+ * splitting the lines into token strings.
  * 
  * @author Thomas Hohnstein
  * @since CloudSim Toolkit 1.0
@@ -36,58 +37,57 @@ public class GraphReaderBrite implements GraphReaderIF {
 	private int state = PARSE_NOTHING;
 
         /**
-         * The network Topological Graph.
+         * The network graph being read.
          */
-	private TopologicalGraph graph = null;
+	private CompactTopologicalGraph graph = null;
+
+	/**
+	 * The end of the last token found by {@link #nextToken(String, int)}.
+	 */
+	private int tokenEnd;
 
 	@Override
 	public TopologicalGraph readGraphFile(String filename) throws IOException {
+		return readCompactGraph(filename).toTopologicalGraph();
+	}
+
+	/**
+	 * Reads a BRITE file into a graph stored in primitive arrays.
+	 * 
+	 * @param filename Name of the file to read
+	 * @return The graph read
+	 * @throws IOException when the file cannot be accessed
+	 */
+	public CompactTopologicalGraph readCompactGraph(String filename) throws IOException {
 
-		graph = new TopologicalGraph();
+		graph = new CompactTopologicalGraph();
+		state = PARSE_NOTHING;
 
 		// lets read the file
-		FileReader fr = new FileReader(filename);
-		BufferedReader br = new BufferedReader(fr);
-
-		String lineSep = System.getProperty("line.separator");
-		String nextLine = null;
-		StringBuilder sb = new StringBuilder();
-
-		while ((nextLine = br.readLine()) != null) {
-			sb.append(nextLine);
-			//
-			// note:
-			// BufferedReader strips the EOL character.
-			//
-			sb.append(lineSep);
-
-			// functionality to diferentiate between all the parsing-states
-			// state that should just find the start of node-declaration
-			if (state == PARSE_NOTHING) {
-				if (nextLine.contains("Nodes:")) {
-					// Log.printLine("found start of Nodes... switch to parse nodes!");
-					state = PARSE_NODES;
+		try (BufferedReader br = new BufferedReader(new FileReader(filename), 1 << 16)) {
+			String nextLine;
+			while ((nextLine = br.readLine()) != null) {
+				// functionality to diferentiate between all the parsing-states
+				// state that should just find the start of node-declaration
+				if (state == PARSE_NOTHING) {
+					if (nextLine.contains("Nodes:")) {
+						state = PARSE_NODES;
+					}
 				}
-			}
 
-			// the state to retrieve all node-information
-			else if (state == PARSE_NODES) {
-				// perform the parsing of this node-line
-				parseNodeString(nextLine);
-			}
+				// the state to retrieve all node-information
+				else if (state == PARSE_NODES) {
+					// perform the parsing of this node-line
+					parseNodeString(nextLine);
+				}
 
-			// the state to retrieve all edges-information
-			else if (state == PARSE_EDGES) {
-				parseEdgesString(nextLine);
+				// the state to retrieve all edges-information
+				else if (state == PARSE_EDGES) {
+					parseEdgesString(nextLine);
+				}
 			}
-
 		}
 
-		br.close();
-
-		// Log.printLine("read file successfully...");
-		// Log.printLine(sb.toString());
-
 		return graph;
 	}
 
@@ -97,22 +97,19 @@ public class GraphReaderBrite implements GraphReaderIF {
          * @param nodeLine A line read from the file
          */
 	private void parseNodeString(String nodeLine) {
-		StringTokenizer tokenizer = new StringTokenizer(nodeLine);
-
 		// number of node parameters to parse (counts at linestart)
 		int parameters = 3;
 
 		// first test to step to the next parsing-state (edges)
 		if (nodeLine.contains("Edges:")) {
-			// Log.printLine("found start of Edges... switch to parse edges!");
 			state = PARSE_EDGES;
 
 			return;
 		}
 
 		// test against an empty line
-		if (!tokenizer.hasMoreElements()) {
-			// Log.printLine("this line contains no tokens...");
+		int start = nextToken(nodeLine, 0);
+		if (start < 0) {
 			return;
 		}
 
@@ -120,28 +117,20 @@ public class GraphReaderBrite implements GraphReaderIF {
 		// NodeID, xpos, ypos, indegree, outdegree, ASid, type(router/AS)
 
 		int nodeID = 0;
-		String nodeLabel = "";
 		int xPos = 0;
 		int yPos = 0;
 
-		for (int actualParam = 0; tokenizer.hasMoreElements() && actualParam < parameters; actualParam++) {
-			String token = tokenizer.nextToken();
+		for (int actualParam = 0; start >= 0 && actualParam < parameters; actualParam++) {
+			int value = Integer.parseInt(nodeLine, start, tokenEnd, 10);
 			switch (actualParam) {
-				case 0 -> {    // Log.printLine("nodeID: "+token);
-					// Log.printLine("nodeLabel: "+token);
-					nodeID = Integer.parseInt(token);
-					nodeLabel = Integer.toString(nodeID);
-				}
-				case 1 ->    // Log.printLine("x-Pos: "+token);
-						xPos = Integer.parseInt(token);
-				case 2 ->    // Log.printLine("y-Pos: "+token);
-						yPos = Integer.parseInt(token);
+				case 0 -> nodeID = value;
+				case 1 -> xPos = value;
+				case 2 -> yPos = value;
 			}
+			start = nextToken(nodeLine, tokenEnd);
 		}
 
-		// instanciate an new node-object with previous parsed parameters
-		TopologicalNode topoNode = new TopologicalNode(nodeID, nodeLabel, xPos, yPos);
-		graph.addNode(topoNode);
+		graph.addNode(nodeID, xPos, yPos);
 
 	}
 
@@ -151,58 +140,67 @@ public class GraphReaderBrite implements GraphReaderIF {
          * @param nodeLine A line read from the file
          */
 	private void parseEdgesString(String nodeLine) {
-		StringTokenizer tokenizer = new StringTokenizer(nodeLine);
-
 		// number of node parameters to parse (counts at linestart)
 		int parameters = 6;
 
 		// test against an empty line
-		if (!tokenizer.hasMoreElements()) {
-			// Log.printLine("this line contains no tokens...");
+		int start = nextToken(nodeLine, 0);
+		if (start < 0) {
 			return;
 		}
 
 		// parse this string-line to read all node-parameters
 		// EdgeID, fromNode, toNode, euclideanLength, linkDelay, linkBandwith, AS_from, AS_to, type
 
-		// int edgeID = 0;
 		int fromNode = 0;
 		int toNode = 0;
-		// float euclideanLength = 0;
 		float linkDelay = 0;
 		int linkBandwith = 0;
 
-		for (int actualParam = 0; tokenizer.hasMoreElements() && actualParam < parameters; actualParam++) {
-			String token = tokenizer.nextToken();
+		for (int actualParam = 0; start >= 0 && actualParam < parameters; actualParam++) {
 			switch (actualParam) {
-				case 0:	// Log.printLine("edgeID: "+token);
-						// edgeID = Integer.valueOf(token);
-					break;
-
-				case 1:	// Log.printLine("fromNode: "+token);
-					fromNode = Integer.parseInt(token);
-					break;
-
-				case 2:	// Log.printLine("toNode: "+token);
-					toNode = Integer.parseInt(token);
-					break;
-
-				case 3:	// Log.printLine("euclideanLength: "+token);
-						// euclideanLength = Float.valueOf(token);
-					break;
+				case 1 -> fromNode = Integer.parseInt(nodeLine, start, tokenEnd, 10);
+				case 2 -> toNode = Integer.parseInt(nodeLine, start, tokenEnd, 10);
+				case 4 -> linkDelay = Float.parseFloat(nodeLine.substring(start, tokenEnd));
+				case 5 -> linkBandwith = (int) Float.parseFloat(nodeLine.substring(start, tokenEnd));
+				default -> {
+					// the edge id and the euclidean length are not used
+				}
+			}
+			start = nextToken(nodeLine, tokenEnd);
+		}
 
-				case 4:	// Log.printLine("linkDelay: "+token);
-					linkDelay = Float.parseFloat(token);
-					break;
+		graph.addLink(fromNode, toNode, linkDelay, linkBandwith);
 
-				case 5:	// Log.printLine("linkBandwith: "+token);
-					linkBandwith = Float.valueOf(token).intValue();
-					break;
-			}// switch-END
-		}// for-END
+	}
 
-		graph.addLink(new TopologicalLink(fromNode, toNode, linkDelay, linkBandwith));
+	/**
+	 * Finds the next token of a line, delimited by white spaces as by a {@link java.util.StringTokenizer}.
+	 * The end of the token is stored in {@link #tokenEnd}.
+	 * 
+	 * @param line the line
+	 * @param from the index where to start searching
+	 * @return the start of the token, -1 if there are no more tokens
+	 */
+	private int nextToken(String line, int from) {
+		int length = line.length();
+		int start = from;
+		while (start < length && isDelimiter(line.charAt(start))) {
+			start++;
+		}
+		if (start == length) {
+			return -1;
+		}
+		int end = start + 1;
+		while (end < length && !isDelimiter(line.charAt(end))) {
+			end++;
+		}
+		tokenEnd = end;
+		return start;
+	}
 
+	private static boolean isDelimiter(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
 	}
 
 }
@@ -0,0 +1,296 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * A directory of binary files holding network topologies already read and processed, so that
+ * simulations reusing a large topology file do not parse it nor compute its delays again.
+ * Each cache file is named after the SHA-256 hash of the content of the topology file and holds
+ * its graph and, optionally, the delays between all the pairs of its nodes.
+ * The cache files are memory-mapped when read, and written to a temporary file first, so
+ * that simulations running in parallel can share a directory.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class TopologyCache {
+
+	/** The first bytes of a cache file. */
+	private static final int MAGIC = 0x43535450;
+
+	/** The version of the format of the cache files. */
+	private static final int VERSION = 1;
+
+	/** The extension of the cache files. */
+	private static final String EXTENSION = ".topology";
+
+	/** The directory of the cache files. */
+	private final Path directory;
+
+	/**
+	 * A topology read from the cache.
+	 */
+	public static class Entry {
+
+		/** The graph of the topology. */
+		private final CompactTopologicalGraph graph;
+
+		/** The delays between all the pairs of nodes, row by row; null if not cached. */
+		private final float[] delays;
+
+		/**
+		 * Instantiates a new entry.
+		 *
+		 * @param graph the graph of the topology
+		 * @param delays the delays between all the pairs of nodes, or null
+		 */
+		public Entry(CompactTopologicalGraph graph, float[] delays) {
+			this.graph = graph;
+			this.delays = delays;
+		}
+
+		/**
+		 * Gets the graph of the topology.
+		 *
+		 * @return the graph
+		 */
+		public CompactTopologicalGraph getGraph() {
+			return graph;
+		}
+
+		/**
+		 * Gets the delays between all the pairs of nodes.
+		 *
+		 * @return the delays row by row, or null if they were not cached
+		 */
+		public float[] getDelays() {
+			return delays;
+		}
+	}
+
+	/**
+	 * Instantiates a new topology cache.
+	 *
+	 * @param directory the directory of the cache files, created when the first file is written
+	 */
+	public TopologyCache(String directory) {
+		this.directory = Paths.get(directory);
+	}
+
+	/**
+	 * Computes the hash of the content of a file, which identifies its cache file.
+	 *
+	 * @param fileName the name of the file
+	 * @return the SHA-256 hash
+	 * @throws IOException when the file cannot be read
+	 */
+	public static byte[] hash(String fileName) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		try (InputStream in = Files.newInputStream(Paths.get(fileName))) {
+			byte[] buffer = new byte[1 << 16];
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Gets the cache file of a topology.
+	 *
+	 * @param hash the hash of the topology file
+	 * @return the path of the cache file
+	 */
+	public Path getCacheFile(byte[] hash) {
+		return directory.resolve(HexFormat.of().formatHex(hash) + EXTENSION);
+	}
+
+	/**
+	 * Reads a topology from the cache.
+	 *
+	 * @param hash the hash of the topology file
+	 * @return the cached topology, or null if it is not in the cache
+	 * @throws IOException when the cache file cannot be read or is corrupted
+	 */
+	public Entry read(byte[] hash) throws IOException {
+		Path file = getCacheFile(hash);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		try {
+			byte[] fileHash = new byte[hash.length];
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !Arrays.equals(readBytes(buffer, fileHash), hash)) {
+				throw new IOException("Not a cache file of this topology: " + file);
+			}
+
+			int nodes = buffer.getInt();
+			int links = buffer.getInt();
+			boolean hasDelays = buffer.get() != 0;
+			// the counts are checked against the file size before allocating anything
+			if (nodes < 0 || links < 0 || 12L * nodes + 16L * links > buffer.remaining()) {
+				throw new IOException("Corrupted cache file: " + file);
+			}
+
+			int[] nodeID = getInts(buffer, nodes);
+			int[] nodeX = getInts(buffer, nodes);
+			int[] nodeY = getInts(buffer, nodes);
+			int[] linkSrc = getInts(buffer, links);
+			int[] linkDest = getInts(buffer, links);
+			float[] linkDelay = getFloats(buffer, links);
+			float[] linkBw = getFloats(buffer, links);
+
+			CompactTopologicalGraph graph = new CompactTopologicalGraph(nodes, links);
+			for (int i = 0; i < nodes; i++) {
+				graph.addNode(nodeID[i], nodeX[i], nodeY[i]);
+			}
+			for (int i = 0; i < links; i++) {
+				graph.addLink(linkSrc[i], linkDest[i], linkDelay[i], linkBw[i]);
+			}
+
+			float[] delays = null;
+			if (hasDelays) {
+				long size = graph.getMatrixSize();
+				if (4 * size * size != buffer.remaining()) {
+					throw new IOException("Corrupted cache file: " + file);
+				}
+				delays = getFloats(buffer, (int) (size * size));
+			}
+			return new Entry(graph, delays);
+		} catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+			throw new IOException("Corrupted cache file: " + file, e);
+		}
+	}
+
+	/**
+	 * Writes a topology to the cache, replacing any previous cache file of the topology.
+	 *
+	 * @param hash the hash of the topology file
+	 * @param graph the graph of the topology
+	 * @param delays the delays between all the pairs of nodes, row by row, or null
+	 * @throws IOException when the cache file cannot be written
+	 * @throws IllegalArgumentException when the delays do not match the size of the graph
+	 * @see CompactTopologicalGraph#getMatrixSize()
+	 */
+	public void write(byte[] hash, CompactTopologicalGraph graph, float[] delays) throws IOException {
+		int size = graph.getMatrixSize();
+		if (delays != null && delays.length != size * size) {
+			throw new IllegalArgumentException("The delays do not match the size of the graph");
+		}
+
+		Files.createDirectories(directory);
+		Path file = getCacheFile(hash);
+		Path temp = Files.createTempFile(directory, "topology", ".tmp");
+
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+				int nodes = graph.getNumberOfNodes();
+				int links = graph.getNumberOfLinks();
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.write(hash);
+				out.writeInt(nodes);
+				out.writeInt(links);
+				out.writeBoolean(delays != null);
+
+				for (int i = 0; i < nodes; i++) {
+					out.writeInt(graph.getNodeID(i));
+				}
+				for (int i = 0; i < nodes; i++) {
+					out.writeInt(graph.getCoordinateX(i));
+				}
+				for (int i = 0; i < nodes; i++) {
+					out.writeInt(graph.getCoordinateY(i));
+				}
+				for (int i = 0; i < links; i++) {
+					out.writeInt(graph.getSrcNodeID(i));
+				}
+				for (int i = 0; i < links; i++) {
+					out.writeInt(graph.getDestNodeID(i));
+				}
+				for (int i = 0; i < links; i++) {
+					out.writeFloat(graph.getLinkDelay(i));
+				}
+				for (int i = 0; i < links; i++) {
+					out.writeFloat(graph.getLinkBw(i));
+				}
+
+				if (delays != null) {
+					// the matrix is written by blocks rather than one float at a time
+					ByteBuffer block = ByteBuffer.allocate(1 << 16);
+					FloatBuffer floats = block.asFloatBuffer();
+					for (int i = 0; i < delays.length; i += floats.capacity()) {
+						int length = Math.min(floats.capacity(), delays.length - i);
+						floats.clear();
+						floats.put(delays, i, length);
+						out.write(block.array(), 0, 4 * length);
+					}
+				}
+			}
+
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static byte[] readBytes(MappedByteBuffer buffer, byte[] values) {
+		buffer.get(values);
+		return values;
+	}
+
+	private static int[] getInts(MappedByteBuffer buffer, int length) {
+		int[] values = new int[length];
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + 4 * length);
+		return values;
+	}
+
+	private static float[] getFloats(MappedByteBuffer buffer, int length) {
+		float[] values = new float[length];
+		buffer.asFloatBuffer().get(values);
+		buffer.position(buffer.position() + 4 * length);
+		return values;
+	}
+}
@@ -0,0 +1,443 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * A flow-level model of the network of a {@link NetworkDatacenter}, alternative to forwarding every packet
+ * through the {@link Switch switches}. The data of a send stage of a {@link NetworkCloudlet} is transmitted as
+ * one flow over the path of links between the sender guest and the receiver host: the link of the sender guest,
+ * whose bandwidth is the one of the guest, and the ports of the switches along the route of the packets.
+ * <p>
+ * The links are shared among the flows by max-min fairness: the rates are computed by progressive filling,
+ * only when a flow starts or ends. A single event, scheduled at the end of the next transmission, drives all
+ * the flows. Once transmitted, a flow reaches its receiver after the switching delays of the switches along
+ * its path and the virtualization overheads, and its packet is stored in the receiver
+ * {@link NetworkInterfaceCard} as in the packet-level model, so the {@link TaskStage} semantics are unchanged.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ * @see NetworkDatacenter#setFlowLevelNetwork(boolean)
+ */
+public class FlowNetwork {
+
+	/** The remaining fraction of the data of a flow under which the flow is considered transmitted. */
+	private static final double FINISH_TOLERANCE = 1e-9;
+
+	/** The datacenter whose network is modelled. */
+	private final NetworkDatacenter dc;
+
+	/** The links used by the flows, keyed by the sender guest or by the switch port. */
+	private final Map<Object, Link> links;
+
+	/** The flows being transmitted. */
+	private final List<Flow> flows;
+
+	/** Indicates if flows started or ended since the rates were computed. */
+	private boolean ratesOutdated;
+
+	/** The last time the transmitted data was updated. */
+	private double lastUpdateTime;
+
+	/** The event scheduled at the end of the next transmission, or null. */
+	private SimEvent completionEvent;
+
+	/** The number of flows transmitted so far. */
+	private long completedFlows;
+
+	/**
+	 * A link shared by the flows, i.e. the network interface of a guest or a port of a switch.
+	 */
+	static class Link {
+
+		/** The key of the link in the network. */
+		final Object key;
+
+		/** The bandwidth of the link, in bits/sec. */
+		final double capacity;
+
+		/** The number of flows using the link. */
+		int flows;
+
+		/** The bandwidth not allocated yet, while the rates are computed. */
+		double residual;
+
+		/** The number of flows without a rate yet, while the rates are computed. */
+		int unallocated;
+
+		Link(Object key, double capacity) {
+			this.key = key;
+			this.capacity = capacity;
+		}
+	}
+
+	/**
+	 * The transmission of the data of a send stage.
+	 */
+	static class Flow {
+
+		/** The packet carrying the data. */
+		final NetworkPacket packet;
+
+		/** The links from the sender guest to the receiver host. */
+		final Link[] path;
+
+		/** The edge switch of the receiver host. */
+		final Switch receiverSwitch;
+
+		/** The switching delays and the virtualization overheads of the sender side. */
+		final double latency;
+
+		/** The size of the flow, in bits. */
+		final double size;
+
+		/** The bits not transmitted yet. */
+		double remaining;
+
+		/** The current rate of the flow, in bits/sec; negative while the rates are computed. */
+		double rate;
+
+		Flow(NetworkPacket packet, Link[] path, Switch receiverSwitch, double latency, double size) {
+			this.packet = packet;
+			this.path = path;
+			this.receiverSwitch = receiverSwitch;
+			this.latency = latency;
+			this.size = size;
+			remaining = size;
+		}
+	}
+
+	/** The port of a switch towards another switch or a host. */
+	private record Port(int switchId, int to, boolean toHost) {
+	}
+
+	/**
+	 * Instantiates the flow-level network of a datacenter.
+	 *
+	 * @param dc the datacenter
+	 */
+	public FlowNetwork(NetworkDatacenter dc) {
+		this.dc = dc;
+		links = new HashMap<>();
+		flows = new ArrayList<>();
+		lastUpdateTime = CloudSim.clock();
+	}
+
+	/**
+	 * Starts the transmission of a packet sent by a guest to a guest on another host.
+	 * The rates of the flows are recomputed by the next call to {@link #update()}, so that
+	 * the packets sent together are accounted at once.
+	 *
+	 * @param senderHost the host of the sender guest
+	 * @param sender the sender guest
+	 * @param npkt the packet
+	 */
+	public void addFlow(NetworkHost senderHost, GuestEntity sender, NetworkPacket npkt) {
+		advance();
+
+		Flow flow = createFlow(senderHost, sender, npkt);
+		if (flow == null) {
+			return;
+		}
+
+		if (flow.size == 0) {
+			deliver(flow);
+			return;
+		}
+
+		for (Link link : flow.path) {
+			link.flows++;
+		}
+		flows.add(flow);
+		ratesOutdated = true;
+	}
+
+	/**
+	 * Updates the data transmitted by the flows up to the current time, delivers the transmitted flows,
+	 * recomputes the rates if flows started or ended, and schedules the end of the next transmission.
+	 */
+	public void update() {
+		advance();
+
+		Iterator<Flow> it = flows.iterator();
+		while (it.hasNext()) {
+			Flow flow = it.next();
+			if (flow.remaining <= flow.size * FINISH_TOLERANCE) {
+				it.remove();
+				for (Link link : flow.path) {
+					if (--link.flows == 0) {
+						links.remove(link.key);
+					}
+				}
+				completedFlows++;
+				ratesOutdated = true;
+				deliver(flow);
+			}
+		}
+
+		if (ratesOutdated) {
+			allocateRates(flows);
+			ratesOutdated = false;
+		}
+
+		scheduleNextCompletion();
+	}
+
+	/**
+	 * Processes the end of a transmission.
+	 *
+	 * @param ev the event scheduled by this network
+	 */
+	public void processCompletion(SimEvent ev) {
+		if (ev == completionEvent) {
+			completionEvent = null;
+		}
+		update();
+	}
+
+	/**
+	 * Stores a flow that reached its receiver host into the interface of the receiver cloudlet.
+	 *
+	 * @param ev the event carrying the flow
+	 */
+	public void processArrival(SimEvent ev) {
+		storePacketInHost((Flow) ev.getData());
+	}
+
+	/**
+	 * Gets the number of flows being transmitted.
+	 *
+	 * @return the number of active flows
+	 */
+	public int getActiveFlows() {
+		return flows.size();
+	}
+
+	/**
+	 * Gets the number of flows transmitted so far.
+	 *
+	 * @return the number of completed flows
+	 */
+	public long getCompletedFlows() {
+		return completedFlows;
+	}
+
+	/**
+	 * Computes the max-min fair rates of flows by progressive filling: the link offering the lowest
+	 * fair share to its flows without a rate is the bottleneck of these flows, which get that share;
+	 * their rates are then deducted from the other links on their path, until all the flows have a rate.
+	 *
+	 * @param flows the flows
+	 */
+	static void allocateRates(List<Flow> flows) {
+		List<Link> active = new ArrayList<>();
+		for (Flow flow : flows) {
+			flow.rate = -1;
+			for (Link link : flow.path) {
+				link.unallocated = 0;
+			}
+		}
+		for (Flow flow : flows) {
+			for (Link link : flow.path) {
+				if (link.unallocated++ == 0) {
+					link.residual = link.capacity;
+					active.add(link);
+				}
+			}
+		}
+
+		int unallocated = flows.size();
+		while (unallocated > 0) {
+			Link bottleneck = null;
+			double share = Double.MAX_VALUE;
+			for (Link link : active) {
+				if (link.unallocated > 0) {
+					double linkShare = Math.max(0, link.residual) / link.unallocated;
+					if (linkShare < share) {
+						share = linkShare;
+						bottleneck = link;
+					}
+				}
+			}
+
+			for (Flow flow : flows) {
+				if (flow.rate < 0 && contains(flow.path, bottleneck)) {
+					flow.rate = share;
+					unallocated--;
+					for (Link link : flow.path) {
+						link.residual -= share;
+						link.unallocated--;
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean contains(Link[] path, Link link) {
+		for (Link l : path) {
+			if (l == link) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Updates the bits left to transmit by the flows, at their current rates.
+	 */
+	private void advance() {
+		double elapsed = CloudSim.clock() - lastUpdateTime;
+		if (elapsed > 0) {
+			for (Flow flow : flows) {
+				flow.remaining -= flow.rate * elapsed;
+			}
+		}
+		lastUpdateTime = CloudSim.clock();
+	}
+
+	/**
+	 * Schedules the event at the end of the next transmission, replacing the previous one
+	 * unless it is due at the same time, up to the rounding errors of the transmitted data.
+	 */
+	private void scheduleNextCompletion() {
+		double delay = Double.MAX_VALUE;
+		for (Flow flow : flows) {
+			if (flow.rate > 0) {
+				delay = Math.min(delay, Math.max(0, flow.remaining) / flow.rate);
+			}
+		}
+
+		double time = CloudSim.clock() + delay;
+		if (completionEvent != null) {
+			if (delay != Double.MAX_VALUE && Math.abs(completionEvent.eventTime() - time) <= time * FINISH_TOLERANCE) {
+				return;
+			}
+			CloudSim.cancel(completionEvent);
+			completionEvent = null;
+		}
+
+		if (delay != Double.MAX_VALUE) {
+			completionEvent = CloudSim.send(dc.getId(), dc.getId(), delay, CloudActionTags.NETWORK_FLOW_UPDATE, null);
+		}
+	}
+
+	/**
+	 * Creates the flow of a packet, along the route that the packet would follow through the switches.
+	 *
+	 * @param senderHost the host of the sender guest
+	 * @param sender the sender guest
+	 * @param npkt the packet
+	 * @return the flow, or null if the receiver cannot be reached
+	 */
+	private Flow createFlow(NetworkHost senderHost, GuestEntity sender, NetworkPacket npkt) {
+		NetworkRoutingTable routes = dc.getRoutingTable();
+		int receiverGuestId = npkt.pkt.receiverGuestId;
+		int receiverHostId = routes.getHostId(receiverGuestId);
+		int edgeSwitchId = routes.getHostSwitchId(receiverHostId);
+		npkt.receiverHostId = receiverHostId;
+
+		List<Link> path = new ArrayList<>(6);
+		path.add(links.computeIfAbsent(sender, k -> new Link(k, sender.getBw())));
+		double latency = npkt.pkt.accumulatedVirtualizationOverhead;
+
+		Switch sw = senderHost.getSwitch();
+		latency += sw.switchingDelay;
+		if (sw.getId() != edgeSwitchId) {
+			// ASSUMPTION: each edge switch is connected to one aggregate switch only
+			Switch aggr = getSwitch(routes.getUplinkSwitchId(sw.getId()));
+			path.add(getLink(sw, aggr.getId(), false, sw.uplinkBw));
+			latency += aggr.switchingDelay;
+
+			int receiverAggrId = routes.getUplinkSwitchId(edgeSwitchId);
+			if (receiverAggrId != aggr.getId()) {
+				Switch root = getSwitch(routes.getUplinkSwitchId(aggr.getId()));
+				path.add(getLink(aggr, root.getId(), false, aggr.uplinkBw));
+				latency += root.switchingDelay;
+
+				if (receiverAggrId < 0) {
+					Log.println(" No destination for this packet");
+					return null;
+				}
+				aggr = getSwitch(receiverAggrId);
+				path.add(getLink(root, aggr.getId(), false, root.downlinkBw));
+				latency += aggr.switchingDelay;
+			}
+
+			Switch edge = getSwitch(edgeSwitchId);
+			path.add(getLink(aggr, edge.getId(), false, aggr.downlinkBw));
+			latency += edge.switchingDelay;
+			sw = edge;
+		}
+		path.add(getLink(sw, receiverHostId, true, sw.downlinkBw));
+
+		return new Flow(npkt, path.toArray(new Link[0]), sw, latency, 8.0 * npkt.pkt.data);
+	}
+
+	private Link getLink(Switch sw, int to, boolean toHost, long bw) {
+		return links.computeIfAbsent(new Port(sw.getId(), to, toHost), k -> new Link(k, bw));
+	}
+
+	private Switch getSwitch(int switchId) {
+		return dc.getSwitchList().get(switchId);
+	}
+
+	/**
+	 * Delivers a transmitted flow to its receiver, after the latency of its path.
+	 *
+	 * @param flow the flow
+	 */
+	private void deliver(Flow flow) {
+		NetworkHost hs = getReceiverHost(flow);
+		int virtOverhead = hs.getTotalVirtualizationOverhead(flow.packet.getReceiverGuestId(), hs.getGuestList().iterator(), 0);
+		double latency = flow.latency + virtOverhead;
+		if (latency > 0) {
+			CloudSim.send(dc.getId(), dc.getId(), latency, CloudActionTags.NETWORK_FLOW_REACHED_HOST, flow);
+		} else {
+			storePacketInHost(flow);
+		}
+	}
+
+	/**
+	 * Gets the host of the receiver of a flow.
+	 *
+	 * @param flow the flow
+	 * @return the receiver host
+	 */
+	private NetworkHost getReceiverHost(Flow flow) {
+		NetworkPacket npkt = flow.packet;
+		NetworkHost hs = flow.receiverSwitch.hostList.get(npkt.receiverHostId);
+		if (hs == null) { // nested virtualization edge-case
+			for (NetworkHost candidateHs : flow.receiverSwitch.hostList.values()) {
+				if (candidateHs.getNics().get(npkt.pkt.receiverCloudletId) != null) {
+					hs = candidateHs;
+					npkt.receiverHostId = hs.getId();
+					break;
+				}
+			}
+		}
+		return hs;
+	}
+
+	private void storePacketInHost(Flow flow) {
+		NetworkPacket npkt = flow.packet;
+		NetworkHost hs = getReceiverHost(flow);
+		dc.receivePacket(hs, npkt.pkt);
+	}
+}
@@ -42,6 +42,12 @@ public class HostPacket {
 	/** Id of the receiver cloudlet. */
 	int receiverCloudletId;
 
+	/** Id of the user of the receiver cloudlet. */
+	int receiverUserId;
+
+	/** Stage of the receiver cloudlet receiving the packet, or -1 if none. */
+	int receiverStageId;
+
 
 	/** The length of the data being sent (in bytes). */
 	long data;
@@ -64,6 +70,8 @@ public class HostPacket {
 			// Cloudlet-level info
 			senderCloudletId = cl.getCloudletId();
 			receiverCloudletId = cl.stages.get(taskStageId).getTargetCloudlet().getCloudletId();
+			receiverUserId = cl.stages.get(taskStageId).getTargetCloudlet().getUserId();
+			receiverStageId = cl.getReceiverStage(taskStageId);
 
 			// packet info
 			data = cl.stages.get(taskStageId).getTaskLength();
@@ -9,8 +9,9 @@
 package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.UtilizationModel;
@@ -51,6 +52,15 @@ public class NetworkCloudlet extends Cloudlet implements Comparable<NetworkCloud
 	/** Communication channel */
 	private NetworkInterfaceCard nic;
 
+	/** The number of send stages to each receiver cloudlet. */
+	private final Map<NetworkCloudlet, Integer> sendStageCounts;
+
+	/** The rank of each send stage among the send stages to the same receiver cloudlet, keyed by stage. */
+	private final Map<Integer, Integer> sendStageRanks;
+
+	/** The receive stages from each sender cloudlet, in order. */
+	private final Map<NetworkCloudlet, List<Integer>> recvStages;
+
 	public NetworkCloudlet(
 			int cloudletId,
 			long cloudletLength,
@@ -76,6 +86,9 @@ public class NetworkCloudlet extends Cloudlet implements Comparable<NetworkCloud
 
 		stages = new ArrayList<>();
 		nic = new NetworkInterfaceCard();
+		sendStageCounts = new HashMap<>();
+		sendStageRanks = new HashMap<>();
+		recvStages = new HashMap<>();
 	}
 
 	public NetworkInterfaceCard getNic() { return nic; }
@@ -100,23 +113,23 @@ public class NetworkCloudlet extends Cloudlet implements Comparable<NetworkCloud
 
 			if (getRemainingCloudletLength() == 0) {
 				st.setTime(timeSpentCurrStage);
+				// the length executed is the length of this stage only: the next execution stage starts from scratch
+				setCloudletFinishedSoFar(0);
 				goToNextStage();
 			} else {
 				return true;
 			}
 		}
 		if (st.getType() == TaskStage.TaskStageStatus.WAIT_RECV) {
-			Iterator<HostPacket> iter = nic.getReceivedPkts().iterator();
+			// Assumption: packet will not arrive in the same cycle
+			// the packet is matched by receiver cloudlet (the nic) and receive stage
 			HostPacket pkt;
-			if (iter.hasNext()) {
-				pkt = iter.next();
-				// Assumption: packet will not arrive in the same cycle
-				if (pkt.receiverGuestId == getGuestId()) {
-					pkt.recvTime = CloudSim.clock();
-					st.setTime(CloudSim.clock() - pkt.sendTime);
-					goToNextStage();
-					iter.remove();
-				}
+			while (st != null && st.getType() == TaskStage.TaskStageStatus.WAIT_RECV
+					&& (pkt = nic.takeReceivedPacket(currStageNum, st.getTargetCloudlet().getCloudletId())) != null) {
+				pkt.recvTime = CloudSim.clock();
+				st.setTime(CloudSim.clock() - pkt.sendTime);
+				goToNextStage();
+				st = currStageNum < stages.size() ? stages.get(currStageNum) : null;
 			}
 
 			return false;
@@ -125,6 +138,40 @@ public class NetworkCloudlet extends Cloudlet implements Comparable<NetworkCloud
 		return true;
 	}
 
+	/**
+	 * Checks whether the cloudlet is waiting for the packet of its current receive stage.
+	 * The cloudlet is woken up by the datacenter when the packet arrives.
+	 *
+	 * @return true if the packet of the current receive stage has not arrived yet
+	 */
+	@Override
+	public boolean isWaiting() {
+		if (currStageNum >= stages.size()) {
+			return false;
+		}
+		TaskStage st = stages.get(currStageNum);
+		return st.getType() == TaskStage.TaskStageStatus.WAIT_RECV
+				&& !nic.hasReceivedPacket(currStageNum, st.getTargetCloudlet().getCloudletId());
+	}
+
+	/**
+	 * Gets the stage of the receiver cloudlet that receives the data of a send stage: the n-th
+	 * send stage to a cloudlet matches the n-th receive stage of that cloudlet from this one.
+	 * The ranks of the stages are recorded as they are added, so the matching takes constant time.
+	 *
+	 * @param sendStageId the send stage
+	 * @return the receive stage of the receiver cloudlet, or -1 if there is none
+	 */
+	int getReceiverStage(int sendStageId) {
+		NetworkCloudlet receiverCl = stages.get(sendStageId).getTargetCloudlet();
+		Integer rank = sendStageRanks.get(sendStageId);
+		List<Integer> receiverStages = receiverCl.recvStages.get(this);
+		if (rank == null || receiverStages == null || rank >= receiverStages.size()) {
+			return -1;
+		}
+		return receiverStages.get(rank);
+	}
+
 	public int getNumberOfStages() { return stages.size(); }
 
 	@Override
@@ -145,6 +192,7 @@ public class NetworkCloudlet extends Cloudlet implements Comparable<NetworkCloud
 	}
 
 	public void addSendStage(long data, NetworkCloudlet receiverCl) {
+		sendStageRanks.put(stages.size(), sendStageCounts.merge(receiverCl, 1, Integer::sum) - 1);
 		stages.add(
 				new TaskStage(TaskStage.TaskStageStatus.WAIT_SEND, data, stages.size(), receiverCl));
 
@@ -152,6 +200,7 @@ public class NetworkCloudlet extends Cloudlet implements Comparable<NetworkCloud
 	}
 
 	public void addRecvStage(NetworkCloudlet senderCl) {
+		recvStages.computeIfAbsent(senderCl, k -> new ArrayList<>()).add(stages.size());
 		stages.add(
 				new TaskStage(TaskStage.TaskStageStatus.WAIT_RECV, 0, stages.size(), senderCl));
 
@@ -186,5 +235,6 @@ public class NetworkCloudlet extends Cloudlet implements Comparable<NetworkCloud
 			nic.getPktsToSend().add(pkt);
 			currStageNum++;
 		}
+		nic.setCurrentStage(currStageNum);
 	}
 }
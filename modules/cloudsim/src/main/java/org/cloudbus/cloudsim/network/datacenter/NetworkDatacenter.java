@@ -13,10 +13,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.cloudbus.cloudsim.CloudletScheduler;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.*;
 
 /**
@@ -43,33 +45,32 @@ import org.cloudbus.cloudsim.core.*;
  * @since CloudSim Toolkit 3.0
  */
 public class NetworkDatacenter extends Datacenter {
-	/**
-	 * A map between VMs and Switches, where each key
-	 * is a VM id and the corresponding value is the id of the switch where the VM is connected to.
-	 */
-	public Map<Integer, Integer> VmToSwitchid;
-
-	/**
-	 * A map between hosts and Switches, where each key
-	 * is a host id and the corresponding value is the id of the switch where the host is connected to.
-	 */
-	public Map<Integer, Integer> HostToSwitchid;
-
 	/**
 	 * A map of datacenter switches where each key is a switch id
 	 * and the corresponding value is the switch itself.
 	 */
 	private final Map<Integer, Switch> SwitchList;
 
-	/**
-	 * A map between VMs and Hosts, where each key
-	 * is a VM id and the corresponding value is the id of the host where the VM is placed.
-	 */
-	public Map<Integer, Integer> VmtoHostlist;
+	/** The routes from the guests to their hosts and switches. */
+	private final NetworkRoutingTable routingTable;
 
 	/** Total data transmitted through the network of this datacenter (in bytes) */
 	public double totalDataTransfer = 0;
 
+	/** The flow-level model of the network, or null if the packets are forwarded through the switches. */
+	private FlowNetwork flowNetwork;
+
+	/** The time of the update scheduled to wake up the cloudlets that received their packet, or -1. */
+	private double packetUpdateTime = -1;
+
+	/**
+	 * The network model of the network datacenters created afterwards in a simulation context.
+	 * @see #setFlowLevelNetworkByDefault(boolean)
+	 */
+	private static class NetworkModelDefault {
+		private boolean flowLevel;
+	}
+
 	/**
 	 * Instantiates a new NetworkDatacenter object.
 	 * 
@@ -99,28 +100,185 @@ public class NetworkDatacenter extends Datacenter {
 			List<Storage> storageList,
 			double schedulingInterval) throws Exception {
 		super(name, characteristics, vmAllocationPolicy, storageList, schedulingInterval);
-		VmToSwitchid = new HashMap<>();
-		HostToSwitchid = new HashMap<>();
-		VmtoHostlist = new HashMap<>();
 		SwitchList = new HashMap<>();
+		routingTable = new NetworkRoutingTable();
+		setFlowLevelNetwork(getNetworkModelDefault().flowLevel);
 	}
 
 	public Map<Integer, Switch> getSwitchList() { return SwitchList; }
 
+	/**
+	 * Gets the routes from the guests to their hosts and switches.
+	 *
+	 * @return the routing table
+	 */
+	public NetworkRoutingTable getRoutingTable() {
+		return routingTable;
+	}
+
+	/**
+	 * Sets whether the network of this datacenter is simulated at flow level, sharing the links among
+	 * the flows by max-min fairness, instead of forwarding every packet through the switches.
+	 *
+	 * @param flowLevel true to use the flow-level model, false to use the packet-level model
+	 * @see FlowNetwork
+	 */
+	public void setFlowLevelNetwork(boolean flowLevel) {
+		if (flowLevel && flowNetwork == null) {
+			flowNetwork = new FlowNetwork(this);
+		} else if (!flowLevel) {
+			flowNetwork = null;
+		}
+	}
+
+	/**
+	 * Checks whether the network of this datacenter is simulated at flow level.
+	 *
+	 * @return true if the flow-level model is used, false otherwise
+	 */
+	public boolean isFlowLevelNetwork() {
+		return flowNetwork != null;
+	}
+
+	/**
+	 * Gets the flow-level model of the network.
+	 *
+	 * @return the flow network, or null if the packet-level model is used
+	 */
+	public FlowNetwork getFlowNetwork() {
+		return flowNetwork;
+	}
+
+	/**
+	 * Sets whether the network datacenters created afterwards in the current simulation context
+	 * are simulated at flow level, e.g. to run existing scenarios on the flow-level model.
+	 *
+	 * @param flowLevel true to use the flow-level model by default, false to use the packet-level model
+	 */
+	public static void setFlowLevelNetworkByDefault(boolean flowLevel) {
+		getNetworkModelDefault().flowLevel = flowLevel;
+	}
+
+	private static NetworkModelDefault getNetworkModelDefault() {
+		return SimulationContext.current().getAttribute(NetworkModelDefault.class, NetworkModelDefault::new);
+	}
+
+	@Override
+	protected void processOtherEvent(SimEvent ev) {
+		if (ev != null && flowNetwork != null && ev.getTag() == CloudActionTags.NETWORK_FLOW_UPDATE) {
+			flowNetwork.processCompletion(ev);
+		} else if (ev != null && flowNetwork != null && ev.getTag() == CloudActionTags.NETWORK_FLOW_REACHED_HOST) {
+			flowNetwork.processArrival(ev);
+		} else if (ev != null && ev.getTag() == CloudActionTags.NETWORK_PKT_RECEIVED) {
+			processPacketReceived(ev);
+		} else {
+			super.processOtherEvent(ev);
+		}
+	}
+
+	/**
+	 * Stores a packet in the interface of its receiver cloudlet. If the cloudlet is waiting for
+	 * the packet, it is woken up: the host of the cloudlet is updated as soon as possible,
+	 * without polling the waiting cloudlets on every update.
+	 *
+	 * @param host the host of the receiver cloudlet
+	 * @param pkt the packet
+	 */
+	public void receivePacket(NetworkedEntity host, HostPacket pkt) {
+		if (host.getNics().get(pkt.receiverCloudletId).receivePacket(pkt)) {
+			sendNow(getId(), CloudActionTags.NETWORK_PKT_RECEIVED, pkt);
+		}
+	}
+
+	/**
+	 * Wakes up a cloudlet that received the packet it was waiting for: the cloudlet is moved back
+	 * from the blocked cloudlets to the executing ones of its scheduler, and its host is updated.
+	 *
+	 * @param ev the event carrying the packet
+	 * @see CloudletScheduler#cloudletWakeUp(int)
+	 */
+	protected void processPacketReceived(SimEvent ev) {
+		HostPacket pkt = (HostPacket) ev.getData();
+		HostEntity host = getVmAllocationPolicy().getHost(pkt.receiverGuestId, pkt.receiverUserId);
+		if (host == null || !host.getGuest(pkt.receiverGuestId, pkt.receiverUserId)
+				.getCloudletScheduler().cloudletWakeUp(pkt.receiverCloudletId)) {
+			// the cloudlet is not blocked: it takes the packet when it reaches the receive stage
+			return;
+		}
+		while (host instanceof VirtualEntity vm) {
+			host = vm.getHost();
+		}
+		markHostDirty(host);
+
+		double lastProcessTime = getLastProcessTime();
+		updateCloudletProcessing();
+		if (getLastProcessTime() == lastProcessTime) {
+			// already updated at this time: update again as soon as allowed, once for all the packets
+			if (packetUpdateTime <= CloudSim.clock()) {
+				packetUpdateTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents();
+				schedule(getId(), CloudSim.getMinTimeBetweenEvents(), CloudActionTags.VM_DATACENTER_EVENT);
+			}
+		} else {
+			checkCloudletCompletion();
+		}
+	}
+
 	@Override
-	protected void processVmCreate(SimEvent ev, boolean ack) {
-		super.processVmCreate(ev, ack);
-		GuestEntity guest = (GuestEntity) ev.getData();
+	protected void processVmCreateResult(GuestEntity guest, boolean result) {
+		super.processVmCreateResult(guest, result);
 		HostEntity host = guest.getHost();
 
 		if (host != null) {
-			// very ugly, but no other way to support nested virtualization with the current network routing logic
-			while (host instanceof VirtualEntity vm) {
-				host = vm.getHost();
+			updateRoute(guest);
+		}
+	}
+
+	@Override
+	protected void processVmDestroy(SimEvent ev, boolean ack) {
+		super.processVmDestroy(ev, ack);
+		removeRoute((GuestEntity) ev.getData());
+	}
+
+	@Override
+	protected void processVmMigrate(SimEvent ev, boolean ack) {
+		super.processVmMigrate(ev, ack);
+		updateRoute(((GuestMapping) ev.getData()).vm());
+	}
+
+	/**
+	 * Updates the route of a guest, and of the guests nested in it, to its physical host.
+	 *
+	 * @param guest the guest
+	 */
+	private void updateRoute(GuestEntity guest) {
+		HostEntity host = guest.getHost();
+		boolean direct = !(host instanceof VirtualEntity);
+
+		// very ugly, but no other way to support nested virtualization with the current network routing logic
+		while (host instanceof VirtualEntity vm) {
+			host = vm.getHost();
+		}
+		routingTable.setGuestHost(guest.getId(), host.getId(), direct);
+
+		if (guest instanceof VirtualEntity vm) {
+			for (GuestEntity nested : vm.getGuestList()) {
+				updateRoute(nested);
 			}
+		}
+	}
 
-			VmToSwitchid.put(guest.getId(), ((NetworkedEntity) host).getSwitch().getId());
-			VmtoHostlist.put(guest.getId(), host.getId());
+	/**
+	 * Removes the route of a guest, and of the guests nested in it.
+	 *
+	 * @param guest the guest
+	 */
+	private void removeRoute(GuestEntity guest) {
+		routingTable.removeGuest(guest.getId());
+
+		if (guest instanceof VirtualEntity vm) {
+			for (GuestEntity nested : vm.getGuestList()) {
+				removeRoute(nested);
+			}
 		}
 	}
 
@@ -172,7 +330,7 @@ public class NetworkDatacenter extends Datacenter {
 
 		sw.hostList.put(netHost.getId(), netHost);
 		sendNow(sw.getId(), CloudActionTags.NETWORK_ATTACH_HOST, netHost);
-		HostToSwitchid.put(netHost.getId(), sw.getId());
+		routingTable.setHostSwitch(netHost.getId(), sw.getId());
 		netHost.setSwitch(sw);
 	}
 
@@ -192,14 +350,17 @@ public class NetworkDatacenter extends Datacenter {
 			} else {
 				sw1.uplinkSwitches.add(sw2);
 				sw2.downlinkSwitches.add(sw1);
+				addUplinkRoute(sw1, sw2);
 			}
 		} else if (sw1.level == Switch.SwitchLevel.AGGR_LEVEL) {
 			if (sw2.level == Switch.SwitchLevel.ROOT_LEVEL) {
 				sw1.uplinkSwitches.add(sw2);
 				sw2.downlinkSwitches.add(sw1);
+				addUplinkRoute(sw1, sw2);
 			} else if (sw2.level == Switch.SwitchLevel.EDGE_LEVEL) {
 				sw1.downlinkSwitches.add(sw2);
 				sw2.uplinkSwitches.add(sw1);
+				addUplinkRoute(sw2, sw1);
 			} else {
 				throw new IllegalArgumentException("Cannot attach to switch of same level");
 			}
@@ -209,7 +370,20 @@ public class NetworkDatacenter extends Datacenter {
 			} else {
 				sw1.downlinkSwitches.add(sw2);
 				sw2.uplinkSwitches.add(sw1);
+				addUplinkRoute(sw2, sw1);
 			}
 		}
 	}
+
+	/**
+	 * Routes the packets going up from a switch through its first uplink switch.
+	 *
+	 * @param sw the switch
+	 * @param uplinkSwitch the uplink switch just attached
+	 */
+	private void addUplinkRoute(Switch sw, Switch uplinkSwitch) {
+		if (routingTable.getUplinkSwitchId(sw.getId()) == NetworkRoutingTable.NO_ROUTE) {
+			routingTable.setUplinkSwitch(sw.getId(), uplinkSwitch.getId());
+		}
+	}
 }
@@ -77,13 +77,12 @@ public class NetworkHost extends Host implements NetworkedEntity {
 
 		for (NetworkInterfaceCard nic : nics.values()) {
 			for (HostPacket hpkt : nic.getPktsToSend()) {
-				GuestEntity receiver = VmList.getById(this.getGuestList(), hpkt.receiverGuestId);
-				if (receiver != null) { // send locally to Vm, no network delay
+				if (isLocalGuest(hpkt.receiverGuestId)) { // send locally to Vm, no network delay
 					flag = true;
 					hpkt.recvTime = CloudSim.clock();
 
 					// insert the packet in received list on destination guest
-					nics.get(hpkt.receiverCloudletId).getReceivedPkts().add(hpkt);
+					((NetworkDatacenter) getDatacenter()).receivePacket(this, hpkt);
 				} else {
 					sendPktExternally.computeIfAbsent(hpkt.senderGuestId, k -> new ArrayList<>())
 									 .add(new NetworkPacket(getId(), hpkt));
@@ -93,6 +92,7 @@ public class NetworkHost extends Host implements NetworkedEntity {
 		}
 
 		// send to edge switch, since destination guest is hosted on another host
+		FlowNetwork flowNetwork = ((NetworkDatacenter) getDatacenter()).getFlowNetwork();
 		for (Integer guestId : sendPktExternally.keySet()) {
 			GuestEntity sender = VmList.getById(this.getGuestList(), guestId);
 			if (sender == null) {
@@ -100,16 +100,26 @@ public class NetworkHost extends Host implements NetworkedEntity {
 			}
 
 			for (NetworkPacket npkt : sendPktExternally.get(guestId)) {
+				((NetworkDatacenter) getDatacenter()).totalDataTransfer += npkt.pkt.data;
+
+				if (flowNetwork != null) { // the flow shares the links with the other flows
+					flowNetwork.addFlow(this, sender, npkt);
+					continue;
+				}
+
 				// Assumption: no overprovisioning of guest's bandwidth
 				double avband = (double) sender.getBw() / sendPktExternally.get(guestId).size();
 				double delay = (8 * npkt.pkt.data / avband) + npkt.pkt.accumulatedVirtualizationOverhead;
 
-				((NetworkDatacenter) getDatacenter()).totalDataTransfer += npkt.pkt.data;
-
 				// send to switch with delay
 				CloudSim.send(getDatacenter().getId(), sw.getId(), delay, CloudActionTags.NETWORK_PKT_UP, npkt);
 			}
 		}
+
+		// compute the rates of all the new flows at once
+		if (flowNetwork != null && !sendPktExternally.isEmpty()) {
+			flowNetwork.update();
+		}
 		sendPktExternally.clear();
 
 		if (flag) {
@@ -119,6 +129,16 @@ public class NetworkHost extends Host implements NetworkedEntity {
 		}
 	}
 
+	/**
+	 * Checks whether a guest is placed directly on this host, looking up the routing table of the datacenter.
+	 *
+	 * @param guestId the guest id
+	 * @return true if the guest is a direct guest of this host, false otherwise
+	 */
+	private boolean isLocalGuest(int guestId) {
+		return ((NetworkDatacenter) getDatacenter()).getRoutingTable().isDirectGuestOf(guestId, getId());
+	}
+
 	public Map<Integer, NetworkInterfaceCard> getNics() {
 		return nics;
 	}
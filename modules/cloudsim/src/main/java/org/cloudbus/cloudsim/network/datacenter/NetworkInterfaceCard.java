@@ -19,13 +19,83 @@ import java.util.*;
 public class NetworkInterfaceCard {
     private final List<HostPacket> pktsToSend;
 
-    private final List<HostPacket> receivedPkts;
+    /** The packets received for a receive stage, by stage id. */
+    private final Map<Integer, HostPacket> receivedPkts;
+
+    /** The packets received without a receive stage, by sender cloudlet id, in arrival order. */
+    private final Map<Integer, Deque<HostPacket>> unmatchedPkts;
+
+    /** The current stage of the cloudlet. */
+    private int currentStage;
 
     public NetworkInterfaceCard() {
         pktsToSend = new LinkedList<>();
-        receivedPkts = new LinkedList<>();
+        receivedPkts = new HashMap<>();
+        unmatchedPkts = new HashMap<>();
     }
 
     public List<HostPacket> getPktsToSend() { return pktsToSend; }
-    public List<HostPacket> getReceivedPkts() { return receivedPkts; }
+
+    /**
+     * Gets the packets received and not taken yet by the receive stages.
+     *
+     * @return a copy of the received packets, the ones for a receive stage first
+     */
+    public List<HostPacket> getReceivedPkts() {
+        List<HostPacket> pkts = new ArrayList<>(receivedPkts.values());
+        for (Deque<HostPacket> senderPkts : unmatchedPkts.values()) {
+            pkts.addAll(senderPkts);
+        }
+        return pkts;
+    }
+
+    /**
+     * Stores a packet received for a stage of the cloudlet. A packet without a receive stage
+     * (i.e. sent by a send stage with no matching receive stage) is kept too, and taken in
+     * arrival order by the receive stages from its sender whose own packet has not arrived.
+     *
+     * @param pkt the packet
+     * @return true if the packet may complete the current stage of the cloudlet, i.e. it has to be woken up
+     */
+    public boolean receivePacket(HostPacket pkt) {
+        if (pkt.receiverStageId == -1) {
+            unmatchedPkts.computeIfAbsent(pkt.senderCloudletId, k -> new ArrayDeque<>()).add(pkt);
+        } else {
+            receivedPkts.put(pkt.receiverStageId, pkt);
+        }
+        return pkt.receiverStageId == currentStage || pkt.receiverStageId == -1;
+    }
+
+    /**
+     * Checks whether the packet of a receive stage has arrived.
+     *
+     * @param stageId the receive stage
+     * @param senderCloudletId the id of the cloudlet the stage receives from
+     * @return true if the packet has arrived, false otherwise
+     */
+    public boolean hasReceivedPacket(int stageId, int senderCloudletId) {
+        if (receivedPkts.containsKey(stageId)) {
+            return true;
+        }
+        Deque<HostPacket> senderPkts = unmatchedPkts.get(senderCloudletId);
+        return senderPkts != null && !senderPkts.isEmpty();
+    }
+
+    /**
+     * Removes the packet of a receive stage, if it has arrived.
+     *
+     * @param stageId the receive stage
+     * @param senderCloudletId the id of the cloudlet the stage receives from
+     * @return the packet, or null if it has not arrived yet
+     */
+    public HostPacket takeReceivedPacket(int stageId, int senderCloudletId) {
+        HostPacket pkt = receivedPkts.remove(stageId);
+        if (pkt != null) {
+            return pkt;
+        }
+        Deque<HostPacket> senderPkts = unmatchedPkts.get(senderCloudletId);
+        return senderPkts == null ? null : senderPkts.poll();
+    }
+
+    public void setCurrentStage(int stageId) { currentStage = stageId; }
 }
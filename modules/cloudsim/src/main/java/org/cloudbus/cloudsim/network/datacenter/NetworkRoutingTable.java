@@ -0,0 +1,192 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.Arrays;
+
+/**
+ * The routes of the network of a {@link NetworkDatacenter}, compiled into primitive arrays indexed by id:
+ * the physical host of each guest, the edge switch of each host and the uplink switch of each switch.
+ * The switches forward a packet with a few array lookups, whatever the size of the fabric, instead of
+ * searching their downlink switches and hosts.
+ * <p>
+ * The datacenter updates the table incrementally when switches and hosts are attached, and when guests
+ * are created, destroyed or migrated. As the packet routing, the table assumes that each edge switch is
+ * connected to one aggregate switch only, and each aggregate switch to one root switch only; the first
+ * uplink switch attached is the one used.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class NetworkRoutingTable {
+
+	/** The value of the routes not defined. */
+	public static final int NO_ROUTE = -1;
+
+	/** The initial length of the arrays. */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** The physical host of each guest, indexed by guest id. */
+	private int[] guestToHost;
+
+	/** Indicates if each guest is placed directly on its physical host, rather than nested in another guest. */
+	private boolean[] directGuest;
+
+	/** The edge switch of each host, indexed by host id. */
+	private int[] hostToSwitch;
+
+	/** The uplink switch of each switch, indexed by switch id. */
+	private int[] switchToUplink;
+
+	/**
+	 * Instantiates an empty routing table.
+	 */
+	public NetworkRoutingTable() {
+		guestToHost = newRoutes(INITIAL_CAPACITY);
+		directGuest = new boolean[INITIAL_CAPACITY];
+		hostToSwitch = newRoutes(INITIAL_CAPACITY);
+		switchToUplink = newRoutes(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Sets the physical host of a guest, when the guest is created or migrated.
+	 *
+	 * @param guestId the guest id
+	 * @param hostId the id of the physical host
+	 * @param direct true if the guest is placed directly on the host, false if nested in another guest
+	 */
+	public void setGuestHost(int guestId, int hostId, boolean direct) {
+		guestToHost = ensureCapacity(guestToHost, guestId);
+		if (guestId >= directGuest.length) {
+			directGuest = Arrays.copyOf(directGuest, guestToHost.length);
+		}
+		guestToHost[guestId] = hostId;
+		directGuest[guestId] = direct;
+	}
+
+	/**
+	 * Removes the route of a guest, when the guest is destroyed.
+	 *
+	 * @param guestId the guest id
+	 */
+	public void removeGuest(int guestId) {
+		if (guestId >= 0 && guestId < guestToHost.length) {
+			guestToHost[guestId] = NO_ROUTE;
+			directGuest[guestId] = false;
+		}
+	}
+
+	/**
+	 * Sets the edge switch of a host, when the host is attached.
+	 *
+	 * @param hostId the host id
+	 * @param switchId the id of the edge switch
+	 */
+	public void setHostSwitch(int hostId, int switchId) {
+		hostToSwitch = ensureCapacity(hostToSwitch, hostId);
+		hostToSwitch[hostId] = switchId;
+	}
+
+	/**
+	 * Sets the uplink switch of a switch, when the switches are attached.
+	 *
+	 * @param switchId the id of the edge or aggregate switch
+	 * @param uplinkSwitchId the id of its aggregate or root switch
+	 */
+	public void setUplinkSwitch(int switchId, int uplinkSwitchId) {
+		switchToUplink = ensureCapacity(switchToUplink, switchId);
+		switchToUplink[switchId] = uplinkSwitchId;
+	}
+
+	/**
+	 * Gets the physical host of a guest.
+	 *
+	 * @param guestId the guest id
+	 * @return the host id, or {@link #NO_ROUTE} if the guest is not placed
+	 */
+	public int getHostId(int guestId) {
+		return get(guestToHost, guestId);
+	}
+
+	/**
+	 * Checks whether a guest is placed directly on a host, i.e. it is not nested in another guest.
+	 *
+	 * @param guestId the guest id
+	 * @param hostId the host id
+	 * @return true if the guest is a direct guest of the host, false otherwise
+	 */
+	public boolean isDirectGuestOf(int guestId, int hostId) {
+		return getHostId(guestId) == hostId && directGuest[guestId];
+	}
+
+	/**
+	 * Gets the edge switch of a host.
+	 *
+	 * @param hostId the host id
+	 * @return the switch id, or {@link #NO_ROUTE} if the host is not attached
+	 */
+	public int getHostSwitchId(int hostId) {
+		return get(hostToSwitch, hostId);
+	}
+
+	/**
+	 * Gets the edge switch of the physical host of a guest.
+	 *
+	 * @param guestId the guest id
+	 * @return the switch id, or {@link #NO_ROUTE} if the guest is not reachable
+	 */
+	public int getGuestSwitchId(int guestId) {
+		return getHostSwitchId(getHostId(guestId));
+	}
+
+	/**
+	 * Gets the uplink switch of a switch, i.e. the aggregate switch of an edge switch or the
+	 * root switch of an aggregate switch.
+	 *
+	 * @param switchId the switch id
+	 * @return the uplink switch id, or {@link #NO_ROUTE} if the switch has no uplink switch
+	 */
+	public int getUplinkSwitchId(int switchId) {
+		return get(switchToUplink, switchId);
+	}
+
+	private static int get(int[] routes, int id) {
+		return id >= 0 && id < routes.length ? routes[id] : NO_ROUTE;
+	}
+
+	private static int[] newRoutes(int length) {
+		int[] routes = new int[length];
+		Arrays.fill(routes, NO_ROUTE);
+		return routes;
+	}
+
+	/**
+	 * Grows an array of routes, doubling its length, until it can store the route of an id.
+	 *
+	 * @param routes the routes
+	 * @param id the id
+	 * @return the routes, or a larger copy of them
+	 */
+	private static int[] ensureCapacity(int[] routes, int id) {
+		if (id < 0) {
+			throw new IllegalArgumentException("Negative id " + id);
+		}
+		if (id < routes.length) {
+			return routes;
+		}
+
+		int length = routes.length;
+		while (length <= id) {
+			length *= 2;
+		}
+		int[] grown = newRoutes(length);
+		System.arraycopy(routes, 0, grown, 0, routes.length);
+		return grown;
+	}
+}
@@ -62,7 +62,7 @@ public class NetworkVm extends Vm implements NetworkedEntity {
 
                 // Nested virtualization edge-case, but locally routed packet
                 if (VmList.getById(this.getGuestList(), hpkt.receiverGuestId) != null) {
-                    getNics().get(hpkt.receiverCloudletId).getReceivedPkts().add(hpkt);
+                    receiveLocally(hpkt);
                     nic.getPktsToSend().remove(hpkt);
                 }
 
@@ -70,13 +70,26 @@ public class NetworkVm extends Vm implements NetworkedEntity {
 
                 // Nested virtualization edge-case, but locally routed packet
                 if (VmList.getById(this.getGuestList(), hpkt.receiverGuestId) != null) {
-                    getNics().get(hpkt.receiverCloudletId).getReceivedPkts().add(hpkt);
+                    receiveLocally(hpkt);
                     nic.getPktsToSend().remove(hpkt);
                 }
             }
         }
     }
 
+    /**
+     * Stores a packet sent to a guest nested in this VM into the interface of its receiver cloudlet.
+     *
+     * @param hpkt the packet
+     */
+    private void receiveLocally(HostPacket hpkt) {
+        HostEntity host = getHost();
+        while (host instanceof VirtualEntity vm) {
+            host = vm.getHost();
+        }
+        ((NetworkDatacenter) host.getDatacenter()).receivePacket(this, hpkt);
+    }
+
     @Override
     public Map<Integer, NetworkInterfaceCard> getNics() {
         if (getHost() == null) {
@@ -168,9 +168,7 @@ public class Switch extends SimEntity {
 		NetworkPacket npkt = (NetworkPacket) ev.getData();
 
 		NetworkHost hs = hostList.get(npkt.receiverHostId);
-		NetworkInterfaceCard nic = hs.getNics().get(npkt.pkt.receiverCloudletId);
-
-		nic.getReceivedPkts().add(npkt.pkt);
+		dc.receivePacket(hs, npkt.pkt);
 	}
 
 	/**
@@ -187,12 +185,12 @@ public class Switch extends SimEntity {
 
 		// packet is to be received by the host
 		if (level == SwitchLevel.EDGE_LEVEL) {
-			int hostid = dc.VmtoHostlist.get(recvVMid);
+			int hostid = dc.getRoutingTable().getHostId(recvVMid);
 			npkt.receiverHostId = hostid;
 			pktsToHosts.computeIfAbsent(hostid, k -> new ArrayList<>()).add(npkt);
 		} else if (level == SwitchLevel.AGGR_LEVEL) { // From root level to edge level
 			// find the id for edgelevel switch
-			int switchId = dc.VmToSwitchid.get(recvVMid);
+			int switchId = dc.getRoutingTable().getGuestSwitchId(recvVMid);
 			pktsToDownlinkSwitches.computeIfAbsent(switchId, k -> new ArrayList<>()).add(npkt);
 		}
 
@@ -207,53 +205,43 @@ public class Switch extends SimEntity {
 	protected void processPacketUp(SimEvent ev) {
 		NetworkPacket npkt = (NetworkPacket) ev.getData();
 		int recvVMid = npkt.pkt.receiverGuestId;
+		NetworkRoutingTable routes = dc.getRoutingTable();
 
 		CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
 		schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
 
 		// Packet is to be sent from an host
 		if (level == SwitchLevel.EDGE_LEVEL) {
-			int hostId = dc.VmtoHostlist.get(recvVMid);
-			NetworkHost hs = hostList.get(hostId);
+			int hostId = routes.getHostId(recvVMid);
 			npkt.receiverHostId = hostId;
 
 			// Receiver host directly connected to the switch -- found!
-			if (hs != null) {
+			if (routes.getHostSwitchId(hostId) == getId()) {
 				pktsToHosts.computeIfAbsent(hostId, k -> new ArrayList<>()).add(npkt);
 				return;
 			}
 
 			// Send to aggregate level
 			// ASSUMPTION: EACH EDGE is Connected to one aggregate level switch only
-			Switch sw = uplinkSwitches.getFirst();
-			pktsToUplinkSwitches.computeIfAbsent(sw.getId(), k -> new ArrayList<>()).add(npkt);
+			pktsToUplinkSwitches.computeIfAbsent(routes.getUplinkSwitchId(getId()), k -> new ArrayList<>()).add(npkt);
 		}
 		else if (level == SwitchLevel.AGGR_LEVEL) { // packet received from edge router
 			// find the id for edgelevel switch
-			int switchId = dc.VmToSwitchid.get(recvVMid);
+			int switchId = routes.getGuestSwitchId(recvVMid);
 
 			// send to edge (it's not going up, but same level)
-            if (downlinkSwitches.stream().anyMatch(sw -> sw.getId() == switchId)) {
+			if (routes.getUplinkSwitchId(switchId) == getId()) {
 				pktsToDownlinkSwitches.computeIfAbsent(switchId, k -> new ArrayList<>()).add(npkt);
 			} else {// send to up to root level (ASSUMPTION: EACH EDGE is Connected to one aggregate level switch only)
-				Switch sw = uplinkSwitches.getFirst();
-				pktsToUplinkSwitches.computeIfAbsent(sw.getId(), k -> new ArrayList<>()).add(npkt);
+				pktsToUplinkSwitches.computeIfAbsent(routes.getUplinkSwitchId(getId()), k -> new ArrayList<>()).add(npkt);
 			}
 		}
 		// @TODO: confusing, this packet is going down, not up!!!
 		else if (level == SwitchLevel.ROOT_LEVEL) { // packet received from aggregate router
 			// get id of edge switch
-			int edgeSwitchId = dc.VmToSwitchid.get(recvVMid);
-			// search which aggregate switch is connected to the edge switch
-			int aggrSwitchId = -1;
-            for (Switch sw : downlinkSwitches) {
-				for (Switch edge : sw.downlinkSwitches) {
-					if (edge.getId() == edgeSwitchId) {
-						aggrSwitchId = sw.getId();
-						break;
-					}
-				}
-			}
+			int edgeSwitchId = routes.getGuestSwitchId(recvVMid);
+			// the aggregate switch connected to the edge switch
+			int aggrSwitchId = routes.getUplinkSwitchId(edgeSwitchId);
 			if (aggrSwitchId < 0) {
 				Log.println(" No destination for this packet");
 			} else {
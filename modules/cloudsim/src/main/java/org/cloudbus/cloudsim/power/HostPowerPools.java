@@ -0,0 +1,99 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The hosts of a VM allocation policy, split into the powered on hosts and the sleeping or
+ * switched off ones. The hosts notify the pools whenever they are powered on or off,
+ * so the placement of a VM scores the powered on hosts only, and the other ones only when
+ * no powered on host fits the VM.
+ * <p>
+ * Both pools keep the order of the host list.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ * @see PowerHost#isActive()
+ * @see PowerVmAllocationPolicyMigrationAbstract#findHostForGuest(org.cloudbus.cloudsim.core.GuestEntity, java.util.Set)
+ */
+public class HostPowerPools {
+
+	/** The position of each host in the host list. */
+	private final Map<PowerHost, Integer> positions = new IdentityHashMap<>();
+
+	/** Compares the hosts by their position in the host list. */
+	private final Comparator<PowerHost> byPosition = Comparator.comparingInt(positions::get);
+
+	/** The powered on hosts. */
+	private final List<PowerHost> activeHosts = new ArrayList<>();
+
+	/** The sleeping and switched off hosts. */
+	private final List<PowerHost> inactiveHosts = new ArrayList<>();
+
+	/**
+	 * Creates the pools of the given hosts, according to their current power state,
+	 * and registers the pools with the hosts.
+	 *
+	 * @param hostList the host list
+	 */
+	public HostPowerPools(List<? extends PowerHost> hostList) {
+		for (int i = 0; i < hostList.size(); i++) {
+			PowerHost host = hostList.get(i);
+			positions.put(host, i);
+			(host.isActive() ? activeHosts : inactiveHosts).add(host);
+			host.addPowerPools(this);
+		}
+	}
+
+	/**
+	 * Moves a host to the other pool, after it has been powered on or off.
+	 *
+	 * @param host the host
+	 */
+	void activityChanged(PowerHost host) {
+		if (!positions.containsKey(host)) {
+			return;
+		}
+		List<PowerHost> from = host.isActive() ? inactiveHosts : activeHosts;
+		List<PowerHost> to = host.isActive() ? activeHosts : inactiveHosts;
+		int index = Collections.binarySearch(from, host, byPosition);
+		if (index >= 0) {
+			from.remove(index);
+		}
+		index = Collections.binarySearch(to, host, byPosition);
+		if (index < 0) {
+			to.add(-index - 1, host);
+		}
+	}
+
+	/**
+	 * Gets the powered on hosts, in the order of the host list.
+	 *
+	 * @return the powered on hosts
+	 */
+	public List<PowerHost> getActiveHosts() {
+		return Collections.unmodifiableList(activeHosts);
+	}
+
+	/**
+	 * Gets the sleeping and switched off hosts, in the order of the host list.
+	 *
+	 * @return the inactive hosts
+	 */
+	public List<PowerHost> getInactiveHosts() {
+		return Collections.unmodifiableList(inactiveHosts);
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * A snapshot of the hosts in ascending order of CPU utilization, taken once per scheduling interval.
+ * The utilization of the hosts doesn't change while the VM allocation is optimized, so
+ * the switched-off hosts and the under-utilized hosts in ascending order of utilization
+ * are found without scanning all the hosts every time.
+ * <p>
+ * Hosts with the same utilization keep the order of the host list.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ * @see PowerVmAllocationPolicyMigrationAbstract#optimizeAllocation(List)
+ */
+public class HostUtilizationIndex {
+
+	/** The hosts, in ascending order of utilization. */
+	private final PowerHost[] hosts;
+
+	/** The utilization of each host in {@link #hosts}. */
+	private final double[] utilization;
+
+	/** The position of the first host with a utilization greater than 0. */
+	private final int firstUnderUtilized;
+
+	/** The position after the last host with a utilization lower than 1. */
+	private final int endUnderUtilized;
+
+	/**
+	 * Creates the index of the given hosts, according to their current utilization.
+	 *
+	 * @param hostList the host list
+	 */
+	public HostUtilizationIndex(List<? extends PowerHost> hostList) {
+		int size = hostList.size();
+		double[] unsorted = new double[size];
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			unsorted[i] = hostList.get(i).getUtilizationOfCpu();
+			order[i] = i;
+		}
+		// the sort is stable: equal hosts keep the order of the list
+		Arrays.sort(order, (i, j) -> Double.compare(unsorted[i], unsorted[j]));
+
+		hosts = new PowerHost[size];
+		utilization = new double[size];
+		for (int i = 0; i < size; i++) {
+			hosts[i] = hostList.get(order[i]);
+			utilization[i] = unsorted[order[i]];
+		}
+
+		int first = 0;
+		while (first < size && !(utilization[first] > 0)) {
+			first++;
+		}
+		int end = first;
+		while (end < size && utilization[end] < 1) {
+			end++;
+		}
+		firstUnderUtilized = first;
+		endUnderUtilized = end;
+	}
+
+	/**
+	 * Gets the switched off hosts, i.e. the hosts with no utilization, in the order of the host list.
+	 * The hosts with a power state model are switched off only if they are not powered on.
+	 *
+	 * @return the switched off hosts
+	 * @see PowerHost#isActive()
+	 */
+	public List<PowerHost> getSwitchedOffHosts() {
+		List<PowerHost> switchedOffHosts = new LinkedList<>();
+		for (int i = 0; i < firstUnderUtilized; i++) {
+			if (utilization[i] == 0 && (hosts[i].getPowerStateModel() == null || !hosts[i].isActive())) {
+				switchedOffHosts.add(hosts[i]);
+			}
+		}
+		return switchedOffHosts;
+	}
+
+	/**
+	 * Iterates the under-utilized hosts, i.e. the hosts with a utilization greater than 0 and lower than 1,
+	 * in ascending order of utilization. A host is skipped if it is excluded when the iteration reaches it,
+	 * and it is not reconsidered later: the exclusion criterion must not be revoked during the iteration.
+	 *
+	 * @param excluded the criterion to exclude a host
+	 * @return the iterator of the under-utilized hosts
+	 */
+	public Iterator<PowerHost> underUtilizedHosts(Predicate<PowerHost> excluded) {
+		return new Iterator<>() {
+			private int position = firstUnderUtilized;
+
+			@Override
+			public boolean hasNext() {
+				while (position < endUnderUtilized && excluded.test(hosts[position])) {
+					position++;
+				}
+				return position < endUnderUtilized;
+			}
+
+			@Override
+			public PowerHost next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return hosts[position++];
+			}
+		};
+	}
+}
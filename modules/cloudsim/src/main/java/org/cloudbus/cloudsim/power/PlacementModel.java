@@ -0,0 +1,514 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.cloudbus.cloudsim.MipsShare;
+import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.lists.PeList;
+
+/**
+ * A lightweight model of the capacity of a list of hosts, used to plan the placement of guests
+ * (e.g. the VM migrations) without changing the hosts.
+ * <p>
+ * The model takes a snapshot of the free MIPS, RAM, BW and storage of each host, and of the guests
+ * running on it, into flat arrays. Then the guests can be tentatively created on, or destroyed from, the
+ * hosts of the model, with the same checks of {@link HostEntity#isSuitableForGuest(GuestEntity)} and
+ * {@link HostEntity#guestCreate(GuestEntity)}. Each change is recorded in a journal, so that
+ * the changes can be undone in reverse order, either one at a time by {@link #undo()}, or back to
+ * a {@link #mark()} by {@link #rollback(int)}. Undoing a guest creation takes O(1) time, and the
+ * undone changes restore the previous values exactly.
+ * <p>
+ * The demand of each guest (i.e. its requested MIPS, RAM, BW and size) is read once, the first time
+ * the guest is created on a host of the model, as it doesn't change while the placement is planned.
+ * <p>
+ * Many threads can check the placement of a guest at the same time, without changing the model, by
+ * a {@link #beginTrial(HostEntity, GuestEntity) trial}: while a thread is trying a guest on a host,
+ * the guests placed on that host include the tried guest, for that thread only.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class PlacementModel {
+
+	/** The hosts of the model. */
+	private final HostEntity[] hosts;
+
+	/** The index of each host in {@link #hosts}. */
+	private final Map<HostEntity, Integer> hostIndex = new IdentityHashMap<>();
+
+	/** The MIPS capacity of a PE of each host. */
+	private final double[] peCapacity;
+
+	/** The MIPS available on each host. */
+	private final double[] availableMips;
+
+	/** The MIPS of each host, that are available when no guest runs on it. */
+	private final double[] totalMips;
+
+	/** The RAM available on each host. */
+	private final int[] availableRam;
+
+	/** The BW available on each host. */
+	private final long[] availableBw;
+
+	/** The storage available on each host. */
+	private final long[] storage;
+
+	/** The guests placed on each host. */
+	private final GuestList[] guestLists;
+
+	/** The index of each guest in the demand arrays. */
+	private final Map<GuestEntity, Integer> guestIndex = new IdentityHashMap<>();
+
+	/** The total MIPS requested by each guest. */
+	private double[] requestedTotalMips = new double[16];
+
+	/** The maximum MIPS requested by a PE of each guest. */
+	private double[] requestedMaxMips = new double[16];
+
+	/** The MIPS requested by each PE of each guest. */
+	private MipsShare[] requestedMips = new MipsShare[16];
+
+	/** The RAM requested by each guest. */
+	private int[] requestedRam = new int[16];
+
+	/** The BW requested by each guest. */
+	private long[] requestedBw = new long[16];
+
+	/** The size of each guest. */
+	private long[] size = new long[16];
+
+	/** The journal of the changes, that are undone in reverse order. */
+	private final List<Change> journal = new ArrayList<>();
+
+	/** The guest that each thread is trying on a host. */
+	private final ThreadLocal<Trial> trial = new ThreadLocal<>();
+
+	/**
+	 * A change of the model: the creation (if position is -1) or the destruction of a guest,
+	 * with the values of the host before the change.
+	 */
+	private record Change(int host, int position, GuestEntity guest, double allocatedMips, double accountedMips,
+						  int ram, long bw, double availableMips, int availableRam, long availableBw, long storage) {
+	}
+
+	/**
+	 * A guest that a thread is trying on a host, with the MIPS that would be allocated to it.
+	 */
+	private record Trial(int host, GuestEntity guest, double allocatedMips) {
+	}
+
+	/**
+	 * The guests placed on a host, followed by the guest tried on it.
+	 */
+	private static final class TrialGuestList extends AbstractList<GuestEntity> implements RandomAccess {
+		private final GuestList guestList;
+
+		private final GuestEntity guest;
+
+		TrialGuestList(GuestList guestList, GuestEntity guest) {
+			this.guestList = guestList;
+			this.guest = guest;
+		}
+
+		@Override
+		public GuestEntity get(int index) {
+			return index == guestList.size ? guest : guestList.get(index);
+		}
+
+		@Override
+		public int size() {
+			return guestList.size + 1;
+		}
+	}
+
+	/**
+	 * The guests placed on a host, with the MIPS allocated to them and the MIPS, RAM and BW
+	 * they take from the host.
+	 */
+	private static final class GuestList extends AbstractList<GuestEntity> implements RandomAccess {
+		private GuestEntity[] guests = new GuestEntity[8];
+
+		private double[] allocatedMips = new double[8];
+
+		private double[] accountedMips = new double[8];
+
+		private int[] ram = new int[8];
+
+		private long[] bw = new long[8];
+
+		private int size;
+
+		void add(int position, GuestEntity guest, double allocated, double accounted, int guestRam, long guestBw) {
+			if (size == guests.length) {
+				int capacity = size * 2;
+				guests = Arrays.copyOf(guests, capacity);
+				allocatedMips = Arrays.copyOf(allocatedMips, capacity);
+				accountedMips = Arrays.copyOf(accountedMips, capacity);
+				ram = Arrays.copyOf(ram, capacity);
+				bw = Arrays.copyOf(bw, capacity);
+			}
+			int moved = size - position;
+			System.arraycopy(guests, position, guests, position + 1, moved);
+			System.arraycopy(allocatedMips, position, allocatedMips, position + 1, moved);
+			System.arraycopy(accountedMips, position, accountedMips, position + 1, moved);
+			System.arraycopy(ram, position, ram, position + 1, moved);
+			System.arraycopy(bw, position, bw, position + 1, moved);
+			guests[position] = guest;
+			allocatedMips[position] = allocated;
+			accountedMips[position] = accounted;
+			ram[position] = guestRam;
+			bw[position] = guestBw;
+			size++;
+		}
+
+		void removeAt(int position) {
+			int moved = size - position - 1;
+			System.arraycopy(guests, position + 1, guests, position, moved);
+			System.arraycopy(allocatedMips, position + 1, allocatedMips, position, moved);
+			System.arraycopy(accountedMips, position + 1, accountedMips, position, moved);
+			System.arraycopy(ram, position + 1, ram, position, moved);
+			System.arraycopy(bw, position + 1, bw, position, moved);
+			guests[--size] = null;
+		}
+
+		int indexOfGuest(GuestEntity guest) {
+			for (int i = 0; i < size; i++) {
+				if (guests[i] == guest) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public GuestEntity get(int index) {
+			if (index >= size) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return guests[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the hosts. The MIPS taken from a host by the guests running on it are assumed
+	 * to be the MIPS allocated to them.
+	 *
+	 * @param hostList the hosts
+	 */
+	public PlacementModel(List<? extends HostEntity> hostList) {
+		int n = hostList.size();
+		hosts = hostList.toArray(new HostEntity[0]);
+		peCapacity = new double[n];
+		availableMips = new double[n];
+		totalMips = new double[n];
+		availableRam = new int[n];
+		availableBw = new long[n];
+		storage = new long[n];
+		guestLists = new GuestList[n];
+
+		for (int h = 0; h < n; h++) {
+			HostEntity host = hosts[h];
+			hostIndex.put(host, h);
+			VmScheduler scheduler = host.getGuestScheduler();
+			peCapacity[h] = scheduler.getPeCapacity();
+			availableMips[h] = scheduler.getAvailableMips();
+			totalMips[h] = PeList.getTotalMips(scheduler.getPeList());
+			availableRam[h] = host.getGuestRamProvisioner().getAvailableRam();
+			availableBw[h] = host.getGuestBwProvisioner().getAvailableBw();
+			storage[h] = host.getStorage();
+
+			GuestList guestList = new GuestList();
+			for (GuestEntity guest : host.getGuestList()) {
+				double allocatedMips = scheduler.getTotalAllocatedMipsForGuest(guest);
+				guestList.add(guestList.size(), guest, allocatedMips, allocatedMips,
+						host.getGuestRamProvisioner().getAllocatedRamForGuest(guest),
+						host.getGuestBwProvisioner().getAllocatedBwForGuest(guest));
+			}
+			guestLists[h] = guestList;
+		}
+	}
+
+	/**
+	 * Gets the guests placed on a host. The list can't be modified and reflects the changes of the model.
+	 *
+	 * @param host the host
+	 * @return the guests placed on the host
+	 */
+	public List<GuestEntity> getGuestList(HostEntity host) {
+		int h = indexOf(host);
+		Trial trial = this.trial.get();
+		if (trial != null && trial.host() == h) {
+			return new TrialGuestList(guestLists[h], trial.guest());
+		}
+		return guestLists[h];
+	}
+
+	/**
+	 * Gets the total MIPS allocated to a guest placed on a host.
+	 *
+	 * @param host the host
+	 * @param index the index of the guest in {@link #getGuestList(HostEntity) the guest list of the host}
+	 * @return the total MIPS allocated to the guest
+	 */
+	public double getTotalAllocatedMipsForGuest(HostEntity host, int index) {
+		int h = indexOf(host);
+		GuestList guestList = guestLists[h];
+		if (index == guestList.size) {
+			Trial trial = this.trial.get();
+			if (trial != null && trial.host() == h) {
+				return trial.allocatedMips();
+			}
+		}
+		if (index >= guestList.size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return guestList.allocatedMips[index];
+	}
+
+	/**
+	 * Gets the MIPS available on a host.
+	 *
+	 * @param host the host
+	 * @return the available MIPS
+	 */
+	public double getAvailableMips(HostEntity host) {
+		return availableMips[indexOf(host)];
+	}
+
+	/**
+	 * Checks if a guest fits the capacity available on a host, as {@link HostEntity#isSuitableForGuest(GuestEntity)}.
+	 *
+	 * @param host the host
+	 * @param guest the guest
+	 * @return true if the guest fits the host
+	 */
+	public boolean isSuitableForGuest(HostEntity host, GuestEntity guest) {
+		int h = indexOf(host);
+		int g = demandOf(guest);
+		return peCapacity[h] >= requestedMaxMips[g]
+				&& availableMips[h] >= requestedTotalMips[g]
+				&& availableRam[h] >= requestedRam[g]
+				&& availableBw[h] >= requestedBw[g];
+	}
+
+	/**
+	 * Tentatively creates a guest on a host, if it is suitable for the guest and has enough storage.
+	 *
+	 * @param host the host
+	 * @param guest the guest
+	 * @return true if the guest is created
+	 */
+	public boolean guestCreate(HostEntity host, GuestEntity guest) {
+		int h = indexOf(host);
+		int g = demandOf(guest);
+		if (storage[h] < size[g] || !isSuitableForGuest(host, guest)) {
+			return false;
+		}
+
+		boolean isMigratingIn = isMigratingIn(host, guest);
+		MipsShare mips = requestedMips[g];
+		double accountedMips = isMigratingIn ? mips.getTotal() * 0.1 : mips.getTotal();
+		double allocatedMips = getAllocatedMips(host, guest, g);
+
+		journal.add(new Change(h, -1, guest, allocatedMips, accountedMips, requestedRam[g], requestedBw[g],
+				availableMips[h], availableRam[h], availableBw[h], storage[h]));
+		GuestList guestList = guestLists[h];
+		guestList.add(guestList.size(), guest, allocatedMips, accountedMips, requestedRam[g], requestedBw[g]);
+		availableMips[h] -= accountedMips;
+		availableRam[h] -= requestedRam[g];
+		availableBw[h] -= requestedBw[g];
+		storage[h] -= size[g];
+		return true;
+	}
+
+	/**
+	 * Starts trying a guest on a host, if it would be {@link #guestCreate(HostEntity, GuestEntity) created}:
+	 * until {@link #endTrial()}, the guests placed on the host include the guest, for the current thread only.
+	 * A thread can try one guest at a time. The model is not changed, but the demand of the guest must have
+	 * been {@link #readDemand(GuestEntity) read} before trying it from many threads.
+	 *
+	 * @param host the host
+	 * @param guest the guest
+	 * @return true if the trial is started, false if the guest would not be created
+	 */
+	public boolean beginTrial(HostEntity host, GuestEntity guest) {
+		int h = indexOf(host);
+		int g = demandOf(guest);
+		if (storage[h] < size[g] || !isSuitableForGuest(host, guest)) {
+			return false;
+		}
+		trial.set(new Trial(h, guest, getAllocatedMips(host, guest, g)));
+		return true;
+	}
+
+	/**
+	 * Ends the trial of the current thread.
+	 */
+	public void endTrial() {
+		trial.remove();
+	}
+
+	/**
+	 * Checks if the current thread is trying a guest on a host.
+	 *
+	 * @return true if a trial of the current thread is in progress
+	 */
+	public boolean isTrial() {
+		return trial.get() != null;
+	}
+
+	/**
+	 * Reads the demand of a guest, if it has not been read yet.
+	 *
+	 * @param guest the guest
+	 */
+	public void readDemand(GuestEntity guest) {
+		demandOf(guest);
+	}
+
+	/**
+	 * Tentatively destroys a guest placed on a host.
+	 *
+	 * @param host the host
+	 * @param guest the guest
+	 */
+	public void guestDestroy(HostEntity host, GuestEntity guest) {
+		int h = indexOf(host);
+		GuestList guestList = guestLists[h];
+		int position = guestList.indexOfGuest(guest);
+		if (position == -1) {
+			return;
+		}
+
+		journal.add(new Change(h, position, guest, guestList.allocatedMips[position], guestList.accountedMips[position],
+				guestList.ram[position], guestList.bw[position], availableMips[h], availableRam[h], availableBw[h], storage[h]));
+		availableMips[h] = guestList.size() == 1 ? totalMips[h] : availableMips[h] + guestList.accountedMips[position];
+		availableRam[h] += guestList.ram[position];
+		availableBw[h] += guestList.bw[position];
+		storage[h] += guest.getSize();
+		guestList.removeAt(position);
+	}
+
+	/**
+	 * Gets a mark of the current state of the model, to {@link #rollback(int) roll back} to.
+	 *
+	 * @return the mark
+	 */
+	public int mark() {
+		return journal.size();
+	}
+
+	/**
+	 * Undoes the changes made after a mark, in reverse order.
+	 *
+	 * @param mark the mark
+	 */
+	public void rollback(int mark) {
+		while (journal.size() > mark) {
+			undo();
+		}
+	}
+
+	/**
+	 * Undoes the last change.
+	 */
+	public void undo() {
+		Change change = journal.removeLast();
+		int h = change.host();
+		GuestList guestList = guestLists[h];
+		if (change.position() == -1) {
+			guestList.removeAt(guestList.size() - 1);
+		} else {
+			guestList.add(change.position(), change.guest(), change.allocatedMips(), change.accountedMips(),
+					change.ram(), change.bw());
+		}
+		availableMips[h] = change.availableMips();
+		availableRam[h] = change.availableRam();
+		availableBw[h] = change.availableBw();
+		storage[h] = change.storage();
+	}
+
+	/**
+	 * Checks if a guest is migrating in a host.
+	 */
+	private static boolean isMigratingIn(HostEntity host, GuestEntity guest) {
+		return host.getGuestScheduler().getGuestsMigratingIn().contains(guest.getUid());
+	}
+
+	/**
+	 * Gets the MIPS that would be allocated to a guest created on a host, the same
+	 * of VmSchedulerTimeShared.allocatePesForGuest.
+	 */
+	private double getAllocatedMips(HostEntity host, GuestEntity guest, int g) {
+		boolean isMigratingIn = isMigratingIn(host, guest);
+		boolean isMigratingOut = guest.isInMigration() && !isMigratingIn;
+		MipsShare mips = requestedMips[g];
+		double allocatedMips = 0;
+		for (int i = 0; i < mips.size(); i++) {
+			allocatedMips += isMigratingOut ? mips.getMips(i) * 0.9 : isMigratingIn ? mips.getMips(i) * 0.1 : mips.getMips(i);
+		}
+		return allocatedMips;
+	}
+
+	/**
+	 * Gets the index of a host of the model.
+	 */
+	private int indexOf(HostEntity host) {
+		Integer h = hostIndex.get(host);
+		if (h == null) {
+			throw new IllegalArgumentException("Host #" + host.getId() + " is not part of the placement model");
+		}
+		return h;
+	}
+
+	/**
+	 * Gets the index of the demand of a guest, reading it the first time.
+	 */
+	private int demandOf(GuestEntity guest) {
+		Integer index = guestIndex.get(guest);
+		if (index != null) {
+			return index;
+		}
+
+		int g = guestIndex.size();
+		if (g == size.length) {
+			int capacity = g * 2;
+			requestedTotalMips = Arrays.copyOf(requestedTotalMips, capacity);
+			requestedMaxMips = Arrays.copyOf(requestedMaxMips, capacity);
+			requestedMips = Arrays.copyOf(requestedMips, capacity);
+			requestedRam = Arrays.copyOf(requestedRam, capacity);
+			requestedBw = Arrays.copyOf(requestedBw, capacity);
+			size = Arrays.copyOf(size, capacity);
+		}
+		requestedTotalMips[g] = guest.getCurrentRequestedTotalMips();
+		requestedMaxMips[g] = guest.getCurrentRequestedMaxMips();
+		requestedMips[g] = MipsShare.of(guest.getCurrentRequestedMips());
+		requestedRam[g] = guest.getCurrentRequestedRam();
+		requestedBw[g] = guest.getCurrentRequestedBw();
+		size[g] = guest.getSize();
+		guestIndex.put(guest, g);
+		return g;
+	}
+}
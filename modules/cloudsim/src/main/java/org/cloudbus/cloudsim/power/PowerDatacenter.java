@@ -8,7 +8,10 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
@@ -22,6 +25,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.cloudbus.cloudsim.power.models.PowerModel;
 
 /**
  * PowerDatacenter is a class that enables simulation of power-aware data centers.
@@ -53,6 +57,105 @@ public class PowerDatacenter extends Datacenter {
 	/** The VM migration count. */
 	private int migrationCount;
 
+	/** The hosts grouped by power model, kept while the hosts and their power models do not change. */
+	private PowerBatches powerBatches;
+
+	/**
+	 * The hosts of a datacenter grouped by power model, with the buffers to compute the power consumption
+	 * of each group in one call to {@link PowerModel#getPower(double[], double[])}.
+	 */
+	private static final class PowerBatches {
+
+		/** The hosts, and their power model when they have no power state model, or null. */
+		private final PowerHost[] hosts;
+		private final PowerModel[] hostModels;
+
+		/** The power model of each batch. */
+		private final PowerModel[] models;
+
+		/** The positions of the hosts of each batch in the host list. */
+		private final int[][] positions;
+
+		/** The two utilization percentages of the hosts of each batch, then their power consumption. */
+		private final double[][] utilization;
+		private final double[][] power;
+
+		/** The power consumption of each host at the two utilization percentages. */
+		private final double[] fromPower;
+		private final double[] toPower;
+
+		private PowerBatches(List<? extends PowerHost> hostList) {
+			int n = hostList.size();
+			hosts = new PowerHost[n];
+			hostModels = new PowerModel[n];
+			Map<PowerModel, List<Integer>> batches = new IdentityHashMap<>();
+			for (int i = 0; i < n; i++) {
+				PowerHost host = hostList.get(i);
+				hosts[i] = host;
+				if (host.getPowerStateModel() == null) {
+					hostModels[i] = host.getPowerModel();
+					batches.computeIfAbsent(hostModels[i], k -> new ArrayList<>()).add(i);
+				}
+			}
+
+			models = new PowerModel[batches.size()];
+			positions = new int[batches.size()][];
+			utilization = new double[batches.size()][];
+			power = new double[batches.size()][];
+			int b = 0;
+			for (Map.Entry<PowerModel, List<Integer>> batch : batches.entrySet()) {
+				models[b] = batch.getKey();
+				positions[b] = batch.getValue().stream().mapToInt(Integer::intValue).toArray();
+				utilization[b] = new double[2 * positions[b].length];
+				power[b] = new double[2 * positions[b].length];
+				b++;
+			}
+			fromPower = new double[n];
+			toPower = new double[n];
+		}
+
+		/**
+		 * Gets the batches of some hosts, reusing the previous ones if the hosts did not change.
+		 */
+		static PowerBatches of(PowerBatches previous, List<? extends PowerHost> hostList) {
+			return previous != null && previous.matches(hostList) ? previous : new PowerBatches(hostList);
+		}
+
+		private boolean matches(List<? extends PowerHost> hostList) {
+			if (hostList.size() != hosts.length) {
+				return false;
+			}
+			for (int i = 0; i < hosts.length; i++) {
+				PowerHost host = hostList.get(i);
+				PowerModel model = host.getPowerStateModel() == null ? host.getPowerModel() : null;
+				if (host != hosts[i] || model != hostModels[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Computes the power consumption of the hosts without a power state model
+		 * at two utilization percentages each, with one batch per power model.
+		 */
+		void getPower(double[] fromUtilization, double[] toUtilization) {
+			for (int b = 0; b < models.length; b++) {
+				int[] batch = positions[b];
+				int size = batch.length;
+				for (int k = 0; k < size; k++) {
+					utilization[b][k] = fromUtilization[batch[k]];
+					utilization[b][size + k] = toUtilization[batch[k]];
+				}
+				models[b].getPower(utilization[b], power[b]);
+				for (int k = 0; k < size; k++) {
+					fromPower[batch[k]] = power[b][k];
+					toPower[batch[k]] = power[b][size + k];
+				}
+			}
+		}
+	}
+
 	/**
 	 * Instantiates a new PowerDatacenter.
 	 * 
@@ -124,15 +227,18 @@ public class PowerDatacenter extends Datacenter {
 						// we use BW / 2 to model BW available for migration purposes, the other
 						// half of BW is for VM communication
 						// around 16 seconds for 1024 MB using 1 Gbit/s network
+						// plus the time to wake up the target host, if it was sleeping or switched off
 						send(
 								getId(),
-								vm.getRam() / ((double) targetHost.getBw() / (2 * 8000)),
+								vm.getRam() / ((double) targetHost.getBw() / (2 * 8000)) + targetHost.getTransitionDelay(),
 								CloudActionTags.VM_MIGRATE,
 								migrate);
 					}
 				}
 			}
 
+			updatePowerStates();
+
 			// schedules an event to the next time
 			if (minTime != Double.MAX_VALUE) {
 				CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
@@ -197,28 +303,45 @@ public class PowerDatacenter extends Datacenter {
 					getLastProcessTime(),
 					currentTime);
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
-				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
-				double utilizationOfCpu = host.getUtilizationOfCpu();
-				double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
-						previousUtilizationOfCpu,
-						utilizationOfCpu,
-						timeDiff);
-				timeFrameDatacenterEnergy += timeFrameHostEnergy;
+			List<PowerHost> hostList = getHostList();
+			int n = hostList.size();
+			double[] previousUtilizationOfCpu = new double[n];
+			double[] utilizationOfCpu = new double[n];
+			for (int i = 0; i < n; i++) {
+				PowerHost host = hostList.get(i);
+				previousUtilizationOfCpu[i] = host.getPreviousUtilizationOfCpu();
+				utilizationOfCpu[i] = host.getUtilizationOfCpu();
+			}
+			powerBatches = PowerBatches.of(powerBatches, hostList);
+			double[] timeFrameHostEnergy = getEnergyLinearInterpolation(
+					hostList,
+					powerBatches,
+					previousUtilizationOfCpu,
+					utilizationOfCpu,
+					timeDiff);
+
+			for (int i = 0; i < n; i++) {
+				if (hostList.get(i).getPowerStateModel() != null) {
+					timeFrameHostEnergy[i] += hostList.get(i).takeTransitionEnergy();
+				}
+				timeFrameDatacenterEnergy += timeFrameHostEnergy[i];
+				if (Log.isDisabled()) {
+					continue;
+				}
 
 				Log.println();
 				Log.formatLine(
 						"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
 						currentTime,
-						host.getId(),
+						hostList.get(i).getId(),
 						getLastProcessTime(),
-						previousUtilizationOfCpu * 100,
-						utilizationOfCpu * 100);
+						previousUtilizationOfCpu[i] * 100,
+						utilizationOfCpu[i] * 100);
 				Log.formatLine(
 						"%.2f: [Host #%d] energy is %.2f W*sec",
 						currentTime,
-						host.getId(),
-						timeFrameHostEnergy);
+						hostList.get(i).getId(),
+						timeFrameHostEnergy[i]);
 			}
 
 			Log.formatLine(
@@ -246,6 +369,79 @@ public class PowerDatacenter extends Datacenter {
 		return minTime;
 	}
 
+	/**
+	 * Gets the time that the host of a guest just created needs to be woken up, if it was
+	 * sleeping or switched off.
+	 *
+	 * @param guest the guest, already allocated to a host
+	 * @return the transition delay of the host
+	 * @see PowerHost#getTransitionDelay()
+	 */
+	@Override
+	protected double getGuestStartDelay(GuestEntity guest) {
+		return getVmAllocationPolicy().getHost(guest) instanceof PowerHost host ? host.getTransitionDelay() : 0;
+	}
+
+	/**
+	 * Moves the hosts with no VMs, running or migrating in, to the inactive state of their power state model.
+	 * 
+	 * @see PowerHost#updatePowerState()
+	 */
+	protected void updatePowerStates() {
+		for (PowerHost host : this.<PowerHost> getHostList()) {
+			host.updatePowerState();
+		}
+	}
+
+	/**
+	 * Gets the energy consumption of some hosts using linear interpolation of their utilization change,
+	 * as {@link PowerHost#getEnergyLinearInterpolation(double, double, double)} for each host.
+	 * The power consumption of all the hosts sharing a power model is computed in one batch,
+	 * while the hosts with a power state model are left to compute their own energy, e.g. without
+	 * evaluating the power model of the hosts switched off.
+	 * 
+	 * @param hostList the hosts
+	 * @param fromUtilization the initial utilization percentage of each host
+	 * @param toUtilization the final utilization percentage of each host
+	 * @param time the time
+	 * @return the energy of each host
+	 */
+	public static double[] getEnergyLinearInterpolation(
+			List<? extends PowerHost> hostList,
+			double[] fromUtilization,
+			double[] toUtilization,
+			double time) {
+		return getEnergyLinearInterpolation(hostList, PowerBatches.of(null, hostList), fromUtilization, toUtilization, time);
+	}
+
+	private static double[] getEnergyLinearInterpolation(
+			List<? extends PowerHost> hostList,
+			PowerBatches batches,
+			double[] fromUtilization,
+			double[] toUtilization,
+			double time) {
+		int n = hostList.size();
+		double[] energy = new double[n];
+		try {
+			batches.getPower(fromUtilization, toUtilization);
+		} catch (IllegalArgumentException e) {
+			// an invalid utilization percentage is handled by the host
+			for (int i = 0; i < n; i++) {
+				energy[i] = hostList.get(i).getEnergyLinearInterpolation(fromUtilization[i], toUtilization[i], time);
+			}
+			return energy;
+		}
+		for (int i = 0; i < n; i++) {
+			PowerHost host = hostList.get(i);
+			if (host.getPowerStateModel() != null) {
+				energy[i] = host.getEnergyLinearInterpolation(fromUtilization[i], toUtilization[i], time);
+			} else if (fromUtilization[i] != 0) {
+				energy[i] = (batches.fromPower[i] + (batches.toPower[i] - batches.fromPower[i]) / 2) * time;
+			}
+		}
+		return energy;
+	}
+
 	@Override
 	protected void processVmMigrate(SimEvent ev, boolean ack) {
 		updateCloudetProcessingWithoutSchedulingFutureEvents();
@@ -8,16 +8,22 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.cloudbus.cloudsim.HostDynamicWorkload;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.PowerHostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.HistoryStat;
+import org.cloudbus.cloudsim.util.WindowStatistics;
 
 /**
  * PowerHost class enables simulation of power-aware hosts.
@@ -40,9 +46,67 @@ import org.cloudbus.cloudsim.provisioners.RamProvisioner;
  */
 public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 
+	/**
+	 * The power states of a host.
+	 * @see PowerStateModel
+	 */
+	public enum PowerState {
+		/** Powered on, running VMs. */
+		ON,
+		/** Powered on, without VMs. */
+		IDLE,
+		/** Sleeping, quickly woken up. */
+		SLEEP,
+		/** Switched off. */
+		OFF
+	}
+
 	/** The power model used by the host. */
 	private PowerModel powerModel;
 
+	/** The power states of the host, or null if the host is switched off implicitly when it has no utilization. */
+	private PowerStateModel powerStateModel;
+
+	/** The power state of the host, if it has a power state model. */
+	private PowerState powerState = PowerState.ON;
+
+	/** The energy of the transitions between power states not yet accounted. */
+	private double transitionEnergy;
+
+	/** The time when the last transition between power states starts. */
+	private double transitionStartTime;
+
+	/** The time when the last transition between power states completes. */
+	private double transitionEndTime;
+
+	/** The pools of the allocation policies of the host, notified when the host is powered on or off. */
+	private final List<HostPowerPools> powerPools = new ArrayList<>(1);
+
+	/** The number of hosts of a simulation that are sleeping or switched off. */
+	private static class InactiveHosts {
+		private int count;
+	}
+
+	/** The statistics of the host CPU utilization percentage history, given by the VMs running on the host.
+	 * @see #getUtilizationStatistics()
+	 */
+	private final WindowStatistics utilizationStatistics = new WindowStatistics(PowerHostEntity.HISTORY_LENGTH);
+
+	/** The VMs that gave the utilization statistics. */
+	private GuestEntity[] statisticsGuests = new GuestEntity[0];
+
+	/** The MIPS of each VM that gave the utilization statistics. */
+	private double[] statisticsGuestMips = new double[0];
+
+	/** The number of utilization samples offered to each VM that gave the utilization statistics. */
+	private long[] statisticsOfferCount = new long[0];
+
+	/** The length of the utilization history of each VM that gave the utilization statistics. */
+	private int[] statisticsHistoryLength = new int[0];
+
+	/** The total MIPS of the host when the utilization statistics were updated. */
+	private double statisticsHostMips = Double.NaN;
+
 	/**
 	 * Instantiates a new PowerHost.
 	 * 
@@ -83,6 +147,9 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	 * @return the power consumption
 	 */
 	public double getPower(double utilization) {
+		if (!isActive()) {
+			return getPowerStateModel().getPower(getPowerState());
+		}
 		double power = 0;
 		try {
 			power = getPowerModel().getPower(utilization);
@@ -93,6 +160,207 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 		return power;
 	}
 
+	/**
+	 * Gets the energy consumption using linear interpolation of the utilization change, over the
+	 * given time until now.
+	 * With a power state model, the energy of a sleeping or switched off host is given by its
+	 * power in that state, and a powered on host consumes energy even with no utilization.
+	 * The time spent in the last transition between power states, e.g. to wake the host up,
+	 * is not charged here, since the energy of the transition is given by {@link #takeTransitionEnergy()}.
+	 *
+	 * @param fromUtilization the initial utilization percentage
+	 * @param toUtilization the final utilization percentage
+	 * @param time the time
+	 * @return the energy
+	 */
+	@Override
+	public double getEnergyLinearInterpolation(double fromUtilization, double toUtilization, double time) {
+		if (getPowerStateModel() == null) {
+			return PowerHostEntity.super.getEnergyLinearInterpolation(fromUtilization, toUtilization, time);
+		}
+		double end = CloudSim.clock();
+		double transitionTime = Math.max(0, Math.min(transitionEndTime, end) - Math.max(transitionStartTime, end - time));
+		time -= transitionTime;
+		if (!isActive()) {
+			return getPowerStateModel().getPower(getPowerState()) * time;
+		}
+		double fromPower = getPower(fromUtilization);
+		double toPower = getPower(toUtilization);
+		return (fromPower + (toPower - fromPower) / 2) * time;
+	}
+
+	/**
+	 * Creates a guest, waking the host up if it sleeps or is switched off.
+	 * The guest is placed at once, but the datacenter acknowledges its creation
+	 * only after the {@link #getTransitionDelay() transition delay}.
+	 *
+	 * @param guest the guest
+	 * @return true if the guest was created
+	 * @see PowerDatacenter#getGuestStartDelay(GuestEntity)
+	 */
+	@Override
+	public boolean guestCreate(GuestEntity guest) {
+		boolean created = super.guestCreate(guest);
+		if (created && !isActive()) {
+			setPowerState(PowerState.ON);
+		}
+		return created;
+	}
+
+	@Override
+	public void addMigratingInGuest(GuestEntity guest) {
+		super.addMigratingInGuest(guest);
+		if (!isActive() && getGuestsMigratingIn().contains(guest)) {
+			setPowerState(PowerState.ON);
+		}
+	}
+
+	/**
+	 * Puts the host into the inactive state of its power state model if it has no VMs, running
+	 * or migrating in, or marks it as ON if it has some.
+	 */
+	public void updatePowerState() {
+		if (getPowerStateModel() == null) {
+			return;
+		}
+		if (getGuestList().isEmpty() && getGuestsMigratingIn().isEmpty()) {
+			if (isActive()) {
+				setPowerState(getPowerStateModel().getInactiveState());
+			}
+		} else if (getPowerState() == PowerState.IDLE) {
+			setPowerState(PowerState.ON);
+		}
+	}
+
+	/**
+	 * Moves the host to another power state, charging the energy of the transition.
+	 *
+	 * @param powerState the new power state
+	 * @see #getTransitionDelay()
+	 */
+	public void setPowerState(PowerState powerState) {
+		if (getPowerStateModel() == null) {
+			throw new IllegalStateException("Host #" + getId() + " has no power state model");
+		}
+		if (powerState == this.powerState) {
+			return;
+		}
+		transitionEnergy += getPowerStateModel().getTransitionEnergy(this.powerState, powerState);
+		transitionStartTime = Math.max(transitionEndTime, CloudSim.clock());
+		transitionEndTime = transitionStartTime
+				+ getPowerStateModel().getTransitionLatency(this.powerState, powerState);
+		boolean wasActive = isActive();
+		this.powerState = powerState;
+		updateInactiveHostCount(wasActive);
+	}
+
+	/**
+	 * Updates the number of inactive hosts of the simulation, and the pools of the host,
+	 * after a change of the power state.
+	 *
+	 * @param wasActive whether the host was active before the change
+	 */
+	private void updateInactiveHostCount(boolean wasActive) {
+		if (wasActive != isActive()) {
+			getInactiveHosts().count += wasActive ? 1 : -1;
+			for (HostPowerPools pools : powerPools) {
+				pools.activityChanged(this);
+			}
+		}
+	}
+
+	/**
+	 * Registers the pools of an allocation policy, to notify them when the host is powered on or off.
+	 *
+	 * @param pools the pools
+	 */
+	void addPowerPools(HostPowerPools pools) {
+		powerPools.add(pools);
+	}
+
+	/**
+	 * Gets the number of hosts of the current simulation that are sleeping or switched off,
+	 * according to their power state model.
+	 *
+	 * @return the number of inactive hosts
+	 */
+	public static int getInactiveHostCount() {
+		return getInactiveHosts().count;
+	}
+
+	private static InactiveHosts getInactiveHosts() {
+		return SimulationContext.current().getAttribute(InactiveHosts.class, InactiveHosts::new);
+	}
+
+	/**
+	 * Gets the power state of the host. Without a power state model, the host is OFF
+	 * when it has no utilization.
+	 *
+	 * @return the power state
+	 */
+	public PowerState getPowerState() {
+		if (getPowerStateModel() == null) {
+			return getUtilizationOfCpu() == 0 ? PowerState.OFF : PowerState.ON;
+		}
+		return powerState;
+	}
+
+	/**
+	 * Checks whether the host is powered on, according to its power state model.
+	 * A host without a power state model is always considered powered on, for placement purposes.
+	 *
+	 * @return true if the host has no power state model, or it is ON or IDLE
+	 */
+	public boolean isActive() {
+		return getPowerStateModel() == null || powerState == PowerState.ON || powerState == PowerState.IDLE;
+	}
+
+	/**
+	 * Gets the time left until the last transition between power states completes,
+	 * e.g. to delay the VMs migrating to a host that is being woken up.
+	 *
+	 * @return the transition delay
+	 */
+	public double getTransitionDelay() {
+		return Math.max(0, transitionEndTime - CloudSim.clock());
+	}
+
+	/**
+	 * Gets the energy of the transitions between power states since the last call, and resets it.
+	 *
+	 * @return the energy of the transitions
+	 */
+	public double takeTransitionEnergy() {
+		double energy = transitionEnergy;
+		transitionEnergy = 0;
+		return energy;
+	}
+
+	/**
+	 * Gets the power state model.
+	 *
+	 * @return the power state model, or null if the host is switched off implicitly when it has no utilization
+	 */
+	public PowerStateModel getPowerStateModel() {
+		return powerStateModel;
+	}
+
+	/**
+	 * Sets the power state model, starting from ON or IDLE depending on the VMs of the host.
+	 *
+	 * @param powerStateModel the power state model, or null to switch off the host implicitly
+	 *                        when it has no utilization
+	 */
+	public void setPowerStateModel(PowerStateModel powerStateModel) {
+		boolean wasActive = isActive();
+		this.powerStateModel = powerStateModel;
+		powerState = getGuestList().isEmpty() ? PowerState.IDLE : PowerState.ON;
+		transitionEnergy = 0;
+		transitionStartTime = 0;
+		transitionEndTime = 0;
+		updateInactiveHostCount(wasActive);
+	}
+
 	/**
 	 * Sets the power model.
 	 * 
@@ -117,17 +385,98 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	 * @return the host CPU utilization percentage history
 	 */
 	public double[] getUtilizationHistory() {
+		return getUtilizationStatistics().toArray();
+	}
+
+	/**
+	 * Gets the statistics of the host CPU utilization percentage history, given by the VMs running on the host.
+	 * The statistics are updated incrementally: when each VM has a new utilization sample (and the history of
+	 * all of them has the same length), only the new sample of the host is offered to the statistics;
+	 * they are computed again from the VM histories if the VMs have changed.
+	 *
+	 * @return the statistics of the host CPU utilization percentage history
+	 * @see #getUtilizationHistory()
+	 */
+	public synchronized WindowStatistics getUtilizationStatistics() {
+		List<GuestEntity> vmList = getGuestList();
+		double hostMips = getTotalMips();
+		int n = vmList.size();
+
+		boolean sameVms = n == statisticsGuests.length && hostMips == statisticsHostMips;
+		for (int i = 0; i < n && sameVms; i++) {
+			GuestEntity vm = vmList.get(i);
+			sameVms = vm == statisticsGuests[i] && vm.getMips() == statisticsGuestMips[i];
+		}
+
+		boolean unchanged = sameVms;
+		boolean moved = sameVms && n > 0;
+		int capacity = utilizationStatistics.getCapacity();
+		for (int i = 0; i < n && (unchanged || moved); i++) {
+			HistoryStat history = ((PowerVm) vmList.get(i)).getUtilizationHistory();
+			long offers = history.getOfferCount() - statisticsOfferCount[i];
+			int oldLength = statisticsHistoryLength[i];
+			int length = history.size();
+			unchanged &= offers == 0 && length == oldLength;
+			// the history of all the VMs, hence the one of the host, moved by one sample
+			moved &= offers == 1 && oldLength == statisticsHistoryLength[0]
+					&& (length == oldLength + 1 && length <= capacity || length == oldLength && length == capacity);
+		}
+
+		if (unchanged) {
+			return utilizationStatistics;
+		}
+		if (moved) {
+			double sample = 0;
+			for (GuestEntity guest : vmList) {
+				PowerVm vm = (PowerVm) guest;
+				sample += vm.getUtilizationHistory().getLast() * vm.getMips() / hostMips;
+			}
+			utilizationStatistics.offer(sample);
+		} else {
+			utilizationStatistics.clear();
+			for (double sample : getUtilizationHistory(vmList)) {
+				utilizationStatistics.offer(sample);
+			}
+		}
+
+		if (statisticsGuests.length != n) {
+			statisticsGuests = new GuestEntity[n];
+			statisticsGuestMips = new double[n];
+			statisticsOfferCount = new long[n];
+			statisticsHistoryLength = new int[n];
+		}
+		for (int i = 0; i < n; i++) {
+			PowerVm vm = (PowerVm) vmList.get(i);
+			statisticsGuests[i] = vm;
+			statisticsGuestMips[i] = vm.getMips();
+			statisticsOfferCount[i] = vm.getUtilizationHistory().getOfferCount();
+			statisticsHistoryLength[i] = vm.getUtilizationHistory().size();
+		}
+		statisticsHostMips = hostMips;
+		return utilizationStatistics;
+	}
+
+	/**
+	 * Gets the host CPU utilization percentage history given by some VMs, e.g. the VMs
+	 * planned to be placed on the host.
+	 *
+	 * @param vmList the VMs
+	 * @return the host CPU utilization percentage history
+	 */
+	public double[] getUtilizationHistory(List<? extends GuestEntity> vmList) {
 		double[] utilizationHistory = new double[PowerHostEntity.HISTORY_LENGTH];
 		double hostMips = getTotalMips();
 		int maxlen = 0;
-		for (PowerVm vm : this.<PowerVm>getGuestList()) {
+		for (GuestEntity guest : vmList) {
+			PowerVm vm = (PowerVm) guest;
 			double guestMips = vm.getMips();
-			int i = 0;
-			for (double u : vm.getUtilizationHistory()) {
-				utilizationHistory[i++] += u * guestMips / hostMips;
+			HistoryStat history = vm.getUtilizationHistory();
+			int length = history.size();
+			for (int i = 0; i < length; i++) {
+				utilizationHistory[i] += history.get(i) * guestMips / hostMips;
 			}
-			if (i > maxlen)
-				maxlen = i;
+			if (length > maxlen)
+				maxlen = length;
 		}
 		return Arrays.copyOf(utilizationHistory, maxlen);
 	}
@@ -0,0 +1,118 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import org.cloudbus.cloudsim.power.PowerHost.PowerState;
+
+/**
+ * The power states of a {@link PowerHost}: the power consumption of the host when it sleeps or is off,
+ * the state which the host is put into when it has no VMs, and the latency and the energy of
+ * the transitions between states. While a host is {@link PowerState#ON ON} or {@link PowerState#IDLE IDLE},
+ * its power consumption is given by its power model.
+ * <p>
+ * The transitions have no latency nor energy, unless set by {@link #setTransition(PowerState, PowerState, double, double)}.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class PowerStateModel {
+
+	/** The power consumption of the host when it sleeps. */
+	private final double sleepPower;
+
+	/** The power consumption of the host when it is off. */
+	private final double offPower;
+
+	/** The state which the host is put into when it has no VMs. */
+	private PowerState inactiveState = PowerState.OFF;
+
+	/** The latency of the transitions, indexed by the source and the destination states. */
+	private final double[][] transitionLatency = new double[PowerState.values().length][PowerState.values().length];
+
+	/** The energy of the transitions, indexed by the source and the destination states. */
+	private final double[][] transitionEnergy = new double[PowerState.values().length][PowerState.values().length];
+
+	/**
+	 * Instantiates a new power state model.
+	 *
+	 * @param sleepPower the power consumption of the host when it sleeps
+	 * @param offPower the power consumption of the host when it is off
+	 */
+	public PowerStateModel(double sleepPower, double offPower) {
+		this.sleepPower = sleepPower;
+		this.offPower = offPower;
+	}
+
+	/**
+	 * Sets the latency and the energy of a transition.
+	 *
+	 * @param from the source state
+	 * @param to the destination state
+	 * @param latency the time taken by the transition
+	 * @param energy the energy consumed by the transition
+	 */
+	public void setTransition(PowerState from, PowerState to, double latency, double energy) {
+		transitionLatency[from.ordinal()][to.ordinal()] = latency;
+		transitionEnergy[from.ordinal()][to.ordinal()] = energy;
+	}
+
+	/**
+	 * Gets the latency of a transition.
+	 *
+	 * @param from the source state
+	 * @param to the destination state
+	 * @return the time taken by the transition
+	 */
+	public double getTransitionLatency(PowerState from, PowerState to) {
+		return transitionLatency[from.ordinal()][to.ordinal()];
+	}
+
+	/**
+	 * Gets the energy of a transition.
+	 *
+	 * @param from the source state
+	 * @param to the destination state
+	 * @return the energy consumed by the transition
+	 */
+	public double getTransitionEnergy(PowerState from, PowerState to) {
+		return transitionEnergy[from.ordinal()][to.ordinal()];
+	}
+
+	/**
+	 * Gets the power consumption of the host in a state where it is not running.
+	 *
+	 * @param state the state, either {@link PowerState#SLEEP SLEEP} or {@link PowerState#OFF OFF}
+	 * @return the power consumption
+	 */
+	public double getPower(PowerState state) {
+		return state == PowerState.SLEEP ? sleepPower : offPower;
+	}
+
+	/**
+	 * Gets the state which the host is put into when it has no VMs.
+	 *
+	 * @return the inactive state
+	 */
+	public PowerState getInactiveState() {
+		return inactiveState;
+	}
+
+	/**
+	 * Sets the state which the host is put into when it has no VMs, e.g. {@link PowerState#IDLE IDLE}
+	 * to keep the hosts powered on.
+	 *
+	 * @param inactiveState the inactive state
+	 */
+	public void setInactiveState(PowerState inactiveState) {
+		if (inactiveState == PowerState.ON) {
+			throw new IllegalArgumentException("A host with no VMs cannot be ON");
+		}
+		this.inactiveState = inactiveState;
+	}
+}
@@ -11,18 +11,23 @@ package org.cloudbus.cloudsim.power;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMaximumCorrelation;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
+import org.cloudbus.cloudsim.util.WindowStatistics;
 
 /**
  * An abstract power-aware VM allocation policy that dynamically optimizes the VM
@@ -46,8 +51,26 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	/** The vm selection policy. */
 	private SelectionPolicy<GuestEntity> vmSelectionPolicy;
 
-	/** A list of maps between a VM and the host where it is place. */
-	private final List<GuestMapping> savedAllocation = new ArrayList<>();
+	/** The model of the hosts where the new VM placement is planned,
+	 * while the VM allocation is optimized.
+	 * @see #optimizeAllocation(java.util.List)
+	 */
+	private PlacementModel placementModel;
+
+	/** The hosts in ascending order of utilization, while the VM allocation is optimized.
+	 * @see #optimizeAllocation(java.util.List)
+	 */
+	private HostUtilizationIndex hostUtilizationIndex;
+
+	/** The powered on and the inactive hosts, created at the first placement.
+	 * @see #getHostPowerPools()
+	 */
+	private HostPowerPools hostPowerPools;
+
+	/** Whether the hosts are scored in parallel to find the host of each VM to migrate.
+	 * @see #findHostForGuest(GuestEntity, Set)
+	 */
+	private boolean parallelHostScoring;
 
 	private void growIfNeeded(List<List<Double>> l, int idx) {
 		for (int i = l.size(); i <= idx; i++)
@@ -110,6 +133,8 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 
 	/**
 	 * Optimize allocation of the VMs according to current utilization.
+	 * The new VM placement is planned on a {@link PlacementModel} of the hosts,
+	 * so that the hosts don't change until the VMs are actually migrated.
 	 * 
 	 * @param vmList the vm list
 	 * 
@@ -119,6 +144,8 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	public List<GuestMapping> optimizeAllocation(List<? extends GuestEntity> vmList) {
 		ExecutionTimeMeasurer.start("optimizeAllocationTotal");
 
+		setHostUtilizationIndex(new HostUtilizationIndex(this.<PowerHost> getHostList()));
+
 		ExecutionTimeMeasurer.start("optimizeAllocationHostSelection");
 		List<PowerHost> overUtilizedHosts = getOverUtilizedHosts();
 		getExecutionTimeHistoryHostSelection().add(
@@ -126,7 +153,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 
 		printOverUtilizedHosts(overUtilizedHosts);
 
-		saveAllocation();
+		setPlacementModel(new PlacementModel(getHostList()));
 
 		ExecutionTimeMeasurer.start("optimizeAllocationVmSelection");
 		List<GuestEntity> vmsToMigrate = getVmsToMigrateFromHosts(overUtilizedHosts);
@@ -141,7 +168,8 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 
 		migrationMap.addAll(getMigrationMapFromUnderUtilizedHosts(overUtilizedHosts));
 
-		restoreAllocation();
+		setPlacementModel(null);
+		setHostUtilizationIndex(null);
 
 		getExecutionTimeHistoryTotal().add(ExecutionTimeMeasurer.end("optimizeAllocationTotal"));
 
@@ -172,15 +200,25 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 
 		int numberOfHosts = getHostList().size();
 
+		// the excluded hosts are never included again, and a host with all VMs migrating out,
+		// or any VM migrating in, is excluded as soon as it receives a VM
+		HostUtilizationIndex hostUtilizationIndex = getHostUtilizationIndex();
+		if (hostUtilizationIndex == null) {
+			hostUtilizationIndex = new HostUtilizationIndex(this.<PowerHost> getHostList());
+		}
+		Iterator<PowerHost> underUtilizedHosts = hostUtilizationIndex.underUtilizedHosts(
+				host -> excludedHostsForFindingUnderUtilizedHost.contains(host)
+						|| areAllVmsMigratingOutOrAnyVmMigratingIn(host));
+
 		while (true) {
 			if (numberOfHosts == excludedHostsForFindingUnderUtilizedHost.size()) {
 				break;
 			}
 
-			PowerHost underUtilizedHost = getUnderUtilizedHost(excludedHostsForFindingUnderUtilizedHost);
-			if (underUtilizedHost == null) {
+			if (!underUtilizedHosts.hasNext()) {
 				break;
 			}
+			PowerHost underUtilizedHost = underUtilizedHosts.next();
 
 			Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
 
@@ -241,32 +279,106 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the host found to host the VM
 	 */
 	public PowerHost findHostForGuest(GuestEntity vm, Set<? extends HostEntity> excludedHosts) {
+		// the sleeping and switched off hosts are woken up only if no powered on host fits the VM
+		HostPowerPools pools = getHostPowerPools();
+		PowerHost allocatedHost = findHostForGuest(vm, excludedHosts, pools.getActiveHosts());
+		if (allocatedHost == null && !pools.getInactiveHosts().isEmpty()) {
+			allocatedHost = findHostForGuest(vm, excludedHosts, pools.getInactiveHosts());
+		}
+		return allocatedHost;
+	}
+
+	/**
+	 * Finds the host with most efficient power usage for a given VM, among some of the hosts.
+	 *
+	 * @param vm the VM
+	 * @param excludedHosts the excluded hosts
+	 * @param hostList the candidate hosts, in the order of the host list
+	 * @return the host found to host the VM
+	 */
+	private PowerHost findHostForGuest(GuestEntity vm, Set<? extends HostEntity> excludedHosts,
+			List<PowerHost> hostList) {
+		double[] powerDiff = new double[hostList.size()];
+		if (isParallelHostScoring() && getPlacementModel() != null) {
+			getPlacementModel().readDemand(vm);
+			// the pool of the simulation runs the stream, so that the workers read the simulation state
+			SimulationContext.current().getForkJoinPool().submit(() ->
+					IntStream.range(0, hostList.size()).parallel().forEach(i ->
+							powerDiff[i] = getPowerDiffAfterAllocation(hostList.get(i), vm, excludedHosts, true))).join();
+		} else {
+			for (int i = 0; i < hostList.size(); i++) {
+				powerDiff[i] = getPowerDiffAfterAllocation(hostList.get(i), vm, excludedHosts, false);
+			}
+		}
+
+		// ties are broken by the position of the host in the list, as in a serial scan
 		double minPower = Double.MAX_VALUE;
 		PowerHost allocatedHost = null;
-
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
+		for (int i = 0; i < powerDiff.length; i++) {
+			if (powerDiff[i] < minPower) {
+				minPower = powerDiff[i];
+				allocatedHost = hostList.get(i);
 			}
-			if (host.isSuitableForGuest(vm)) {
-				if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
+		}
+		return allocatedHost;
+	}
 
-				try {
-					double powerAfterAllocation = getPowerAfterAllocation(host, vm);
-					if (powerAfterAllocation != -1) {
-						double powerDiff = powerAfterAllocation - host.getPower();
-						if (powerDiff < minPower) {
-							minPower = powerDiff;
-							allocatedHost = host;
-						}
+	/**
+	 * Gets the powered on and the inactive hosts of the policy. The pools are created at the
+	 * first call, and then kept up to date by the hosts as they are powered on or off.
+	 *
+	 * @return the host pools
+	 */
+	protected HostPowerPools getHostPowerPools() {
+		if (hostPowerPools == null) {
+			hostPowerPools = new HostPowerPools(this.<PowerHost> getHostList());
+		}
+		return hostPowerPools;
+	}
+
+	/**
+	 * Gets the increase of the power consumption of a host after placing a candidate VM,
+	 * if the host is suitable for the VM and not over utilized after placing it.
+	 *
+	 * @param host the host
+	 * @param vm the candidate vm
+	 * @param excludedHosts the excluded hosts
+	 * @param trial whether the VM is {@link PlacementModel#beginTrial(HostEntity, GuestEntity) tried} on the host,
+	 *              without side effects, rather than placed and removed
+	 * @return the power increase, or NaN if the VM can't be placed on the host
+	 */
+	private double getPowerDiffAfterAllocation(PowerHost host, GuestEntity vm,
+			Set<? extends HostEntity> excludedHosts, boolean trial) {
+		if (excludedHosts.contains(host) || !isSuitableForGuest(host, vm)) {
+			return Double.NaN;
+		}
+		if (getUtilizationOfCpuMips(host) != 0) {
+			boolean isOverUtilized;
+			if (trial) {
+				isOverUtilized = true;
+				if (getPlacementModel().beginTrial(host, vm)) {
+					try {
+						isOverUtilized = isHostOverUtilized(host);
+					} finally {
+						getPlacementModel().endTrial();
 					}
-				} catch (Exception e) {
 				}
+			} else {
+				isOverUtilized = isHostOverUtilizedAfterAllocation(host, vm);
+			}
+			if (isOverUtilized) {
+				return Double.NaN;
 			}
 		}
-		return allocatedHost;
+
+		try {
+			double powerAfterAllocation = getPowerAfterAllocation(host, vm);
+			if (powerAfterAllocation != -1) {
+				return powerAfterAllocation - host.getPower();
+			}
+		} catch (Exception e) {
+		}
+		return Double.NaN;
 	}
 
 	/**
@@ -278,13 +390,142 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 */
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, GuestEntity vm) {
 		boolean isHostOverUtilizedAfterAllocation = true;
-		if (host.guestCreate(vm)) {
+		if (getPlacementModel() != null) {
+			if (getPlacementModel().guestCreate(host, vm)) {
+				isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
+				getPlacementModel().undo();
+			}
+		} else if (host.guestCreate(vm)) {
 			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
 			host.guestDestroy(vm);
 		}
 		return isHostOverUtilizedAfterAllocation;
 	}
 
+	/**
+	 * Checks if a host is suitable for a VM, considering the new VM placement
+	 * while the VM allocation is optimized.
+	 *
+	 * @param host the host
+	 * @param vm the vm
+	 * @return true, if the VM fits the host
+	 */
+	protected boolean isSuitableForGuest(HostEntity host, GuestEntity vm) {
+		if (getPlacementModel() != null) {
+			return getPlacementModel().isSuitableForGuest(host, vm);
+		}
+		return host.isSuitableForGuest(vm);
+	}
+
+	/**
+	 * Places a VM on a host: in the placement model while the VM allocation is
+	 * optimized, in the host itself otherwise.
+	 *
+	 * @param host the host
+	 * @param vm the vm
+	 * @return true, if the VM is placed
+	 */
+	protected boolean guestCreate(HostEntity host, GuestEntity vm) {
+		if (getPlacementModel() != null) {
+			return getPlacementModel().guestCreate(host, vm);
+		}
+		return host.guestCreate(vm);
+	}
+
+	/**
+	 * Removes a VM from a host: from the placement model while the VM allocation is
+	 * optimized, from the host itself otherwise.
+	 *
+	 * @param host the host
+	 * @param vm the vm
+	 */
+	protected void guestDestroy(HostEntity host, GuestEntity vm) {
+		if (getPlacementModel() != null) {
+			getPlacementModel().guestDestroy(host, vm);
+		} else {
+			host.guestDestroy(vm);
+		}
+	}
+
+	/**
+	 * Gets the VMs placed on a host: the ones of the placement model while the VM
+	 * allocation is optimized, the ones running on the host otherwise.
+	 *
+	 * @param host the host
+	 * @return the VMs placed on the host
+	 */
+	protected List<GuestEntity> getGuestList(HostEntity host) {
+		if (getPlacementModel() != null) {
+			return getPlacementModel().getGuestList(host);
+		}
+		return host.getGuestList();
+	}
+
+	/**
+	 * Gets the VMs placed on a host that are not in migration.
+	 *
+	 * @param host the host
+	 * @return the migrable VMs
+	 * @see HostEntity#getMigrableVms()
+	 */
+	protected List<GuestEntity> getMigrableVms(HostEntity host) {
+		List<GuestEntity> migrableVms = new ArrayList<>();
+		for (GuestEntity vm : getGuestList(host)) {
+			if (!vm.isInMigration()) {
+				migrableVms.add(vm);
+			}
+		}
+		return migrableVms;
+	}
+
+	/**
+	 * Gets the CPU utilization history of a host, given by the VMs placed on it.
+	 *
+	 * @param host the host
+	 * @return the host CPU utilization history
+	 * @see PowerHost#getUtilizationHistory()
+	 */
+	protected double[] getUtilizationHistory(PowerHost host) {
+		return host.getUtilizationHistory(getGuestList(host));
+	}
+
+	/**
+	 * Gets the statistics of the CPU utilization history of a host, given by the VMs placed on it:
+	 * the ones kept up to date by the host, if the VMs placed on it are the ones running on it.
+	 *
+	 * @param host the host
+	 * @return the statistics of the host CPU utilization history
+	 * @see PowerHost#getUtilizationStatistics()
+	 */
+	protected WindowStatistics getUtilizationStatistics(PowerHost host) {
+		List<GuestEntity> vmList = getGuestList(host);
+		List<GuestEntity> runningVmList = host.getGuestList();
+		boolean running = vmList.size() == runningVmList.size();
+		for (int i = 0; running && i < vmList.size(); i++) {
+			running = vmList.get(i) == runningVmList.get(i);
+		}
+		if (running) {
+			return host.getUtilizationStatistics();
+		}
+		return new WindowStatistics(host.getUtilizationHistory(vmList));
+	}
+
+	/**
+	 * Deallocates the host of a guest. The VM selection policy forgets the multiple correlation
+	 * of the VMs of the host, if it keeps it.
+	 *
+	 * @param guest the guest
+	 * @see PowerSelectionPolicyMaximumCorrelation#removeCorrelation(Object)
+	 */
+	@Override
+	public void deallocateHostForGuest(GuestEntity guest) {
+		HostEntity host = getHost(guest);
+		super.deallocateHostForGuest(guest);
+		if (host != null && (Object) getVmSelectionPolicy() instanceof PowerSelectionPolicyMaximumCorrelation policy) {
+			policy.removeCorrelation(host);
+		}
+	}
+
 	@Override
 	public PowerHost findHostForGuest(GuestEntity vm) {
 		Set<HostEntity> excludedHosts = new HashSet<>();
@@ -323,7 +564,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		for (GuestEntity vm : vmsToMigrate) {
 			PowerHost allocatedHost = findHostForGuest(vm, excludedHosts);
 			if (allocatedHost != null) {
-				allocatedHost.guestCreate(vm);
+				guestCreate(allocatedHost, vm);
 				Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
 				migrationMap.add(new GuestMapping(vm, allocatedHost));
 			}
@@ -346,13 +587,13 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		for (GuestEntity vm : vmsToMigrate) {
 			PowerHost allocatedHost = findHostForGuest(vm, excludedHosts);
 			if (allocatedHost != null) {
-				allocatedHost.guestCreate(vm);
+				guestCreate(allocatedHost, vm);
 				Log.printlnConcat("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
 				migrationMap.add(new GuestMapping(vm, allocatedHost));
 			} else {
 				Log.println("Not all VMs can be reallocated from the host, reallocation cancelled");
 				for (GuestMapping map : migrationMap) {
-					(map.host()).guestDestroy(map.vm());
+					guestDestroy(map.host(), map.vm());
 				}
 				migrationMap.clear();
 				break;
@@ -372,12 +613,12 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		List<GuestEntity> vmsToMigrate = new LinkedList<>();
 		for (PowerHost host : overUtilizedHosts) {
 			while (true) {
-				GuestEntity vm = getVmSelectionPolicy().select(host.getMigrableVms(), host, new HashSet<>());
+				GuestEntity vm = getVmSelectionPolicy().select(getMigrableVms(host), host, new HashSet<>());
 				if (vm == null) {
 					break;
 				}
 				vmsToMigrate.add(vm);
-				host.guestDestroy(vm);
+				guestDestroy(host, vm);
 				if (!isHostOverUtilized(host)) {
 					break;
 				}
@@ -394,7 +635,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 */
 	protected List<? extends GuestEntity> getVmsToMigrateFromUnderUtilizedHost(PowerHost host) {
 		List<GuestEntity> vmsToMigrate = new LinkedList<>();
-		for (GuestEntity vm : host.getGuestList()) {
+		for (GuestEntity vm : getGuestList(host)) {
 			if (!vm.isInMigration()) {
 				vmsToMigrate.add(vm);
 			}
@@ -423,6 +664,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the switched off hosts
 	 */
 	protected List<PowerHost> getSwitchedOffHosts() {
+		if (getHostUtilizationIndex() != null) {
+			return getHostUtilizationIndex().getSwitchedOffHosts();
+		}
 		List<PowerHost> switchedOffHosts = new LinkedList<>();
 		for (PowerHost host : this.<PowerHost> getHostList()) {
 			if (host.getUtilizationOfCpu() == 0) {
@@ -439,6 +683,11 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the most under utilized host
 	 */
 	protected PowerHost getUnderUtilizedHost(Set<? extends Host> excludedHosts) {
+		if (getHostUtilizationIndex() != null) {
+			Iterator<PowerHost> underUtilizedHosts = getHostUtilizationIndex().underUtilizedHosts(
+					host -> excludedHosts.contains(host) || areAllVmsMigratingOutOrAnyVmMigratingIn(host));
+			return underUtilizedHosts.hasNext() ? underUtilizedHosts.next() : null;
+		}
 		double minUtilization = 1;
 		PowerHost underUtilizedHost = null;
 		for (PowerHost host : this.<PowerHost> getHostList()) {
@@ -462,7 +711,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return true, if successful
 	 */
 	protected boolean areAllVmsMigratingOutOrAnyVmMigratingIn(PowerHost host) {
-		for (PowerVm vm : host.<PowerVm>getGuestList()) {
+		for (GuestEntity vm : getGuestList(host)) {
 			if (!vm.isInMigration()) {
 				return false;
 			}
@@ -488,6 +737,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @param metric the metric to be added to the metric history map
 	 */
 	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+		if (getPlacementModel() != null && getPlacementModel().isTrial()) {
+			return; // hosts scored in parallel leave no history
+		}
 		int hostId = host.getId();
 		growIfNeeded(timeHistory, hostId);
 		if (timeHistory.get(hostId) == null) {
@@ -508,42 +760,6 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		}
 	}
 
-	/**
-	 * Updates the list of maps between a VM and the host where it is place.
-         * @see #savedAllocation
-	 */
-	protected void saveAllocation() {
-		getSavedAllocation().clear();
-		for (HostEntity host : getHostList()) {
-			for (GuestEntity vm : host.getGuestList()) {
-				if (host.getGuestsMigratingIn().contains(vm)) {
-					continue;
-				}
-				getSavedAllocation().add(new GuestMapping(vm, host));
-			}
-		}
-	}
-
-	/**
-	 * Restore VM allocation from the allocation history.
-         * @see #savedAllocation
-	 */
-	protected void restoreAllocation() {
-		for (HostEntity host : getHostList()) {
-			host.guestDestroyAll();
-			host.reallocateMigratingInGuests();
-		}
-		for (GuestMapping map : getSavedAllocation()) {
-			Vm vm = (Vm) map.vm();
-			PowerHost host = (PowerHost) map.host();
-			if (!host.guestCreate(vm)) {
-				Log.printlnConcat("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
-				System.exit(0);
-			}
-			getGuestTable().put(vm.getUid(), host);
-		}
-	}
-
 	/**
 	 * Gets the power consumption of a host after placement of a candidate VM.
          * The VM is not in fact placed at the host.
@@ -591,23 +807,92 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 */
 	protected double getUtilizationOfCpuMips(PowerHost host) {
 		double hostUtilizationMips = 0;
-		for (GuestEntity vm2 : host.getGuestList()) {
+		List<GuestEntity> vms = getGuestList(host);
+		for (int i = 0; i < vms.size(); i++) {
+			GuestEntity vm2 = vms.get(i);
+			double allocatedMips = getPlacementModel() != null
+					? getPlacementModel().getTotalAllocatedMipsForGuest(host, i)
+					: host.getTotalAllocatedMipsForGuest(vm2);
 			if (host.getGuestsMigratingIn().contains(vm2)) {
 				// calculate additional potential CPU usage of a migrating in VM
-				hostUtilizationMips += host.getTotalAllocatedMipsForGuest(vm2) * 0.9 / 0.1;
+				hostUtilizationMips += allocatedMips * 0.9 / 0.1;
 			}
-			hostUtilizationMips += host.getTotalAllocatedMipsForGuest(vm2);
+			hostUtilizationMips += allocatedMips;
 		}
 		return hostUtilizationMips;
 	}
 
 	/**
-	 * Gets the saved allocation.
-	 * 
-	 * @return the saved allocation
+	 * Sets the placement model where the new VM placement is planned, also for the fallback
+	 * vm allocation policy, if any.
+	 *
+	 * @param placementModel the placement model, or null if the VM allocation is not being optimized
+	 */
+	protected void setPlacementModel(PlacementModel placementModel) {
+		this.placementModel = placementModel;
+		if (getFallbackVmAllocationPolicy() != null) {
+			getFallbackVmAllocationPolicy().setPlacementModel(placementModel);
+		}
+	}
+
+	/**
+	 * Gets the placement model where the new VM placement is planned.
+	 *
+	 * @return the placement model, or null if the VM allocation is not being optimized
+	 */
+	protected PlacementModel getPlacementModel() {
+		return placementModel;
+	}
+
+	/**
+	 * Gets the fallback vm allocation policy, used by the policies that cannot always
+	 * decide whether a host is over-utilized.
+	 *
+	 * @return the fallback vm allocation policy, or null if the policy has none
+	 */
+	public PowerVmAllocationPolicyMigrationAbstract getFallbackVmAllocationPolicy() {
+		return null;
+	}
+
+	/**
+	 * Sets the hosts in ascending order of utilization, while the VM allocation is optimized.
+	 *
+	 * @param hostUtilizationIndex the host utilization index, or null if the VM allocation is not being optimized
+	 */
+	protected void setHostUtilizationIndex(HostUtilizationIndex hostUtilizationIndex) {
+		this.hostUtilizationIndex = hostUtilizationIndex;
+	}
+
+	/**
+	 * Gets the hosts in ascending order of utilization, while the VM allocation is optimized.
+	 * Otherwise, the utilization of the hosts may change at any time, and the hosts are scanned.
+	 *
+	 * @return the host utilization index, or null if the VM allocation is not being optimized
+	 */
+	protected HostUtilizationIndex getHostUtilizationIndex() {
+		return hostUtilizationIndex;
+	}
+
+	/**
+	 * Sets whether the hosts are scored in parallel to find the host of each VM to migrate.
+	 * Each VM is tried on the hosts of the placement model without side effects, thus the host
+	 * selected is the same of the serial scan, but the over utilization of the hosts checked
+	 * with a VM is not recorded in the metric history.
+	 * Then, {@link #isHostOverUtilized(PowerHost)} must be thread-safe.
+	 *
+	 * @param parallelHostScoring true to score the hosts in parallel
+	 */
+	public void setParallelHostScoring(boolean parallelHostScoring) {
+		this.parallelHostScoring = parallelHostScoring;
+	}
+
+	/**
+	 * Checks whether the hosts are scored in parallel to find the host of each VM to migrate.
+	 *
+	 * @return true if the hosts are scored in parallel
 	 */
-	protected List<GuestMapping> getSavedAllocation() {
-		return savedAllocation;
+	public boolean isParallelHostScoring() {
+		return parallelHostScoring;
 	}
 
 	/**
@@ -14,7 +14,7 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
-import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.WindowStatistics;
 
 /**
  * A VM allocation policy that uses Inter Quartile Range (IQR)  to compute
@@ -109,7 +109,7 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 		}
 		addHistoryEntry(host, upperThreshold);
 		double totalRequestedMips = 0;
-		for (GuestEntity vm : host.getGuestList()) {
+		for (GuestEntity vm : getGuestList(host)) {
 			totalRequestedMips += vm.getCurrentRequestedTotalMips();
 		}
 		double utilization = totalRequestedMips / host.getTotalMips();
@@ -123,9 +123,9 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 * @return the host CPU utilization percentage IQR
 	 */
 	protected double getHostUtilizationIqr(PowerHost host) throws IllegalArgumentException {
-		double[] data = host.getUtilizationHistory();
-		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
-			return MathUtil.iqr(data);
+		WindowStatistics statistics = getUtilizationStatistics(host);
+		if (statistics.countNonZeroBeginning() >= 12) { // 12 has been suggested as a safe value
+			return statistics.getIqr();
 		}
 		throw new IllegalArgumentException();
 	}
@@ -168,6 +168,7 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 * 
 	 * @return the fallback vm allocation policy
 	 */
+	@Override
 	public PowerVmAllocationPolicyMigrationAbstract getFallbackVmAllocationPolicy() {
 		return fallbackVmAllocationPolicy;
 	}
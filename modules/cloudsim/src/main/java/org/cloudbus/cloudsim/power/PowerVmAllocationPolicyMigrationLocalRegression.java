@@ -14,6 +14,7 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.WindowStatistics;
 
 /**
  * A VM allocation policy that uses Local Regression (LR) to predict host utilization (load)
@@ -108,14 +109,14 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-        double[] utilizationHistory = host.getUtilizationHistory();
+		WindowStatistics utilizationHistory = getUtilizationStatistics(host);
 		int length = 10; // we use 10 to make the regression responsive enough to latest values
-		if (utilizationHistory.length < length) {
+		if (utilizationHistory.size() < length) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
 		double[] utilizationHistoryReversed = new double[length];
 		for (int i = 0; i < length; i++) {
-			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
+			utilizationHistoryReversed[i] = utilizationHistory.get(length - i - 1);
 		}
 		double[] estimates = null;
 		try {
@@ -150,7 +151,7 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 */
 	protected double getMaximumVmMigrationTime(PowerHost host) {
 		int maxRam = Integer.MIN_VALUE;
-		for (GuestEntity vm : host.getGuestList()) {
+		for (GuestEntity vm : getGuestList(host)) {
 			int ram = vm.getRam();
 			if (ram > maxRam) {
 				maxRam = ram;
@@ -192,6 +193,7 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 * 
 	 * @return the fallback vm allocation policy
 	 */
+	@Override
 	public PowerVmAllocationPolicyMigrationAbstract getFallbackVmAllocationPolicy() {
 		return fallbackVmAllocationPolicy;
 	}
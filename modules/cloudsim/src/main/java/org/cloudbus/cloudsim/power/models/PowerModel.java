@@ -39,4 +39,36 @@ public interface PowerModel {
 	 */
 	double getPower(double utilization) throws IllegalArgumentException;
 
+	/**
+	 * Gets the power consumption of the Power Model for a batch of utilization percentages,
+	 * e.g. the ones of all the hosts of a datacenter sharing the model.
+	 *
+	 * @param utilizations the utilization percentages (between [0 and 1])
+	 * @param power the array where to store the power consumption for each utilization percentage
+	 * @throws IllegalArgumentException when a utilization percentage is not between [0 and 1]
+	 */
+	default void getPower(double[] utilizations, double[] power) throws IllegalArgumentException {
+		for (int i = 0; i < utilizations.length; i++) {
+			power[i] = getPower(utilizations[i]);
+		}
+	}
+
+	/**
+	 * Compiles the Power Model into a table of the power consumption at evenly spaced utilization
+	 * percentages, linearly interpolated in between. The table is exact for the models that are
+	 * piecewise linear over the same steps, such as the SPECpower ones with 10 steps.
+	 *
+	 * @param steps the number of segments of the table
+	 * @return the piecewise linear power model
+	 */
+	default PowerModelPiecewiseLinear toPiecewiseLinear(int steps) {
+		double[] power = new double[steps + 1];
+		// the start of the first segment, in case the power at 0% of utilization differs
+		power[0] = getPower(Double.MIN_VALUE);
+		for (int i = 1; i <= steps; i++) {
+			power[i] = getPower((double) i / steps);
+		}
+		return new PowerModelPiecewiseLinear(getPower(0), power);
+	}
+
 }
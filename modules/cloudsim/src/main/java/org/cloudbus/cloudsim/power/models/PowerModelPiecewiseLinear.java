@@ -0,0 +1,134 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+import java.util.Arrays;
+
+/**
+ * A power model given by a table of the power consumption at evenly spaced utilization percentages,
+ * linearly interpolated in between, such as the ones of the
+ * <a href="http://www.spec.org/power_ssj2008/">SPECpower benchmark</a>.
+ * Any power model can be compiled into a table by {@link PowerModel#toPiecewiseLinear(int)},
+ * e.g. the model of each frequency of a DVFS-enabled host.
+ * <p>
+ * The power consumption at 0% of utilization may differ from the start of the first segment,
+ * e.g. to be 0 for the models of the hosts that are switched off when idle.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class PowerModelPiecewiseLinear implements PowerModel {
+
+	/** The power consumption at the utilization percentages 0, 1/steps, 2/steps, ..., 1. */
+	private final double[] power;
+
+	/** The power consumption at 0% of utilization. */
+	private final double zeroPower;
+
+	/** The number of segments of the table. */
+	private final int steps;
+
+	/** The square of the number of segments. */
+	private final double stepsSquared;
+
+	/**
+	 * Instantiates a new piecewise linear power model.
+	 *
+	 * @param power the power consumption at the evenly spaced utilization percentages from 0 to 1
+	 */
+	public PowerModelPiecewiseLinear(double[] power) {
+		this(power[0], power);
+	}
+
+	/**
+	 * Instantiates a new piecewise linear power model.
+	 *
+	 * @param zeroPower the power consumption at 0% of utilization
+	 * @param power the power consumption at the evenly spaced utilization percentages from 0 to 1,
+	 *              the first one being the start of the first segment
+	 */
+	public PowerModelPiecewiseLinear(double zeroPower, double[] power) {
+		if (power.length < 2) {
+			throw new IllegalArgumentException("The power table must have at least two entries");
+		}
+		this.power = power.clone();
+		this.zeroPower = zeroPower;
+		steps = power.length - 1;
+		stepsSquared = (double) steps * steps;
+	}
+
+	@Override
+	public double getPower(double utilization) throws IllegalArgumentException {
+		if (utilization < 0 || utilization > 1) {
+			throw new IllegalArgumentException("Utilization value must be between 0 and 1");
+		}
+		if (utilization == 0) {
+			return zeroPower;
+		}
+		return interpolate(utilization);
+	}
+
+	@Override
+	public void getPower(double[] utilizations, double[] power) throws IllegalArgumentException {
+		for (int i = 0; i < utilizations.length; i++) {
+			double utilization = utilizations[i];
+			if (utilization < 0 || utilization > 1) {
+				throw new IllegalArgumentException("Utilization value must be between 0 and 1");
+			}
+			power[i] = utilization == 0 ? zeroPower : interpolate(utilization);
+		}
+	}
+
+	/**
+	 * Interpolates the power consumption between the entries around a utilization percentage.
+	 */
+	private double interpolate(double utilization) {
+		double scaled = utilization * steps;
+		int index = (int) scaled;
+		double power1 = power[index];
+		double power2 = scaled > index ? power[index + 1] : power1;
+		double delta = (power2 - power1) / steps;
+		return power1 + delta * (utilization - (double) index / steps) * stepsSquared;
+	}
+
+	@Override
+	public PowerModelPiecewiseLinear toPiecewiseLinear(int steps) {
+		if (steps == this.steps) {
+			return this;
+		}
+		return PowerModel.super.toPiecewiseLinear(steps);
+	}
+
+	/**
+	 * Gets the number of segments of the table.
+	 *
+	 * @return the number of segments
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Gets the power consumption at the evenly spaced utilization percentages from 0 to 1.
+	 *
+	 * @return a copy of the table
+	 */
+	public double[] getPowerTable() {
+		return Arrays.copyOf(power, power.length);
+	}
+
+	/**
+	 * Gets the power consumption at 0% of utilization.
+	 *
+	 * @return the power consumption when idle
+	 */
+	public double getZeroPower() {
+		return zeroPower;
+	}
+}
@@ -26,20 +26,40 @@ package org.cloudbus.cloudsim.power.models;
  * @since CloudSim Toolkit 3.0
  */
 public abstract class PowerModelSpecPower implements PowerModel {
+
+	/** The power consumption table, compiled from the power data at the first use. */
+	private PowerModelPiecewiseLinear table;
+
 	@Override
 	public double getPower(double utilization) throws IllegalArgumentException {
-		if (utilization < 0 || utilization > 1) {
-			throw new IllegalArgumentException("Utilization value must be between 0 and 1");
-		}
-		if (utilization % 0.1 == 0) {
-			return getPowerData((int) (utilization * 10));
+		return toPiecewiseLinear().getPower(utilization);
+	}
+
+	@Override
+	public void getPower(double[] utilizations, double[] power) throws IllegalArgumentException {
+		toPiecewiseLinear().getPower(utilizations, power);
+	}
+
+	/**
+	 * Gets the power consumption table of the model, given by the power data at the
+	 * utilization percentages 0%, 10%, ..., 100%.
+	 *
+	 * @return the piecewise linear power model
+	 */
+	public PowerModelPiecewiseLinear toPiecewiseLinear() {
+		if (table == null) {
+			double[] power = new double[11];
+			for (int i = 0; i < power.length; i++) {
+				power[i] = getPowerData(i);
+			}
+			table = new PowerModelPiecewiseLinear(power);
 		}
-		int utilization1 = (int) Math.floor(utilization * 10);
-		int utilization2 = (int) Math.ceil(utilization * 10);
-		double power1 = getPowerData(utilization1);
-		double power2 = getPowerData(utilization2);
-		double delta = (power2 - power1) / 10;
-        return power1 + delta * (utilization - (double) utilization1 / 10) * 100;
+		return table;
+	}
+
+	@Override
+	public PowerModelPiecewiseLinear toPiecewiseLinear(int steps) {
+		return toPiecewiseLinear().toPiecewiseLinear(steps);
 	}
 
 	/**
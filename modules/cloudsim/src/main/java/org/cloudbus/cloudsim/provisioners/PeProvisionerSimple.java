@@ -8,11 +8,15 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 
+import org.cloudbus.cloudsim.MipsShare;
 import org.cloudbus.cloudsim.core.GuestEntity;
 
 /**
@@ -30,6 +34,45 @@ public class PeProvisionerSimple extends PeProvisioner {
          * is the list of in terms of their allocated amount of MIPS to that VM. */
 	private Map<String, List<Double>> peTable;
 
+	/**
+	 * The MIPS allocated to a VM on the PE, kept unboxed: the allocations are released and made
+	 * again every time the MIPS requested by the VMs change.
+	 */
+	private static final class AllocatedMips extends AbstractList<Double> implements RandomAccess {
+
+		private double[] mips = new double[1];
+
+		private int size;
+
+		void addMips(double value) {
+			if (size == mips.length) {
+				mips = Arrays.copyOf(mips, size * 2);
+			}
+			mips[size++] = value;
+		}
+
+		double getMips(int index) {
+			return mips[index];
+		}
+
+		@Override
+		public boolean add(Double value) {
+			addMips(value);
+			return true;
+		}
+
+		@Override
+		public Double get(int index) {
+			Objects.checkIndex(index, size);
+			return mips[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
 	/**
 	 * Instantiates a new pe provisioner simple.
 	 * 
@@ -40,7 +83,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	public PeProvisionerSimple(double availableMips) {
 		super(availableMips);
-		setPeTable(new HashMap<String, ArrayList<Double>>());
+		setPeTable(new HashMap<String, List<Double>>());
 	}
 
 	@Override
@@ -54,9 +97,12 @@ public class PeProvisionerSimple extends PeProvisioner {
 			return false;
 		}
 
-        List<Double> allocatedMips = getPeTable().computeIfAbsent(vmUid, k -> new ArrayList<>());
-
-        allocatedMips.add(mips);
+		List<Double> allocatedMips = getPeTable().computeIfAbsent(vmUid, k -> new AllocatedMips());
+		if (allocatedMips instanceof AllocatedMips primitive) {
+			primitive.addMips(mips);
+		} else {
+			allocatedMips.add(mips);
+		}
 		setAvailableMips(getAvailableMips() - mips);
 
 		return true;
@@ -65,8 +111,9 @@ public class PeProvisionerSimple extends PeProvisioner {
 	@Override
 	public boolean allocateMipsForGuest(GuestEntity guest, List<Double> mips) {
 		deallocateMipsForGuest(guest);
-		for (double _mips : mips) {
-			if (!allocateMipsForGuest(guest.getUid(), _mips)) {
+		MipsShare share = MipsShare.of(mips);
+		for (int i = 0; i < share.size(); i++) {
+			if (!allocateMipsForGuest(guest.getUid(), share.getMips(i))) {
 				return false;
 			}
 		}
@@ -84,7 +131,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	public double getAllocatedMipsForGuestByVirtualPeId(GuestEntity guest, int peId) {
 		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
 		if (allocatedMips != null && peId < allocatedMips.size()) {
-			return allocatedMips.get(peId);
+			return getMips(allocatedMips, peId);
 		}
 		return 0;
 	}
@@ -103,8 +150,8 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 		if (allocatedMips != null) {
 			double totalAllocatedMips = 0.0;
-			for (double mips : allocatedMips) {
-				totalAllocatedMips += mips;
+			for (int i = 0; i < allocatedMips.size(); i++) {
+				totalAllocatedMips += getMips(allocatedMips, i);
 			}
 			return totalAllocatedMips;
 		}
@@ -116,13 +163,23 @@ public class PeProvisionerSimple extends PeProvisioner {
 		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
 
 		if (allocatedMips != null) {
-			for (double mips : allocatedMips) {
-				setAvailableMips(getAvailableMips() + mips);
+			for (int i = 0; i < allocatedMips.size(); i++) {
+				setAvailableMips(getAvailableMips() + getMips(allocatedMips, i));
 			}
 			getPeTable().remove(guest.getUid());
 		}
 	}
 
+	/**
+	 * Gets the MIPS allocated on a virtual PE, without boxing them if they are kept unboxed.
+	 */
+	private static double getMips(List<Double> allocatedMips, int peId) {
+		if (allocatedMips instanceof AllocatedMips primitive) {
+			return primitive.getMips(peId);
+		}
+		return allocatedMips.get(peId);
+	}
+
 	/**
 	 * Gets the pe map.
 	 * 
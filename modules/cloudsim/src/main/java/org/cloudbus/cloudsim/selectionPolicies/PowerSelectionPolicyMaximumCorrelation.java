@@ -8,14 +8,18 @@
 
 package org.cloudbus.cloudsim.selectionPolicies;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.cloudbus.cloudsim.core.PowerGuestEntity;
+import org.cloudbus.cloudsim.util.HistoryStat;
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.MultipleCorrelation;
 
 /**
  * A VM selection policy that selects for migration the VM with the Maximum Correlation Coefficient (MCC) among 
@@ -41,6 +45,9 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
          * the  Maximum Correlation policy doesn't have data to be computed. */
 	private SelectionPolicy<PowerGuestEntity> fallbackPolicy;
 
+	/** The multiple correlation of the VMs of each host, as of the last selection. */
+	private final Map<Object, MultipleCorrelation> correlations = new HashMap<>();
+
 	/**
 	 * Instantiates a new PowerSelectionPolicyMaximumCorrelation.
 	 * 
@@ -59,7 +66,7 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 
 		List<Double> metrics = null;
 		try {
-			metrics = getCorrelationCoefficients(getUtilizationMatrix(candidates));
+			metrics = getCorrelationCoefficients(getUtilizationMatrix(candidates), host);
 		} catch (IllegalArgumentException e) { // the degrees of freedom must be greater than zero
 			return getFallbackPolicy().select(candidates, host, excludedCandidates);
 		}
@@ -84,19 +91,13 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 	 */
 	protected double[][] getUtilizationMatrix(final List<PowerGuestEntity> vmList) {
 		int n = vmList.size();
-                /*//@TODO It gets the min size of the history among all VMs considering
-                that different VMs can have different history sizes.
-                However, the j loop is not using the m variable
-                but the size of the vm list. If a VM list has 
-                a size greater than m, it will thow an exception.
-                It as to be included a test case for that.*/
+		// different VMs can have different history sizes, the oldest m samples of each one are taken
 		int m = getMinUtilizationHistorySize(vmList);
 		double[][] utilization = new double[n][m];
 		for (int i = 0; i < n; i++) {
-			ArrayDeque<Double> vmUtilization = vmList.get(i).getUtilizationHistory();
-			int j = 0;
-			for (double u : vmUtilization)
-				utilization[i][j++] = u;
+			HistoryStat vmUtilization = vmList.get(i).getUtilizationHistory();
+			for (int j = 0; j < m; j++)
+				utilization[i][j] = vmUtilization.get(j);
 		}
 		return utilization;
 	}
@@ -118,13 +119,66 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 		return minSize;
 	}
 
+	/**
+	 * Gets the correlation coefficients of the VMs of a host, updating the multiple correlation
+	 * of the previous selection on the same host, if any.
+	 * 
+	 * @param data the data
+	 * @param host the host
+	 * @return the correlation coefficients
+	 */
+	protected List<Double> getCorrelationCoefficients(final double[][] data, final Object host) {
+		MultipleCorrelation correlation = correlations.get(host);
+		if (correlation == null) {
+			correlation = new MultipleCorrelation(data);
+			correlations.put(host, correlation);
+		} else {
+			correlation.update(data);
+		}
+		return getCorrelationCoefficients(data, correlation);
+	}
+
+	/**
+	 * Forgets the multiple correlation of the VMs of a host, when a VM leaves the host.
+	 *
+	 * @param host the host
+	 */
+	public void removeCorrelation(final Object host) {
+		correlations.remove(host);
+	}
+
 	/**
 	 * Gets the correlation coefficients.
 	 * 
 	 * @param data the data
 	 * @return the correlation coefficients
 	 */
-    public List<Double> getCorrelationCoefficients(final double[][] data) {
+	public List<Double> getCorrelationCoefficients(final double[][] data) {
+		return getCorrelationCoefficients(data, new MultipleCorrelation(data));
+	}
+
+	/**
+	 * Gets the correlation coefficients from the multiple correlation of the data, or by fitting
+	 * a linear regression per VM if the data is singular.
+	 */
+	private List<Double> getCorrelationCoefficients(final double[][] data, final MultipleCorrelation correlation) {
+		if (correlation.isSingular() || data.length < 2) {
+			return getRegressionCoefficients(data);
+		}
+		List<Double> correlationCoefficients = new ArrayList<>(data.length);
+		for (double rSquared : correlation.getRSquared()) {
+			correlationCoefficients.add(rSquared);
+		}
+		return correlationCoefficients;
+	}
+
+	/**
+	 * Gets the correlation coefficients by fitting a linear regression per VM.
+	 * 
+	 * @param data the data
+	 * @return the correlation coefficients
+	 */
+	protected List<Double> getRegressionCoefficients(final double[][] data) {
 		int n = data.length;
 		int m = data[0].length;
 		List<Double> correlationCoefficients = new LinkedList<>();
@@ -0,0 +1,28 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+/**
+ * A selection policy that selects the candidate with the highest score, and the first one
+ * in the candidate list among the ones with the same score.
+ * Given the score of each candidate, the selection can be answered by an index instead of
+ * scanning all the candidates (see {@link org.cloudbus.cloudsim.HostIndex}).
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public interface ScoredSelectionPolicy<T> extends SelectionPolicy<T> {
+    /**
+     * Gets the score of a candidate: {@link #select} returns the candidate with the highest score.
+     *
+     * @param candidate the candidate
+     * @return the score of the candidate, or {@link Double#NEGATIVE_INFINITY} if the candidate
+     *         is never selected
+     */
+    double getScore(T candidate);
+}
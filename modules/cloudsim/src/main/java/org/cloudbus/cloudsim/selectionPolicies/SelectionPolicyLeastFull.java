@@ -19,7 +19,7 @@ import java.util.Set;
  *
  * @since CloudSim toolkit 7.0
  */
-public class SelectionPolicyLeastFull<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyLeastFull<T extends HostEntity> implements ScoredSelectionPolicy<T> {
     @Override
     public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
         double maxAvailable = 0;
@@ -30,14 +30,7 @@ public class SelectionPolicyLeastFull<T extends HostEntity> implements Selection
                 continue;
             }
 
-            //@todo: this doesn't work well if we mix powerHosts and normal Hosts because it would compare
-            //       normalized (cpu utilization) and "raw" (available mips) metrics
-            double hostAvailable;
-            if (hostCandidate instanceof PowerHost powerHost) {
-                hostAvailable = 1.0 - powerHost.getUtilizationOfCpu();
-            } else {
-                hostAvailable = hostCandidate.getGuestScheduler().getAvailableMips();
-            }
+            double hostAvailable = getAvailable(hostCandidate);
 
             if (hostAvailable > maxAvailable) {
                 maxAvailable = hostAvailable;
@@ -46,4 +39,25 @@ public class SelectionPolicyLeastFull<T extends HostEntity> implements Selection
         }
         return selectedHost;
     }
+
+    @Override
+    public double getScore(T candidate) {
+        double hostAvailable = getAvailable(candidate);
+        return hostAvailable > 0 ? hostAvailable : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Gets the capacity available on a host.
+     *
+     * @param host the host
+     * @return the available capacity
+     */
+    protected double getAvailable(T host) {
+        //@todo: this doesn't work well if we mix powerHosts and normal Hosts because it would compare
+        //       normalized (cpu utilization) and "raw" (available mips) metrics
+        if (host instanceof PowerHost powerHost) {
+            return 1.0 - powerHost.getUtilizationOfCpu();
+        }
+        return host.getGuestScheduler().getAvailableMips();
+    }
 }
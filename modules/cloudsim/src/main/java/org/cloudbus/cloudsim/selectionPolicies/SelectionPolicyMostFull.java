@@ -19,7 +19,7 @@ import java.util.Set;
  *
  * @since CloudSim toolkit 7.0
  */
-public class SelectionPolicyMostFull<T extends HostEntity> implements SelectionPolicy<T> {
+public class SelectionPolicyMostFull<T extends HostEntity> implements ScoredSelectionPolicy<T> {
     @Override
     public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
         double minAvailable = Double.MAX_VALUE;
@@ -30,14 +30,7 @@ public class SelectionPolicyMostFull<T extends HostEntity> implements SelectionP
                 continue;
             }
 
-            //@todo: this doesn't work well if we mix powerHosts and normal Hosts because it would compare
-            //       normalized (cpu utilization) and "raw" (available mips) metrics
-            double hostAvailable;
-            if (hostCandidate instanceof PowerHost powerHost) {
-                hostAvailable = 1.0 - powerHost.getUtilizationOfCpu();
-            } else {
-                hostAvailable = hostCandidate.getGuestScheduler().getAvailableMips();
-            }
+            double hostAvailable = getAvailable(hostCandidate);
 
             if (hostAvailable < minAvailable ) {
                 minAvailable = hostAvailable;
@@ -46,4 +39,25 @@ public class SelectionPolicyMostFull<T extends HostEntity> implements SelectionP
         }
         return selectedHost;
     }
+
+    @Override
+    public double getScore(T candidate) {
+        double hostAvailable = getAvailable(candidate);
+        return hostAvailable < Double.MAX_VALUE ? -hostAvailable : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Gets the capacity available on a host.
+     *
+     * @param host the host
+     * @return the available capacity
+     */
+    protected double getAvailable(T host) {
+        //@todo: this doesn't work well if we mix powerHosts and normal Hosts because it would compare
+        //       normalized (cpu utilization) and "raw" (available mips) metrics
+        if (host instanceof PowerHost powerHost) {
+            return 1.0 - powerHost.getUtilizationOfCpu();
+        }
+        return host.getGuestScheduler().getAvailableMips();
+    }
 }
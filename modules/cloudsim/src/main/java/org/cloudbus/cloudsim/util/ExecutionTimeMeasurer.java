@@ -11,6 +11,8 @@ package org.cloudbus.cloudsim.util;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
+
 /**
  * Measurement of execution times of CloudSim's methods.
  * 
@@ -19,26 +21,13 @@ import java.util.Map;
  */
 public class ExecutionTimeMeasurer {
 
-	/** A map of execution times where each key
-         * represents the name of the method/process being its
-         * execution time computed and each key is the
-         * time the method/process started (in milliseconds). 
-         * Usually, this name is the method/process name, making
-         * easy to identify the execution times into the map.
-         * 
-         * //@TODO The name of the attribute doesn't match with what it stores.
-         * It in fact stores the method/process start time,
-         * no the time it spent executing.
-         */
-	private final static Map<String, Long> executionTimes = new HashMap<>();
-
 	/**
 	 * Start measuring the execution time of a method/process.
          * Usually this method has to be called at the first line of the method
          * that has to be its execution time measured.
 	 * 
 	 * @param name the name of the method/process being measured.
-         * @see #executionTimes
+         * @see #getExecutionTimes()
 	 */
 	public static void start(String name) {
 		getExecutionTimes().put(name, System.currentTimeMillis());
@@ -49,7 +38,7 @@ public class ExecutionTimeMeasurer {
 	 * 
 	 * @param name the name of the method/process being measured.
 	 * @return the time the method/process spent in execution (in seconds)
-         * @see #executionTimes
+         * @see #getExecutionTimes()
 	 */
 	public static double end(String name) {
 		double time = (System.currentTimeMillis() - getExecutionTimes().get(name)) / 1000.0;
@@ -58,13 +47,17 @@ public class ExecutionTimeMeasurer {
 	}
 
 	/**
-	 * Gets map the execution times.
+	 * Gets map the execution times, where each key
+         * represents the name of the method/process being its
+         * execution time computed and each value is the
+         * time the method/process started (in milliseconds).
+         * The map is scoped to the current {@link SimulationContext},
+         * so that simulations running in parallel don't share measurements.
 	 * 
 	 * @return the execution times map
-         * @see #executionTimes
 	 */
 	public static Map<String, Long> getExecutionTimes() {
-		return executionTimes;
+		return SimulationContext.current().getAttribute(ExecutionTimeMeasurer.class, HashMap::new);
 	}
 
 }
@@ -1,88 +1,95 @@
 package org.cloudbus.cloudsim.util;
 
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 /**
- * Variant of ArrayDeque that provides fast computation of the mean and median of a moving window of last offer()ed samples.
- * The median uses two heaps that are not used until the first invocation of the getMedian() method.
- * 
- * @TODO The implementation needs to be completed with all methods from the ArrayDeque interface.
+ * A moving window of the last offer()ed samples, with fast computation of their mean and median.
+ * The samples are kept unboxed in a ring buffer, and sorted (see {@link WindowStatistics}): offering a
+ * sample finds its position by binary search and shifts the sorted samples in O(n) time, then the mean
+ * takes O(1) time and the median, the MAD and the IQR O(log n) time. The samples are iterated, or read by index, from the oldest to the newest one.
  */
-public class HistoryStat extends ArrayDeque<Double> {
-    private final int max_size;
+public class HistoryStat extends WindowStatistics implements Iterable<Double> {
     private double sum = 0.0;
-    private PriorityQueue<Double> lower;
-    private PriorityQueue<Double> higher;
+    private long offerCount = 0;
 
     public HistoryStat(int max_size) {
         super(max_size);
         assert(max_size >= 2);
-        this.max_size = max_size;
     }
 
-    private void enableFastMedian() {
-        lower = new PriorityQueue<>((max_size + 1) / 2, Comparator.reverseOrder());
-        higher  = new PriorityQueue<>((max_size + 1) / 2, Comparator.naturalOrder());
-        for (double val : this)
-            addHeaps(val);
+    @Override
+    public void offer(double val) {
+        if (size() == getCapacity()) {
+            sum -= get(0);
+        }
+        super.offer(val);
+        offerCount++;
+        sum += val;
     }
 
-    private void addHeaps(double val) {
-        double low = Double.MAX_VALUE;
-        if (!lower.isEmpty())
-            low = lower.peek();
-        if (val <= low) {
-            lower.add(val);
-            if (lower.size() > higher.size() + 1)
-                higher.add(lower.poll());
-        } else {
-            higher.add(val);
-            if (higher.size() > lower.size() + 1)
-                lower.add(higher.poll());
-        }
+    @Override
+    public void clear() {
+        super.clear();
+        sum = 0.0;
     }
 
-    private void delHeaps(double val) {
-        if (!lower.isEmpty() && val <= lower.peek())
-            lower.remove(val);
-        else
-            higher.remove(val);
+    public boolean isEmpty() {
+        return size() == 0;
     }
 
-    @Override
-    public boolean offer(Double val) {
-        if (size() == max_size) {
-            double oldest = poll();
-            sum -= oldest;
-            if (lower != null)
-                delHeaps(oldest);
+    /**
+     * Gets the newest sample.
+     */
+    public double getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
         }
-        boolean rv = super.offer(val);
-        sum += val;
-        if (lower != null)
-            addHeaps(val);
-        return rv;
+        return get(size() - 1);
     }
 
+    @Override
     public double getMedian() {
-        if (lower == null) {
-            enableFastMedian();
-        }
-        if (lower.isEmpty() && higher.isEmpty())
+        if (isEmpty())
             return 0.0;
-        if (lower.isEmpty() || lower.size() < higher.size())
-            return higher.peek();
-        if (higher.isEmpty() || higher.size() < lower.size())
-            return lower.peek();
-        if (lower.size() == higher.size())
-            return (lower.peek() + higher.peek()) / 2.0;
-        assert(false);
-        return 0.0;
+        return super.getMedian();
     }
 
     public double getMean() {
         return sum / size();
     }
+
+    /**
+     * Gets the maximum number of samples in the window.
+     */
+    public int getMaxSize() {
+        return getCapacity();
+    }
+
+    /**
+     * Gets the number of samples offered so far, e.g. to detect whether the window has moved.
+     */
+    public long getOfferCount() {
+        return offerCount;
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public double nextDouble() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
 }
@@ -238,6 +238,10 @@ public class MathUtil {
 	 * @return the Loess parameter estimates
 	 */
 	public static double[] getLoessParameterEstimates(final double[] y) {
+		if (y.length >= 3) {
+			// the tricube weights are all positive, so the regression is not weighted
+			return getLinearRegressionParameterEstimates(y);
+		}
 		int n = y.length;
 		double[] x = new double[n];
 		for (int i = 0; i < n; i++) {
@@ -247,6 +251,48 @@ public class MathUtil {
 				.regress().getParameterEstimates();
 	}
 
+	/**
+	 * Gets the parameter estimates (intercept and slope) of the linear regression of y against
+	 * x = 1, 2, ..., n, updating the sums in the same order as {@link SimpleRegression},
+	 * hence with the same result, but without creating any intermediate object.
+	 *
+	 * @param y the y array, with at least 3 values
+	 * @return the intercept and the slope
+	 */
+	public static double[] getLinearRegressionParameterEstimates(final double[] y) {
+		if (y.length < 3) {
+			throw new IllegalArgumentException("Not enough data to compute the regression");
+		}
+		long n = 0;
+		double sumX = 0;
+		double sumY = 0;
+		double sumXX = 0;
+		double sumXY = 0;
+		double xbar = 0;
+		double ybar = 0;
+		for (int i = 0; i < y.length; i++) {
+			double x = i + 1;
+			if (n == 0) {
+				xbar = x;
+				ybar = y[i];
+			} else {
+				double fact1 = 1.0 + n;
+				double fact2 = n / (1.0 + n);
+				double dx = x - xbar;
+				double dy = y[i] - ybar;
+				sumXX += dx * dx * fact2;
+				sumXY += dx * dy * fact2;
+				xbar += dx / fact1;
+				ybar += dy / fact1;
+			}
+			sumX += x;
+			sumY += y[i];
+			n++;
+		}
+		double slope = sumXY / sumXX;
+		return new double[] {(sumY - slope * sumX) / n, slope};
+	}
+
 	public static SimpleRegression createLinearRegression(final double[] x,
 			final double[] y) {
 		SimpleRegression regression = new SimpleRegression();
@@ -0,0 +1,399 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * The multiple correlation of each variable of a dataset with all the other ones, e.g. of
+ * the CPU utilization history of each VM of a host with the histories of the other VMs.
+ * <p>
+ * The coefficient of determination R<sup>2</sup> of variable i is the one of the linear regression,
+ * with intercept, of the variable over all the other ones. Rather than fitting a regression per variable,
+ * the inverse of the Gram matrix of the observations (with the intercept column) is computed once,
+ * and R<sup>2</sup><sub>i</sub> = 1 - 1 / (S<sub>ii</sub> (S<sup>-1</sup>)<sub>ii</sub>),
+ * S being the covariance matrix of the variables. The inverse is then kept up-to-date with rank-one
+ * (Sherman-Morrison) updates when an observation is added or removed, e.g. when the utilization
+ * histories move by one sample, and when a variable is removed.
+ * <p>
+ * If a variable is (almost) a linear combination of the other ones, the dataset is singular
+ * and the coefficients are not computed.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class MultipleCorrelation {
+
+	/**
+	 * The threshold of 1 - R<sup>2</sup> below which a variable is considered a linear
+	 * combination of the other ones.
+	 */
+	private static final double SINGULARITY_THRESHOLD = 1e-10;
+
+	/** The observations, where each line i is a variable and each column j an observation. */
+	private double[][] data;
+
+	/** The number of observations. */
+	private int m;
+
+	/** The inverse of the Gram matrix of the observations with the intercept, or null if singular. */
+	private double[][] inverse;
+
+	/** The number of rank-one updates since the inverse was last computed from scratch. */
+	private int updates;
+
+	/**
+	 * Creates the multiple correlation of a dataset.
+	 *
+	 * @param data the observations, where each line i is a variable and each column j an observation
+	 */
+	public MultipleCorrelation(double[][] data) {
+		setData(data);
+	}
+
+	/**
+	 * Gets the number of variables.
+	 *
+	 * @return the number of variables
+	 */
+	public int getVariableCount() {
+		return data.length;
+	}
+
+	/**
+	 * Gets the number of observations.
+	 *
+	 * @return the number of observations
+	 */
+	public int getObservationCount() {
+		return m;
+	}
+
+	/**
+	 * Checks whether a variable is a linear combination of the other ones, in which case
+	 * the coefficients of determination are not computed.
+	 *
+	 * @return true if the dataset is singular
+	 */
+	public boolean isSingular() {
+		return inverse == null;
+	}
+
+	/**
+	 * Moves to a new dataset, updating the inverse if the new dataset differs from the current one
+	 * by an observation added at the end, by the oldest observation moved out for one added at the end,
+	 * or by a removed variable. Otherwise, the inverse is computed from scratch.
+	 *
+	 * @param newData the observations, where each line i is a variable and each column j an observation
+	 */
+	public void update(double[][] newData) {
+		int n = data.length;
+		int newM = newData.length == 0 ? 0 : newData[0].length;
+		if (isSingular() || updates >= m) {
+			setData(newData);
+		} else if (newData.length == n && newM == m && matches(newData, 0, 0, -1, m)) {
+			// unchanged
+		} else if (newData.length == n && newM == m && matches(newData, 1, 0, -1, m - 1)) {
+			double[] removed = getObservation(data, 0);
+			double[] added = getObservation(newData, m - 1);
+			shift(newData, m);
+			updateObservation(added, 1);
+			updateObservation(removed, -1);
+			checkInverse();
+		} else if (newData.length == n && newM == m + 1 && matches(newData, 0, 0, -1, m)) {
+			double[] added = getObservation(newData, m);
+			shift(newData, m + 1);
+			updateObservation(added, 1);
+			checkInverse();
+		} else if (newData.length == n - 1 && newM == m && n > 1 && findRemovedVariable(newData) >= 0) {
+			removeVariable(findRemovedVariable(newData));
+			checkInverse();
+		} else {
+			setData(newData);
+		}
+	}
+
+	/**
+	 * Gets the coefficient of determination R<sup>2</sup> of each variable over all the other ones.
+	 *
+	 * @return the coefficients of determination
+	 * @throws IllegalStateException if the dataset is singular
+	 */
+	public double[] getRSquared() {
+		double[] rSquared = new double[data.length];
+		for (int i = 0; i < data.length; i++) {
+			rSquared[i] = getRSquared(i);
+		}
+		return rSquared;
+	}
+
+	/**
+	 * Gets the coefficient of determination R<sup>2</sup> of a variable over all the other ones.
+	 *
+	 * @param i the variable
+	 * @return the coefficient of determination
+	 * @throws IllegalStateException if the dataset is singular
+	 */
+	public double getRSquared(int i) {
+		if (isSingular()) {
+			throw new IllegalStateException("The dataset is singular");
+		}
+		// the residual sum of squares of the regression of i over the other variables is 1 / inverse[i][i]
+		return 1 - 1 / (inverse[i + 1][i + 1] * getTotalSumOfSquares(i));
+	}
+
+	/**
+	 * Gets the sum of the squared deviations of a variable from its mean.
+	 */
+	private double getTotalSumOfSquares(int i) {
+		double mean = 0;
+		for (int j = 0; j < m; j++) {
+			mean += data[i][j];
+		}
+		mean /= m;
+		double sum = 0;
+		for (int j = 0; j < m; j++) {
+			double deviation = data[i][j] - mean;
+			sum += deviation * deviation;
+		}
+		return sum;
+	}
+
+	/**
+	 * Copies a dataset and computes the inverse from scratch.
+	 */
+	private void setData(double[][] newData) {
+		int n = newData.length;
+		m = n == 0 ? 0 : newData[0].length;
+		data = new double[n][];
+		for (int i = 0; i < n; i++) {
+			data[i] = Arrays.copyOf(newData[i], m);
+		}
+		updates = 0;
+		inverse = n == 0 || m <= n ? null : computeInverse();
+	}
+
+	/**
+	 * Computes the inverse of the Gram matrix of [1, x] from the inverse of the covariance matrix,
+	 * its Schur complement, or returns null if the latter is singular.
+	 */
+	private double[][] computeInverse() {
+		int n = data.length;
+		double[] mean = new double[n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				mean[i] += data[i][j];
+			}
+			mean[i] /= m;
+		}
+		double[][] covariance = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int k = 0; k <= i; k++) {
+				double sum = 0;
+				for (int j = 0; j < m; j++) {
+					sum += (data[i][j] - mean[i]) * (data[k][j] - mean[k]);
+				}
+				covariance[i][k] = sum;
+				covariance[k][i] = sum;
+			}
+		}
+
+		// Cholesky decomposition, covariance = l * l^T
+		double[][] l = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int k = 0; k <= i; k++) {
+				double sum = covariance[i][k];
+				for (int p = 0; p < k; p++) {
+					sum -= l[i][p] * l[k][p];
+				}
+				if (i == k) {
+					if (!(sum > SINGULARITY_THRESHOLD * covariance[i][i])) {
+						return null;
+					}
+					l[i][i] = Math.sqrt(sum);
+				} else {
+					l[i][k] = sum / l[k][k];
+				}
+			}
+		}
+		// the inverse of l, lower triangular
+		double[][] lInverse = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			lInverse[i][i] = 1 / l[i][i];
+			for (int k = 0; k < i; k++) {
+				double sum = 0;
+				for (int p = k; p < i; p++) {
+					sum -= l[i][p] * lInverse[p][k];
+				}
+				lInverse[i][k] = sum / l[i][i];
+			}
+		}
+
+		double[][] result = new double[n + 1][n + 1];
+		for (int i = 0; i < n; i++) {
+			for (int k = 0; k <= i; k++) {
+				double sum = 0;
+				for (int p = i; p < n; p++) {
+					sum += lInverse[p][i] * lInverse[p][k];
+				}
+				result[i + 1][k + 1] = sum;
+				result[k + 1][i + 1] = sum;
+			}
+		}
+		double corner = 1.0 / m;
+		for (int i = 0; i < n; i++) {
+			double sum = 0;
+			for (int k = 0; k < n; k++) {
+				sum += result[i + 1][k + 1] * mean[k];
+			}
+			result[0][i + 1] = -sum;
+			result[i + 1][0] = -sum;
+			corner += sum * mean[i];
+		}
+		result[0][0] = corner;
+		return isRegular(result) ? result : null;
+	}
+
+	/**
+	 * Checks that the coefficients of determination of an inverse are all below the singularity threshold.
+	 */
+	private boolean isRegular(double[][] candidate) {
+		for (int i = 0; i < data.length; i++) {
+			// inverse[i][i] * total sum of squares is 1 / (1 - R^2)
+			if (!(candidate[i + 1][i + 1] * getTotalSumOfSquares(i) * SINGULARITY_THRESHOLD < 1)
+					|| candidate[i + 1][i + 1] <= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the inverse from scratch if the updated one lost its accuracy.
+	 */
+	private void checkInverse() {
+		if (inverse == null || !isRegular(inverse)) {
+			setData(data);
+		}
+	}
+
+	/**
+	 * Checks whether the columns [from, from + length) of the new data match the columns
+	 * [to, to + length) of the current one, skipping a variable of the current data.
+	 */
+	private boolean matches(double[][] newData, int from, int to, int skipped, int length) {
+		for (int i = 0, k = 0; i < data.length; i++) {
+			if (i == skipped) {
+				continue;
+			}
+			if (!Arrays.equals(data[i], from, from + length, newData[k++], to, to + length)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the variable of the current data that is missing from the new one, or -1.
+	 */
+	private int findRemovedVariable(double[][] newData) {
+		int n = data.length;
+		int k = 0;
+		while (k < n - 1 && Arrays.equals(data[k], newData[k])) {
+			k++;
+		}
+		return matches(newData, 0, 0, k, m) ? k : -1;
+	}
+
+	/**
+	 * Gets the observation [1, x] of a column, with the intercept.
+	 */
+	private static double[] getObservation(double[][] data, int column) {
+		double[] z = new double[data.length + 1];
+		z[0] = 1;
+		for (int i = 0; i < data.length; i++) {
+			z[i + 1] = data[i][column];
+		}
+		return z;
+	}
+
+	/**
+	 * Replaces the current observations with the new ones.
+	 */
+	private void shift(double[][] newData, int newM) {
+		for (int i = 0; i < data.length; i++) {
+			data[i] = Arrays.copyOf(newData[i], newM);
+		}
+		m = newM;
+	}
+
+	/**
+	 * Adds (sign 1) or removes (sign -1) an observation from the inverse, by the Sherman-Morrison formula.
+	 */
+	private void updateObservation(double[] z, int sign) {
+		if (inverse == null) {
+			return;
+		}
+		int size = z.length;
+		double[] u = new double[size];
+		double denominator = 1;
+		for (int i = 0; i < size; i++) {
+			double sum = 0;
+			for (int k = 0; k < size; k++) {
+				sum += inverse[i][k] * z[k];
+			}
+			u[i] = sum;
+			denominator += sign * sum * z[i];
+		}
+		if (!(denominator > SINGULARITY_THRESHOLD)) {
+			inverse = null;
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			double factor = sign * u[i] / denominator;
+			for (int k = 0; k < size; k++) {
+				inverse[i][k] -= factor * u[k];
+			}
+		}
+		updates++;
+	}
+
+	/**
+	 * Removes a variable, whose inverse is the Schur complement of its entry in the current inverse.
+	 */
+	private void removeVariable(int variable) {
+		int removed = variable + 1;
+		int size = inverse.length;
+		double pivot = inverse[removed][removed];
+		double[][] result = new double[size - 1][size - 1];
+		for (int i = 0, ri = 0; i < size; i++) {
+			if (i == removed) {
+				continue;
+			}
+			double factor = inverse[i][removed] / pivot;
+			for (int k = 0, rk = 0; k < size; k++) {
+				if (k == removed) {
+					continue;
+				}
+				result[ri][rk++] = inverse[i][k] - factor * inverse[removed][k];
+			}
+			ri++;
+		}
+		inverse = result;
+
+		double[][] newData = new double[data.length - 1][];
+		for (int i = 0, k = 0; i < data.length; i++) {
+			if (i != variable) {
+				newData[k++] = data[i];
+			}
+		}
+		data = newData;
+		updates++;
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * The statistics of a sliding window of the last offered samples, e.g. the CPU utilization
+ * history of a host, updated in place as each new sample is offered.
+ * <p>
+ * Besides the samples in arrival order, the window keeps them sorted, so that the median,
+ * the Median Absolute Deviation (MAD) and the Interquartile Range (IQR) are found in O(log n) time
+ * without allocation. The results are exactly the ones of {@link MathUtil#median(double[])},
+ * {@link MathUtil#mad(double[])} and {@link MathUtil#iqr(double[])} for the samples of the window.
+ * <p>
+ * The sorted samples are a plain array: offering a sample finds its position, and the one of the
+ * evicted sample, by binary search, but shifts the array in O(n) time. This is a deliberate choice
+ * for the small windows of the utilization histories (e.g. 30 samples), where the shift is a single
+ * short {@link System#arraycopy} and beats the pointer chasing of an indexable tree or skip list.
+ * Windows of thousands of samples would rather need such a structure.
+ *
+ * @author agent
+ * @since CloudSim Toolkit 7.0.1
+ */
+public class WindowStatistics {
+
+	/** The samples, in a ring buffer starting from the oldest one. */
+	private final double[] samples;
+
+	/** The samples, sorted in ascending order. */
+	private final double[] sorted;
+
+	/** The position of the oldest sample in {@link #samples}. */
+	private int head;
+
+	/** The number of samples in the window. */
+	private int size;
+
+	/** The number of samples up to the last one different from zero. */
+	private int nonZeroLength;
+
+	/**
+	 * Creates an empty window.
+	 *
+	 * @param capacity the maximum number of samples in the window
+	 */
+	public WindowStatistics(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity of the window must be positive");
+		}
+		samples = new double[capacity];
+		sorted = new double[capacity];
+	}
+
+	/**
+	 * Creates a window of the given samples.
+	 *
+	 * @param data the samples, starting from the oldest one
+	 */
+	public WindowStatistics(double[] data) {
+		this(Math.max(1, data.length));
+		for (double sample : data) {
+			offer(sample);
+		}
+	}
+
+	/**
+	 * Adds a sample to the window, removing the oldest one if the window is full.
+	 * This takes O(n) time, see the class description.
+	 *
+	 * @param sample the sample
+	 */
+	public void offer(double sample) {
+		if (size == samples.length) {
+			remove(samples[head]);
+			head = (head + 1) % samples.length;
+			size--;
+			nonZeroLength = Math.max(0, nonZeroLength - 1);
+		}
+		samples[(head + size) % samples.length] = sample;
+		int position = Arrays.binarySearch(sorted, 0, size, sample);
+		if (position < 0) {
+			position = -position - 1;
+		}
+		System.arraycopy(sorted, position, sorted, position + 1, size - position);
+		sorted[position] = sample;
+		size++;
+		if (sample != 0) {
+			nonZeroLength = size;
+		}
+	}
+
+	/**
+	 * Removes a value from the sorted samples.
+	 */
+	private void remove(double sample) {
+		int position = Arrays.binarySearch(sorted, 0, size, sample);
+		System.arraycopy(sorted, position + 1, sorted, position, size - position - 1);
+	}
+
+	/**
+	 * Removes all the samples.
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+		nonZeroLength = 0;
+	}
+
+	/**
+	 * Gets the number of samples in the window.
+	 *
+	 * @return the number of samples
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the maximum number of samples in the window.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return samples.length;
+	}
+
+	/**
+	 * Gets a sample of the window.
+	 *
+	 * @param index the index of the sample, 0 being the oldest one
+	 * @return the sample
+	 */
+	public double get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return samples[(head + index) % samples.length];
+	}
+
+	/**
+	 * Gets the samples of the window.
+	 *
+	 * @return a new array of the samples, starting from the oldest one
+	 */
+	public double[] toArray() {
+		double[] data = new double[size];
+		for (int i = 0; i < size; i++) {
+			data[i] = get(i);
+		}
+		return data;
+	}
+
+	/**
+	 * Counts the samples up to the last one different from zero,
+	 * as {@link MathUtil#countNonZeroBeginning(double[])}.
+	 *
+	 * @return the number of samples up to the last one different from zero
+	 */
+	public int countNonZeroBeginning() {
+		return Math.max(1, nonZeroLength);
+	}
+
+	/**
+	 * Gets the median of the samples.
+	 *
+	 * @return the median, or NaN if the window is empty
+	 */
+	public double getMedian() {
+		if (size == 0) {
+			return Double.NaN;
+		}
+		// the legacy estimation of Percentile, as in MathUtil.median
+		double position = 0.5 * (size + 1);
+		int intPosition = (int) Math.floor(position);
+		if (intPosition >= size) {
+			return sorted[size - 1];
+		}
+		double lower = sorted[intPosition - 1];
+		double upper = sorted[intPosition];
+		return lower + (position - intPosition) * (upper - lower);
+	}
+
+	/**
+	 * Gets the Median Absolute Deviation (MAD) of the samples.
+	 *
+	 * @return the MAD, or 0 if the window is empty
+	 */
+	public double getMad() {
+		if (size == 0) {
+			return 0;
+		}
+		double median = getMedian();
+		// the deviations of the samples lower than the median, and of the others, are both sorted
+		int split = lowerBound(median);
+		double position = 0.5 * (size + 1);
+		int intPosition = (int) Math.floor(position);
+		if (intPosition >= size) {
+			return getDeviation(median, split, size - 1);
+		}
+		double lower = getDeviation(median, split, intPosition - 1);
+		double upper = getDeviation(median, split, intPosition);
+		return lower + (position - intPosition) * (upper - lower);
+	}
+
+	/**
+	 * Gets the k-th smallest absolute deviation from the median, merging by binary search
+	 * the deviations of the samples before the split (in reverse order) and after it.
+	 */
+	private double getDeviation(double median, int split, int k) {
+		int low = Math.max(0, k + 1 - (size - split));
+		int high = Math.min(k + 1, split);
+		while (low < high) {
+			int i = (low + high) >>> 1;
+			int j = k + 1 - i;
+			if (median - sorted[split - 1 - i] < sorted[split + j - 1] - median) {
+				low = i + 1;
+			} else {
+				high = i;
+			}
+		}
+		int j = k + 1 - low;
+		double deviation = Double.NEGATIVE_INFINITY;
+		if (low > 0) {
+			deviation = median - sorted[split - low];
+		}
+		if (j > 0) {
+			deviation = Math.max(deviation, sorted[split + j - 1] - median);
+		}
+		return deviation;
+	}
+
+	/**
+	 * Gets the position of the first sorted sample not lower than a value.
+	 */
+	private int lowerBound(double value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] < value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gets the Interquartile Range (IQR) of the samples.
+	 *
+	 * @return the IQR
+	 */
+	public double getIqr() {
+		int q1 = (int) Math.round(0.25 * (size + 1)) - 1;
+		int q3 = (int) Math.round(0.75 * (size + 1)) - 1;
+		if (q1 < 0 || q3 >= size) {
+			throw new IndexOutOfBoundsException(size);
+		}
+		return sorted[q3] - sorted[q1];
+	}
+}
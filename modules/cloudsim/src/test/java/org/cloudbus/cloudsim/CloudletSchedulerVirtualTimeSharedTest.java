@@ -0,0 +1,137 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class CloudletSchedulerVirtualTimeSharedTest {
+
+	private static final int CLOUDLETS = 200;
+
+	private static final double[] ARRIVALS = new double[CLOUDLETS];
+
+	private static final long[] LENGTHS = new long[CLOUDLETS];
+
+	private static final int[] PES = new int[CLOUDLETS];
+
+	static {
+		Random random = new Random(11);
+		for (int i = 0; i < CLOUDLETS; i++) {
+			ARRIVALS[i] = i < 20 ? 0 : Math.round(random.nextDouble() * 5000) / 10.0;
+			LENGTHS[i] = 1000 + random.nextInt(50000);
+			PES[i] = 1 + random.nextInt(2);
+		}
+		Arrays.sort(ARRIVALS);
+	}
+
+	/** The MIPS of each of the 4 PEs of the VM, which change over time. */
+	private static List<Double> mipsShare(double time) {
+		double mips = time < 100 ? 1000 : time < 300 ? 500 : 2000;
+		return new ArrayList<>(List.of(mips, mips, mips, mips));
+	}
+
+	/** The lowest MIPS capacity of a PE observed while running the cloudlets. */
+	private double minCapacity = Double.MAX_VALUE;
+
+	/**
+	 * Runs the cloudlets on a scheduler, returning their finish times by id.
+	 */
+	private Map<Integer, Double> run(CloudletScheduler scheduler) {
+		Map<Integer, Double> finishTimes = new HashMap<>();
+		double[] changes = {100, 300};
+		double nextEvent = Double.MAX_VALUE;
+		int nextArrival = 0;
+		int nextChange = 0;
+
+		while (true) {
+			double time = Math.min(nextEvent, Math.min(
+					nextArrival < CLOUDLETS ? ARRIVALS[nextArrival] : Double.MAX_VALUE,
+					nextChange < changes.length ? changes[nextChange] : Double.MAX_VALUE));
+			if (time == Double.MAX_VALUE) {
+				break;
+			}
+			scheduler.updateCloudletsProcessing(time, mipsShare(time));
+			while (nextChange < changes.length && changes[nextChange] <= time) {
+				nextChange++;
+			}
+			for (; nextArrival < CLOUDLETS && ARRIVALS[nextArrival] <= time; nextArrival++) {
+				Cloudlet cl = new Cloudlet(nextArrival, LENGTHS[nextArrival], PES[nextArrival], 0, 0,
+						new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+				cl.setResourceParameter(0, 0, 0);
+				scheduler.cloudletSubmit(cl);
+			}
+			while (scheduler.isFinishedCloudlets()) {
+				Cloudlet cl = scheduler.getNextFinishedCloudlet();
+				assertEquals(Cloudlet.CloudletStatus.SUCCESS, cl.getStatus());
+				assertNull(finishTimes.put(cl.getCloudletId(), time));
+			}
+			// the submitted cloudlets change the capacity
+			nextEvent = scheduler.updateCloudletsProcessing(time, mipsShare(time));
+			minCapacity = Math.min(minCapacity, scheduler.getCurrentCapacity());
+			if (nextEvent == 0) {
+				nextEvent = Double.MAX_VALUE;
+			}
+		}
+		return finishTimes;
+	}
+
+	@Test
+	public void testFinishTimesMatchTimeShared() {
+		Map<Integer, Double> expected = run(new CloudletSchedulerTimeShared());
+		Map<Integer, Double> actual = run(new CloudletSchedulerVirtualTimeShared());
+
+		assertEquals(CLOUDLETS, expected.size());
+		assertEquals(expected.keySet(), actual.keySet());
+		// a cloudlet finishes once less than 1 MI is left, so the finish times can differ by
+		// the time needed to execute 1 MI
+		double tolerance = 1 / minCapacity;
+		for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey()), tolerance, "cloudlet " + entry.getKey());
+		}
+	}
+
+	@Test
+	public void testPauseAndResume() {
+		CloudletSchedulerVirtualTimeShared scheduler = new CloudletSchedulerVirtualTimeShared();
+		List<Double> mips = new ArrayList<>(List.of(1000.0));
+		scheduler.updateCloudletsProcessing(0, mips);
+
+		Cloudlet cl = new Cloudlet(0, 10000, 1, 0, 0,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		cl.setResourceParameter(0, 0, 0);
+		scheduler.cloudletSubmit(cl);
+		assertEquals(10, scheduler.updateCloudletsProcessing(0, new ArrayList<>(mips)), 0.01);
+
+		assertEquals(10, scheduler.updateCloudletsProcessing(4, new ArrayList<>(mips)), 0.01);
+		assertTrue(scheduler.cloudletPause(0));
+		assertEquals(6000, cl.getRemainingCloudletLength());
+		assertEquals(0, scheduler.getPesInUse());
+		assertEquals(0, scheduler.updateCloudletsProcessing(5, new ArrayList<>(mips)));
+
+		// it resumes from where it was paused
+		scheduler.cloudletResume(0);
+		assertEquals(11, scheduler.updateCloudletsProcessing(5, new ArrayList<>(mips)), 0.01);
+		assertEquals(0, scheduler.updateCloudletsProcessing(11, new ArrayList<>(mips)));
+		assertSame(cl, scheduler.getNextFinishedCloudlet());
+		assertEquals(Cloudlet.CloudletStatus.SUCCESS, cl.getStatus());
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class DatacenterBrokerBatchTest {
+
+	private static final int HOSTS = 20;
+
+	private static final int VMS = 50;
+
+	/** The number of batch acks received by the broker of the last simulation. */
+	private int batchAcks;
+
+	/**
+	 * Runs a simulation, returning the host id of each VM followed by the finish time of each cloudlet.
+	 */
+	private Map<String, Double> runSimulation(boolean batching) throws Exception {
+		return new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<Host> hostList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				List<Pe> peList = new ArrayList<>();
+				peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+				peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+				hostList.add(new Host(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+						peList, new VmSchedulerTimeShared(peList)));
+			}
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			new Datacenter("Datacenter_0", characteristics, new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+
+			batchAcks = 0;
+			Map<String, Double> result = new HashMap<>();
+			DatacenterBroker broker = new DatacenterBroker("Broker") {
+				@Override
+				protected void processVmCreateBatchAck(SimEvent ev) {
+					batchAcks++;
+					super.processVmCreateBatchAck(ev);
+				}
+
+				@Override
+				protected void processVmCreateResult(int datacenterId, int vmId, int created) {
+					super.processVmCreateResult(datacenterId, vmId, created);
+					if (created == CloudSimTags.TRUE) {
+						result.put("vm " + vmId, (double) getGuestsCreatedList().getLast().getHost().getId());
+					}
+				}
+			};
+			broker.setVmCreationBatching(batching);
+			List<Vm> vmList = new ArrayList<>();
+			for (int i = 0; i < VMS; i++) {
+				// more VMs than the hosts can run
+				vmList.add(new Vm(i, broker.getId(), 500 * (1 + i % 3), 1, 512, 1000, 10000, "Xen",
+						new CloudletSchedulerTimeShared()));
+			}
+			broker.submitGuestList(vmList);
+
+			List<Cloudlet> cloudletList = new ArrayList<>();
+			for (int i = 0; i < VMS; i++) {
+				Cloudlet cloudlet = new Cloudlet(i, 10000L * (1 + i % 5), 1, 300, 300,
+						new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+				cloudlet.setUserId(broker.getId());
+				cloudletList.add(cloudlet);
+			}
+			broker.submitCloudletList(cloudletList);
+
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+
+			for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+				result.put("cloudlet " + cloudlet.getCloudletId(), cloudlet.getExecFinishTime());
+			}
+			return result;
+		});
+	}
+
+	@Test
+	public void testBatchingDoesNotChangeResults() throws Exception {
+		Map<String, Double> expected = runSimulation(false);
+		assertEquals(0, batchAcks);
+		Map<String, Double> actual = runSimulation(true);
+		assertEquals(1, batchAcks);
+
+		long createdVms = expected.keySet().stream().filter(key -> key.startsWith("vm ")).count();
+		assertTrue(createdVms > 0 && createdVms < VMS, createdVms + " VMs created");
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testBatchIsAcknowledgedToEachUser() throws Exception {
+		Map<String, int[]> acks = new HashMap<>();
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<Host> hostList = new ArrayList<>();
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			Datacenter datacenter = new Datacenter("Datacenter_0", characteristics,
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+
+			List<SimEntity> users = new ArrayList<>();
+			for (String name : List.of("User0", "User1")) {
+				users.add(new SimEntity(name) {
+					@Override
+					public void startEntity() {
+					}
+
+					@Override
+					public void processEvent(SimEvent ev) {
+						if (ev.getTag() == CloudActionTags.VM_CREATE_BATCH) {
+							acks.put(getName(), (int[]) ev.getData());
+						}
+					}
+
+					@Override
+					public void shutdownEntity() {
+					}
+				});
+			}
+
+			// a batch mixing the VMs of two users, the third VM not fitting in the host
+			List<GuestEntity> batch = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				batch.add(new Vm(i, users.get(i % 2).getId(), 1000, 1, 512, 1000, 10000, "Xen",
+						new CloudletSchedulerTimeShared()));
+			}
+			CloudSim.send(users.getFirst().getId(), datacenter.getId(), 0, CloudActionTags.VM_CREATE_BATCH, batch);
+
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+			return null;
+		});
+
+		assertEquals(2, acks.size());
+		int[] user0 = acks.get("User0");
+		assertEquals(5, user0.length);
+		assertEquals(0, user0[1]);
+		assertEquals(CloudSimTags.TRUE, user0[2]);
+		assertEquals(2, user0[3]);
+		assertEquals(CloudSimTags.FALSE, user0[4]);
+		assertArrayEquals(new int[] {user0[0], 1, CloudSimTags.TRUE}, acks.get("User1"));
+	}
+}
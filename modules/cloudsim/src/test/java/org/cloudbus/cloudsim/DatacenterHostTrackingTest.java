@@ -0,0 +1,145 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class DatacenterHostTrackingTest {
+
+	private static final int HOSTS = 100;
+
+	private static final int CLOUDLETS = 30;
+
+	/** The number of host updates of the last simulation. */
+	private int hostUpdates;
+
+	private Map<Integer, Double> runSimulation(boolean hostTracking) throws Exception {
+		return runSimulation(hostTracking, false);
+	}
+
+	private Map<Integer, Double> runSimulation(boolean hostTracking, boolean reverseHosts) throws Exception {
+		return new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<Host> hostList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				List<Pe> peList = new ArrayList<>();
+				peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+				hostList.add(new Host(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+						peList, new VmSchedulerTimeShared(peList)) {
+					@Override
+					public double updateCloudletsProcessing(double currentTime) {
+						hostUpdates++;
+						return super.updateCloudletsProcessing(currentTime);
+					}
+				});
+			}
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			Datacenter datacenter = new Datacenter("Datacenter_0", characteristics,
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+			datacenter.setHostTracking(hostTracking);
+
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			List<Vm> vmList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				vmList.add(new Vm(i, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+			}
+			broker.submitGuestList(vmList);
+
+			List<Cloudlet> cloudletList = new ArrayList<>();
+			for (int i = 0; i < CLOUDLETS; i++) {
+				Cloudlet cloudlet = new Cloudlet(i, 10000L * (1 + i % 7), 1, 300, 300,
+						new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+				cloudlet.setUserId(broker.getId());
+				cloudlet.setGuestId((i * 7) % HOSTS);
+				cloudletList.add(cloudlet);
+			}
+			broker.submitCloudletList(cloudletList);
+
+			if (reverseHosts) {
+				// reorder the host list in place while the cloudlets are running
+				new SimEntity("HostListReverser") {
+					@Override
+					public void startEntity() {
+						schedule(getId(), 5, CloudActionTags.BLANK);
+					}
+
+					@Override
+					public void processEvent(SimEvent ev) {
+						Collections.reverse(hostList);
+					}
+
+					@Override
+					public void shutdownEntity() {
+					}
+				};
+			}
+
+			hostUpdates = 0;
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+
+			Map<Integer, Double> finishTimes = new HashMap<>();
+			for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+				finishTimes.put(cloudlet.getCloudletId(), cloudlet.getExecFinishTime());
+			}
+			return finishTimes;
+		});
+	}
+
+	@Test
+	public void testHostTrackingDoesNotChangeResults() throws Exception {
+		Map<Integer, Double> expected = runSimulation(false);
+		int allUpdates = hostUpdates;
+		Map<Integer, Double> actual = runSimulation(true);
+
+		assertEquals(CLOUDLETS, expected.size());
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey()), 1e-9, "cloudlet " + entry.getKey());
+		}
+		// only the hosts running cloudlets are updated after the start-up
+		assertTrue(hostUpdates < allUpdates / 3, hostUpdates + " updates, " + allUpdates + " without tracking");
+	}
+
+	@Test
+	public void testHostListReorderedInPlace() throws Exception {
+		Map<Integer, Double> expected = runSimulation(false, true);
+		Map<Integer, Double> actual = runSimulation(true, true);
+
+		assertEquals(CLOUDLETS, expected.size());
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), actual.get(entry.getKey()), 1e-9, "cloudlet " + entry.getKey());
+		}
+	}
+}
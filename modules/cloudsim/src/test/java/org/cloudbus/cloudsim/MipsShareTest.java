@@ -0,0 +1,69 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class MipsShareTest {
+
+	@Test
+	public void testListView() {
+		List<Double> list = new ArrayList<>(List.of(250.0, 0.0, 500.0));
+		MipsShare share = MipsShare.of(list);
+
+		assertEquals(list, share);
+		assertEquals(list.hashCode(), share.hashCode());
+		assertEquals(750, share.getTotal());
+		assertEquals(500, share.getMax());
+		assertEquals(0.0, share.getMips(1));
+		assertSame(share, MipsShare.of(share));
+		assertThrows(UnsupportedOperationException.class, () -> share.add(1.0));
+
+		// the source list is copied
+		list.set(0, 1000.0);
+		assertEquals(250, share.getMips(0));
+	}
+
+	@Test
+	public void testPositiveAndConcat() {
+		MipsShare share = MipsShare.of(250, 0, 500);
+		MipsShare positive = share.positive();
+		assertEquals(List.of(250.0, 500.0), positive);
+		assertEquals(750, positive.getTotal());
+		assertSame(positive, positive.positive());
+		assertSame(MipsShare.EMPTY, MipsShare.uniform(0, 3).positive());
+
+		MipsShare concat = share.concat(MipsShare.uniform(100, 2));
+		assertEquals(List.of(250.0, 0.0, 500.0, 100.0, 100.0), concat);
+		assertEquals(950, concat.getTotal());
+		assertSame(share, share.concat(MipsShare.EMPTY));
+	}
+
+	@Test
+	public void testCloudletSchedulerIgnoresPesWithoutMips() {
+		CloudletSchedulerTimeShared scheduler = new CloudletSchedulerTimeShared();
+		MipsShare share = MipsShare.of(1000, 0, 1000);
+		scheduler.updateCloudletsProcessing(0, share);
+
+		assertEquals(2, scheduler.getCurrentPEs());
+		assertEquals(1000, scheduler.getCurrentCapacity());
+		assertEquals(2000, scheduler.getCurrentRequestedTotalMips());
+		// the share isn't modified
+		assertEquals(3, share.size());
+	}
+}
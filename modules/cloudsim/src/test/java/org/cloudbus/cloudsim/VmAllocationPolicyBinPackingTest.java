@@ -0,0 +1,115 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class VmAllocationPolicyBinPackingTest {
+
+	/**
+	 * Creates the hosts, one for each MIPS capacity, and the policy in a new datacenter,
+	 * then places the VMs requesting the given MIPS; returns the host id of each VM, or -1.
+	 */
+	private static List<Integer> place(double[] hostMips, double[] vmMips,
+			Function<List<Host>, VmAllocationPolicy> policyFactory) throws Exception {
+		return new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<Host> hostList = new ArrayList<>();
+			for (double mips : hostMips) {
+				List<Pe> peList = new ArrayList<>();
+				peList.add(new Pe(0, new PeProvisionerSimple(mips)));
+				hostList.add(new Host(hostList.size(), new RamProvisionerSimple(16384), new BwProvisionerSimple(100000),
+						1000000, peList, new VmSchedulerTimeShared(peList)));
+			}
+			VmAllocationPolicy policy = policyFactory.apply(hostList);
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			new Datacenter("Datacenter_0", characteristics, policy, new LinkedList<>(), 0);
+
+			List<Vm> vmList = new ArrayList<>();
+			for (double mips : vmMips) {
+				vmList.add(new Vm(vmList.size(), 0, mips, 1, 128, 100, 1000, "Xen", new CloudletSchedulerTimeShared()));
+			}
+			boolean[] result = policy.allocateHostsForGuests(vmList);
+
+			List<Integer> placement = new ArrayList<>();
+			for (int i = 0; i < vmList.size(); i++) {
+				assertEquals(result[i], vmList.get(i).getHost() != null);
+				placement.add(result[i] ? vmList.get(i).getHost().getId() : -1);
+			}
+			return placement;
+		});
+	}
+
+	@Test
+	public void testFirstFitDecreasing() throws Exception {
+		double[] hosts = {2000, 2000, 2000};
+		double[] vms = {600, 600, 1400, 1400};
+		// one VM at a time, in the order of the list, a third host is needed
+		assertEquals(List.of(0, 0, 1, 2), place(hosts, vms, VmAllocationPolicySimpler::new));
+		assertEquals(List.of(0, 1, 0, 1), place(hosts, vms, hostList -> new VmAllocationPolicyBinPacking(hostList, false)));
+	}
+
+	@Test
+	public void testBestFitDecreasing() throws Exception {
+		double[] hosts = {2000, 1000, 1500};
+		double[] vms = {500, 1000, 1500};
+		assertEquals(List.of(0, 1, 0), place(hosts, vms, hostList -> new VmAllocationPolicyBinPacking(hostList, false)));
+		assertEquals(List.of(0, 1, 2), place(hosts, vms, hostList -> new VmAllocationPolicyBinPacking(hostList, true)));
+		assertEquals(List.of(-1), place(hosts, new double[]{2500}, hostList -> new VmAllocationPolicyBinPacking(hostList, true)));
+	}
+
+	@Test
+	public void testParallelScoringMatchesScan() throws Exception {
+		Random random = new Random(5);
+		double[] hosts = new double[300];
+		for (int i = 0; i < hosts.length; i++) {
+			hosts[i] = 1000 * (1 + random.nextInt(4));
+		}
+		double[] vms = new double[1200];
+		for (int i = 0; i < vms.length; i++) {
+			vms[i] = 100 * (1 + random.nextInt(15));
+		}
+		double[] sortedVms = vms.clone();
+		Arrays.sort(sortedVms);
+		for (int i = 0; i < sortedVms.length / 2; i++) {
+			double vm = sortedVms[i];
+			sortedVms[i] = sortedVms[sortedVms.length - 1 - i];
+			sortedVms[sortedVms.length - 1 - i] = vm;
+		}
+
+		List<Integer> expected = place(hosts, sortedVms,
+				hostList -> new VmAllocationWithSelectionPolicy(hostList, new SelectionPolicyMostFull<HostEntity>()));
+		List<Integer> actual = place(hosts, sortedVms, hostList -> new VmAllocationPolicyBinPacking(hostList, true));
+		assertEquals(expected, actual);
+		assertTrue(expected.contains(-1));
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyLeastFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyWorstFit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class VmAllocationWithSelectionPolicyTest {
+
+	private static final int HOSTS = 300;
+
+	private static final int VMS = 1500;
+
+	/**
+	 * Places (and sometimes destroys) random VMs on random hosts, returning the host id of each VM,
+	 * or -1 if it couldn't be placed.
+	 */
+	private List<Integer> place(Supplier<SelectionPolicy<HostEntity>> selectionPolicy, boolean hostIndexing) throws Exception {
+		return new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+			Random random = new Random(3);
+
+			List<Host> hostList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				List<Pe> peList = new ArrayList<>();
+				double mips = 1000 * (1 + random.nextInt(3));
+				for (int j = 1 + random.nextInt(8); j > 0; j--) {
+					peList.add(new Pe(peList.size(), new PeProvisionerSimple(mips)));
+				}
+				hostList.add(new Host(i, new RamProvisionerSimple(1024 * (1 + random.nextInt(16))),
+						new BwProvisionerSimple(10000), 1000000, peList, new VmSchedulerTimeShared(peList)));
+			}
+			VmAllocationWithSelectionPolicy policy = new VmAllocationWithSelectionPolicy(hostList, selectionPolicy.get());
+			policy.setHostIndexing(hostIndexing);
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			new Datacenter("Datacenter_0", characteristics, policy, new LinkedList<>(), 0);
+
+			List<Integer> placement = new ArrayList<>();
+			List<Vm> vmList = new ArrayList<>();
+			for (int i = 0; i < VMS; i++) {
+				Vm vm = new Vm(i, 0, 500 * (1 + random.nextInt(4)), 1 + random.nextInt(4),
+						256 * (1 + random.nextInt(8)), 100 * (1 + random.nextInt(10)), 1000, "Xen",
+						new CloudletSchedulerTimeShared());
+				if (policy.allocateHostForGuest(vm)) {
+					vmList.add(vm);
+					placement.add(vm.getHost().getId());
+				} else {
+					placement.add(-1);
+				}
+				if (random.nextInt(4) == 0 && !vmList.isEmpty()) {
+					policy.deallocateHostForGuest(vmList.remove(random.nextInt(vmList.size())));
+				}
+			}
+			return placement;
+		});
+	}
+
+	private void assertSamePlacement(Supplier<SelectionPolicy<HostEntity>> selectionPolicy) throws Exception {
+		List<Integer> expected = place(selectionPolicy, false);
+		List<Integer> actual = place(selectionPolicy, true);
+		assertEquals(VMS, expected.size());
+		assertTrue(expected.contains(-1));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testHostIndexFirstFit() throws Exception {
+		assertSamePlacement(SelectionPolicyFirstFit::new);
+	}
+
+	@Test
+	public void testHostIndexLeastFull() throws Exception {
+		assertSamePlacement(SelectionPolicyLeastFull::new);
+	}
+
+	@Test
+	public void testHostIndexMostFull() throws Exception {
+		assertSamePlacement(SelectionPolicyMostFull::new);
+	}
+
+	@Test
+	public void testHostIndexWorstFit() throws Exception {
+		assertSamePlacement(SelectionPolicyWorstFit::new);
+	}
+}
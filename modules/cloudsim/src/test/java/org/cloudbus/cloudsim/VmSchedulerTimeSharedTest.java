@@ -10,7 +10,9 @@ package org.cloudbus.cloudsim;
 
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
@@ -159,4 +161,60 @@ public class VmSchedulerTimeSharedTest {
 		assertEquals(0, vmScheduler.getTotalAllocatedMipsForGuest(vm2), 0);
 	}
 
+	@Test
+	public void testDeallocatePesForVm() {
+		assertTrue(vmScheduler.allocatePesForGuest(vm1, List.of(MIPS / 4)));
+		assertTrue(vmScheduler.allocatePesForGuest(vm2, List.of(MIPS, MIPS / 2)));
+		assertEquals(MIPS / 4, vmScheduler.getAvailableMips(), 0);
+		// vm2 takes what is left of the first PE and the second PE
+		assertEquals(List.of(peList.get(0), peList.get(1), peList.get(1)), vmScheduler.getPesAllocatedForGuest(vm2));
+		assertEquals(0, peList.get(0).getPeProvisioner().getAvailableMips(), 0);
+
+		vmScheduler.deallocatePesForGuest(vm1);
+
+		assertEquals(MIPS / 2, vmScheduler.getAvailableMips(), 0);
+		assertEquals(0, vmScheduler.getTotalAllocatedMipsForGuest(vm1), 0);
+		assertNull(vmScheduler.getPesAllocatedForGuest(vm1));
+		assertEquals(MIPS * 3 / 2, vmScheduler.getTotalAllocatedMipsForGuest(vm2), 0);
+		assertEquals(MIPS / 4, peList.get(0).getPeProvisioner().getAvailableMips(), 0);
+		assertEquals(MIPS / 4, peList.get(1).getPeProvisioner().getAvailableMips(), 0);
+
+		// vm1 fits in the MIPS left free by vm2
+		assertTrue(vmScheduler.allocatePesForGuest(vm1, List.of(MIPS / 2)));
+		assertEquals(List.of(peList.get(0), peList.get(1)), vmScheduler.getPesAllocatedForGuest(vm1));
+		assertEquals(0, vmScheduler.getAvailableMips(), 0);
+
+		vmScheduler.deallocatePesForGuest(vm2);
+		vmScheduler.deallocatePesForGuest(vm1);
+
+		assertEquals(PeList.getTotalMips(peList), vmScheduler.getAvailableMips(), 0);
+		assertEquals(MIPS, peList.get(0).getPeProvisioner().getAvailableMips(), 0);
+		assertEquals(MIPS, peList.get(1).getPeProvisioner().getAvailableMips(), 0);
+	}
+
+	@Test
+	public void testReallocateAll() {
+		assertTrue(vmScheduler.allocatePesForGuest(vm1, List.of(MIPS / 4)));
+		assertTrue(vmScheduler.allocatePesForGuest(vm2, List.of(MIPS / 2, MIPS / 8)));
+
+		Map<Vm, List<Double>> requestedMips = new LinkedHashMap<>();
+		requestedMips.put(vm1, List.of(MIPS / 2));
+		requestedMips.put(vm2, List.of(MIPS, MIPS / 4));
+		vmScheduler.reallocateAll(requestedMips);
+
+		assertEquals(PeList.getTotalMips(peList) - MIPS / 2 - MIPS - MIPS / 4, vmScheduler.getAvailableMips(), 0);
+		assertEquals(MIPS / 2, vmScheduler.getTotalAllocatedMipsForGuest(vm1), 0);
+		assertEquals(MIPS + MIPS / 4, vmScheduler.getTotalAllocatedMipsForGuest(vm2), 0);
+		assertEquals(MIPS / 4, PeList.getTotalMips(peList) - peList.get(0).getPeProvisioner().getTotalAllocatedMips()
+				- peList.get(1).getPeProvisioner().getTotalAllocatedMips(), 0);
+
+		// the same result as deallocating and allocating each VM
+		VmSchedulerTimeShared expected = new VmSchedulerTimeShared(List.of(
+				new Pe(0, new PeProvisionerSimple(MIPS)), new Pe(1, new PeProvisionerSimple(MIPS))));
+		expected.allocatePesForGuest(vm1, requestedMips.get(vm1));
+		expected.allocatePesForGuest(vm2, requestedMips.get(vm2));
+		assertEquals(expected.getMipsMapAllocated(), vmScheduler.getMipsMapAllocated());
+		assertEquals(expected.getAvailableMips(), vmScheduler.getAvailableMips(), 0);
+	}
+
 }
@@ -0,0 +1,141 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class CalendarEventQueueTest {
+
+	private static SimEvent event(double time, int id) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, null, id);
+	}
+
+	private static SimEvent event(double time, int id, long serial) {
+		SimEvent ev = event(time, id);
+		ev.setSerial(serial);
+		return ev;
+	}
+
+	@Test
+	public void testHoldModelMatchesBinaryHeap() {
+		Random random = new Random(42);
+		CalendarEventQueue calendar = new CalendarEventQueue();
+		PriorityQueue<SimEvent> heap = new PriorityQueue<>();
+		double now = 0;
+		int id = 0;
+
+		for (int i = 0; i < 5000; i++) {
+			double time = Math.round(random.nextDouble() * 100) / 10.0;
+			calendar.addEvent(event(time, id));
+			heap.add(event(time, id, id));
+			id++;
+		}
+
+		for (int i = 0; i < 200000; i++) {
+			// grow and shrink the queue, so that the buckets are resized several times
+			boolean add = (i / 20000) % 2 == 0 ? random.nextInt(3) > 0 : random.nextInt(3) == 0;
+			if (add || heap.isEmpty()) {
+				double delay = random.nextInt(10) == 0 ? random.nextDouble() * 1000 : Math.round(random.nextDouble() * 50) / 10.0;
+				calendar.addEvent(event(now + delay, id));
+				heap.add(event(now + delay, id, id));
+				id++;
+			} else {
+				SimEvent expected = heap.remove();
+				assertEquals(expected.getData(), calendar.peek().getData());
+				SimEvent actual = calendar.poll();
+				assertEquals(expected.getData(), actual.getData());
+				assertEquals(expected.eventTime(), actual.eventTime());
+				now = actual.eventTime();
+			}
+			assertEquals(heap.size(), calendar.size());
+		}
+
+		while (!heap.isEmpty()) {
+			assertEquals(heap.remove().getData(), calendar.poll().getData());
+		}
+		assertTrue(calendar.isEmpty());
+		assertNull(calendar.poll());
+	}
+
+	@Test
+	public void testBinaryHeapIsDefault() {
+		// the calendar queue is opt-in, so that the simulations keep the order of the baseline queue
+		SimulationContext context = new SimulationContext();
+		assertInstanceOf(EventQueue.class, context.getFutureEventQueueFactory().get());
+
+		context.setFutureEventQueueFactory(CalendarEventQueue::new);
+		assertInstanceOf(CalendarEventQueue.class, context.getFutureEventQueueFactory().get());
+	}
+
+	@Test
+	public void testAddEventFirstPrecedesEventsWithSameTime() {
+		CalendarEventQueue queue = new CalendarEventQueue();
+		queue.addEvent(event(1.0, 0));
+		queue.addEvent(event(2.0, 1));
+		queue.addEvent(event(2.0, 2));
+		queue.addEventFirst(event(2.0, 3));
+		queue.addEventFirst(event(2.0, 4));
+		queue.addEvent(event(2.0, 5));
+
+		List<Object> order = new ArrayList<>();
+		while (!queue.isEmpty()) {
+			order.add(queue.poll().getData());
+		}
+		assertEquals(List.of(0, 3, 4, 1, 2, 5), order);
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		CalendarEventQueue queue = new CalendarEventQueue();
+		for (int i = 0; i < 1000; i++) {
+			queue.addEvent(event(i % 37, i));
+		}
+
+		Set<Object> seen = new HashSet<>();
+		Iterator<SimEvent> iter = queue.iterator();
+		while (iter.hasNext()) {
+			SimEvent ev = iter.next();
+			assertTrue(seen.add(ev.getData()));
+			if ((Integer) ev.getData() % 3 == 0) {
+				iter.remove();
+			}
+		}
+		assertEquals(1000, seen.size());
+		assertEquals(666, queue.size());
+
+		double lastTime = -1;
+		long lastId = -1;
+		while (!queue.isEmpty()) {
+			SimEvent ev = queue.poll();
+			int evId = (Integer) ev.getData();
+			assertNotEquals(0, evId % 3);
+			if (ev.eventTime() == lastTime) {
+				assertTrue(evId > lastId);
+			} else {
+				assertTrue(ev.eventTime() > lastTime);
+			}
+			lastTime = ev.eventTime();
+			lastId = evId;
+		}
+	}
+}
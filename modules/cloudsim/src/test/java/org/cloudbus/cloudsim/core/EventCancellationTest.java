@@ -0,0 +1,138 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class EventCancellationTest {
+
+	private static final CloudSimTags TAG_A = CloudActionTags.NETWORK_PKT_FORWARD;
+
+	private static final CloudSimTags TAG_B = CloudActionTags.VM_DATACENTER_EVENT;
+
+	/**
+	 * An entity that sends events to itself at start-up, lets the test cancel some of them,
+	 * and records the ones it receives.
+	 */
+	private static class Recorder extends SimEntity {
+		private final List<String> received = new ArrayList<>();
+
+		private final List<SimEvent> sent = new ArrayList<>();
+
+		private final List<Integer> indexed = new ArrayList<>();
+
+		private final Consumer<Recorder> onStart;
+
+		Recorder(Consumer<Recorder> onStart) {
+			super("Recorder");
+			this.onStart = onStart;
+		}
+
+		@Override
+		public void startEntity() {
+			for (int i = 1; i <= 4; i++) {
+				sent.add(schedule(getId(), i, TAG_A, "A" + i));
+				sent.add(schedule(getId(), i, TAG_B, "B" + i));
+			}
+			onStart.accept(this);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			received.add(ev.getData() + "@" + ev.eventTime());
+			indexed.add(SimulationContext.current().getIndexedEventCount());
+		}
+	}
+
+	private static Recorder run(Consumer<Recorder> onStart) throws Exception {
+		return new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+			Recorder recorder = new Recorder(onStart);
+			CloudSim.startSimulation();
+			return recorder;
+		});
+	}
+
+	@Test
+	public void testCancelAllByType() throws Exception {
+		Recorder recorder = run(r -> {
+			assertTrue(CloudSim.cancelAll(r.getId(), new PredicateType(TAG_A)));
+			assertFalse(CloudSim.cancelAll(r.getId(), new PredicateType(TAG_A)));
+		});
+		assertEquals(List.of("B1@1.0", "B2@2.0", "B3@3.0", "B4@4.0"), recorder.received);
+	}
+
+	@Test
+	public void testCancelAllByPredicate() throws Exception {
+		Recorder recorder = run(r -> assertTrue(CloudSim.cancelAll(r.getId(), new Predicate() {
+			@Override
+			public boolean match(SimEvent ev) {
+				return ev.eventTime() > 2;
+			}
+		})));
+		assertEquals(List.of("A1@1.0", "B1@1.0", "A2@2.0", "B2@2.0"), recorder.received);
+	}
+
+	@Test
+	public void testCancelHandle() throws Exception {
+		Recorder recorder = run(r -> {
+			SimEvent b1 = r.sent.get(1);
+			assertTrue(r.cancelEvent(b1));
+			assertTrue(b1.isCancelled());
+			assertFalse(r.cancelEvent(b1));
+
+			SimEvent first = r.cancelEvent(new PredicateType(TAG_A));
+			assertEquals("A1", first.getData());
+		});
+		assertEquals(List.of("A2@2.0", "B2@2.0", "A3@3.0", "B3@3.0", "A4@4.0", "B4@4.0"), recorder.received);
+		assertFalse(recorder.cancelEvent(recorder.sent.get(2)));
+	}
+
+	@Test
+	public void testCancelAllBySubclassOfType() throws Exception {
+		// the overridden match must be honoured, rather than only the tags
+		Recorder recorder = run(r -> assertTrue(CloudSim.cancelAll(r.getId(), new PredicateType(TAG_A) {
+			@Override
+			public boolean match(SimEvent ev) {
+				return super.match(ev) && ev.eventTime() > 2;
+			}
+		})));
+		assertEquals(List.of("A1@1.0", "B1@1.0", "A2@2.0", "B2@2.0", "B3@3.0", "B4@4.0"), recorder.received);
+	}
+
+	@Test
+	public void testIndexHoldsPendingEventsOnly() throws Exception {
+		Recorder recorder = run(r -> {
+			CloudSim.cancelAll(r.getId(), new PredicateType(TAG_A));
+			CloudSim.cancelAll(r.getId(), new PredicateType(TAG_B));
+			assertEquals(0, SimulationContext.current().getIndexedEventCount());
+
+			// the events dispatched behind a later pending one leave the index as well
+			r.schedule(r.getId(), 10, TAG_A, "A10");
+			r.schedule(r.getId(), 1, TAG_A, "A1");
+			r.schedule(r.getId(), 2, TAG_A, "A2");
+		});
+		assertEquals(List.of("A1@1.0", "A2@2.0", "A10@10.0"), recorder.received);
+		assertEquals(List.of(2, 1, 0), recorder.indexed);
+	}
+}
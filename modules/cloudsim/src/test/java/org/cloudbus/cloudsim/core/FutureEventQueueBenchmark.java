@@ -0,0 +1,111 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the future event queues with the classic hold model: the queue is filled with
+ * <tt>size</tt> events, then each operation dequeues the first event and enqueues a new one
+ * at the dequeued time plus a random delay. Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.cloudbus.cloudsim.core.FutureEventQueueBenchmark
+ * </pre>
+ *
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureEventQueueBenchmark {
+
+	@Param({"heap", "calendar"})
+	public String queue;
+
+	@Param({"1000", "100000", "1000000"})
+	public int size;
+
+	/** The distribution of the delays: "exp" (exponential) or "tick" (few discrete values, many ties). */
+	@Param({"exp", "tick"})
+	public String delays;
+
+	private FutureEventQueue future;
+
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		future = queue.equals("heap") ? new HeapQueue() : new CalendarEventQueue();
+		random = new Random(42);
+		for (int i = 0; i < size; i++) {
+			future.addEvent(new SimEvent(SimEvent.SEND, nextDelay(), 0, 0, null, null));
+		}
+	}
+
+	private double nextDelay() {
+		if (delays.equals("tick")) {
+			return 1 + random.nextInt(10);
+		}
+		return -Math.log(1 - random.nextDouble()) * 10;
+	}
+
+	@Benchmark
+	public SimEvent hold() {
+		SimEvent ev = future.poll();
+		future.addEvent(new SimEvent(SimEvent.SEND, ev.eventTime() + nextDelay(), 0, 0, null, null));
+		return ev;
+	}
+
+	/**
+	 * The binary heap of {@link EventQueue}, without the check on the simulation being running.
+	 */
+	private static class HeapQueue extends PriorityQueue<SimEvent> implements FutureEventQueue {
+		private long serial;
+
+		@Override
+		public void addEvent(SimEvent newEvent) {
+			newEvent.setSerial(serial++);
+			add(newEvent);
+		}
+
+		@Override
+		public void addEventFirst(SimEvent newEvent) {
+			newEvent.setSerial(0);
+			add(newEvent);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(FutureEventQueueBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class SimulationContextTest {
+
+	private static final int RUNS = 8;
+
+	@Test
+	public void testParallelContextsMatchSequentialRuns() throws Exception {
+		List<List<Double>> expected = new ArrayList<>();
+		for (int i = 0; i < RUNS; i++) {
+			final int cloudlets = i + 1;
+			expected.add(new SimulationContext().call(() -> runSimulation(cloudlets)));
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<Double>>> futures = new ArrayList<>();
+			for (int i = 0; i < RUNS; i++) {
+				final int cloudlets = i + 1;
+				futures.add(pool.submit(() -> new SimulationContext().call(() -> runSimulation(cloudlets))));
+			}
+			for (int i = 0; i < RUNS; i++) {
+				assertEquals(i + 1, expected.get(i).size());
+				assertEquals(expected.get(i), futures.get(i).get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testEntitiesAreBoundToTheirContext() throws Exception {
+		SimulationContext context = new SimulationContext();
+		DatacenterBroker broker = context.call(() -> {
+			CloudSim.init(1, null, false);
+			return new DatacenterBroker("Broker");
+		});
+
+		assertSame(context, broker.getSimulation());
+		assertSame(broker, context.getEntity("Broker"));
+		assertNotSame(context, SimulationContext.current());
+	}
+
+	@Test
+	public void testForkJoinPoolIsBoundToContext() throws Exception {
+		SimulationContext context = new SimulationContext();
+		List<SimulationContext> seen = context.call(() -> context.getForkJoinPool().submit(() ->
+				IntStream.range(0, 10_000).parallel()
+						.mapToObj(i -> SimulationContext.current())
+						.distinct()
+						.toList()).join());
+
+		assertEquals(List.of(context), seen);
+		assertNotSame(context.getForkJoinPool(), new SimulationContext().getForkJoinPool());
+	}
+
+	@Test
+	public void testPausedEntityProcessesDeferredEventsWhenResumed() throws Exception {
+		List<String> received = new ArrayList<>();
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+			new SimEntity("Sleeper") {
+				@Override
+				public void startEntity() {
+					schedule(getId(), 1, CloudActionTags.BLANK, "a");
+					schedule(getId(), 1, CloudActionTags.BLANK, "b");
+					schedule(getId(), 2, CloudActionTags.BLANK, "c");
+				}
+
+				@Override
+				public void processEvent(SimEvent ev) {
+					received.add(ev.getData() + "@" + CloudSim.clock());
+					if ("a".equals(ev.getData())) {
+						pause(5);
+					}
+				}
+			};
+			return CloudSim.startSimulation();
+		});
+
+		// "b" and "c" stay in the incoming queue until the pause is over
+		assertEquals(List.of("a@1.0", "b@6.0", "c@6.0"), received);
+	}
+
+	@Test
+	public void testEventPoolingDoesNotChangeResults() throws Exception {
+		List<Double> expected = new SimulationContext().call(() -> runSimulation(5));
+
+		SimulationContext context = new SimulationContext();
+		context.setEventPooling(true);
+		assertEquals(expected, context.call(() -> runSimulation(5)));
+	}
+
+	@Test
+	public void testPrimitivePayload() {
+		SimEvent ev = new SimEvent(SimEvent.SEND, 1.0, 0, 0, CloudActionTags.VM_CREATE_ACK, null);
+		ev.setPrimitiveData(3, 7, CloudSimTags.TRUE, 0.5);
+		assertTrue(ev.hasPrimitiveData());
+		assertEquals(7, ev.getIntData(1));
+		assertEquals(0.5, ev.getDoubleData());
+		// legacy receivers still get an int[3]
+		assertArrayEquals(new int[] {3, 7, CloudSimTags.TRUE}, (int[]) ev.getData());
+
+		SimEvent legacy = new SimEvent(SimEvent.SEND, 1.0, 0, 0, CloudActionTags.VM_CREATE_ACK, new int[] {1, 2, 3});
+		assertEquals(3, legacy.getIntData(2));
+	}
+
+	private static List<Double> runSimulation(int numCloudlets) throws Exception {
+		Log.disable();
+		CloudSim.init(1, null, false);
+
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<>();
+		hostList.add(new Host(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+				peList, new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter_0", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vmList = new ArrayList<>();
+		vmList.add(new Vm(0, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		broker.submitGuestList(vmList);
+
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		for (int i = 0; i < numCloudlets; i++) {
+			Cloudlet cloudlet = new Cloudlet(i, 40000L * (i + 1), 1, 300, 300,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setUserId(broker.getId());
+			cloudlet.setGuestId(0);
+			cloudletList.add(cloudlet);
+		}
+		broker.submitCloudletList(cloudletList);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		List<Double> finishTimes = new ArrayList<>();
+		for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+			finishTimes.add(cloudlet.getExecFinishTime());
+		}
+		return finishTimes;
+	}
+}
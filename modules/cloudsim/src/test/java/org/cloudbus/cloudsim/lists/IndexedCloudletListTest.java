@@ -0,0 +1,122 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.ConcurrentModificationException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class IndexedCloudletListTest {
+
+	private static Cloudlet cloudlet(int id) {
+		return new Cloudlet(id, 1000, 1, 0, 0,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+	}
+
+	@Test
+	public void testMatchesLinkedList() {
+		Random random = new Random(7);
+		IndexedCloudletList<Cloudlet> list = new IndexedCloudletList<>();
+		List<Cloudlet> model = new LinkedList<>();
+
+		for (int i = 0; i < 20000; i++) {
+			// few distinct ids, so that duplicates are exercised too
+			int id = random.nextInt(40);
+			switch (random.nextInt(7)) {
+				case 0, 1 -> {
+					Cloudlet cl = cloudlet(id);
+					list.add(cl);
+					model.add(cl);
+				}
+				case 2 -> {
+					Cloudlet cl = cloudlet(id);
+					int position = random.nextInt(model.size() + 1);
+					list.add(position, cl);
+					model.add(position, cl);
+				}
+				case 3 -> assertSame(CloudletList.removeById(model, id), list.removeById(id));
+				case 4 -> {
+					if (!model.isEmpty()) {
+						Cloudlet cl = model.get(random.nextInt(model.size()));
+						assertTrue(list.remove(cl));
+						model.remove(cl);
+						assertFalse(list.contains(cl));
+					}
+				}
+				case 5 -> {
+					ListIterator<Cloudlet> it = list.listIterator();
+					ListIterator<Cloudlet> modelIt = model.listIterator();
+					while (it.hasNext()) {
+						Cloudlet cl = it.next();
+						assertSame(modelIt.next(), cl);
+						if (cl.getCloudletId() == id) {
+							it.remove();
+							modelIt.remove();
+						} else if (cl.getCloudletId() == id + 1) {
+							Cloudlet replacement = cloudlet(id + 2);
+							it.set(replacement);
+							modelIt.set(replacement);
+						}
+					}
+				}
+				default -> {
+					if (!model.isEmpty()) {
+						assertSame(model.removeFirst(), list.removeFirst());
+					}
+				}
+			}
+
+			assertEquals(model.size(), list.size());
+			int probe = random.nextInt(42);
+			assertSame(CloudletList.getById(model, probe), list.getById(probe));
+			assertEquals(CloudletList.getPositionById(model, probe), CloudletList.getPositionById(list, probe));
+		}
+		assertEquals(model, list);
+
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertNull(list.getById(0));
+	}
+
+	@Test
+	public void testRemoveAllAndComodification() {
+		IndexedCloudletList<Cloudlet> list = new IndexedCloudletList<>();
+		for (int i = 0; i < 10; i++) {
+			list.add(cloudlet(i));
+		}
+		List<Cloudlet> odd = new LinkedList<>();
+		for (Cloudlet cl : list) {
+			if (cl.getCloudletId() % 2 == 1) {
+				odd.add(cl);
+			}
+		}
+		assertTrue(list.removeAll(odd));
+		assertEquals(5, list.size());
+		assertNull(list.getById(3));
+		assertNotNull(list.getById(4));
+
+		assertThrows(ConcurrentModificationException.class, () -> {
+			for (Cloudlet cl : list) {
+				list.remove(cl);
+			}
+		});
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class DelayMatrix_FloatTest {
+
+	/** Computes the delays of a graph by the textbook Floyd-Warshall algorithm. */
+	private static float[][] getShortestPaths(TopologicalGraph graph, boolean directed) {
+		int n = graph.getNumberOfNodes();
+		float[][] delays = new float[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				delays[i][j] = i == j ? 0 : Float.MAX_VALUE;
+			}
+		}
+		float[][] links = new float[n][n];
+		graph.getLinkIterator().forEachRemaining(link -> {
+			links[link.getSrcNodeID()][link.getDestNodeID()] = link.getLinkDelay();
+			if (!directed) {
+				links[link.getDestNodeID()][link.getSrcNodeID()] = link.getLinkDelay();
+			}
+		});
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if (i != j && links[i][j] != 0) {
+					delays[i][j] = links[i][j];
+				}
+			}
+		}
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					if (delays[i][k] != Float.MAX_VALUE && delays[k][j] != Float.MAX_VALUE) {
+						delays[i][j] = Math.min(delays[i][j], delays[i][k] + delays[k][j]);
+					}
+				}
+			}
+		}
+		return delays;
+	}
+
+	private static void assertDelays(float[][] expected, DelayMatrix_Float matrix) {
+		assertEquals(expected.length, matrix.getNumberOfNodes());
+		for (int i = 0; i < expected.length; i++) {
+			for (int j = 0; j < expected.length; j++) {
+				assertEquals(expected[i][j], matrix.getDelay(i, j), 0, "delay from " + i + " to " + j);
+			}
+		}
+	}
+
+	private static void testIncrementalLinks(boolean directed) {
+		Random random = new Random(directed ? 3 : 7);
+		int n = 60;
+		TopologicalGraph graph = new TopologicalGraph();
+		for (int i = 0; i < n; i++) {
+			graph.addNode(new TopologicalNode(i));
+		}
+		DelayMatrix_Float matrix = new DelayMatrix_Float(graph, directed);
+		DelayMatrix_Float onDemand = new DelayMatrix_Float(graph, directed, true);
+
+		for (int step = 0; step < 200; step++) {
+			int src = random.nextInt(n);
+			int dest = random.nextInt(n);
+			// integer delays are summed exactly, whatever the order of the sums; some links get slower or removed
+			float delay = random.nextInt(20);
+			graph.addLink(new TopologicalLink(src, dest, delay, 1));
+			matrix.addLink(src, dest, delay);
+			onDemand.addLink(src, dest, delay);
+
+			if (step % 20 == 0) {
+				float[][] expected = getShortestPaths(graph, directed);
+				assertDelays(expected, matrix);
+				assertDelays(expected, onDemand);
+				assertDelays(expected, new DelayMatrix_Float(graph, directed));
+			}
+		}
+	}
+
+	@Test
+	public void testIncrementalLinks() {
+		testIncrementalLinks(false);
+		testIncrementalLinks(true);
+	}
+
+	@Test
+	public void testFloydWarshall() {
+		float[][] links = { { 0, 1, 0, 0 }, { 1, 0, 2, 7 }, { 0, 2, 0, 3 }, { 0, 7, 3, 0 } };
+		FloydWarshall_Float floyd = new FloydWarshall_Float();
+		floyd.initialize(4);
+		float[][] delays = floyd.allPairsShortestPaths(links);
+		assertArrayEquals(new float[] { 0, 1, 3, 6 }, delays[0]);
+		assertArrayEquals(new float[] { 6, 5, 3, 0 }, delays[3]);
+		assertArrayEquals(new int[] { -1, 0, 1, 2 }, floyd.getPK()[0]);
+		// the input is left unchanged
+		assertEquals(0, links[0][2]);
+	}
+
+	@Test
+	public void testNodesAreAdded() {
+		DelayMatrix_Float matrix = new DelayMatrix_Float(new TopologicalGraph(), false);
+		assertEquals(0, matrix.getNumberOfNodes());
+		for (int i = 1; i < 40; i++) {
+			matrix.addLink(i - 1, i, 0.5f);
+		}
+		assertEquals(40, matrix.getNumberOfNodes());
+		assertEquals(19.5f, matrix.getDelay(0, 39));
+		assertEquals(19.5f, matrix.getDelay(39, 0));
+		matrix.addLink(0, 39, 1);
+		assertEquals(2, matrix.getDelay(1, 38));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> matrix.getDelay(0, 40));
+	}
+
+	@Test
+	public void testNetworkTopology() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			NetworkTopology topology = NetworkTopology.getInstance();
+			topology.link(10, 11, 100, 5);
+			topology.link(11, 12, 100, 7);
+			assertTrue(topology.isEnabled());
+			assertEquals(12, topology.getDelayBetween(10, 12), 0);
+			topology.link(10, 12, 100, 4);
+			assertEquals(4, topology.getDelayBetween(12, 10), 0);
+
+			topology.setDelaysOnDemand(true);
+			assertEquals(5, topology.getDelayBetween(11, 10), 0);
+			topology.link(13, 11, 100, 1);
+			assertEquals(8, topology.getDelayBetween(13, 12), 0);
+			// unmapped entities are not delayed
+			assertEquals(0, topology.getDelayBetween(10, 14), 0);
+			return null;
+		});
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class TopologyCacheTest {
+
+	private static final String BRITE = """
+			Topology: ( 5 Nodes, 8 Edges )
+			Model (1 - RTWaxman):  5 5 5 1  2  0.15000000596046448 0.20000000298023224 1 1 10.0 1024.0
+
+			Nodes: ( 5 )
+			0	1	3	3	3	-1	RT_NODE
+			1	0	3	3	3	-1	RT_NODE
+			2	4	3	3	3	-1	RT_NODE
+			3	3	1	3	3	-1	RT_NODE
+			4	3	3	4	4	-1	RT_NODE
+
+
+			Edges: ( 8 )
+			0	2	0	3.0			1.1	10.0	-1	-1	E_RT	U
+			1	2	1	4.0			2.1	10.0	-1	-1	E_RT	U
+			2	3	0	2.8284271247461903	3.9	10.0	-1	-1	E_RT	U
+			3	3	1	3.605551275463989	4.1	10.0	-1	-1	E_RT	U
+			4	4	3	2.0			5.0	10.0	-1	-1	E_RT	U
+			5	4	2	1.0			4.0	10.5	-1	-1	E_RT	U
+			6	0	4	2.0			3.0	10.0	-1	-1	E_RT	U
+			7  1 4 3.0 4.1 10.0 -1 -1 E_RT U
+			""";
+
+	@TempDir
+	Path directory;
+
+	private String writeBriteFile() throws IOException {
+		Path file = directory.resolve("topology.brite");
+		Files.writeString(file, BRITE);
+		return file.toString();
+	}
+
+	@Test
+	public void testReadGraphFile() throws IOException {
+		TopologicalGraph graph = new GraphReaderBrite().readGraphFile(writeBriteFile());
+		assertEquals(5, graph.getNumberOfNodes());
+		assertEquals(8, graph.getNumberOfLinks());
+
+		Iterator<TopologicalNode> nodes = graph.getNodeIterator();
+		nodes.next();
+		TopologicalNode node = nodes.next();
+		assertEquals(1, node.getNodeID());
+		assertEquals("1", node.getNodeLabel());
+		assertEquals(0, node.getCoordinateX());
+		assertEquals(3, node.getCoordinateY());
+
+		Iterator<TopologicalLink> links = graph.getLinkIterator();
+		TopologicalLink link = links.next();
+		assertEquals(2, link.getSrcNodeID());
+		assertEquals(0, link.getDestNodeID());
+		assertEquals(1.1f, link.getLinkDelay());
+		assertEquals(10, link.getLinkBw());
+		for (int i = 0; i < 5; i++) {
+			link = links.next();
+		}
+		// the bandwidth is truncated
+		assertEquals(10, link.getLinkBw());
+		links.next();
+		link = links.next();
+		assertEquals(1, link.getSrcNodeID());
+		assertEquals(4, link.getDestNodeID());
+		assertEquals(4.1f, link.getLinkDelay());
+	}
+
+	@Test
+	public void testCache() throws IOException {
+		String fileName = writeBriteFile();
+		CompactTopologicalGraph graph = new GraphReaderBrite().readCompactGraph(fileName);
+		DelayMatrix_Float matrix = new DelayMatrix_Float(graph, false, false);
+
+		TopologyCache cache = new TopologyCache(directory.resolve("cache").toString());
+		byte[] hash = TopologyCache.hash(fileName);
+		assertNull(cache.read(hash));
+		cache.write(hash, graph, matrix.getDelayMatrix());
+
+		TopologyCache.Entry entry = cache.read(hash);
+		assertEquals(graph.getNumberOfNodes(), entry.getGraph().getNumberOfNodes());
+		assertEquals(graph.getNumberOfLinks(), entry.getGraph().getNumberOfLinks());
+		for (int i = 0; i < graph.getNumberOfLinks(); i++) {
+			assertEquals(graph.getSrcNodeID(i), entry.getGraph().getSrcNodeID(i));
+			assertEquals(graph.getDestNodeID(i), entry.getGraph().getDestNodeID(i));
+			assertEquals(graph.getLinkDelay(i), entry.getGraph().getLinkDelay(i));
+			assertEquals(graph.getLinkBw(i), entry.getGraph().getLinkBw(i));
+		}
+		assertArrayEquals(matrix.getDelayMatrix(), entry.getDelays());
+
+		DelayMatrix_Float cached = new DelayMatrix_Float(entry.getGraph(), false, entry.getDelays());
+		cached.addLink(0, 1, 0.5f);
+		matrix.addLink(0, 1, 0.5f);
+		assertArrayEquals(matrix.getDelayMatrix(), cached.getDelayMatrix());
+
+		// another file is not found
+		Files.writeString(Path.of(fileName), BRITE + "\n");
+		assertNull(cache.read(TopologyCache.hash(fileName)));
+
+		// counts beyond the size of the file are detected before allocating the arrays
+		byte[] content = Files.readAllBytes(cache.getCacheFile(hash));
+		ByteBuffer.wrap(content).putInt(8 + hash.length, Integer.MAX_VALUE);
+		Files.write(cache.getCacheFile(hash), content);
+		assertThrows(IOException.class, () -> cache.read(hash));
+
+		// a corrupted file is detected
+		Files.write(cache.getCacheFile(hash), new byte[] { 1, 2, 3 });
+		assertThrows(IOException.class, () -> cache.read(hash));
+	}
+
+	@Test
+	public void testNetworkTopology() throws Exception {
+		String fileName = writeBriteFile();
+		String cacheDirectory = directory.resolve("cache").toString();
+		double[][] delays = new double[3][5];
+		for (int run = 0; run < 3; run++) {
+			double[] runDelays = delays[run];
+			new SimulationContext().call(() -> {
+				Log.disable();
+				NetworkTopology.buildNetworkTopology(fileName, cacheDirectory);
+				for (int i = 0; i < 5; i++) {
+					NetworkTopology.mapNode(10 + i, i);
+				}
+				for (int i = 0; i < 5; i++) {
+					runDelays[i] = NetworkTopology.getDelay(10, 10 + i);
+				}
+				return null;
+			});
+		}
+		assertArrayEquals(new double[] { 0, 1.1f + 2.1f, 1.1f, 3.9f, 3.0f }, delays[0], 1e-6);
+		assertArrayEquals(delays[0], delays[1]);
+		assertArrayEquals(delays[0], delays[2]);
+		assertTrue(Files.exists(new TopologyCache(cacheDirectory).getCacheFile(TopologyCache.hash(fileName))));
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.network.datacenter.FlowNetwork.Flow;
+import org.cloudbus.cloudsim.network.datacenter.FlowNetwork.Link;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class FlowNetworkTest {
+
+	private static Flow flow(Link... path) {
+		return new Flow(null, path, null, 0, 1000);
+	}
+
+	@Test
+	public void testSingleFlowGetsTheBottleneckBandwidth() {
+		Link nic = new Link("nic", 100);
+		Link port = new Link("port", 40);
+		Flow f = flow(nic, port);
+
+		FlowNetwork.allocateRates(List.of(f));
+
+		assertEquals(40, f.rate, 1e-9);
+	}
+
+	@Test
+	public void testFlowsShareLinkEqually() {
+		Link link = new Link("link", 90);
+		Flow f1 = flow(link);
+		Flow f2 = flow(link);
+		Flow f3 = flow(link);
+
+		FlowNetwork.allocateRates(List.of(f1, f2, f3));
+
+		assertEquals(30, f1.rate, 1e-9);
+		assertEquals(30, f2.rate, 1e-9);
+		assertEquals(30, f3.rate, 1e-9);
+	}
+
+	@Test
+	public void testMaxMinFairness() {
+		Link l1 = new Link("l1", 10);
+		Link l2 = new Link("l2", 4);
+		Flow f1 = flow(l1);
+		Flow f2 = flow(l1, l2);
+		Flow f3 = flow(l2);
+
+		FlowNetwork.allocateRates(List.of(f1, f2, f3));
+
+		// l2 is the bottleneck of f2 and f3, f1 takes what f2 leaves on l1
+		assertEquals(2, f2.rate, 1e-9);
+		assertEquals(2, f3.rate, 1e-9);
+		assertEquals(8, f1.rate, 1e-9);
+	}
+
+	@Test
+	public void testRatesAreRecomputed() {
+		Link l1 = new Link("l1", 10);
+		Link l2 = new Link("l2", 4);
+		Flow f1 = flow(l1);
+		Flow f2 = flow(l1, l2);
+
+		FlowNetwork.allocateRates(List.of(f1, f2));
+		assertEquals(4, f2.rate, 1e-9);
+		assertEquals(6, f1.rate, 1e-9);
+
+		FlowNetwork.allocateRates(List.of(f1));
+		assertEquals(10, f1.rate, 1e-9);
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class NetworkCloudletTest {
+
+	private NetworkCloudlet sender1;
+
+	private NetworkCloudlet sender2;
+
+	private NetworkCloudlet receiver;
+
+	private static NetworkCloudlet createCloudlet(int id) {
+		NetworkCloudlet cl = new NetworkCloudlet(id, 0, 1, 300, 300,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		cl.setGuestId(id);
+		return cl;
+	}
+
+	@BeforeEach
+	public void setUp() {
+		sender1 = createCloudlet(0);
+		sender2 = createCloudlet(1);
+		receiver = createCloudlet(2);
+
+		sender1.addSendStage(100, receiver);
+		sender1.addExecutionStage(1000);
+		sender1.addSendStage(200, receiver);
+		sender2.addSendStage(300, receiver);
+
+		receiver.addRecvStage(sender1);
+		receiver.addRecvStage(sender2);
+		receiver.addRecvStage(sender1);
+		receiver.addExecutionStage(1000);
+	}
+
+	@Test
+	public void testSendStagesMatchReceiveStages() {
+		assertEquals(0, new HostPacket(sender1, 0).receiverStageId);
+		assertEquals(2, new HostPacket(sender1, 2).receiverStageId);
+		assertEquals(1, new HostPacket(sender2, 0).receiverStageId);
+
+		// no receive stage left for a third packet from the same sender
+		sender1.addSendStage(400, receiver);
+		assertEquals(-1, new HostPacket(sender1, 3).receiverStageId);
+	}
+
+	@Test
+	public void testOutOfOrderPackets() {
+		NetworkInterfaceCard nic = receiver.getNic();
+		assertTrue(receiver.isWaiting());
+
+		// the packet of the second stage arrives first: the cloudlet keeps waiting for the first one
+		assertFalse(nic.receivePacket(new HostPacket(sender2, 0)));
+		assertTrue(receiver.isWaiting());
+		receiver.updateCloudlet(null);
+		assertEquals(0, receiver.currStageNum);
+
+		// the awaited packet wakes the cloudlet up, which consumes both packets
+		assertTrue(nic.receivePacket(new HostPacket(sender1, 0)));
+		assertFalse(receiver.isWaiting());
+		receiver.updateCloudlet(null);
+		assertEquals(2, receiver.currStageNum);
+		assertTrue(receiver.isWaiting());
+		assertTrue(nic.getReceivedPkts().isEmpty());
+
+		assertTrue(nic.receivePacket(new HostPacket(sender1, 2)));
+		receiver.updateCloudlet(null);
+		assertEquals(3, receiver.currStageNum);
+		assertFalse(receiver.isWaiting());
+	}
+
+	@Test
+	public void testUnmatchedPacketsAreTakenInArrivalOrder() {
+		NetworkCloudlet sender = createCloudlet(3);
+		NetworkCloudlet late = createCloudlet(4);
+		sender.addSendStage(100, late);
+		sender.addSendStage(200, late);
+
+		// the receive stages are added after the packets were sent
+		HostPacket first = new HostPacket(sender, 0);
+		HostPacket second = new HostPacket(sender, 1);
+		assertEquals(-1, first.receiverStageId);
+		assertEquals(-1, second.receiverStageId);
+		late.addRecvStage(sender);
+		late.addRecvStage(sender);
+
+		NetworkInterfaceCard nic = late.getNic();
+		assertTrue(nic.receivePacket(first));
+		assertTrue(nic.receivePacket(second));
+		assertEquals(2, nic.getReceivedPkts().size());
+
+		late.updateCloudlet(null);
+		assertEquals(2, late.currStageNum);
+		assertTrue(first.recvTime >= 0);
+		assertTrue(second.recvTime >= 0);
+		assertTrue(nic.getReceivedPkts().isEmpty());
+	}
+
+	@Test
+	public void testBlockedCloudletGetsNoCpu() {
+		NetworkCloudlet sender = createCloudlet(3);
+		NetworkCloudlet busy = createCloudlet(4);
+		NetworkCloudlet blocked = createCloudlet(5);
+		sender.addSendStage(100, blocked);
+		busy.addExecutionStage(2000);
+		blocked.addRecvStage(sender);
+		blocked.addExecutionStage(1000);
+		busy.setResourceParameter(0, 0, 0);
+		blocked.setResourceParameter(0, 0, 0);
+
+		CloudletScheduler scheduler = new CloudletSchedulerTimeShared();
+		scheduler.cloudletSubmit(busy);
+		scheduler.cloudletSubmit(blocked);
+
+		// the cloudlet submitted waiting is not credited the time before it is blocked,
+		// and it leaves the whole PE to the other one
+		assertEquals(2, scheduler.updateCloudletsProcessing(0.5, List.of(1000.0)), 1e-9);
+		assertEquals(1500, busy.getRemainingCloudletLength());
+		assertEquals(List.of(busy), scheduler.getCloudletExecList());
+		assertEquals(List.of(blocked), scheduler.getCloudletBlockedList());
+		assertFalse(scheduler.cloudletWakeUp(busy.getCloudletId()));
+
+		assertTrue(blocked.getNic().receivePacket(new HostPacket(sender, 0)));
+		assertTrue(scheduler.cloudletWakeUp(blocked.getCloudletId()));
+		assertFalse(scheduler.cloudletWakeUp(blocked.getCloudletId()));
+
+		// the woken up cloudlet executes from the update, without the time it was blocked
+		assertEquals(3, scheduler.updateCloudletsProcessing(1, List.of(1000.0)), 1e-9);
+		assertTrue(scheduler.getCloudletBlockedList().isEmpty());
+		assertEquals(2, scheduler.getCloudletExecList().size());
+		assertEquals(1000, busy.getRemainingCloudletLength());
+		assertEquals(1000, blocked.getRemainingCloudletLength());
+	}
+
+	@Test
+	public void testStageTimings() throws Exception {
+		List<Cloudlet> finished = new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<NetworkHost> hostList = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				List<Pe> peList = new ArrayList<>();
+				peList.add(new Pe(0, new PeProvisionerSimple(100000)));
+				hostList.add(new NetworkHost(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(100000), 1000000,
+						peList, new VmSchedulerTimeShared(peList)));
+			}
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			NetworkDatacenter dc = new NetworkDatacenter("Datacenter_0", characteristics,
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+			Switch edge = new Switch("Edge0", 2, Switch.SwitchLevel.EDGE_LEVEL, 0, 1000, 1000, dc);
+			dc.registerSwitch(edge);
+			for (NetworkHost host : hostList) {
+				dc.attachSwitchToHost(edge, host);
+			}
+
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			List<Vm> vmList = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				vmList.add(new Vm(i, broker.getId(), 1, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+			}
+			broker.submitGuestList(vmList);
+
+			NetworkCloudlet cla = createCloudlet(0);
+			NetworkCloudlet clb = createCloudlet(1);
+			cla.setUserId(broker.getId());
+			clb.setUserId(broker.getId());
+			// execution, send, execution
+			cla.addExecutionStage(1000);
+			cla.addSendStage(1000, clb);
+			cla.addExecutionStage(500);
+			// receive, execution, execution
+			clb.addRecvStage(cla);
+			clb.addExecutionStage(1000);
+			clb.addExecutionStage(1000);
+			broker.submitCloudletList(List.of(cla, clb));
+
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+			return broker.getCloudletReceivedList();
+		});
+
+		// each execution stage runs its whole length, whatever the length of the previous execution stage:
+		// the packet reaches the receiver 16 s after the first stage of the sender (8 s per link)
+		assertEquals(2, finished.size());
+		for (Cloudlet cl : finished) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cl.getStatus());
+			switch (cl.getCloudletId()) {
+				case 0 -> assertEquals(1500.01, cl.getExecFinishTime(), 1e-6);
+				case 1 -> assertEquals(3016.01, cl.getExecFinishTime(), 1e-6);
+				default -> fail("Unknown cloudlet id");
+			}
+		}
+	}
+}
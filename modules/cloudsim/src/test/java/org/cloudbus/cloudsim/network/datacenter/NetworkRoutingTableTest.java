@@ -0,0 +1,230 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.network.datacenter.Switch.SwitchLevel;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class NetworkRoutingTableTest {
+
+	/** The aggregate switches of the fat-tree, one per pod. */
+	private static final int PODS = 16;
+
+	/** The edge switches of each pod. */
+	private static final int EDGES_PER_POD = 16;
+
+	/** The hosts of each edge switch. */
+	private static final int HOSTS_PER_EDGE = 40;
+
+	private static final int HOSTS = PODS * EDGES_PER_POD * HOSTS_PER_EDGE;
+
+	@Test
+	public void testUndefinedRoutes() {
+		NetworkRoutingTable routes = new NetworkRoutingTable();
+
+		assertEquals(NetworkRoutingTable.NO_ROUTE, routes.getHostId(3));
+		assertEquals(NetworkRoutingTable.NO_ROUTE, routes.getHostId(-1));
+		assertEquals(NetworkRoutingTable.NO_ROUTE, routes.getGuestSwitchId(1000));
+		assertEquals(NetworkRoutingTable.NO_ROUTE, routes.getUplinkSwitchId(7));
+		assertFalse(routes.isDirectGuestOf(3, NetworkRoutingTable.NO_ROUTE));
+		assertThrows(IllegalArgumentException.class, () -> routes.setGuestHost(-1, 0, true));
+	}
+
+	@Test
+	public void testIncrementalUpdates() {
+		NetworkRoutingTable routes = new NetworkRoutingTable();
+		routes.setHostSwitch(0, 100);
+		routes.setHostSwitch(1000, 101);
+		routes.setUplinkSwitch(100, 200);
+		routes.setUplinkSwitch(101, 200);
+
+		routes.setGuestHost(5, 0, true);
+		assertEquals(0, routes.getHostId(5));
+		assertEquals(100, routes.getGuestSwitchId(5));
+		assertTrue(routes.isDirectGuestOf(5, 0));
+
+		// migration to a host beyond the current length of the table
+		routes.setGuestHost(5, 1000, true);
+		assertEquals(101, routes.getGuestSwitchId(5));
+		assertFalse(routes.isDirectGuestOf(5, 0));
+
+		routes.setGuestHost(70, 1000, false);
+		assertEquals(1000, routes.getHostId(70));
+		assertFalse(routes.isDirectGuestOf(70, 1000));
+
+		routes.removeGuest(5);
+		assertEquals(NetworkRoutingTable.NO_ROUTE, routes.getHostId(5));
+		assertEquals(NetworkRoutingTable.NO_ROUTE, routes.getGuestSwitchId(5));
+		assertEquals(200, routes.getUplinkSwitchId(routes.getGuestSwitchId(70)));
+	}
+
+	@Test
+	public void testFatTreeRoutes() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<NetworkHost> hostList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				List<Pe> peList = new ArrayList<>();
+				peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+				peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+				hostList.add(new NetworkHost(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+						peList, new VmSchedulerTimeShared(peList)));
+			}
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			VmAllocationPolicySimple allocationPolicy = new VmAllocationPolicySimple(hostList);
+			NetworkDatacenter dc = new NetworkDatacenter("Datacenter_0", characteristics, allocationPolicy,
+					new LinkedList<>(), 0);
+
+			Switch root = new Switch("Root", PODS, SwitchLevel.ROOT_LEVEL, 0, 1000, 1000, dc);
+			dc.registerSwitch(root);
+			List<Switch> edges = new ArrayList<>();
+			for (int p = 0; p < PODS; p++) {
+				Switch aggr = new Switch("Aggr" + p, EDGES_PER_POD, SwitchLevel.AGGR_LEVEL, 0, 1000, 1000, dc);
+				dc.registerSwitch(aggr);
+				dc.attachSwitchToSwitch(aggr, root);
+				for (int e = 0; e < EDGES_PER_POD; e++) {
+					Switch edge = new Switch("Edge" + p + "_" + e, HOSTS_PER_EDGE, SwitchLevel.EDGE_LEVEL, 0, 1000, 1000, dc);
+					dc.registerSwitch(edge);
+					dc.attachSwitchToSwitch(aggr, edge);
+					edges.add(edge);
+				}
+			}
+			for (int i = 0; i < HOSTS; i++) {
+				dc.attachSwitchToHost(edges.get(i / HOSTS_PER_EDGE), hostList.get(i));
+			}
+
+			List<Vm> vmList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				Vm vm = new Vm(i, 0, 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared());
+				assertTrue(allocationPolicy.allocateHostForGuest(vm, hostList.get(i)));
+				dc.processVmCreateResult(vm, true);
+				vmList.add(vm);
+			}
+
+			NetworkRoutingTable routes = dc.getRoutingTable();
+			for (Vm vm : vmList) {
+				assertRoute(routes, root, vm, (NetworkHost) vm.getHost());
+			}
+
+			// a packet across the pods before the migrations, and one to a migrated guest after them
+			Vm sender = vmList.get(25);
+			NetworkHost lastPodHost = hostList.get(HOSTS - 1 - 15);
+			NetworkPacket beforeMigrations = sendPacket(dc, sender, vmList.get(HOSTS - 1 - 15), lastPodHost, 0);
+			NetworkPacket afterMigrations = sendPacket(dc, sender, vmList.get(0), hostList.get(HOSTS - 1), 2);
+
+			// migrate the first guests to the last pod, and destroy the following ones
+			for (int i = 0; i < 10; i++) {
+				NetworkHost target = hostList.get(HOSTS - 1 - i);
+				CloudSim.send(dc.getId(), dc.getId(), 1, CloudActionTags.VM_MIGRATE, new GuestMapping(vmList.get(i), target));
+				CloudSim.send(dc.getId(), dc.getId(), 1, CloudActionTags.VM_DESTROY, vmList.get(10 + i));
+			}
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+
+			for (int i = 0; i < 10; i++) {
+				NetworkHost target = hostList.get(HOSTS - 1 - i);
+				assertRoute(routes, root, vmList.get(i), target);
+				assertTrue(routes.isDirectGuestOf(i, target.getId()));
+				assertFalse(routes.isDirectGuestOf(i, i));
+
+				assertEquals(NetworkRoutingTable.NO_ROUTE, routes.getHostId(10 + i));
+				assertEquals(NetworkRoutingTable.NO_ROUTE, routes.getGuestSwitchId(10 + i));
+			}
+			assertRoute(routes, root, vmList.get(20), hostList.get(20));
+
+			assertDelivered(beforeMigrations, lastPodHost);
+			assertDelivered(afterMigrations, hostList.get(HOSTS - 1));
+			return null;
+		});
+	}
+
+	/**
+	 * Sends a packet from a guest to a cloudlet waiting for it on another guest, through the switches.
+	 *
+	 * @param receiverHost the host of the receiver guest when the packet arrives
+	 * @param delay the time to send the packet at
+	 * @return the packet
+	 */
+	private static NetworkPacket sendPacket(NetworkDatacenter dc, Vm sender, Vm receiver, NetworkHost receiverHost,
+											double delay) {
+		NetworkCloudlet senderCl = createCloudlet(2 * receiver.getId(), sender);
+		NetworkCloudlet receiverCl = createCloudlet(2 * receiver.getId() + 1, receiver);
+		senderCl.addSendStage(1, receiverCl);
+		receiverCl.addRecvStage(senderCl);
+		receiverHost.getNics().put(receiverCl.getCloudletId(), receiverCl.getNic());
+
+		NetworkHost senderHost = (NetworkHost) sender.getHost();
+		NetworkPacket npkt = new NetworkPacket(senderHost.getId(), new HostPacket(senderCl, 0));
+		CloudSim.send(dc.getId(), senderHost.getSwitch().getId(), delay, CloudActionTags.NETWORK_PKT_UP, npkt);
+		return npkt;
+	}
+
+	private static NetworkCloudlet createCloudlet(int id, Vm vm) {
+		NetworkCloudlet cl = new NetworkCloudlet(id, 0, 1, 300, 300,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		cl.setGuestId(vm.getId());
+		return cl;
+	}
+
+	/**
+	 * Checks that a packet reached the interface of its receiver cloudlet on a host.
+	 */
+	private static void assertDelivered(NetworkPacket npkt, NetworkHost host) {
+		assertEquals(host.getId(), npkt.receiverHostId);
+		NetworkInterfaceCard nic = host.getNics().get(npkt.pkt.receiverCloudletId);
+		assertTrue(nic.hasReceivedPacket(npkt.pkt.receiverStageId, npkt.pkt.senderCloudletId));
+	}
+
+	/**
+	 * Checks the route of a guest against the one found by searching the switches.
+	 */
+	private static void assertRoute(NetworkRoutingTable routes, Switch root, Vm vm, NetworkHost host) {
+		Switch edge = host.getSwitch();
+		Switch aggr = null;
+		for (Switch sw : root.downlinkSwitches) {
+			if (sw.downlinkSwitches.contains(edge)) {
+				aggr = sw;
+			}
+		}
+		assertNotNull(aggr);
+
+		assertEquals(host.getId(), routes.getHostId(vm.getId()));
+		assertEquals(edge.getId(), routes.getGuestSwitchId(vm.getId()));
+		assertEquals(aggr.getId(), routes.getUplinkSwitchId(edge.getId()));
+		assertEquals(root.getId(), routes.getUplinkSwitchId(aggr.getId()));
+	}
+}
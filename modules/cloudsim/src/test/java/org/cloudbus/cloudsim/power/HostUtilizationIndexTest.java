@@ -0,0 +1,117 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class HostUtilizationIndexTest {
+
+	private static PowerHost createHost(int id, double utilization) {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		return new PowerHost(id, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 100000,
+				peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(200, 0.3)) {
+			@Override
+			public double getUtilizationOfCpu() {
+				return utilization;
+			}
+		};
+	}
+
+	private static List<PowerHost> createHosts(double... utilization) {
+		List<PowerHost> hostList = new ArrayList<>();
+		for (double u : utilization) {
+			hostList.add(createHost(hostList.size(), u));
+		}
+		return hostList;
+	}
+
+	private static List<Integer> ids(Iterator<PowerHost> hosts) {
+		List<Integer> ids = new ArrayList<>();
+		hosts.forEachRemaining(host -> ids.add(host.getId()));
+		return ids;
+	}
+
+	@Test
+	public void testOrder() {
+		List<PowerHost> hostList = createHosts(0.5, 0, 0.2, 1, 0.5, 0, 0.1, 0.7);
+		HostUtilizationIndex index = new HostUtilizationIndex(hostList);
+
+		assertEquals(List.of(hostList.get(1), hostList.get(5)), index.getSwitchedOffHosts());
+		// equal hosts keep the order of the list; fully utilized hosts are not under-utilized
+		assertEquals(List.of(6, 2, 0, 4, 7), ids(index.underUtilizedHosts(host -> false)));
+		assertEquals(List.of(6, 0, 7), ids(index.underUtilizedHosts(host -> host.getId() == 2 || host.getId() == 4)));
+		assertEquals(1, new HostUtilizationIndex(createHosts(0, 1, 1)).getSwitchedOffHosts().size());
+		assertFalse(new HostUtilizationIndex(createHosts(0, 1, 1)).underUtilizedHosts(host -> false).hasNext());
+	}
+
+	@Test
+	public void testExclusionDuringIteration() {
+		List<PowerHost> hostList = createHosts(0.3, 0.1, 0.2, 0.4);
+		Set<PowerHost> excluded = new HashSet<>();
+		Iterator<PowerHost> hosts = new HostUtilizationIndex(hostList).underUtilizedHosts(excluded::contains);
+
+		assertEquals(hostList.get(1), hosts.next());
+		excluded.add(hostList.get(2));
+		excluded.add(hostList.get(3));
+		assertEquals(hostList.get(0), hosts.next());
+		assertFalse(hosts.hasNext());
+	}
+
+	@Test
+	public void testMatchesMinimumScan() {
+		Random random = new Random(3);
+		double[] utilization = new double[500];
+		for (int i = 0; i < utilization.length; i++) {
+			// few distinct values, to have ties
+			utilization[i] = random.nextInt(12) / 10.0;
+		}
+		List<PowerHost> hostList = createHosts(utilization);
+		Set<PowerHost> excluded = new HashSet<>();
+		Iterator<PowerHost> hosts = new HostUtilizationIndex(hostList).underUtilizedHosts(excluded::contains);
+
+		while (true) {
+			PowerHost expected = null;
+			double minUtilization = 1;
+			for (PowerHost host : hostList) {
+				double u = host.getUtilizationOfCpu();
+				if (!excluded.contains(host) && u > 0 && u < minUtilization) {
+					minUtilization = u;
+					expected = host;
+				}
+			}
+			PowerHost actual = hosts.hasNext() ? hosts.next() : null;
+			assertSame(expected, actual);
+			if (actual == null) {
+				break;
+			}
+			excluded.add(actual);
+			excluded.add(hostList.get(random.nextInt(hostList.size())));
+		}
+	}
+}
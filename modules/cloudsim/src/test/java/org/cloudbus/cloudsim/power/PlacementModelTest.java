@@ -0,0 +1,127 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class PlacementModelTest {
+
+	private PowerHost host0;
+
+	private PowerHost host1;
+
+	private PowerVm vm0;
+
+	private PowerVm vm1;
+
+	private PowerVm vm2;
+
+	private static PowerHost createHost(int id) {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+		return new PowerHost(id, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 100000,
+				peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(200, 0.3));
+	}
+
+	private static PowerVm createVm(int id, double mips, int ram) {
+		return new PowerVm(id, 0, mips, 1, ram, 1000, 10000, 1, "Xen",
+				new CloudletSchedulerDynamicWorkload(mips, 1), 300);
+	}
+
+	@BeforeEach
+	public void setUp() {
+		host0 = createHost(0);
+		host1 = createHost(1);
+		vm0 = createVm(0, 1000, 1024);
+		vm1 = createVm(1, 1000, 1024);
+		vm2 = createVm(2, 500, 512);
+		assertTrue(host0.guestCreate(vm0));
+	}
+
+	@Test
+	public void testSnapshot() {
+		PlacementModel model = new PlacementModel(List.of(host0, host1));
+		assertEquals(List.of(vm0), model.getGuestList(host0));
+		assertTrue(model.getGuestList(host1).isEmpty());
+		assertEquals(1000, model.getTotalAllocatedMipsForGuest(host0, 0));
+		assertEquals(1000, model.getAvailableMips(host0));
+		assertEquals(2000, model.getAvailableMips(host1));
+		assertThrows(UnsupportedOperationException.class, () -> model.getGuestList(host1).add(vm1));
+		assertThrows(IllegalArgumentException.class, () -> model.getGuestList(createHost(2)));
+	}
+
+	@Test
+	public void testCreateAndDestroyDoNotChangeHosts() {
+		PlacementModel model = new PlacementModel(List.of(host0, host1));
+
+		assertTrue(model.guestCreate(host0, vm1));
+		assertEquals(List.of(vm0, vm1), model.getGuestList(host0));
+		assertEquals(0, model.getAvailableMips(host0));
+		// no RAM left on host 0
+		assertFalse(model.isSuitableForGuest(host0, vm2));
+		assertFalse(model.guestCreate(host0, vm2));
+		assertTrue(model.isSuitableForGuest(host1, vm2));
+
+		model.guestDestroy(host0, vm0);
+		assertEquals(List.of(vm1), model.getGuestList(host0));
+		assertEquals(1000, model.getAvailableMips(host0));
+		assertTrue(model.guestCreate(host1, vm0));
+
+		assertEquals(List.of(vm0), host0.getGuestList());
+		assertTrue(host1.getGuestList().isEmpty());
+		assertEquals(1000, host0.getGuestScheduler().getAvailableMips());
+		assertEquals(1024, host0.getGuestRamProvisioner().getAvailableRam());
+	}
+
+	@Test
+	public void testUndoAndRollback() {
+		PlacementModel model = new PlacementModel(List.of(host0, host1));
+		int mark = model.mark();
+
+		model.guestDestroy(host0, vm0);
+		assertTrue(model.getGuestList(host0).isEmpty());
+		assertEquals(2000, model.getAvailableMips(host0));
+		model.undo();
+		assertEquals(List.of(vm0), model.getGuestList(host0));
+		assertEquals(1000, model.getTotalAllocatedMipsForGuest(host0, 0));
+		assertEquals(1000, model.getAvailableMips(host0));
+
+		model.guestDestroy(host0, vm0);
+		assertTrue(model.guestCreate(host1, vm0));
+		assertTrue(model.guestCreate(host1, vm1));
+		assertTrue(model.guestCreate(host0, vm2));
+		assertEquals(0, model.getAvailableMips(host1));
+		model.rollback(mark);
+
+		assertEquals(List.of(vm0), model.getGuestList(host0));
+		assertTrue(model.getGuestList(host1).isEmpty());
+		assertEquals(1000, model.getAvailableMips(host0));
+		assertEquals(2000, model.getAvailableMips(host1));
+		assertTrue(model.isSuitableForGuest(host0, vm1));
+		assertFalse(model.isSuitableForGuest(host0, createVm(3, 1500, 512)));
+	}
+}
@@ -11,14 +11,23 @@ package org.cloudbus.cloudsim.power;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
 import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerIbmX3550XeonX5675;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -59,4 +68,54 @@ public class PowerHostTest {
 		assertEquals(expectedEnergy, host.getEnergyLinearInterpolation(0.2, 0.9, TIME), 0);
 	}
 
+	@Test
+	public void testGetEnergyOfHosts() {
+		PowerModel linear = new PowerModelLinear(MAX_POWER, STATIC_POWER_PERCENT);
+		PowerModel specPower = new PowerModelSpecPowerIbmX3550XeonX5675();
+		List<PowerHost> hostList = new ArrayList<>();
+		Random random = new Random(3);
+		double[] fromUtilization = new double[20];
+		double[] toUtilization = new double[20];
+		for (int i = 0; i < 20; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+			hostList.add(new PowerHost(i, null, null, 0, peList, null, i % 3 == 0 ? specPower : linear));
+			fromUtilization[i] = i % 4 == 0 ? 0 : random.nextDouble();
+			toUtilization[i] = random.nextDouble();
+		}
+		double[] energy = PowerDatacenter.getEnergyLinearInterpolation(hostList, fromUtilization, toUtilization, TIME);
+		for (int i = 0; i < 20; i++) {
+			assertEquals(hostList.get(i).getEnergyLinearInterpolation(fromUtilization[i], toUtilization[i], TIME), energy[i], 0);
+		}
+	}
+
+	@Test
+	public void testUtilizationStatistics() {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		PowerHost host = new PowerHost(1, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000), 100000,
+				peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(MAX_POWER, STATIC_POWER_PERCENT));
+		List<PowerVm> vmList = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			vmList.add(new PowerVm(i, 0, 200 * (i + 1), 1, 512, 1000, 1000, 1, "Xen",
+					new CloudletSchedulerDynamicWorkload(200 * (i + 1), 1), 300));
+		}
+		assertTrue(host.guestCreate(vmList.get(0)));
+		assertTrue(host.guestCreate(vmList.get(1)));
+
+		Random random = new Random(7);
+		for (int round = 0; round < 100; round++) {
+			if (round == 20) {
+				assertTrue(host.guestCreate(vmList.get(2)));
+			} else if (round == 60) {
+				host.guestDestroy(vmList.get(0));
+			}
+			for (PowerVm vm : host.<PowerVm>getGuestList()) {
+				vm.addUtilizationHistoryValue(random.nextDouble());
+			}
+			assertArrayEquals(host.getUtilizationHistory(host.getGuestList()), host.getUtilizationStatistics().toArray(), 0);
+		}
+		assertEquals(PowerHost.HISTORY_LENGTH, host.getUtilizationStatistics().size());
+	}
 }
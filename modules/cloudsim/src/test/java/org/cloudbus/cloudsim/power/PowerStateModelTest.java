@@ -0,0 +1,283 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.power.PowerHost.PowerState;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerIbmX3550XeonX5675;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class PowerStateModelTest {
+
+	private static final double SLEEP_POWER = 10;
+
+	private static final double WAKE_UP_LATENCY = 30;
+
+	private static final double WAKE_UP_ENERGY = 500;
+
+	private static PowerHost createHost(int id, int ram, PowerStateModel powerStateModel) {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		PowerHost host = new PowerHost(id, new RamProvisionerSimple(ram), new BwProvisionerSimple(100000), 100000,
+				peList, new VmSchedulerTimeShared(peList), new PowerModelSpecPowerIbmX3550XeonX5675());
+		host.setPowerStateModel(powerStateModel);
+		return host;
+	}
+
+	private static PowerStateModel createPowerStateModel() {
+		PowerStateModel powerStateModel = new PowerStateModel(SLEEP_POWER, 0);
+		powerStateModel.setTransition(PowerState.OFF, PowerState.ON, WAKE_UP_LATENCY, WAKE_UP_ENERGY);
+		return powerStateModel;
+	}
+
+	private static PowerVm createVm(int id, int ram) {
+		return new PowerVm(id, 0, 250, 1, ram, 1000, 1000, 1, "Xen", new CloudletSchedulerDynamicWorkload(250, 1), 300);
+	}
+
+	@Test
+	public void testTransitions() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			PowerHost host = createHost(0, 4096, createPowerStateModel());
+			assertEquals(PowerState.IDLE, host.getPowerState());
+			assertTrue(host.isActive());
+			assertEquals(host.getPowerModel().getPower(0), host.getPower(), 0);
+			// a powered on host consumes energy with no utilization
+			assertEquals(host.getPowerModel().getPower(0) * 10, host.getEnergyLinearInterpolation(0, 0, 10), 0);
+
+			host.updatePowerState();
+			assertEquals(PowerState.OFF, host.getPowerState());
+			assertFalse(host.isActive());
+			assertEquals(0, host.getPower(), 0);
+			assertEquals(0, host.getEnergyLinearInterpolation(0, 0, 10), 0);
+			assertEquals(0, host.takeTransitionEnergy(), 0);
+
+			host.setPowerState(PowerState.SLEEP);
+			assertEquals(SLEEP_POWER * 10, host.getEnergyLinearInterpolation(0, 0, 10), 0);
+			host.setPowerState(PowerState.OFF);
+
+			assertTrue(host.guestCreate(createVm(0, 512)));
+			assertEquals(PowerState.ON, host.getPowerState());
+			assertEquals(WAKE_UP_ENERGY, host.takeTransitionEnergy(), 0);
+			assertEquals(0, host.takeTransitionEnergy(), 0);
+			assertEquals(WAKE_UP_LATENCY, host.getTransitionDelay(), 0);
+
+			host.updatePowerState();
+			assertEquals(PowerState.ON, host.getPowerState());
+			return null;
+		});
+	}
+
+	@Test
+	public void testInactiveHostCount() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			PowerHost host = createHost(0, 4096, createPowerStateModel());
+			createHost(1, 4096, null);
+			assertEquals(0, PowerHost.getInactiveHostCount());
+
+			host.updatePowerState();
+			assertEquals(1, PowerHost.getInactiveHostCount());
+			host.setPowerState(PowerState.SLEEP);
+			assertEquals(1, PowerHost.getInactiveHostCount());
+			assertTrue(host.guestCreate(createVm(0, 512)));
+			assertEquals(0, PowerHost.getInactiveHostCount());
+
+			host.guestDestroyAll();
+			host.updatePowerState();
+			assertEquals(1, PowerHost.getInactiveHostCount());
+			host.setPowerStateModel(createPowerStateModel());
+			assertEquals(0, PowerHost.getInactiveHostCount());
+			return null;
+		});
+	}
+
+	@Test
+	public void testHostPowerPools() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<PowerHost> hostList = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				hostList.add(createHost(i, 4096, createPowerStateModel()));
+			}
+			hostList.get(1).updatePowerState();
+			HostPowerPools pools = new HostPowerPools(hostList);
+			assertEquals(List.of(hostList.get(0), hostList.get(2)), pools.getActiveHosts());
+			assertEquals(List.of(hostList.get(1)), pools.getInactiveHosts());
+
+			hostList.get(2).updatePowerState();
+			hostList.get(0).updatePowerState();
+			assertTrue(pools.getActiveHosts().isEmpty());
+			assertEquals(hostList, pools.getInactiveHosts());
+
+			// the hosts keep the order of the host list, whatever the order they are powered on
+			assertTrue(hostList.get(2).guestCreate(createVm(0, 512)));
+			assertTrue(hostList.get(0).guestCreate(createVm(1, 512)));
+			assertEquals(List.of(hostList.get(0), hostList.get(2)), pools.getActiveHosts());
+			assertEquals(List.of(hostList.get(1)), pools.getInactiveHosts());
+			return null;
+		});
+	}
+
+	@Test
+	public void testWakeUpIsNotChargedAtOnPower() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			PowerHost host = createHost(0, 4096, createPowerStateModel());
+			host.setPowerState(PowerState.OFF);
+			double[] energy = new double[1];
+			new SimEntity("Clock") {
+				@Override
+				public void startEntity() {
+					schedule(getId(), 10, CloudActionTags.BLANK);
+				}
+
+				@Override
+				public void processEvent(SimEvent ev) {
+					if (CloudSim.clock() == 10) {
+						assertTrue(host.guestCreate(createVm(0, 512)));
+						schedule(getId(), 40, CloudActionTags.BLANK);
+					} else {
+						energy[0] = host.getEnergyLinearInterpolation(0, 0, 40);
+					}
+				}
+			};
+			CloudSim.startSimulation();
+
+			// the host is woken up from 10 to 40, then it is ON until 50
+			assertEquals(host.getPowerModel().getPower(0) * 10, energy[0], 1e-9);
+			return null;
+		});
+	}
+
+	@Test
+	public void testGuestCreationWaitsForWakeUp() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<PowerHost> hostList = new ArrayList<>();
+			hostList.add(createHost(0, 4096, createPowerStateModel()));
+			hostList.getFirst().setPowerState(PowerState.OFF);
+			new PowerDatacenter("Datacenter_0", new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0),
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 300);
+
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			PowerVm vm = new PowerVm(0, broker.getId(), 250, 1, 512, 1000, 1000, 1, "Xen",
+					new CloudletSchedulerDynamicWorkload(250, 1), 300);
+			broker.submitGuestList(List.of(vm));
+			Cloudlet cloudlet = new Cloudlet(0, 2500, 1, 300, 300,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setUserId(broker.getId());
+			broker.submitCloudletList(List.of(cloudlet));
+
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+			assertTrue(cloudlet.getExecStartTime() >= WAKE_UP_LATENCY, "started at " + cloudlet.getExecStartTime());
+			return null;
+		});
+	}
+
+	@Test
+	public void testWithoutPowerStateModel() {
+		PowerHost host = createHost(0, 4096, null);
+		assertEquals(PowerState.OFF, host.getPowerState());
+		assertTrue(host.isActive());
+		assertEquals(0, host.getEnergyLinearInterpolation(0, 0.5, 10), 0);
+		assertThrows(IllegalStateException.class, () -> host.setPowerState(PowerState.SLEEP));
+	}
+
+	@Test
+	public void testEnergyOfHosts() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<PowerHost> hostList = new ArrayList<>();
+			hostList.add(createHost(0, 4096, null));
+			hostList.add(createHost(1, 4096, createPowerStateModel()));
+			hostList.add(createHost(2, 4096, createPowerStateModel()));
+			hostList.add(createHost(3, 4096, createPowerStateModel()));
+			hostList.get(2).setPowerState(PowerState.SLEEP);
+			hostList.get(3).setPowerState(PowerState.OFF);
+
+			double[] utilization = { 0.5, 0, 0, 0 };
+			double[] energy = PowerDatacenter.getEnergyLinearInterpolation(hostList, utilization, utilization, 10);
+			assertEquals(hostList.get(0).getPowerModel().getPower(0.5) * 10, energy[0], 1e-9);
+			assertEquals(hostList.get(1).getPowerModel().getPower(0) * 10, energy[1], 1e-9);
+			assertEquals(SLEEP_POWER * 10, energy[2], 0);
+			assertEquals(0, energy[3], 0);
+			return null;
+		});
+	}
+
+	@Test
+	public void testInactiveHostsAreWokenUpLast() throws Exception {
+		new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			// a sleeping host looks cheaper than an active one, as it already consumes more than after a placement
+			PowerStateModel powerStateModel = new PowerStateModel(1000, 0);
+			List<PowerHost> hostList = new ArrayList<>();
+			hostList.add(createHost(0, 4096, powerStateModel));
+			hostList.add(createHost(1, 2048, powerStateModel));
+			hostList.get(0).setPowerState(PowerState.SLEEP);
+			assertTrue(hostList.get(1).guestCreate(createVm(0, 1024)));
+
+			PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList, new SelectionPolicyMinimumMigrationTime<>(), 0.9);
+			assertSame(hostList.get(1), policy.findHostForGuest(createVm(1, 512), new HashSet<>()));
+			assertEquals(PowerState.SLEEP, hostList.get(0).getPowerState());
+
+			// no active host fits the VM
+			assertSame(hostList.get(0), policy.findHostForGuest(createVm(2, 2048), new HashSet<>()));
+			return null;
+		});
+	}
+}
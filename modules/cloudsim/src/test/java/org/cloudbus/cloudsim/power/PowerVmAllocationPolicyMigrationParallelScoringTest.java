@@ -0,0 +1,150 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G4Xeon3040;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class PowerVmAllocationPolicyMigrationParallelScoringTest {
+
+	private static final int HOSTS = 150;
+
+	private static final int VMS = 400;
+
+	private static final int ROUNDS = 15;
+
+	/** A VM requesting the MIPS given by its utilization. */
+	private static class UtilizationVm extends PowerVm {
+		private double utilization;
+
+		UtilizationVm(int id, double mips, int ram) {
+			super(id, 0, mips, 1, ram, 1000, 2500, 1, "Xen", new CloudletSchedulerDynamicWorkload(mips, 1), 300);
+		}
+
+		@Override
+		public List<Double> getCurrentRequestedMips() {
+			return List.of(getCurrentRequestedTotalMips());
+		}
+
+		@Override
+		public double getCurrentRequestedTotalMips() {
+			return utilization * getMips();
+		}
+
+		@Override
+		public double getCurrentRequestedMaxMips() {
+			return getCurrentRequestedTotalMips();
+		}
+	}
+
+	/**
+	 * Optimizes the allocation of random VMs for some rounds, migrating the VMs as planned,
+	 * and returns the migrations of each round.
+	 */
+	private static List<String> runMigrations(boolean mad, boolean parallel) throws Exception {
+		return new SimulationContext().call(() -> {
+			Log.disable();
+			CloudSim.init(1, null, false);
+
+			List<PowerHost> hostList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				List<Pe> peList = new ArrayList<>();
+				double mips = i % 2 == 0 ? 1860 : 2660;
+				peList.add(new Pe(0, new PeProvisionerSimple(mips)));
+				peList.add(new Pe(1, new PeProvisionerSimple(mips)));
+				hostList.add(new PowerHost(i, new RamProvisionerSimple(4096), new BwProvisionerSimple(1000000), 1000000,
+						peList, new VmSchedulerTimeSharedOverSubscription(peList),
+						new PowerModelSpecPowerHpProLiantMl110G4Xeon3040()));
+			}
+			PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList, new SelectionPolicyMinimumMigrationTime<>(), 0.8);
+			if (mad) {
+				policy = new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(
+						hostList, new SelectionPolicyMinimumMigrationTime<>(), 2.5, policy);
+			}
+			policy.setParallelHostScoring(parallel);
+			new PowerDatacenter("Datacenter_0", new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0), policy, new LinkedList<>(), 300);
+
+			Random random = new Random(11);
+			List<UtilizationVm> vmList = new ArrayList<>();
+			for (int i = 0; i < VMS; i++) {
+				int type = random.nextInt(4);
+				UtilizationVm vm = new UtilizationVm(i, new double[] {2500, 2000, 1000, 500}[type],
+						new int[] {870, 1740, 1740, 613}[type]);
+				vm.utilization = random.nextDouble() * 0.5;
+				vm.setBeingInstantiated(false);
+				vmList.add(vm);
+				PowerHost host = policy.findHostForGuest(vm);
+				if (host != null) {
+					host.guestCreate(vm);
+				}
+			}
+
+			List<String> migrations = new ArrayList<>();
+			for (int round = 0; round < ROUNDS; round++) {
+				for (UtilizationVm vm : vmList) {
+					vm.utilization = Math.max(0, Math.min(1, vm.utilization + (random.nextDouble() - 0.45) * 0.3));
+					vm.addUtilizationHistoryValue(vm.utilization);
+				}
+				for (PowerHost host : hostList) {
+					host.updateCloudletsProcessing(round * 300.0);
+				}
+
+				StringBuilder plan = new StringBuilder();
+				for (GuestMapping map : policy.optimizeAllocation(vmList)) {
+					plan.append(map.vm().getId()).append("->").append(map.host().getId()).append(' ');
+					GuestEntity vm = map.vm();
+					vm.getHost().guestDestroy(vm);
+					assertTrue(map.host().guestCreate(vm));
+				}
+				migrations.add(plan.toString());
+			}
+			return migrations;
+		});
+	}
+
+	@Test
+	public void testStaticThreshold() throws Exception {
+		List<String> expected = runMigrations(false, false);
+		assertTrue(expected.stream().anyMatch(plan -> !plan.isEmpty()));
+		assertEquals(expected, runMigrations(false, true));
+	}
+
+	@Test
+	public void testMedianAbsoluteDeviation() throws Exception {
+		List<String> expected = runMigrations(true, false);
+		assertTrue(expected.stream().anyMatch(plan -> !plan.isEmpty()));
+		assertEquals(expected, runMigrations(true, true));
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2026, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author		agent
+ * @since		CloudSim Toolkit 7.0.1
+ */
+public class PowerModelPiecewiseLinearTest {
+
+	private static final double[] POWER = { 58.4, 98, 109, 118, 128, 140, 153, 170, 189, 205, 222 };
+
+	/** The SPECpower interpolation, as computed before the models were compiled into tables. */
+	private static double getLegacyPower(double utilization) {
+		if (utilization % 0.1 == 0) {
+			return POWER[(int) (utilization * 10)];
+		}
+		int utilization1 = (int) Math.floor(utilization * 10);
+		int utilization2 = (int) Math.ceil(utilization * 10);
+		double power1 = POWER[utilization1];
+		double power2 = POWER[utilization2];
+		double delta = (power2 - power1) / 10;
+		return power1 + delta * (utilization - (double) utilization1 / 10) * 100;
+	}
+
+	@Test
+	public void testMatchesSpecPower() {
+		PowerModel model = new PowerModelSpecPowerIbmX3550XeonX5675();
+		Random random = new Random(13);
+		for (int i = 0; i <= 1000; i++) {
+			double utilization = i / 1000.0;
+			assertEquals(getLegacyPower(utilization), model.getPower(utilization), 0);
+			utilization = random.nextDouble();
+			assertEquals(getLegacyPower(utilization), model.getPower(utilization), 0);
+		}
+		for (int i = 0; i <= 10; i++) {
+			assertEquals(getLegacyPower(i * 0.1), model.getPower(i * 0.1), 0);
+		}
+	}
+
+	@Test
+	public void testBatch() {
+		PowerModel[] models = {
+				new PowerModelSpecPowerIbmX3550XeonX5675(),
+				new PowerModelLinear(200, 0.3),
+				new PowerModelPiecewiseLinear(POWER) };
+		Random random = new Random(29);
+		double[] utilizations = new double[100];
+		for (int i = 1; i < utilizations.length; i++) {
+			utilizations[i] = random.nextInt(3) == 0 ? 1 : random.nextDouble();
+		}
+		for (PowerModel model : models) {
+			double[] power = new double[utilizations.length];
+			model.getPower(utilizations, power);
+			for (int i = 0; i < utilizations.length; i++) {
+				assertEquals(model.getPower(utilizations[i]), power[i], 0);
+			}
+			assertThrows(IllegalArgumentException.class, () -> model.getPower(new double[] { 0.5, 1.5 }, new double[2]));
+		}
+	}
+
+	@Test
+	public void testToPiecewiseLinear() {
+		PowerModelSpecPower specPower = new PowerModelSpecPowerIbmX3550XeonX5675();
+		assertArrayEquals(POWER, specPower.toPiecewiseLinear().getPowerTable(), 0);
+		assertSame(specPower.toPiecewiseLinear(), specPower.toPiecewiseLinear(10));
+
+		// the linear model consumes nothing when idle
+		PowerModel linear = new PowerModelLinear(200, 0.3);
+		PowerModelPiecewiseLinear table = linear.toPiecewiseLinear(4);
+		assertEquals(4, table.getSteps());
+		assertEquals(0, table.getPower(0), 0);
+		for (int i = 1; i <= 100; i++) {
+			assertEquals(linear.getPower(i / 100.0), table.getPower(i / 100.0), 1e-9);
+		}
+
+		// the cubic model is approximated
+		PowerModel cubic = new PowerModelCubic(200, 0.3);
+		table = cubic.toPiecewiseLinear(100);
+		for (int i = 1; i <= 100; i++) {
+			assertEquals(cubic.getPower(i / 100.0), table.getPower(i / 100.0), 1e-9);
+		}
+		assertEquals(cubic.getPower(0.505), table.getPower(0.505), 0.01);
+	}
+}
@@ -51,6 +51,32 @@ public class HistoryStatTest {
         }
     }
 
+    @Test
+    public void testWindow() {
+        Random gen = new Random(3);
+        for (int i = 0; i < 3 * HISTORY_LENGTH; i++) {
+            double val = gen.nextDouble();
+            stat.offer(val);
+            addUtilizationHistoryValue(history, val);
+
+            double[] window = new double[history.size()];
+            for (int j = 0; j < window.length; j++) {
+                window[j] = history.get(window.length - 1 - j);
+            }
+            int j = 0;
+            for (double u : stat) {
+                assertEquals(window[j], u, 0);
+                assertEquals(window[j], stat.get(j), 0);
+                j++;
+            }
+            assertEquals(window.length, j);
+            assertEquals(val, stat.getLast(), 0);
+            assertEquals(i + 1, stat.getOfferCount());
+            assertEquals(MathUtil.mad(window), stat.getMad(), 0);
+        }
+        assertEquals(HISTORY_LENGTH, stat.size());
+    }
+
     @Test
     public void testCompared() {
         Random gen = new Random();
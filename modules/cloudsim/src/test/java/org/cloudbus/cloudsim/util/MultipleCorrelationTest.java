@@ -0,0 +1,106 @@
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.cloudbus.cloudsim.power.PowerSelectionPolicyMaximumCorrelationTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultipleCorrelationTest {
+
+	/** Fits a linear regression per variable, as PowerSelectionPolicyMaximumCorrelation used to. */
+	private static double[] getRegressionRSquared(double[][] data) {
+		int n = data.length;
+		double[] rSquared = new double[n];
+		for (int i = 0; i < n; i++) {
+			double[][] x = new double[n - 1][];
+			for (int j = 0, k = 0; j < n; j++) {
+				if (j != i) {
+					x[k++] = data[j];
+				}
+			}
+			double[][] xT = new Array2DRowRealMatrix(x).transpose().getData();
+			rSquared[i] = MathUtil.createLinearRegression(xT, data[i]).calculateRSquared();
+		}
+		return rSquared;
+	}
+
+	private static double[][] randomData(Random random, int n, int m) {
+		double[][] data = new double[n][m];
+		for (double[] variable : data) {
+			for (int j = 0; j < m; j++) {
+				variable[j] = random.nextDouble();
+			}
+		}
+		return data;
+	}
+
+	@Test
+	public void testSmallData() {
+		MultipleCorrelation correlation = new MultipleCorrelation(PowerSelectionPolicyMaximumCorrelationTest.DATA);
+		assertFalse(correlation.isSingular());
+		assertArrayEquals(PowerSelectionPolicyMaximumCorrelationTest.CORRELATION, correlation.getRSquared(), 1e-12);
+	}
+
+	@Test
+	public void testMatchesRegression() {
+		Random random = new Random(5);
+		for (int n = 2; n < 12; n++) {
+			double[][] data = randomData(random, n, 30);
+			MultipleCorrelation correlation = new MultipleCorrelation(data);
+			assertArrayEquals(getRegressionRSquared(data), correlation.getRSquared(), 1e-9);
+		}
+	}
+
+	@Test
+	public void testUpdates() {
+		Random random = new Random(9);
+		int n = 8;
+		double[][] data = randomData(random, n, 12);
+		MultipleCorrelation correlation = new MultipleCorrelation(data);
+		for (int step = 0; step < 200; step++) {
+			if (step % 50 == 49) {
+				// a variable is removed
+				int removed = random.nextInt(n);
+				double[][] newData = new double[n - 1][];
+				for (int i = 0, k = 0; i < n; i++) {
+					if (i != removed) {
+						newData[k++] = data[i];
+					}
+				}
+				data = newData;
+				n--;
+			} else {
+				// a new observation, moving out the oldest one once the window is full
+				int m = data[0].length;
+				int from = m < 30 ? 0 : 1;
+				for (int i = 0; i < n; i++) {
+					data[i] = Arrays.copyOfRange(data[i], from, m + 1);
+					data[i][data[i].length - 1] = random.nextDouble();
+				}
+			}
+			correlation.update(data);
+			assertEquals(n, correlation.getVariableCount());
+			assertEquals(data[0].length, correlation.getObservationCount());
+			assertArrayEquals(getRegressionRSquared(data), correlation.getRSquared(), 1e-9);
+		}
+	}
+
+	@Test
+	public void testSingular() {
+		double[][] data = { { 1, 2, 3, 4, 5 }, { 2, 1, 4, 3, 6 }, { 3, 3, 7, 7, 11 } };
+		assertTrue(new MultipleCorrelation(data).isSingular());
+		// not enough observations
+		assertTrue(new MultipleCorrelation(new double[][] { { 1, 2, 3 }, { 3, 1, 2 }, { 2, 2, 1 } }).isSingular());
+		// a constant variable
+		assertTrue(new MultipleCorrelation(new double[][] { { 1, 2, 3, 4 }, { 1, 1, 1, 1 } }).isSingular());
+		assertThrows(IllegalStateException.class, () -> new MultipleCorrelation(data).getRSquared());
+
+		MultipleCorrelation correlation = new MultipleCorrelation(data);
+		correlation.update(new double[][] { data[0], data[1] });
+		assertFalse(correlation.isSingular());
+	}
+}
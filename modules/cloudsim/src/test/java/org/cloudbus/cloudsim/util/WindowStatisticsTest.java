@@ -0,0 +1,63 @@
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.math3.stat.regression.SimpleRegression;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WindowStatisticsTest {
+
+	@Test
+	public void testSmallData() {
+		WindowStatistics statistics = new WindowStatistics(MathUtilTest.DATA3);
+		assertEquals(MathUtilTest.MAD, statistics.getMad(), 0);
+		assertEquals(2, statistics.getMedian(), 0);
+
+		statistics = new WindowStatistics(MathUtilTest.DATA1);
+		assertEquals(MathUtilTest.IQR1, statistics.getIqr(), 0);
+
+		statistics = new WindowStatistics(MathUtilTest.DATA4);
+		assertEquals(MathUtilTest.NON_ZERO, statistics.countNonZeroBeginning());
+		assertArrayEquals(MathUtilTest.DATA4, statistics.toArray(), 0);
+	}
+
+	@Test
+	public void testSlidingWindowMatchesMathUtil() {
+		Random random = new Random(17);
+		WindowStatistics statistics = new WindowStatistics(30);
+		double[] window = new double[0];
+		for (int i = 0; i < 2000; i++) {
+			// few distinct values, to have ties, and runs of zeros
+			double sample = random.nextInt(4) == 0 ? 0 : random.nextInt(20) / 7.0;
+			statistics.offer(sample);
+			window = Arrays.copyOfRange(window, Math.max(0, window.length - 29), window.length + 1);
+			window[window.length - 1] = sample;
+
+			assertArrayEquals(window, statistics.toArray(), 0);
+			assertEquals(MathUtil.countNonZeroBeginning(window), statistics.countNonZeroBeginning());
+			assertEquals(MathUtil.median(window), statistics.getMedian(), 0);
+			assertEquals(MathUtil.mad(window), statistics.getMad(), 0);
+			if (window.length >= 3) {
+				assertEquals(MathUtil.iqr(window.clone()), statistics.getIqr(), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testLinearRegressionMatchesSimpleRegression() {
+		Random random = new Random(23);
+		for (int n = 3; n < 40; n++) {
+			double[] y = new double[n];
+			SimpleRegression regression = new SimpleRegression();
+			for (int i = 0; i < n; i++) {
+				y[i] = random.nextDouble();
+				regression.addData(i + 1, y[i]);
+			}
+			assertArrayEquals(regression.regress().getParameterEstimates(),
+					MathUtil.getLinearRegressionParameterEstimates(y), 0);
+		}
+	}
+}